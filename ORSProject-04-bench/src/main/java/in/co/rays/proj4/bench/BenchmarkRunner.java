@@ -0,0 +1,87 @@
+package in.co.rays.proj4.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main class of <code>benchmarks.jar</code>. Runs the benchmarks the same
+ * as <code>org.openjdk.jmh.Main</code> and takes the same options, with
+ * these defaults for the options that are not given:
+ * <ul>
+ * <li>modes <code>thrpt</code> and <code>sample</code>, so each benchmark
+ * reports its throughput and its latency percentiles</li>
+ * <li>time unit microseconds</li>
+ * <li>the <code>gc</code> profiler, which adds the allocation rate and
+ * bytes allocated per op (<code>gc.alloc.rate.norm</code>)</li>
+ * <li>JSON results in <code>jmh-result.json</code></li>
+ * </ul>
+ * The benchmark classes declare no <code>@BenchmarkMode</code> or
+ * <code>@OutputTimeUnit</code>, since the modes and unit set here would
+ * replace them. Use <code>-bm</code> and <code>-tu</code> to measure
+ * otherwise.
+ *
+ * Keep the JSON of each release and compare them to find regressions, e.g.
+ * <pre>
+ *   java -jar target/benchmarks.jar -rf json -rff results/1.1.json
+ * </pre>
+ * and load both files into https://jmh.morethan.io.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class BenchmarkRunner {
+
+	/** Result file when -rff is not given */
+	public static final String RESULT_FILE = "jmh-result.json";
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException, IOException {
+
+		CommandLineOptions cmd;
+		try {
+			cmd = new CommandLineOptions(args);
+		} catch (CommandLineOptionException e) {
+			System.err.println("Error parsing command line: " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams() || cmd.shouldListProfilers()
+				|| cmd.shouldListResultFormats()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+
+		if (cmd.getBenchModes().isEmpty()) {
+			options.mode(Mode.Throughput).mode(Mode.SampleTime);
+		}
+		if (!cmd.getTimeUnit().hasValue()) {
+			options.timeUnit(TimeUnit.MICROSECONDS);
+		}
+		if (cmd.getProfilers().isEmpty()) {
+			options.addProfiler(GCProfiler.class);
+		}
+		if (!cmd.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!cmd.getResult().hasValue()) {
+			options.result(RESULT_FILE);
+		}
+
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,91 @@
+package in.co.rays.proj4.bench;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Date;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.DataUtility;
+
+/**
+ * Compares the <code>java.time</code> date methods of {@link DataUtility}
+ * with the shared <code>SimpleDateFormat</code>s of
+ * {@link LegacyDataUtility}.
+ * <p>
+ * The legacy methods run on one thread only, since on more they return
+ * wrong dates. The <code>Threaded</code> benchmarks run the new methods on
+ * four threads. Run with <code>-prof gc</code> to see the allocation per
+ * call.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataUtilityBenchmark {
+
+	private final String dateText = "15-10-2024";
+	private final String timeText = "15-10-2024 10:30:45";
+
+	/** Date as the controllers set it on a bean */
+	private final Date date = java.sql.Date.valueOf(LocalDate.of(2024, 10, 15));
+
+	/** Date as a bean holds it after a select */
+	private final java.sql.Date sqlDate = java.sql.Date.valueOf("2024-10-15");
+
+	@Benchmark
+	public Date parseDateLegacy() {
+		return LegacyDataUtility.getDate(dateText);
+	}
+
+	@Benchmark
+	public Date parseDate() {
+		return DataUtility.getDate(dateText);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Date parseDateThreaded() {
+		return DataUtility.getDate(dateText);
+	}
+
+	@Benchmark
+	public String formatDateLegacy() {
+		return LegacyDataUtility.getDateString(date);
+	}
+
+	@Benchmark
+	public String formatDate() {
+		return DataUtility.getDateString(date);
+	}
+
+	@Benchmark
+	public String formatSqlDate() {
+		return DataUtility.getDateString(sqlDate);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public String formatDateThreaded() {
+		return DataUtility.getDateString(date);
+	}
+
+	@Benchmark
+	public Timestamp parseTimestampLegacy() {
+		return LegacyDataUtility.getTimestamp(timeText);
+	}
+
+	@Benchmark
+	public Timestamp parseTimestamp() {
+		return DataUtility.getTimestamp(timeText);
+	}
+}
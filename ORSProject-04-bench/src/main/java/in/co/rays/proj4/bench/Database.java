@@ -0,0 +1,198 @@
+package in.co.rays.proj4.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import in.co.rays.proj4.bench.data.DataGenerator;
+import in.co.rays.proj4.bench.data.Table;
+import in.co.rays.proj4.util.Cursor;
+import in.co.rays.proj4.util.JDBCDataSource;
+
+/**
+ * The embedded database of the model benchmarks: H2 in MySQL mode, reached
+ * through {@link JDBCDataSource} with the <code>h2</code> profile, so the
+ * models run unchanged. The profile is defined in
+ * <code>in/co/rays/proj4/bench/h2.properties</code> of this module, not in
+ * the application bundle, and installed by {@link #installH2Profile()}.
+ * <p>
+ * The database is filled by {@link DataGenerator} with <code>rows</code>
+ * users, students, marksheets and timetables, plus 10 colleges, 10 courses
+ * and 50 subjects, and the other tables at the scale of the rows. The
+ * tables the models create themselves, such as <code>st_sequence</code>,
+ * are filled from the seeded rows on first use, as they would be on an
+ * existing database.
+ * <p>
+ * Seeded rows have ids 1 to rows and predictable keys, see
+ * {@link #rollNo(long)} and {@link #login(long)}.
+ * The data size is set with <code>-p rows=100000</code>, at most
+ * {@link DataGenerator#MAX_ROLL_NO} as every row has a marksheet, and the
+ * number of threads with <code>-t 8</code>. Each data size needs its own
+ * fork.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class Database {
+
+	/** Records per page of the search benchmarks */
+	public static final int PAGE_SIZE = 10;
+
+	public static final int COLLEGES = 10;
+	public static final int COURSES = 10;
+	public static final int SUBJECTS = 50;
+
+	private static int seeded = -1;
+
+	private static final AtomicLong keys = new AtomicLong();
+
+	private static final AtomicInteger threads = new AtomicInteger();
+
+	@Param({ "10000" })
+	public int rows;
+
+	/**
+	 * Sets the <code>db.h2.*</code> keys of <code>h2.properties</code> as
+	 * system properties, except those already given with <code>-D</code>.
+	 * JDBCDataSource reads them when its pool is created, so call this
+	 * before the first connection.
+	 *
+	 * @throws IOException if the file could not be read
+	 */
+	public static void installH2Profile() throws IOException {
+
+		Properties h2 = new Properties();
+		try (InputStream in = Database.class.getResourceAsStream("h2.properties")) {
+			if (in == null) {
+				throw new IOException("h2.properties not found");
+			}
+			h2.load(in);
+		}
+		for (String key : h2.stringPropertyNames()) {
+			if (System.getProperty(key) == null) {
+				System.setProperty(key, h2.getProperty(key));
+			}
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+
+		installH2Profile();
+
+		synchronized (Database.class) {
+			if (seeded == rows) {
+				return;
+			}
+			if (seeded >= 0) {
+				throw new IllegalStateException("Seeded with " + seeded + " rows, run each data size in a fork");
+			}
+			if (!"h2".equals(JDBCDataSource.getProfile())) {
+				throw new IllegalStateException("Run the model benchmarks with -Ddb.profile=h2");
+			}
+
+			Connection conn = JDBCDataSource.getNewConnection();
+			try (Statement stmt = conn.createStatement()) {
+				stmt.execute("drop all objects");
+			} finally {
+				JDBCDataSource.closeConnection(conn);
+			}
+
+			new DataGenerator(rows / 10000.0, 42).withCount(Table.USER, rows).withCount(Table.STUDENT, rows)
+					.withCount(Table.MARKSHEET, rows).withCount(Table.TIMETABLE, rows)
+					.withCount(Table.COLLEGE, COLLEGES).withCount(Table.COURSE, COURSES)
+					.withCount(Table.SUBJECT, SUBJECTS).withThreads(Runtime.getRuntime().availableProcessors())
+					.generate();
+			seeded = rows;
+		}
+	}
+
+	/**
+	 * Returns the id of a random seeded row.
+	 */
+	public long randomId() {
+		return ThreadLocalRandom.current().nextInt(rows) + 1;
+	}
+
+	/**
+	 * Returns a number not used by any other call, for the keys of added
+	 * records.
+	 */
+	public static long nextKey() {
+		return keys.incrementAndGet();
+	}
+
+	/**
+	 * Returns the id of a seeded row that no other benchmark thread gets, so
+	 * concurrent updates do not wait on each other's row locks.
+	 */
+	public long threadId() {
+		return threads.getAndIncrement() % rows + 1;
+	}
+
+	/**
+	 * Returns the keyset cursor of a search page: the position after the
+	 * last row of the page before it, in the order of <code>key, id</code>.
+	 *
+	 * @param table  table name
+	 * @param key    sort key column
+	 * @param pageNo page number starting at 1
+	 * @return cursor of the page
+	 */
+	public Cursor cursor(String table, String key, int pageNo) throws SQLException {
+
+		if (pageNo <= 1) {
+			return Cursor.first();
+		}
+
+		Connection conn = JDBCDataSource.getNewConnection();
+		try (PreparedStatement pstmt = conn
+				.prepareStatement("select " + key + ", id from " + table + " order by " + key + ", id limit 1 offset ?")) {
+			pstmt.setInt(1, (pageNo - 1) * PAGE_SIZE - 1);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				return rs.next() ? Cursor.after(rs.getString(1), rs.getLong(2)) : Cursor.first();
+			}
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+	}
+
+	/**
+	 * Returns the roll number of a marksheet, see
+	 * {@link DataGenerator#rollNo(long)}.
+	 */
+	public static String rollNo(long id) {
+		return DataGenerator.rollNo(id);
+	}
+
+	public static String login(long id) {
+		return DataGenerator.login(id);
+	}
+
+	public static String password(long id) {
+		return DataGenerator.password(id);
+	}
+
+	/**
+	 * Returns the course of a subject, as {@link DataGenerator#courseOf(long)}
+	 * deals the subjects to the courses.
+	 */
+	public static long courseOf(long subject) {
+		return (subject - 1) % COURSES + 1;
+	}
+}
@@ -0,0 +1,95 @@
+package in.co.rays.proj4.bench;
+
+import java.util.HashMap;
+import java.util.List;
+
+import in.co.rays.proj4.bean.DropdownListBean;
+
+/**
+ * The <code>StringBuilder</code> and <code>StringBuffer</code> versions of
+ * {@link in.co.rays.proj4.util.EmailBuilder} and
+ * {@link in.co.rays.proj4.util.HTMLUtility} that the templates replaced,
+ * kept as the baseline of {@link TemplateBenchmark}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class LegacyBuilders {
+
+	private LegacyBuilders() {
+	}
+
+	static String getUserRegistrationMessage(HashMap<String, String> map) {
+
+		StringBuilder msg = new StringBuilder();
+
+		msg.append("<html><body style='font-family:Arial;'>");
+		msg.append("<h2 style='color:#2E86C1;'>Welcome to ORS</h2>");
+		msg.append("<p>Dear <b>").append(map.get("login")).append("</b>,</p>");
+
+		msg.append("<p>Your registration is successfully completed.</p>");
+
+		msg.append("<p><b>Login Id:</b> ").append(map.get("login")).append("</p>");
+		msg.append("<p><b>Password:</b> ").append(map.get("password")).append("</p>");
+
+		msg.append("<p style='color:red;'>For security reasons, please change your password after login.</p>");
+
+		msg.append("<hr>");
+		msg.append("<p>For support contact:</p>");
+		msg.append("<p>&#x260E; +91 98273 60504</p>");
+		msg.append("<p>&#x2709; hrd@sunrays.co.in</p>");
+
+		msg.append("<br><p><b>Thanks &amp; Regards</b><br>ORS Team</p>");
+		msg.append("</body></html>");
+
+		return msg.toString();
+	}
+
+	static String getTimetableMessage(HashMap<String, String> map) {
+
+		StringBuilder msg = new StringBuilder();
+
+		msg.append("<html><body style='font-family:Arial;'>");
+		msg.append("<h2 style='color:#2E86C1;'>Examination Timetable Released</h2>");
+
+		msg.append("<p>Dear <b>").append(map.get("firstName")).append(" ").append(map.get("lastName"))
+				.append("</b>,</p>");
+
+		msg.append("<p>The examination timetable of <b>").append(map.get("course"))
+				.append("</b> has been published.</p>");
+
+		msg.append("<table border='1' cellpadding='5' style='border-collapse:collapse;'>");
+		msg.append("<tr><th>Date</th><th>Time</th><th>Subject</th><th>Semester</th></tr>");
+		msg.append(map.get("exams"));
+		msg.append("</table>");
+
+		msg.append("<br><p><b>ORS Team</b></p>");
+		msg.append("</body></html>");
+
+		return msg.toString();
+	}
+
+	static String getList(String name, String selectedVal, List<DropdownListBean> dd) {
+
+		StringBuffer sb = new StringBuffer("<select style=\"width: 169px;text-align-last: center;\" "
+				+ "class='form-control' name='" + name + "'>");
+
+		sb.append("\n<option selected value=''>-------------Select-------------</option>");
+
+		String key;
+		String val;
+
+		for (DropdownListBean obj : dd) {
+			key = obj.getKey();
+			val = obj.getValue();
+
+			if (selectedVal != null && key.trim().equals(selectedVal)) {
+				sb.append("\n<option selected value='").append(key).append("'>").append(val).append("</option>");
+			} else {
+				sb.append("\n<option value='").append(key).append("'>").append(val).append("</option>");
+			}
+		}
+		sb.append("\n</select>");
+		return sb.toString();
+	}
+}
@@ -0,0 +1,57 @@
+package in.co.rays.proj4.bench;
+
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * The <code>SimpleDateFormat</code> date methods of
+ * {@link in.co.rays.proj4.util.DataUtility} that <code>java.time</code>
+ * replaced, kept as the baseline of {@link DataUtilityBenchmark}. The
+ * formatters are shared as they were, so they only give correct results on
+ * one thread.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class LegacyDataUtility {
+
+	private static final SimpleDateFormat formatter = new SimpleDateFormat("dd-MM-yyyy");
+	private static final SimpleDateFormat timeFormatter = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss");
+
+	private LegacyDataUtility() {
+	}
+
+	static Date getDate(String val) {
+		try {
+			if (val != null && !val.trim().isEmpty()) {
+				return formatter.parse(val);
+			}
+		} catch (Exception e) {
+			System.out.println("Date parsing error: " + e.getMessage());
+		}
+		return null;
+	}
+
+	static String getDateString(Date date) {
+		try {
+			if (date != null) {
+				return formatter.format(date);
+			}
+		} catch (Exception e) {
+			System.out.println("Date format error: " + e.getMessage());
+		}
+		return "";
+	}
+
+	static Timestamp getTimestamp(String val) {
+		try {
+			if (val != null && !val.trim().isEmpty()) {
+				return new Timestamp(timeFormatter.parse(val).getTime());
+			}
+		} catch (Exception e) {
+			System.out.println("Timestamp parsing error: " + e.getMessage());
+		}
+		return null;
+	}
+}
@@ -0,0 +1,121 @@
+package in.co.rays.proj4.bench;
+
+import java.util.Map;
+
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.PropertyReader;
+
+/**
+ * The checks of {@link in.co.rays.proj4.util.DataValidator} as they were,
+ * with <code>String.matches</code> and exception driven parsing, and the
+ * <code>if / else if</code> validation of the student form, kept as the
+ * baseline of {@link ValidationBenchmark}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class LegacyValidator {
+
+	private LegacyValidator() {
+	}
+
+	static boolean isNull(String val) {
+		return val == null || val.trim().length() == 0;
+	}
+
+	static boolean isInteger(String val) {
+		if (!isNull(val)) {
+			try {
+				Integer.parseInt(val);
+				return true;
+			} catch (NumberFormatException e) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	static boolean isEmail(String val) {
+		return !isNull(val)
+				&& val.matches("^[_A-Za-z0-9-]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$");
+	}
+
+	static boolean isName(String val) {
+		return !isNull(val) && val.matches("^[^-\\s][\\p{L} .'-]+$");
+	}
+
+	static boolean isPhoneNo(String val) {
+		return !isNull(val) && val.matches("^[6-9][0-9]{9}$");
+	}
+
+	static boolean isPhoneLength(String val) {
+		return !isNull(val) && val.length() == 10;
+	}
+
+	static boolean isDate(String val) {
+		return !isNull(val) && DataUtility.getDate(val) != null;
+	}
+
+	/**
+	 * StudentCtl.validate() before the rule set, on a map of parameters.
+	 */
+	static boolean validateStudent(Map<String, String> request, Map<String, String> errors) {
+
+		boolean pass = true;
+
+		if (isNull(request.get("firstName"))) {
+			errors.put("firstName", PropertyReader.getValue("error.require", "First Name"));
+			pass = false;
+		} else if (!isName(request.get("firstName"))) {
+			errors.put("firstName", "Invalid First Name");
+			pass = false;
+		}
+
+		if (isNull(request.get("lastName"))) {
+			errors.put("lastName", PropertyReader.getValue("error.require", "Last Name"));
+			pass = false;
+		} else if (!isName(request.get("lastName"))) {
+			errors.put("lastName", "Invalid Last Name");
+			pass = false;
+		}
+
+		if (isNull(request.get("mobileNo"))) {
+			errors.put("mobileNo", PropertyReader.getValue("error.require", "Mobile No"));
+			pass = false;
+		} else if (!isPhoneLength(request.get("mobileNo"))) {
+			errors.put("mobileNo", "Mobile No must have 10 digits");
+			pass = false;
+		} else if (!isPhoneNo(request.get("mobileNo"))) {
+			errors.put("mobileNo", "Invalid Mobile No");
+			pass = false;
+		}
+
+		if (isNull(request.get("gender"))) {
+			errors.put("gender", PropertyReader.getValue("error.require", "Gender"));
+			pass = false;
+		}
+
+		if (isNull(request.get("email"))) {
+			errors.put("email", PropertyReader.getValue("error.require", "Email"));
+			pass = false;
+		} else if (!isEmail(request.get("email"))) {
+			errors.put("email", PropertyReader.getValue("error.email", "Email"));
+			pass = false;
+		}
+
+		if (isNull(request.get("collegeId"))) {
+			errors.put("collegeId", PropertyReader.getValue("error.require", "College Name"));
+			pass = false;
+		}
+
+		if (isNull(request.get("dob"))) {
+			errors.put("dob", PropertyReader.getValue("error.require", "Date of Birth"));
+			pass = false;
+		} else if (!isDate(request.get("dob"))) {
+			errors.put("dob", PropertyReader.getValue("error.date", "Date of Birth"));
+			pass = false;
+		}
+
+		return pass;
+	}
+}
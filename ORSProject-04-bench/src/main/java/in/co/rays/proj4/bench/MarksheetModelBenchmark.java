@@ -0,0 +1,105 @@
+package in.co.rays.proj4.bench;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.bean.MarksheetBean;
+import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.util.Cursor;
+import in.co.rays.proj4.util.Page;
+
+/**
+ * Measures {@link MarksheetModel} on the embedded {@link Database}: add,
+ * update, findByPk, a search page and a merit list page at the depth
+ * <code>page</code>, by offset and by keyset cursor.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Ddb.profile=h2")
+@State(Scope.Benchmark)
+public class MarksheetModelBenchmark {
+
+	private final MarksheetModel model = new MarksheetModel();
+
+	/**
+	 * The marksheet each thread updates.
+	 */
+	@State(Scope.Thread)
+	public static class Row {
+
+		private MarksheetBean bean;
+
+		@Setup
+		public void setUp(Database db) throws Exception {
+			bean = new MarksheetModel().findByPk(db.threadId());
+		}
+	}
+
+	/**
+	 * The depth of the searched page and its keyset cursor.
+	 */
+	@State(Scope.Benchmark)
+	public static class Search {
+
+		@Param({ "1", "100", "1000" })
+		public int page;
+
+		private Cursor cursor;
+
+		@Setup
+		public void setUp(Database db) throws Exception {
+			cursor = db.cursor("st_marksheet", "roll_no", page);
+		}
+	}
+
+	@Benchmark
+	public long add(Database db) throws Exception {
+		long key = Database.nextKey();
+		MarksheetBean bean = new MarksheetBean();
+		bean.setRollNo("B" + key);
+		bean.setStudentId(db.randomId());
+		bean.setPhysics((int) (key % 101));
+		bean.setChemistry((int) (key * 7 % 101));
+		bean.setMaths((int) (key * 13 % 101));
+		return model.add(bean);
+	}
+
+	@Benchmark
+	public MarksheetBean update(Row row) throws Exception {
+		MarksheetBean bean = row.bean;
+		bean.setMaths(bean.getMaths() == 100 ? 34 : bean.getMaths() + 1);
+		model.update(bean);
+		return bean;
+	}
+
+	@Benchmark
+	public MarksheetBean findByPk(Database db) throws Exception {
+		return model.findByPk(db.randomId());
+	}
+
+	@Benchmark
+	public Page<MarksheetBean> search(Search search) throws Exception {
+		return model.searchPage(null, search.page, Database.PAGE_SIZE);
+	}
+
+	@Benchmark
+	public Page<MarksheetBean> searchCursor(Search search) throws Exception {
+		return model.searchPage(null, search.cursor, search.page, Database.PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<MarksheetBean> meritList(Search search) throws Exception {
+		return model.getMeritList(search.page, Database.PAGE_SIZE);
+	}
+}
@@ -0,0 +1,48 @@
+package in.co.rays.proj4.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.PropertyReader;
+
+/**
+ * Measures {@link PropertyReader#getValue(String)} and its placeholder
+ * substitution, which builds the error message of every failed field.
+ * <code>missingKey</code> reads a key that is not in the bundle, which
+ * falls back to the key itself.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyReaderBenchmark {
+
+	private final String[] params = { "Roll No", "Student Name" };
+
+	@Benchmark
+	public String value() {
+		return PropertyReader.getValue("error.require");
+	}
+
+	@Benchmark
+	public String missingKey() {
+		return PropertyReader.getValue("error.not.in.bundle");
+	}
+
+	@Benchmark
+	public String oneParam() {
+		return PropertyReader.getValue("error.require", "Login Id");
+	}
+
+	@Benchmark
+	public String twoParams() {
+		return PropertyReader.getValue("error.multipleFields", params);
+	}
+}
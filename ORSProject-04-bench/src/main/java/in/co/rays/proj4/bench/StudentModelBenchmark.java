@@ -0,0 +1,104 @@
+package in.co.rays.proj4.bench;
+
+import java.sql.Date;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.bean.StudentBean;
+import in.co.rays.proj4.model.StudentModel;
+import in.co.rays.proj4.util.Cursor;
+import in.co.rays.proj4.util.Page;
+
+/**
+ * Measures {@link StudentModel} on the embedded {@link Database}: add,
+ * update, findByPk and a search page at the depth <code>page</code>, by
+ * offset and by keyset cursor.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Ddb.profile=h2")
+@State(Scope.Benchmark)
+public class StudentModelBenchmark {
+
+	private static final Date DOB = Date.valueOf("2001-06-20");
+
+	private final StudentModel model = new StudentModel();
+
+	/**
+	 * The student each thread updates.
+	 */
+	@State(Scope.Thread)
+	public static class Row {
+
+		private StudentBean bean;
+
+		@Setup
+		public void setUp(Database db) throws Exception {
+			bean = new StudentModel().findByPk(db.threadId());
+		}
+	}
+
+	/**
+	 * The depth of the searched page and its keyset cursor.
+	 */
+	@State(Scope.Benchmark)
+	public static class Search {
+
+		@Param({ "1", "100", "1000" })
+		public int page;
+
+		private Cursor cursor;
+
+		@Setup
+		public void setUp(Database db) throws Exception {
+			cursor = db.cursor("st_student", "first_name", page);
+		}
+	}
+
+	@Benchmark
+	public long add(Database db) throws Exception {
+		long key = Database.nextKey();
+		StudentBean bean = new StudentBean();
+		bean.setFirstName("Added" + key);
+		bean.setLastName("Student");
+		bean.setDob(DOB);
+		bean.setGender("Male");
+		bean.setMobileNo("9876543210");
+		bean.setEmail("added" + key + "@sunrays.co.in");
+		bean.setCollegeId(key % Database.COLLEGES + 1);
+		return model.add(bean);
+	}
+
+	@Benchmark
+	public StudentBean update(Row row) throws Exception {
+		StudentBean bean = row.bean;
+		bean.setCollegeId(bean.getCollegeId() % Database.COLLEGES + 1);
+		model.update(bean);
+		return bean;
+	}
+
+	@Benchmark
+	public StudentBean findByPk(Database db) throws Exception {
+		return model.findByPk(db.randomId());
+	}
+
+	@Benchmark
+	public Page<StudentBean> search(Search search) throws Exception {
+		return model.searchPage(null, search.page, Database.PAGE_SIZE);
+	}
+
+	@Benchmark
+	public Page<StudentBean> searchCursor(Search search) throws Exception {
+		return model.searchPage(null, search.cursor, search.page, Database.PAGE_SIZE);
+	}
+}
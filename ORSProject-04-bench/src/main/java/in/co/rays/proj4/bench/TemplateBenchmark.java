@@ -0,0 +1,128 @@
+package in.co.rays.proj4.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.bean.DropdownItem;
+import in.co.rays.proj4.bean.DropdownListBean;
+import in.co.rays.proj4.util.EmailBuilder;
+import in.co.rays.proj4.util.HTMLUtility;
+import in.co.rays.proj4.util.Versioned;
+
+/**
+ * Compares the compiled templates of {@link EmailBuilder} and the cached
+ * dropdowns of {@link HTMLUtility} with the builders they replaced in
+ * {@link LegacyBuilders}.
+ * <p>
+ * The dropdowns are rendered from a plain list, which is not cached, and
+ * from a {@link Versioned} list like the ones of <code>DropdownCache</code>.
+ * Run with <code>-prof gc</code> to see the allocation per call.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateBenchmark {
+
+	@Param({ "10", "500" })
+	private int options;
+
+	private HashMap<String, String> registration;
+	private HashMap<String, String> timetable;
+
+	private List<DropdownListBean> plain;
+	private VersionedOptions versioned;
+	private String selected;
+
+	@Setup
+	public void setUp() {
+
+		registration = new HashMap<String, String>();
+		registration.put("login", "ram.sharma@sunrays.co.in");
+		registration.put("password", "Ram@1234");
+
+		StringBuilder rows = new StringBuilder();
+		for (int i = 0; i < 8; i++) {
+			rows.append("<tr><td>0").append(i + 1).append("-05-2026</td><td>10:00 AM to 01:00 PM</td><td>Subject ")
+					.append(i).append("</td><td>2</td></tr>");
+		}
+		timetable = new HashMap<String, String>();
+		timetable.put("firstName", "Ram");
+		timetable.put("lastName", "Sharma");
+		timetable.put("course", "B.Tech");
+		timetable.put("exams", rows.toString());
+
+		versioned = new VersionedOptions();
+		for (int i = 1; i <= options; i++) {
+			versioned.add(new DropdownItem(String.valueOf(i), "College Name " + i));
+		}
+		plain = new ArrayList<DropdownListBean>(versioned);
+		selected = String.valueOf(options / 2);
+	}
+
+	@Benchmark
+	public String registrationLegacy() {
+		return LegacyBuilders.getUserRegistrationMessage(registration);
+	}
+
+	@Benchmark
+	public String registrationTemplate() {
+		return EmailBuilder.getUserRegistrationMessage(registration);
+	}
+
+	@Benchmark
+	public String timetableLegacy() {
+		return LegacyBuilders.getTimetableMessage(timetable);
+	}
+
+	@Benchmark
+	public String timetableTemplate() {
+		return EmailBuilder.getTimetableMessage(timetable);
+	}
+
+	@Benchmark
+	public String dropdownLegacy() {
+		return LegacyBuilders.getList("collegeId", selected, plain);
+	}
+
+	@Benchmark
+	public String dropdownPlain() {
+		return HTMLUtility.getList("collegeId", selected, plain);
+	}
+
+	@Benchmark
+	public String dropdownCached() {
+		return HTMLUtility.getList("collegeId", selected, versioned);
+	}
+
+	/**
+	 * Options list that never changes, as a dropdown of an unchanged table.
+	 */
+	private static final class VersionedOptions extends ArrayList<DropdownListBean> implements Versioned {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String getSource() {
+			return "bench";
+		}
+
+		@Override
+		public long getVersion() {
+			return 1;
+		}
+	}
+}
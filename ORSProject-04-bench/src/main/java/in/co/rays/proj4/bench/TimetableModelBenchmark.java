@@ -0,0 +1,92 @@
+package in.co.rays.proj4.bench;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.bean.TimetableBean;
+import in.co.rays.proj4.model.TimetableModel;
+import in.co.rays.proj4.util.Page;
+
+/**
+ * Measures {@link TimetableModel} on the embedded {@link Database}: add,
+ * update, findByPk and a search page at the depth <code>page</code>.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Ddb.profile=h2")
+@State(Scope.Benchmark)
+public class TimetableModelBenchmark {
+
+	private static final LocalDate FIRST_EXAM = LocalDate.of(2030, 1, 1);
+
+	private final TimetableModel model = new TimetableModel();
+
+	/**
+	 * The timetable each thread updates.
+	 */
+	@State(Scope.Thread)
+	public static class Row {
+
+		private TimetableBean bean;
+
+		@Setup
+		public void setUp(Database db) throws Exception {
+			bean = new TimetableModel().findByPk(db.threadId());
+		}
+	}
+
+	/**
+	 * The depth of the searched page.
+	 */
+	@State(Scope.Benchmark)
+	public static class Search {
+
+		@Param({ "1", "100", "1000" })
+		public int page;
+	}
+
+	@Benchmark
+	public long add(Database db) throws Exception {
+		long key = Database.nextKey();
+		long subject = key % Database.SUBJECTS + 1;
+		TimetableBean bean = new TimetableBean();
+		bean.setSemester(String.valueOf(key % 8 + 1));
+		bean.setDescription("Added " + key);
+		bean.setExamDate(Date.valueOf(FIRST_EXAM.plusDays(key / Database.SUBJECTS)));
+		bean.setExamTime("09:00 AM to 12:00 PM");
+		bean.setCourseId(Database.courseOf(subject));
+		bean.setSubjectId(subject);
+		return model.add(bean);
+	}
+
+	@Benchmark
+	public TimetableBean update(Row row) throws Exception {
+		TimetableBean bean = row.bean;
+		bean.setDescription(bean.getDescription().startsWith("*") ? bean.getDescription().substring(1)
+				: "*" + bean.getDescription());
+		model.update(bean);
+		return bean;
+	}
+
+	@Benchmark
+	public TimetableBean findByPk(Database db) throws Exception {
+		return model.findByPk(db.randomId());
+	}
+
+	@Benchmark
+	public Page<TimetableBean> search(Search search) throws Exception {
+		return model.searchPage(null, search.page, Database.PAGE_SIZE);
+	}
+}
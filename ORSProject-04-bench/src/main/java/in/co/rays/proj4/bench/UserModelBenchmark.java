@@ -0,0 +1,117 @@
+package in.co.rays.proj4.bench;
+
+import java.sql.Date;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.model.UserModel;
+import in.co.rays.proj4.util.Cursor;
+import in.co.rays.proj4.util.Page;
+
+/**
+ * Measures {@link UserModel} on the embedded {@link Database}: add,
+ * update, findByPk, authenticate and a search page at the depth
+ * <code>page</code>, by offset and by keyset cursor.
+ * <code>authenticateFailed</code> logs in with a wrong password.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Ddb.profile=h2")
+@State(Scope.Benchmark)
+public class UserModelBenchmark {
+
+	private static final Date DOB = Date.valueOf("1995-03-10");
+
+	private final UserModel model = new UserModel();
+
+	/**
+	 * The user each thread updates.
+	 */
+	@State(Scope.Thread)
+	public static class Row {
+
+		private UserBean bean;
+
+		@Setup
+		public void setUp(Database db) throws Exception {
+			bean = new UserModel().findByPk(db.threadId());
+		}
+	}
+
+	/**
+	 * The depth of the searched page and its keyset cursor.
+	 */
+	@State(Scope.Benchmark)
+	public static class Search {
+
+		@Param({ "1", "100", "1000" })
+		public int page;
+
+		private Cursor cursor;
+
+		@Setup
+		public void setUp(Database db) throws Exception {
+			cursor = db.cursor("st_user", "login", page);
+		}
+	}
+
+	@Benchmark
+	public long add(Database db) throws Exception {
+		long key = Database.nextKey();
+		UserBean bean = new UserBean();
+		bean.setFirstName("Added" + key);
+		bean.setLastName("User");
+		bean.setLogin("added" + key + "@sunrays.co.in");
+		bean.setPassword("Pass@" + key);
+		bean.setDob(DOB);
+		bean.setMobileNo("9876543210");
+		bean.setRoleId(2);
+		bean.setGender("Female");
+		return model.add(bean);
+	}
+
+	@Benchmark
+	public UserBean update(Row row) throws Exception {
+		UserBean bean = row.bean;
+		bean.setMobileNo(bean.getMobileNo().equals("9876543210") ? "9123456780" : "9876543210");
+		model.update(bean);
+		return bean;
+	}
+
+	@Benchmark
+	public UserBean findByPk(Database db) throws Exception {
+		return model.findByPk(db.randomId());
+	}
+
+	@Benchmark
+	public UserBean authenticate(Database db) throws Exception {
+		long id = db.randomId();
+		return model.authenticate(Database.login(id), Database.password(id));
+	}
+
+	@Benchmark
+	public UserBean authenticateFailed(Database db) throws Exception {
+		return model.authenticate(Database.login(db.randomId()), "Wrong@123");
+	}
+
+	@Benchmark
+	public Page<UserBean> search(Search search) throws Exception {
+		return model.searchPage(null, search.page, Database.PAGE_SIZE);
+	}
+
+	@Benchmark
+	public Page<UserBean> searchCursor(Search search) throws Exception {
+		return model.searchPage(null, search.cursor, search.page, Database.PAGE_SIZE);
+	}
+}
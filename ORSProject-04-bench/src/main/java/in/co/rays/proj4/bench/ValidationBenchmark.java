@@ -0,0 +1,101 @@
+package in.co.rays.proj4.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.DataValidator;
+import in.co.rays.proj4.util.RuleSet;
+
+/**
+ * Compares the precompiled checks of {@link DataValidator} and the
+ * {@link RuleSet} of the student form with the checks and the
+ * <code>if / else if</code> validation of {@link LegacyValidator}.
+ * <p>
+ * <code>valid</code> runs a form that passes, <code>invalid</code> one
+ * where every field fails its format check, which is where the old
+ * numeric checks threw.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+	/** The rules of StudentCtl */
+	private static final RuleSet STUDENT = new RuleSet()
+			.field("firstName", "First Name").required().name("Invalid First Name")
+			.field("lastName", "Last Name").required().name("Invalid Last Name")
+			.field("mobileNo", "Mobile No").required().phone()
+			.field("gender", "Gender").required()
+			.field("email", "Email").required().email()
+			.field("collegeId", "College Name").required()
+			.field("dob", "Date of Birth").required().date();
+
+	@Param({ "valid", "invalid" })
+	private String form;
+
+	private Map<String, String> request;
+	private String number;
+	private String email;
+
+	@Setup
+	public void setUp() {
+
+		boolean valid = "valid".equals(form);
+
+		request = new HashMap<String, String>();
+		request.put("firstName", valid ? "Ram" : "-Ram");
+		request.put("lastName", valid ? "Sharma" : "Sharma1");
+		request.put("mobileNo", valid ? "9876543210" : "1876543210");
+		request.put("gender", "Male");
+		request.put("email", valid ? "ram.sharma@sunrays.co.in" : "ram.sharma@sunrays");
+		request.put("collegeId", "1");
+		request.put("dob", valid ? "15-10-2000" : "31-02-2000");
+
+		number = valid ? "1234567" : "12x4567";
+		email = request.get("email");
+	}
+
+	@Benchmark
+	public boolean studentLegacy() {
+		return LegacyValidator.validateStudent(request, new HashMap<String, String>());
+	}
+
+	@Benchmark
+	public boolean studentRuleSet() {
+		Map<String, String> errors = new HashMap<String, String>();
+		return STUDENT.validate(request::get, errors::put);
+	}
+
+	@Benchmark
+	public boolean integerLegacy() {
+		return LegacyValidator.isInteger(number);
+	}
+
+	@Benchmark
+	public boolean integer() {
+		return DataValidator.isInteger(number);
+	}
+
+	@Benchmark
+	public boolean emailLegacy() {
+		return LegacyValidator.isEmail(email);
+	}
+
+	@Benchmark
+	public boolean email() {
+		return DataValidator.isEmail(email);
+	}
+}
@@ -0,0 +1,455 @@
+package in.co.rays.proj4.bench.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PkGenerator;
+
+/**
+ * Fills the database with a synthetic data set: roles, colleges, courses,
+ * subjects, users, students, faculty, timetables, marksheets, doctors,
+ * patients and accounts, sized by a scale factor. Scale 1 has 10,000
+ * users, students and marksheets, see {@link Table} for the other tables.
+ * Marksheets stop at {@link #MAX_ROLL_NO}, reached at scale 67.6, because
+ * roll numbers of two letters and three digits run out at ZZ999; larger
+ * scales add users and students only.
+ * <p>
+ * Every row passes the validation of its form: names of letters only,
+ * 10 digit mobile numbers from 6 to 9, valid emails and passwords, roll
+ * numbers of two letters and three digits and exam dates that are not on
+ * a Sunday. Colleges, courses, subjects, doctors, patients, logins and
+ * roll numbers are unique, and every id a row refers to exists, with the
+ * name of the row it refers to.
+ * <p>
+ * A row is computed from the seed, its table and its id only, so the same
+ * seed gives the same data whatever the number of threads. Each table is
+ * split into chunks that the threads insert with JDBC batches, one
+ * transaction per chunk; tables are filled one after the other in the
+ * order of {@link Table}.
+ *
+ * Run it with the JDBC profile of the target database, e.g. on MySQL
+ * <pre>
+ *   java -Ddb.profile=bulk -cp target/benchmarks.jar in.co.rays.proj4.bench.data.DataGenerator -scale 100
+ * </pre>
+ * Options, with their defaults:
+ * <pre>
+ *   -scale    1        scale factor
+ *   -seed     42       random seed
+ *   -threads  4        insert threads
+ *   -batch    1000     rows per JDBC batch
+ * </pre>
+ * Missing tables are created. Tables that already have rows are refused.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class DataGenerator {
+
+	/** Rows per transaction */
+	private static final int CHUNK = 10000;
+
+	/** Highest marksheet id with a roll number, ZZ999 */
+	public static final long MAX_ROLL_NO = 26 * 26 * 1000 - 1;
+
+	/** Date the ages and visits are counted back from */
+	private static final LocalDate TODAY = LocalDate.of(2025, 1, 1);
+
+	/** Monday of the first exam week */
+	private static final LocalDate FIRST_EXAM = LocalDate.of(2025, 3, 3);
+
+	private static final Timestamp CREATED = Timestamp.valueOf("2025-01-01 00:00:00");
+
+	private static final String CREATED_BY = "root";
+
+	private static final Map<String, String> DEFAULTS = new LinkedHashMap<String, String>();
+
+	static {
+		DEFAULTS.put("scale", "1");
+		DEFAULTS.put("seed", "42");
+		DEFAULTS.put("threads", "4");
+		DEFAULTS.put("batch", "1000");
+	}
+
+	private final double scale;
+	private final long seed;
+	private final Map<Table, Long> counts = new EnumMap<Table, Long>(Table.class);
+
+	private int threads = 4;
+	private int batch = 1000;
+
+	/**
+	 * @param scale scale factor, 1 for 10,000 students
+	 * @param seed  random seed
+	 */
+	public DataGenerator(double scale, long seed) {
+		this.scale = scale;
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets the number of rows of a table instead of the one of the scale.
+	 * {@link #generate()} refuses more than {@link #MAX_ROLL_NO} marksheets.
+	 */
+	public DataGenerator withCount(Table table, long rows) {
+		counts.put(table, rows);
+		return this;
+	}
+
+	public DataGenerator withThreads(int threads) {
+		this.threads = threads;
+		return this;
+	}
+
+	public DataGenerator withBatch(int batch) {
+		this.batch = batch;
+		return this;
+	}
+
+	/**
+	 * Returns the number of rows of a table, with ids 1 to the count.
+	 */
+	public long count(Table table) {
+		Long rows = counts.get(table);
+		if (rows != null) {
+			return rows;
+		}
+		return (table == Table.MARKSHEET) ? Math.min(MAX_ROLL_NO, table.rows(scale)) : table.rows(scale);
+	}
+
+	/**
+	 * Creates the missing tables and fills all tables, then rebuilds the
+	 * merit list.
+	 *
+	 * @return rows inserted per table
+	 */
+	public Map<Table, Long> generate() throws SQLException, IOException, ApplicationException {
+
+		if (count(Table.SUBJECT) < count(Table.COURSE)) {
+			throw new IllegalArgumentException("Every course needs a subject, give at least as many subjects");
+		}
+		if (count(Table.MARKSHEET) > MAX_ROLL_NO) {
+			throw new IllegalArgumentException("At most " + MAX_ROLL_NO + " marksheets have a valid roll number, "
+					+ count(Table.MARKSHEET) + " were asked for");
+		}
+
+		Connection conn = JDBCDataSource.getNewConnection();
+		try {
+			createTables(conn);
+			for (Table table : Table.values()) {
+				try (Statement stmt = conn.createStatement();
+						ResultSet rs = stmt.executeQuery("select 1 from " + table.getName() + " limit 1")) {
+					if (rs.next()) {
+						throw new IllegalStateException(table.getName() + " is not empty");
+					}
+				}
+			}
+			resetSequences(conn);
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+
+		Map<Table, Long> inserted = new EnumMap<Table, Long>(Table.class);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (Table table : Table.values()) {
+				insert(table, executor);
+				inserted.put(table, count(table));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		PkGenerator.reset();
+		new MarksheetModel().rebuildMeritList();
+		return inserted;
+	}
+
+	/**
+	 * Inserts the rows of a table in chunks on the threads and waits for
+	 * all of them.
+	 */
+	private void insert(Table table, ExecutorService executor) throws SQLException {
+
+		long rows = count(table);
+		List<Future<?>> chunks = new ArrayList<Future<?>>();
+
+		for (long first = 1; first <= rows; first += CHUNK) {
+			long from = first;
+			long to = Math.min(rows, first + CHUNK - 1);
+			chunks.add(executor.submit(() -> {
+				insert(table, from, to);
+				return null;
+			}));
+		}
+
+		for (Future<?> chunk : chunks) {
+			try {
+				chunk.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SQLException("Interrupted filling " + table.getName(), e);
+			} catch (ExecutionException e) {
+				for (Future<?> other : chunks) {
+					other.cancel(true);
+				}
+				throw new SQLException("Could not fill " + table.getName() + ": " + e.getCause().getMessage(),
+						e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Inserts rows <code>from</code> to <code>to</code> of a table in one
+	 * transaction.
+	 */
+	private void insert(Table table, long from, long to) throws SQLException {
+
+		Connection conn = JDBCDataSource.getNewConnection();
+		try {
+			conn.setAutoCommit(false);
+			try (PreparedStatement pstmt = conn.prepareStatement(table.insert())) {
+				int audit = table.getColumns() - 3;
+				for (long id = from; id <= to; id++) {
+					pstmt.setLong(1, id);
+					table.bind(this, pstmt, id, random(table, id));
+					pstmt.setString(audit, CREATED_BY);
+					pstmt.setString(audit + 1, CREATED_BY);
+					pstmt.setTimestamp(audit + 2, CREATED);
+					pstmt.setTimestamp(audit + 3, CREATED);
+					pstmt.addBatch();
+					if ((id - from + 1) % batch == 0) {
+						pstmt.executeBatch();
+					}
+				}
+				pstmt.executeBatch();
+			}
+			conn.commit();
+		} catch (SQLException e) {
+			conn.rollback();
+			throw e;
+		} finally {
+			conn.setAutoCommit(true);
+			JDBCDataSource.closeConnection(conn);
+		}
+	}
+
+	/**
+	 * Runs the statements of <code>schema.sql</code>, which create the
+	 * tables that do not exist.
+	 */
+	public static void createTables(Connection conn) throws SQLException, IOException {
+
+		String schema;
+		try (InputStream in = DataGenerator.class.getResourceAsStream("/schema.sql")) {
+			schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+
+		try (Statement stmt = conn.createStatement()) {
+			for (String sql : schema.replaceAll("--[^\n]*", "").split(";")) {
+				if (sql.trim().length() > 0) {
+					stmt.execute(sql);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the <code>st_sequence</code> rows of the tables, which would
+	 * hand out ids of the generated rows. They are seeded again from the
+	 * largest id on the next insert.
+	 */
+	private static void resetSequences(Connection conn) throws SQLException {
+
+		try (ResultSet rs = conn.getMetaData().getTables(null, null, "st_sequence", null)) {
+			if (!rs.next()) {
+				return;
+			}
+		}
+		try (PreparedStatement pstmt = conn.prepareStatement("delete from st_sequence where seq_name = ?")) {
+			for (Table table : Table.values()) {
+				pstmt.setString(1, table.getName());
+				pstmt.addBatch();
+			}
+			pstmt.executeBatch();
+		}
+	}
+
+	/**
+	 * Returns the random values of a row, the same for the same seed, table
+	 * and id.
+	 */
+	SplittableRandom random(Table table, long id) {
+		return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + ((long) table.ordinal() << 48) + id);
+	}
+
+	/**
+	 * Returns the first name, last name and gender of a user, student or
+	 * faculty. Drawn apart from the other values of the row, so marksheets
+	 * can give the name of their student.
+	 */
+	String[] person(Table table, long id) {
+		SplittableRandom random = new SplittableRandom(random(table, id).nextLong() ^ 0x5DEECE66DL);
+		boolean male = random.nextBoolean();
+		return new String[] { Names.pick(random, male ? Names.MALE : Names.FEMALE), Names.pick(random, Names.LAST),
+				male ? "Male" : "Female" };
+	}
+
+	String collegeName(long college) {
+		return Names.college(college - 1);
+	}
+
+	/**
+	 * Returns the course name, e.g. Bachelor of Engineering, with the
+	 * duration of {@link Names#DURATION} of the same index as the degree.
+	 */
+	String courseName(long course) {
+		long n = course - 1;
+		return Names.DEGREE[(int) (n % Names.DEGREE.length)] + " "
+				+ Names.words(n / Names.DEGREE.length, Names.FIELD);
+	}
+
+	/**
+	 * Returns the course of a subject. Subjects are dealt to the courses
+	 * in turn, so subject <code>s</code> and <code>s + courses</code> have
+	 * the same course.
+	 */
+	public long courseOf(long subject) {
+		return (subject - 1) % count(Table.COURSE) + 1;
+	}
+
+	/**
+	 * Returns the n-th subject of a course, from its first again after the
+	 * last.
+	 */
+	long subjectOf(long course, long n) {
+		long courses = count(Table.COURSE);
+		long subjects = (count(Table.SUBJECT) - course) / courses + 1;
+		return course + n % subjects * courses;
+	}
+
+	String subjectName(long subject) {
+		return Names.words((subject - 1) / count(Table.COURSE), Names.TOPIC) + " for "
+				+ courseName(courseOf(subject));
+	}
+
+	/**
+	 * Returns the login of a user, <code>user&lt;id&gt;@sunrays.co.in</code>.
+	 */
+	public static String login(long id) {
+		return "user" + id + "@sunrays.co.in";
+	}
+
+	/**
+	 * Returns the password of a user, which has an upper and a lower case
+	 * letter, a digit and a special character.
+	 */
+	public static String password(long id) {
+		return String.format("Pa@%07d", id);
+	}
+
+	static String email(String[] name, long id) {
+		return (name[0] + "." + name[1] + id).toLowerCase(Locale.ROOT) + "@sunrays.co.in";
+	}
+
+	/**
+	 * Returns the roll number of a marksheet in the same order as the ids:
+	 * 1 is AA001, 1000 is AB000 and {@link #MAX_ROLL_NO} is ZZ999. Each
+	 * passes {@link in.co.rays.proj4.util.DataValidator#isRollNo(String)}.
+	 *
+	 * @throws IllegalArgumentException if the id is below 1 or above
+	 *                                  {@link #MAX_ROLL_NO}
+	 */
+	public static String rollNo(long id) {
+		if (id < 1 || id > MAX_ROLL_NO) {
+			throw new IllegalArgumentException("No roll number for marksheet " + id + ", ids run from 1 to "
+					+ MAX_ROLL_NO);
+		}
+		long block = id / 1000;
+		char[] letters = new char[2];
+		for (int i = letters.length - 1; i >= 0; i--) {
+			letters[i] = (char) ('A' + block % 26);
+			block /= 26;
+		}
+		return new String(letters) + String.format("%03d", id % 1000);
+	}
+
+	static String mobile(SplittableRandom random) {
+		return String.valueOf(6000000000L + random.nextLong(4000000000L));
+	}
+
+	static int marks(SplittableRandom random) {
+		return 35 + random.nextInt(66) - (random.nextInt(10) == 0 ? random.nextInt(36) : 0);
+	}
+
+	/**
+	 * Returns a date of birth of an age between the two ages.
+	 */
+	static Date dob(SplittableRandom random, int minAge, int maxAge) {
+		return Date.valueOf(TODAY.minusYears(minAge).minusDays(random.nextInt((maxAge - minAge) * 365 + 1)));
+	}
+
+	static Date visitDate(SplittableRandom random) {
+		return Date.valueOf(TODAY.minusDays(random.nextInt(365)));
+	}
+
+	/**
+	 * Returns the date of the n-th exam day, from Monday to Saturday.
+	 */
+	static Date examDate(long n) {
+		return Date.valueOf(FIRST_EXAM.plusDays(n / 6 * 7 + n % 6));
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		Map<String, String> options = new LinkedHashMap<String, String>(DEFAULTS);
+		for (int i = 0; i < args.length; i += 2) {
+			String name = args[i].startsWith("-") ? args[i].substring(1) : args[i];
+			if (!DEFAULTS.containsKey(name) || i + 1 == args.length) {
+				throw new IllegalArgumentException(
+						"Usage: DataGenerator [-option value]..., options " + DEFAULTS.keySet());
+			}
+			options.put(name, args[i + 1]);
+		}
+
+		DataGenerator generator = new DataGenerator(Double.parseDouble(options.get("scale")),
+				Long.parseLong(options.get("seed"))).withThreads(Integer.parseInt(options.get("threads")))
+						.withBatch(Integer.parseInt(options.get("batch")));
+
+		System.out.println("Generating " + options + " with JDBC profile " + JDBCDataSource.getProfile());
+		long start = System.nanoTime();
+		Map<Table, Long> inserted = generator.generate();
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		long total = 0;
+		for (Map.Entry<Table, Long> entry : inserted.entrySet()) {
+			System.out.printf(Locale.ROOT, "%-14s %,12d%n", entry.getKey().getName(), entry.getValue());
+			total += entry.getValue();
+		}
+		System.out.printf(Locale.ROOT, "%-14s %,12d rows in %.1f s, %,.0f rows/s%n", "Total", total, seconds,
+				total / seconds);
+		System.exit(0);
+	}
+}
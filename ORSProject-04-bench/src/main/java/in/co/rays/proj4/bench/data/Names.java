@@ -0,0 +1,103 @@
+package in.co.rays.proj4.bench.data;
+
+import java.util.SplittableRandom;
+
+/**
+ * Word lists of the generated data and the names built from them.
+ * <p>
+ * Names of people, colleges and courses contain letters and spaces only,
+ * as {@link in.co.rays.proj4.util.DataValidator#isName(String)} expects.
+ * Where the application rejects duplicates, e.g. colleges and doctors by
+ * name, {@link #person(long)}, {@link #college(long)} and
+ * {@link #words(long, String[])} turn an id into a different name for
+ * every id.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class Names {
+
+	static final String[] MALE = { "Aarav", "Aditya", "Amit", "Anil", "Arjun", "Ashok", "Deepak", "Dinesh",
+			"Gaurav", "Harsh", "Karan", "Lokesh", "Manish", "Mohit", "Naveen", "Nitin", "Pankaj", "Rahul", "Rajesh",
+			"Ram", "Rohit", "Sachin", "Sandeep", "Sanjay", "Suresh", "Tarun", "Varun", "Vijay", "Vikas", "Yash" };
+
+	static final String[] FEMALE = { "Aarti", "Ananya", "Anjali", "Deepika", "Divya", "Gayatri", "Isha", "Jyoti",
+			"Kavita", "Kiran", "Komal", "Lata", "Meena", "Megha", "Neha", "Nisha", "Pooja", "Preeti", "Priya",
+			"Radha", "Rekha", "Ritu", "Sakshi", "Shweta", "Sneha", "Sunita", "Swati", "Tanvi", "Uma", "Vandana" };
+
+	static final String[] LAST = { "Agarwal", "Bansal", "Bhatt", "Chauhan", "Choudhary", "Dubey", "Gupta", "Iyer",
+			"Jain", "Joshi", "Kapoor", "Khan", "Kulkarni", "Mehta", "Mishra", "Nair", "Pandey", "Patel", "Rao",
+			"Reddy", "Saxena", "Sharma", "Shukla", "Singh", "Sinha", "Srivastava", "Tiwari", "Trivedi", "Verma",
+			"Yadav" };
+
+	static final String[] COLLEGE = { "Institute of Technology", "College of Engineering", "College of Science",
+			"College of Commerce", "Institute of Management", "Arts College", "Polytechnic College",
+			"Institute of Pharmacy" };
+
+	static final String[] CITY = { "Indore", "Bhopal", "Jabalpur", "Gwalior", "Ujjain", "Pune", "Nagpur", "Jaipur",
+			"Lucknow", "Delhi" };
+
+	static final String[] STATE = { "Madhya Pradesh", "Madhya Pradesh", "Madhya Pradesh", "Madhya Pradesh",
+			"Madhya Pradesh", "Maharashtra", "Maharashtra", "Rajasthan", "Uttar Pradesh", "Delhi" };
+
+	static final String[] ROAD = { "MG Road", "AB Road", "Ring Road", "Station Road", "College Road", "Main Road" };
+
+	static final String[] DEGREE = { "Bachelor of", "Master of", "Diploma in", "Doctor of" };
+
+	static final String[] FIELD = { "Engineering", "Technology", "Science", "Commerce", "Arts", "Computer Science",
+			"Business Administration", "Pharmacy", "Architecture", "Education", "Law", "Design" };
+
+	static final String[] DURATION = { "3 Years", "2 Years", "1 Year", "4 Years" };
+
+	static final String[] TOPIC = { "Mathematics", "Physics", "Chemistry", "Programming", "Statistics",
+			"Economics", "Management", "Communication", "Accounting", "Electronics", "Mechanics", "Ethics" };
+
+	static final String[] EXAM_TIME = { "09:00 AM to 12:00 PM", "02:00 PM to 05:00 PM" };
+
+	static final String[] EXPERTISE = { "Cardiology", "Dermatology", "Neurology", "Orthopedics", "Pediatrics",
+			"Psychiatry", "Radiology", "General Medicine", "Gynecology", "ENT" };
+
+	static final String[] DISEASE = { "Fever", "Diabetes", "Hypertension", "Asthma", "Migraine", "Allergy",
+			"Arthritis", "Infection", "Fracture", "Cold" };
+
+	static final String[] ACCOUNT_TYPE = { "Saving", "Current", "Salary", "Fixed Deposit" };
+
+	static final String[] BANK = { "State Bank of India", "HDFC Bank", "ICICI Bank", "Axis Bank",
+			"Punjab National Bank", "Bank of Baroda", "Canara Bank", "Kotak Mahindra Bank" };
+
+	private Names() {
+	}
+
+	static String pick(SplittableRandom random, String[] words) {
+		return words[random.nextInt(words.length)];
+	}
+
+	/**
+	 * Returns different words for every n from 0: one or more words of the
+	 * list, like the digits of a number in base <code>list.length</code>.
+	 */
+	static String words(long n, String[] list) {
+		StringBuilder words = new StringBuilder(list[(int) (n % list.length)]);
+		for (n = n / list.length - 1; n >= 0; n = n / list.length - 1) {
+			words.append(' ').append(list[(int) (n % list.length)]);
+		}
+		return words.toString();
+	}
+
+	/**
+	 * Returns a different person name for every n from 0, male and female
+	 * in turn.
+	 */
+	static String person(long n) {
+		String[] first = n % 2 == 0 ? MALE : FEMALE;
+		n /= 2;
+		return first[(int) (n % first.length)] + " " + words(n / first.length, LAST);
+	}
+
+	/**
+	 * Returns a different college name for every n from 0.
+	 */
+	static String college(long n) {
+		return words(n / COLLEGE.length, LAST) + " " + COLLEGE[(int) (n % COLLEGE.length)];
+	}
+}
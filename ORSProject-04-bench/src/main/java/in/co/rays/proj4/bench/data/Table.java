@@ -0,0 +1,235 @@
+package in.co.rays.proj4.bench.data;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import in.co.rays.proj4.bean.RoleBean;
+
+/**
+ * The tables {@link DataGenerator} fills, in the order they are filled so
+ * that every row is written after the rows it refers to. Each binds the
+ * columns of one row, in the column order of the models' inserts.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public enum Table {
+
+	ROLE("st_role", 7, 4, false) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			String name = ROLES[(int) (id - 1) % ROLES.length];
+			pstmt.setString(2, name);
+			pstmt.setString(3, name + " of the system");
+		}
+	},
+
+	COLLEGE("st_college", 10, 50, true) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			int city = random.nextInt(Names.CITY.length);
+			pstmt.setString(2, g.collegeName(id));
+			pstmt.setString(3, (random.nextInt(200) + 1) + ", " + Names.pick(random, Names.ROAD));
+			pstmt.setString(4, Names.STATE[city]);
+			pstmt.setString(5, Names.CITY[city]);
+			pstmt.setString(6, DataGenerator.mobile(random));
+		}
+	},
+
+	COURSE("st_course", 8, 20, false) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			pstmt.setString(2, g.courseName(id));
+			pstmt.setString(3, Names.DURATION[(int) (id - 1) % Names.DEGREE.length]);
+			pstmt.setString(4, g.courseName(id) + " programme");
+		}
+	},
+
+	SUBJECT("st_subject", 9, 120, false) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			long course = g.courseOf(id);
+			pstmt.setString(2, g.subjectName(id));
+			pstmt.setLong(3, course);
+			pstmt.setString(4, g.courseName(course));
+			pstmt.setString(5, g.subjectName(id) + " of " + g.courseName(course));
+		}
+	},
+
+	USER("st_user", 13, 10000, true) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			String[] name = g.person(this, id);
+			int role = random.nextInt(100);
+			pstmt.setString(2, name[0]);
+			pstmt.setString(3, name[1]);
+			pstmt.setString(4, DataGenerator.login(id));
+			pstmt.setString(5, DataGenerator.password(id));
+			pstmt.setDate(6, DataGenerator.dob(random, 18, 60));
+			pstmt.setString(7, DataGenerator.mobile(random));
+			pstmt.setLong(8, id == 1 ? RoleBean.ADMIN
+					: role < 90 ? RoleBean.STUDENT : role < 98 ? RoleBean.FACULTY : RoleBean.KIOSK);
+			pstmt.setString(9, name[2]);
+		}
+	},
+
+	STUDENT("st_student", 13, 10000, true) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			String[] name = g.person(this, id);
+			long college = random.nextLong(g.count(COLLEGE)) + 1;
+			pstmt.setString(2, name[0]);
+			pstmt.setString(3, name[1]);
+			pstmt.setDate(4, DataGenerator.dob(random, 17, 25));
+			pstmt.setString(5, name[2]);
+			pstmt.setString(6, DataGenerator.mobile(random));
+			pstmt.setString(7, DataGenerator.email(name, id));
+			pstmt.setLong(8, college);
+			pstmt.setString(9, g.collegeName(college));
+		}
+	},
+
+	FACULTY("st_faculty", 17, 500, true) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			String[] name = g.person(this, id);
+			long college = random.nextLong(g.count(COLLEGE)) + 1;
+			long subject = random.nextLong(g.count(SUBJECT)) + 1;
+			long course = g.courseOf(subject);
+			pstmt.setString(2, name[0]);
+			pstmt.setString(3, name[1]);
+			pstmt.setDate(4, DataGenerator.dob(random, 25, 65));
+			pstmt.setString(5, name[2]);
+			pstmt.setString(6, DataGenerator.mobile(random));
+			pstmt.setString(7, DataGenerator.email(name, id));
+			pstmt.setLong(8, college);
+			pstmt.setString(9, g.collegeName(college));
+			pstmt.setLong(10, course);
+			pstmt.setString(11, g.courseName(course));
+			pstmt.setLong(12, subject);
+			pstmt.setString(13, g.subjectName(subject));
+		}
+	},
+
+	TIMETABLE("st_timetable", 13, 1000, true) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			long courses = g.count(COURSE);
+			long course = (id - 1) % courses + 1;
+			long day = (id - 1) / courses;
+			long subject = g.subjectOf(course, day);
+			pstmt.setString(2, String.valueOf(day % 8 + 1));
+			pstmt.setString(3, "Semester " + (day % 8 + 1) + " exam of " + g.subjectName(subject));
+			pstmt.setDate(4, DataGenerator.examDate(day));
+			pstmt.setString(5, Names.EXAM_TIME[(int) (day % Names.EXAM_TIME.length)]);
+			pstmt.setLong(6, course);
+			pstmt.setString(7, g.courseName(course));
+			pstmt.setLong(8, subject);
+			pstmt.setString(9, g.subjectName(subject));
+		}
+	},
+
+	MARKSHEET("st_marksheet", 11, 10000, true) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			long student = (id - 1) % g.count(STUDENT) + 1;
+			String[] name = g.person(STUDENT, student);
+			pstmt.setString(2, DataGenerator.rollNo(id));
+			pstmt.setLong(3, student);
+			pstmt.setString(4, name[0] + " " + name[1]);
+			pstmt.setInt(5, DataGenerator.marks(random));
+			pstmt.setInt(6, DataGenerator.marks(random));
+			pstmt.setInt(7, DataGenerator.marks(random));
+		}
+	},
+
+	DOCTOR("st_doctor", 9, 100, true) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			pstmt.setString(2, Names.person(id - 1));
+			pstmt.setDate(3, DataGenerator.dob(random, 28, 70));
+			pstmt.setString(4, DataGenerator.mobile(random));
+			pstmt.setString(5, Names.pick(random, Names.EXPERTISE));
+		}
+	},
+
+	PATIENT("st_patient", 9, 5000, true) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			pstmt.setString(2, Names.person(id - 1));
+			pstmt.setDate(3, DataGenerator.visitDate(random));
+			pstmt.setString(4, DataGenerator.mobile(random));
+			pstmt.setString(5, Names.pick(random, Names.DISEASE));
+		}
+	},
+
+	ACCOUNT("st_account", 9, 5000, true) {
+		@Override
+		void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random) throws SQLException {
+			pstmt.setString(2, String.format("%012d", 100000000000L + id));
+			pstmt.setString(3, Names.pick(random, Names.ACCOUNT_TYPE));
+			pstmt.setString(4, Names.pick(random, Names.BANK));
+			pstmt.setString(5, String.format(Locale.ROOT, "%.2f", random.nextInt(10000000) / 100.0));
+		}
+	};
+
+	private static final String[] ROLES = { "Admin", "Student", "Faculty", "Kiosk" };
+
+	private final String name;
+	private final int columns;
+	private final long rows;
+	private final boolean scaled;
+
+	/**
+	 * @param name    table name
+	 * @param columns number of columns
+	 * @param rows    rows at scale factor 1
+	 * @param scaled  false for a table whose size does not grow with the
+	 *                scale factor
+	 */
+	Table(String name, int columns, long rows, boolean scaled) {
+		this.name = name;
+		this.columns = columns;
+		this.rows = rows;
+		this.scaled = scaled;
+	}
+
+	/**
+	 * Binds the columns of a row other than the id and the audit columns.
+	 *
+	 * @param g      generator, for counts and the values of other tables
+	 * @param pstmt  insert statement
+	 * @param id     row id
+	 * @param random random values of this row
+	 */
+	abstract void bind(DataGenerator g, PreparedStatement pstmt, long id, SplittableRandom random)
+			throws SQLException;
+
+	public String getName() {
+		return name;
+	}
+
+	int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Returns the number of rows at a scale factor.
+	 */
+	long rows(double scale) {
+		return scaled ? Math.max(1, Math.round(rows * scale)) : rows;
+	}
+
+	/**
+	 * Returns the insert statement, with a parameter per column.
+	 */
+	String insert() {
+		StringBuilder sql = new StringBuilder("insert into ").append(name).append(" values(?");
+		for (int i = 1; i < columns; i++) {
+			sql.append(", ?");
+		}
+		return sql.append(')').toString();
+	}
+}
@@ -0,0 +1,117 @@
+package in.co.rays.proj4.bench.load;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+import in.co.rays.proj4.bench.Database;
+
+/**
+ * The requests a virtual user makes, each a form post to one controller as
+ * the page of that controller would send it.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+enum Action {
+
+	/** Signs in again, authenticate and a redirect to the welcome page */
+	LOGIN("login", "LoginCtl") {
+		@Override
+		String form(VirtualUser user) {
+			return "operation=Sign+In&login=" + encode(Database.login(user.getUserId())) + "&password="
+					+ encode(Database.password(user.getUserId()));
+		}
+	},
+
+	/** Searches the marksheet list and pages forward through a few pages */
+	LIST("list", "ctl/MarksheetListCtl") {
+		@Override
+		String form(VirtualUser user) {
+			if (user.getLastCursor() == null || user.getListPage() >= LIST_PAGES) {
+				return "operation=Search";
+			}
+			return "operation=Next&pageNo=" + user.getListPage() + "&lastCursor=" + encode(user.getLastCursor());
+		}
+	},
+
+	/** Opens a random page of the merit list */
+	MERIT("merit", "ctl/MarksheetMeritListCtl") {
+		@Override
+		String form(VirtualUser user) {
+			return "operation=Next&pageNo=" + ThreadLocalRandom.current().nextInt(MERIT_PAGES);
+		}
+	},
+
+	/** Looks up the marksheet of a random seeded roll number */
+	GET("get", "ctl/GetMarksheetCtl") {
+		@Override
+		String form(VirtualUser user) {
+			return "operation=Go&rollNo=" + Database.rollNo(user.randomId());
+		}
+	},
+
+	/** Saves a new marksheet */
+	ENTRY("entry", "ctl/MarksheetCtl") {
+		@Override
+		String form(VirtualUser user) {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			return "operation=Save&studentId=" + user.randomId() + "&rollNo="
+					+ Database.rollNo(user.getRows() + Database.nextKey()) + "&physics=" + random.nextInt(101)
+					+ "&chemistry=" + random.nextInt(101) + "&maths=" + random.nextInt(101);
+		}
+	};
+
+	/** List pages a user reads before searching again */
+	static final int LIST_PAGES = 5;
+
+	/** Merit list pages users pick from */
+	static final int MERIT_PAGES = 20;
+
+	private final String name;
+	private final String path;
+
+	Action(String name, String path) {
+		this.name = name;
+		this.path = path;
+	}
+
+	/**
+	 * Returns the form of the next request of a user.
+	 */
+	abstract String form(VirtualUser user);
+
+	/**
+	 * Returns the name used in a mix, e.g. <code>list=40</code>.
+	 */
+	String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the controller path below the application context.
+	 */
+	String getPath() {
+		return path;
+	}
+
+	/**
+	 * Returns the controller name, the last part of its path.
+	 */
+	String getController() {
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+
+	static Action of(String name) {
+		for (Action action : values()) {
+			if (action.name.equals(name)) {
+				return action;
+			}
+		}
+		throw new IllegalArgumentException("Unknown action " + name);
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+}
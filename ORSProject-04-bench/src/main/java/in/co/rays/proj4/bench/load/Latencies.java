@@ -0,0 +1,81 @@
+package in.co.rays.proj4.bench.load;
+
+import java.util.Arrays;
+
+/**
+ * The response times of one controller, in microseconds, with the number of
+ * failed requests. A virtual user records into its own instance, which are
+ * merged after the run, so recording needs no locking.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class Latencies {
+
+	private long[] samples = new long[1024];
+	private int count;
+	private int errors;
+	private boolean sorted;
+
+	/**
+	 * Records one request.
+	 *
+	 * @param micros response time
+	 * @param failed true if the request failed
+	 */
+	void record(long micros, boolean failed) {
+		if (count == samples.length) {
+			samples = Arrays.copyOf(samples, count * 2);
+		}
+		samples[count++] = micros;
+		if (failed) {
+			errors++;
+		}
+		sorted = false;
+	}
+
+	/**
+	 * Adds the requests of another recorder.
+	 */
+	void add(Latencies other) {
+		if (count + other.count > samples.length) {
+			samples = Arrays.copyOf(samples, Math.max(count + other.count, count * 2));
+		}
+		System.arraycopy(other.samples, 0, samples, count, other.count);
+		count += other.count;
+		errors += other.errors;
+		sorted = false;
+	}
+
+	int getCount() {
+		return count;
+	}
+
+	int getErrors() {
+		return errors;
+	}
+
+	double getMean() {
+		long sum = 0;
+		for (int i = 0; i < count; i++) {
+			sum += samples[i];
+		}
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * Returns the response time that the given fraction of requests did not
+	 * exceed, e.g. 0.99 for the 99th percentile.
+	 */
+	long getPercentile(double fraction) {
+		if (count == 0) {
+			return 0;
+		}
+		if (!sorted) {
+			Arrays.sort(samples, 0, count);
+			sorted = true;
+		}
+		int index = (int) Math.ceil(fraction * count) - 1;
+		return samples[Math.max(0, Math.min(index, count - 1))];
+	}
+}
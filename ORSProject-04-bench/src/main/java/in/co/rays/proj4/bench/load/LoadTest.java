@@ -0,0 +1,270 @@
+package in.co.rays.proj4.bench.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+
+import in.co.rays.proj4.bench.Database;
+
+/**
+ * End-to-end load test of the whole request path: FrontController,
+ * BaseCtl.service(), the controller, its model and the JSP.
+ * <p>
+ * The WAR is deployed at <code>/ORSProject-04</code> in an embedded Tomcat
+ * and connects to the seeded embedded {@link Database} through the
+ * <code>h2</code> JDBC profile. Virtual users sign in and make requests
+ * from a weighted mix of actions, without pause by default, first for the
+ * warmup and then for the measured duration. Throughput and latency
+ * percentiles are reported per controller and written as JSON.
+ *
+ * Build the WAR and the benchmarks, then run e.g.
+ * <pre>
+ *   java -cp target/benchmarks.jar in.co.rays.proj4.bench.load.LoadTest -users 50 -duration 60
+ * </pre>
+ * Options, with their defaults:
+ * <pre>
+ *   -war      ../ORSProject-04/target/ORSProject-04.war
+ *   -users    20       concurrent virtual users
+ *   -warmup   10       seconds before recording starts
+ *   -duration 30       seconds recorded
+ *   -rows     10000    seeded users, students, marksheets and timetables
+ *   -think    0        milliseconds each user pauses after a request
+ *   -threads  200      Tomcat request threads
+ *   -mix      login=5,list=35,merit=20,get=30,entry=10
+ *   -out      load-result.json
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class LoadTest {
+
+	private static final String CONTEXT = "/ORSProject-04";
+
+	private static final Map<String, String> DEFAULTS = new LinkedHashMap<String, String>();
+
+	static {
+		DEFAULTS.put("war", "../ORSProject-04/target/ORSProject-04.war");
+		DEFAULTS.put("users", "20");
+		DEFAULTS.put("warmup", "10");
+		DEFAULTS.put("duration", "30");
+		DEFAULTS.put("rows", "10000");
+		DEFAULTS.put("think", "0");
+		DEFAULTS.put("threads", "200");
+		DEFAULTS.put("mix", "login=5,list=35,merit=20,get=30,entry=10");
+		DEFAULTS.put("out", "load-result.json");
+	}
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		Map<String, String> options = options(args);
+
+		File war = new File(options.get("war"));
+		if (!war.isFile()) {
+			throw new IllegalArgumentException("WAR not found: " + war.getAbsolutePath()
+					+ ", build it with mvn -f ORSProject-04 package");
+		}
+
+		int users = Integer.parseInt(options.get("users"));
+		int rows = Integer.parseInt(options.get("rows"));
+		Action[] mix = mix(options.get("mix"));
+
+		if (System.getProperty("db.profile") == null) {
+			System.setProperty("db.profile", "h2");
+		}
+		Database.installH2Profile();
+
+		System.out.println("Seeding " + rows + " rows");
+		Database db = new Database();
+		db.rows = rows;
+		db.setUp();
+
+		Tomcat tomcat = start(war, Integer.parseInt(options.get("threads")));
+		try {
+			String baseUrl = "http://localhost:" + tomcat.getConnector().getLocalPort() + CONTEXT + "/";
+
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+					.followRedirects(HttpClient.Redirect.NEVER).connectTimeout(Duration.ofSeconds(10)).build();
+
+			AtomicBoolean measuring = new AtomicBoolean();
+			AtomicBoolean stopped = new AtomicBoolean();
+
+			List<VirtualUser> virtualUsers = new ArrayList<VirtualUser>();
+			List<Thread> threads = new ArrayList<Thread>();
+			for (int i = 0; i < users; i++) {
+				VirtualUser user = new VirtualUser(client, baseUrl, i % rows + 1, rows, mix,
+						Long.parseLong(options.get("think")), measuring, stopped);
+				Thread thread = new Thread(user, "user-" + (i + 1));
+				virtualUsers.add(user);
+				threads.add(thread);
+			}
+
+			System.out.println("Running " + users + " users against " + baseUrl);
+			threads.forEach(Thread::start);
+
+			Thread.sleep(Long.parseLong(options.get("warmup")) * 1000);
+			measuring.set(true);
+			long start = System.nanoTime();
+
+			Thread.sleep(Long.parseLong(options.get("duration")) * 1000);
+			measuring.set(false);
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			stopped.set(true);
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			Map<String, Latencies> results = results(virtualUsers);
+			report(results, seconds, System.out);
+
+			File out = new File(options.get("out"));
+			writeJson(results, seconds, options, out);
+			System.out.println("Results written to " + out.getAbsolutePath());
+
+		} finally {
+			tomcat.stop();
+			tomcat.destroy();
+		}
+	}
+
+	/**
+	 * Deploys the WAR in an embedded Tomcat on a free port.
+	 */
+	private static Tomcat start(File war, int threads) throws LifecycleException {
+
+		File base = new File("target/tomcat");
+		base.mkdirs();
+
+		Tomcat tomcat = new Tomcat();
+		tomcat.setBaseDir(base.getAbsolutePath());
+		tomcat.setPort(0);
+		tomcat.getConnector().setProperty("maxThreads", String.valueOf(threads));
+		tomcat.getHost().setAppBase(base.getAbsolutePath());
+		tomcat.addWebapp(CONTEXT, war.getAbsolutePath());
+		tomcat.start();
+		return tomcat;
+	}
+
+	private static Map<String, String> options(String[] args) {
+
+		Map<String, String> options = new LinkedHashMap<String, String>(DEFAULTS);
+
+		for (int i = 0; i < args.length; i += 2) {
+			String name = args[i].startsWith("-") ? args[i].substring(1) : args[i];
+			if (!DEFAULTS.containsKey(name) || i + 1 == args.length) {
+				throw new IllegalArgumentException("Usage: LoadTest [-option value]..., options " + DEFAULTS.keySet());
+			}
+			options.put(name, args[i + 1]);
+		}
+		return options;
+	}
+
+	/**
+	 * Parses a mix such as <code>list=40,get=60</code> into a table with
+	 * each action as many times as its weight.
+	 */
+	private static Action[] mix(String mix) {
+
+		List<Action> table = new ArrayList<Action>();
+
+		for (String entry : mix.split(",")) {
+			String[] pair = entry.trim().split("=");
+			Action action = Action.of(pair[0].trim());
+			int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+			for (int i = 0; i < weight; i++) {
+				table.add(action);
+			}
+		}
+		if (table.isEmpty()) {
+			throw new IllegalArgumentException("Empty mix " + mix);
+		}
+		return table.toArray(new Action[table.size()]);
+	}
+
+	/**
+	 * Merges the recorders of all users per controller, in the order of
+	 * {@link Action}, with the total last.
+	 */
+	private static Map<String, Latencies> results(List<VirtualUser> users) {
+
+		Map<String, Latencies> results = new LinkedHashMap<String, Latencies>();
+		Latencies total = new Latencies();
+
+		for (Action action : Action.values()) {
+			Latencies merged = new Latencies();
+			for (VirtualUser user : users) {
+				merged.add(user.getLatencies(action));
+			}
+			if (merged.getCount() > 0) {
+				results.put(action.getController(), merged);
+				total.add(merged);
+			}
+		}
+		results.put("Total", total);
+		return results;
+	}
+
+	private static void report(Map<String, Latencies> results, double seconds, PrintStream out) {
+
+		out.println();
+		out.printf(Locale.ROOT, "%-24s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n", "Controller", "Requests", "Errors", "Req/s",
+				"Mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms");
+
+		for (Map.Entry<String, Latencies> entry : results.entrySet()) {
+			Latencies l = entry.getValue();
+			out.printf(Locale.ROOT, "%-24s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), l.getCount(),
+					l.getErrors(), l.getCount() / seconds, l.getMean() / 1000, ms(l, 0.5), ms(l, 0.9), ms(l, 0.99),
+					ms(l, 0.999), ms(l, 1));
+		}
+		out.println();
+	}
+
+	private static double ms(Latencies latencies, double fraction) {
+		return latencies.getPercentile(fraction) / 1000.0;
+	}
+
+	private static void writeJson(Map<String, Latencies> results, double seconds, Map<String, String> options,
+			File file) throws IOException {
+
+		try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+			out.println("{");
+			out.println("  \"options\" : {");
+			int n = 0;
+			for (Map.Entry<String, String> option : options.entrySet()) {
+				out.printf(Locale.ROOT, "    \"%s\" : \"%s\"%s%n", option.getKey(), option.getValue().replace("\\", "\\\\"),
+						++n < options.size() ? "," : "");
+			}
+			out.println("  },");
+			out.printf(Locale.ROOT, "  \"seconds\" : %.3f,%n", seconds);
+			out.println("  \"controllers\" : [");
+			n = 0;
+			for (Map.Entry<String, Latencies> entry : results.entrySet()) {
+				Latencies l = entry.getValue();
+				out.printf(Locale.ROOT, "    { \"controller\" : \"%s\", \"requests\" : %d, \"errors\" : %d, \"throughput\" : %.2f, "
+						+ "\"unit\" : \"ms\", \"mean\" : %.3f, \"p50\" : %.3f, \"p90\" : %.3f, \"p99\" : %.3f, "
+						+ "\"p99.9\" : %.3f, \"max\" : %.3f }%s%n", entry.getKey(), l.getCount(), l.getErrors(),
+						l.getCount() / seconds, l.getMean() / 1000, ms(l, 0.5), ms(l, 0.9), ms(l, 0.99), ms(l, 0.999),
+						ms(l, 1), ++n < results.size() ? "," : "");
+			}
+			out.println("  ]");
+			out.println("}");
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package in.co.rays.proj4.bench.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One user of the application: signs in with a seeded login and then makes
+ * requests picked at random from a mix until the run ends, keeping its
+ * session cookie and its place in the marksheet list between requests.
+ * <p>
+ * A request fails if its status is 400 or more, if a sign in does not
+ * redirect, or if the session had expired and the login page was shown
+ * instead; the user then signs in again.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class VirtualUser implements Runnable {
+
+	private static final String SESSION_EXPIRED = "Your session has expired";
+
+	private static final Pattern SESSION_ID = Pattern.compile("JSESSIONID=([^;]+)");
+	private static final Pattern LAST_CURSOR = Pattern.compile("name=\"lastCursor\" value=\"([^\"]*)\"");
+	private static final Pattern PAGE_NO = Pattern.compile("name=\"pageNo\" value=\"(\\d+)\"");
+
+	private final HttpClient client;
+	private final String baseUrl;
+	private final long userId;
+	private final int rows;
+	private final Action[] mix;
+	private final long thinkMillis;
+	private final AtomicBoolean measuring;
+	private final AtomicBoolean stopped;
+
+	private final Latencies[] latencies = new Latencies[Action.values().length];
+
+	private String sessionId;
+	private String lastCursor;
+	private int listPage;
+
+	/**
+	 * @param client      shared HTTP client, cookies are kept per user
+	 * @param baseUrl     URL of the application context
+	 * @param userId      seeded user to sign in as
+	 * @param rows        seeded rows per table
+	 * @param mix         actions to pick from, each as often as its weight
+	 * @param thinkMillis pause after each request
+	 * @param measuring   set when requests are recorded
+	 * @param stopped     set when the run ends
+	 */
+	VirtualUser(HttpClient client, String baseUrl, long userId, int rows, Action[] mix, long thinkMillis,
+			AtomicBoolean measuring, AtomicBoolean stopped) {
+		this.client = client;
+		this.baseUrl = baseUrl;
+		this.userId = userId;
+		this.rows = rows;
+		this.mix = mix;
+		this.thinkMillis = thinkMillis;
+		this.measuring = measuring;
+		this.stopped = stopped;
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = new Latencies();
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			send(Action.LOGIN);
+			while (!stopped.get()) {
+				send(mix[ThreadLocalRandom.current().nextInt(mix.length)]);
+				if (thinkMillis > 0) {
+					Thread.sleep(thinkMillis);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void send(Action action) throws InterruptedException {
+
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + action.getPath()))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(action.form(this)));
+		if (sessionId != null) {
+			request.header("Cookie", "JSESSIONID=" + sessionId);
+		}
+
+		long start = System.nanoTime();
+		HttpResponse<String> response = null;
+		try {
+			response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		} catch (IOException e) {
+			// counted as a failed request below
+		}
+		long micros = (System.nanoTime() - start) / 1000;
+
+		boolean expired = response != null && response.body().contains(SESSION_EXPIRED);
+		boolean failed = response == null || response.statusCode() >= 400 || expired
+				|| (action == Action.LOGIN && response.statusCode() != 302);
+
+		if (measuring.get()) {
+			latencies[action.ordinal()].record(micros, failed);
+		}
+
+		if (response != null) {
+			response.headers().firstValue("Set-Cookie").ifPresent(cookie -> {
+				Matcher m = SESSION_ID.matcher(cookie);
+				if (m.find()) {
+					sessionId = m.group(1);
+				}
+			});
+			if (action == Action.LIST && !failed) {
+				Matcher cursor = LAST_CURSOR.matcher(response.body());
+				Matcher page = PAGE_NO.matcher(response.body());
+				lastCursor = cursor.find() ? cursor.group(1) : null;
+				listPage = page.find() ? Integer.parseInt(page.group(1)) : 1;
+			}
+		}
+
+		if (expired && !stopped.get()) {
+			send(Action.LOGIN);
+		}
+	}
+
+	/**
+	 * Returns the response times of one action.
+	 */
+	Latencies getLatencies(Action action) {
+		return latencies[action.ordinal()];
+	}
+
+	long getUserId() {
+		return userId;
+	}
+
+	int getRows() {
+		return rows;
+	}
+
+	String getLastCursor() {
+		return lastCursor;
+	}
+
+	int getListPage() {
+		return listPage;
+	}
+
+	/**
+	 * Returns the id of a random seeded row.
+	 */
+	long randomId() {
+		return ThreadLocalRandom.current().nextInt(rows) + 1;
+	}
+}
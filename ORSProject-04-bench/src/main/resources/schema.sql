@@ -0,0 +1,166 @@
+-- Tables filled by in.co.rays.proj4.bench.data.DataGenerator, in the column
+-- order of the models' inserts. Runs on MySQL and on H2 in MySQL mode.
+
+create table if not exists st_role (
+    id bigint primary key,
+    name varchar(50),
+    description varchar(100),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_user (
+    id bigint primary key,
+    first_name varchar(50),
+    last_name varchar(50),
+    login varchar(100),
+    password varchar(50),
+    dob date,
+    mobile_no varchar(20),
+    role_id bigint,
+    gender varchar(10),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_college (
+    id bigint primary key,
+    name varchar(100),
+    address varchar(200),
+    state varchar(50),
+    city varchar(50),
+    phone_no varchar(20),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_course (
+    id bigint primary key,
+    name varchar(100),
+    duration varchar(20),
+    description varchar(200),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_subject (
+    id bigint primary key,
+    name varchar(100),
+    course_id bigint,
+    course_name varchar(100),
+    description varchar(200),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_student (
+    id bigint primary key,
+    first_name varchar(50),
+    last_name varchar(50),
+    dob date,
+    gender varchar(10),
+    mobile_no varchar(20),
+    email varchar(100),
+    college_id bigint,
+    college_name varchar(100),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_marksheet (
+    id bigint primary key,
+    roll_no varchar(20),
+    student_id bigint,
+    name varchar(100),
+    physics int,
+    chemistry int,
+    maths int,
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_timetable (
+    id bigint primary key,
+    semester varchar(10),
+    description varchar(200),
+    exam_date date,
+    exam_time varchar(40),
+    course_id bigint,
+    course_name varchar(100),
+    subject_id bigint,
+    subject_name varchar(100),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_faculty (
+    id bigint primary key,
+    first_name varchar(50),
+    last_name varchar(50),
+    dob date,
+    gender varchar(10),
+    mobile_no varchar(20),
+    email varchar(100),
+    college_id bigint,
+    college_name varchar(100),
+    course_id bigint,
+    course_name varchar(100),
+    subject_id bigint,
+    subject_name varchar(100),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_doctor (
+    id bigint primary key,
+    name varchar(100),
+    date_of_birth date,
+    mobile varchar(20),
+    expertise varchar(50),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_patient (
+    id bigint primary key,
+    name varchar(100),
+    date_of_visit date,
+    mobile varchar(20),
+    disease varchar(50),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
+
+create table if not exists st_account (
+    id bigint primary key,
+    account_no varchar(20),
+    account_type varchar(20),
+    bank_name varchar(50),
+    balance varchar(20),
+    created_by varchar(50),
+    modified_by varchar(50),
+    created_datetime timestamp,
+    modified_datetime timestamp
+);
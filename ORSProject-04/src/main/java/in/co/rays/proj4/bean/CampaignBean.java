@@ -0,0 +1,145 @@
+package in.co.rays.proj4.bean;
+
+/**
+ * CampaignBean represents a bulk notification campaign, one mail to each
+ * recipient of an audience rendered from one template.
+ * <p>
+ * Audiences are {@link #STUDENTS} (of a college, or all when the filter id is
+ * 0), {@link #USERS} (of a role, or all) and {@link #RESULTS}, the students
+ * with a marksheet (of a college, or all). Templates are
+ * {@link #TIMETABLE}, the exam schedule of a course, and {@link #RESULT},
+ * which needs the {@link #RESULTS} audience.
+ * <p>
+ * <code>lastKey</code> is the progress checkpoint: every recipient with a
+ * smaller or equal key has been sent. A campaign is resumed from it.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class CampaignBean extends BaseBean {
+
+    public static final String STUDENTS = "STUDENTS";
+    public static final String USERS = "USERS";
+    public static final String RESULTS = "RESULTS";
+
+    public static final String TIMETABLE = "TIMETABLE";
+    public static final String RESULT = "RESULT";
+
+    public static final String READY = "READY";
+    public static final String RUNNING = "RUNNING";
+    public static final String PAUSED = "PAUSED";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private String name;
+    private String subject;
+    private String template;
+    private String audience;
+    private long filterId;
+    private long courseId;
+    private String status;
+    private long lastKey;
+    private long sent;
+    private long deferred;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+
+    public String getAudience() {
+        return audience;
+    }
+
+    public void setAudience(String audience) {
+        this.audience = audience;
+    }
+
+    /**
+     * Returns the college id of a student audience or the role id of a user
+     * audience, 0 for all.
+     */
+    public long getFilterId() {
+        return filterId;
+    }
+
+    public void setFilterId(long filterId) {
+        this.filterId = filterId;
+    }
+
+    /**
+     * Returns the course whose timetable a {@link #TIMETABLE} campaign sends.
+     */
+    public long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(long courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getLastKey() {
+        return lastKey;
+    }
+
+    public void setLastKey(long lastKey) {
+        this.lastKey = lastKey;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public void setSent(long sent) {
+        this.sent = sent;
+    }
+
+    /**
+     * Returns the number of mails that failed and were handed to the email
+     * outbox to be retried.
+     */
+    public long getDeferred() {
+        return deferred;
+    }
+
+    public void setDeferred(long deferred) {
+        this.deferred = deferred;
+    }
+
+    @Override
+    public String getKey() {
+        return String.valueOf(id);
+    }
+
+    @Override
+    public String getValue() {
+        return name;
+    }
+}
@@ -0,0 +1,41 @@
+package in.co.rays.proj4.bean;
+
+/**
+ * DropdownItem is a lightweight, read-only dropdown option holding only the
+ * key and display value of a row, used instead of full beans where a list
+ * feeds nothing but a dropdown.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class DropdownItem implements DropdownListBean {
+
+	private final String key;
+	private final String value;
+
+	/**
+	 * Creates an option.
+	 *
+	 * @param key   option key, generally the id
+	 * @param value display value
+	 */
+	public DropdownItem(String key, String value) {
+		this.key = key;
+		this.value = value;
+	}
+
+	@Override
+	public String getKey() {
+		return key;
+	}
+
+	@Override
+	public String getValue() {
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return key + "=" + value;
+	}
+}
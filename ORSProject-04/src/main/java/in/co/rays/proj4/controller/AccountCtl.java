@@ -14,12 +14,17 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.AccountModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 @WebServlet(name = "AccountCtl", urlPatterns = { "/ctl/AccountCtl" })
 public class AccountCtl extends BaseCtl {
+
+    private static final RuleSet RULES = new RuleSet()
+            .field("accountNo", "Account No").required()
+            .field("accountType", "Account Type").required()
+            .field("bankName", "Bank Name").required()
+            .field("balance", "Balance").required();
 	
 
 	@Override
@@ -35,34 +40,7 @@ public class AccountCtl extends BaseCtl {
 
     @Override
     protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("accountNo"))) {
-            request.setAttribute("accountNo",
-                    PropertyReader.getValue("error.require", "Account No"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("accountType"))) {
-            request.setAttribute("accountType",
-                    PropertyReader.getValue("error.require", "Account Type"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("bankName"))) {
-            request.setAttribute("bankName",
-                    PropertyReader.getValue("error.require", "Bank Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("balance"))) {
-            request.setAttribute("balance",
-                    PropertyReader.getValue("error.require", "Balance"));
-            pass = false;
-        }
-
-        return pass;
+        return RULES.validate(request);
     }
 
     @Override
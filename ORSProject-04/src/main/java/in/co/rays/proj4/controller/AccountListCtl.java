@@ -13,7 +13,9 @@ import in.co.rays.proj4.bean.AccountBean;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.AccountModel;
+import in.co.rays.proj4.model.DeleteResult;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -62,18 +64,8 @@ public class AccountListCtl extends BaseCtl {
         AccountModel model = new AccountModel();
 
         try {
-            List<AccountBean> list = model.search(bean, pageNo, pageSize);
-            List<AccountBean> next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
+            Page<AccountBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
@@ -90,8 +82,6 @@ public class AccountListCtl extends BaseCtl {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        List list = null;
-        List next = null;
 
         int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -121,6 +111,11 @@ public class AccountListCtl extends BaseCtl {
                     pageNo--;
                 }
 
+            } else if (isExport(op)) {
+
+                export(op, "accounts", writer -> model.export(bean, writer), response);
+                return;
+
             } else if (OP_NEW.equalsIgnoreCase(op)) {
                 ServletUtility.redirect(ORSView.ACCOUNT_CTL, request, response);
                 return;
@@ -130,12 +125,8 @@ public class AccountListCtl extends BaseCtl {
                 pageNo = 1;
                 if (ids != null && ids.length > 0) {
 
-                    AccountBean deleteBean = new AccountBean();
-                    for (String id : ids) {
-                        deleteBean.setId(DataUtility.getLong(id));
-                        model.delete(deleteBean);
-                    }
-                    ServletUtility.setSuccessMessage("Account deleted successfully", request);
+                    DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+                    setDeleteResult(result, "Account deleted successfully", request);
 
                 } else {
                     ServletUtility.setErrorMessage("Select at least one record", request);
@@ -148,18 +139,8 @@ public class AccountListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
+            Page<AccountBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
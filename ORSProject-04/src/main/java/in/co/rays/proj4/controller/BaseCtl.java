@@ -1,6 +1,13 @@
 package in.co.rays.proj4.controller;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -12,8 +19,14 @@ import org.apache.log4j.Logger;
 
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.DeleteResult;
+import in.co.rays.proj4.util.Cursor;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.DataValidator;
+import in.co.rays.proj4.util.ExportWriter;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.RequestMetrics;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -27,7 +40,10 @@ import in.co.rays.proj4.util.ServletUtility;
  *   <li>Validation hook</li>
  *   <li>populateBean() abstraction</li>
  *   <li>populateDTO() for audit fields (createdBy, modifiedBy, timestamps)</li>
+ *   <li>setPage() to publish one page of a list view</li>
  *   <li>service() template to enforce validation before doPost/doGet</li>
+ *   <li>request metrics per controller and operation, see
+ *       {@link RequestMetrics}</li>
  * </ul>
  *
  * All controllers should extend this class and implement:
@@ -65,11 +81,25 @@ public abstract class BaseCtl extends HttpServlet {
     public static final String OP_BACK = "Back";
     public static final String OP_RESET = "Reset";
     public static final String OP_LOG_OUT = "Logout";
+    public static final String OP_EXPORT_CSV = "Export CSV";
+    public static final String OP_EXPORT_JSON = "Export JSON";
 
     // Message attribute keys
     public static final String MSG_SUCCESS = "success";
     public static final String MSG_ERROR = "error";
 
+    /** Operation label of requests without an operation */
+    public static final String OP_NONE = "none";
+
+    /** Operation label of operations the controller does not declare */
+    public static final String OP_OTHER = "other";
+
+    /** Request metrics of this controller */
+    private final RequestMetrics.Controller metrics = RequestMetrics.controller(getClass().getSimpleName());
+
+    /** The OP_ constants of this controller, to keep the metric labels few */
+    private final Map<String, String> operations = operations(getClass());
+
     /**
      * Validates input data. To be overridden by child controllers.
      *
@@ -141,32 +171,197 @@ public abstract class BaseCtl extends HttpServlet {
         return dto;
     }
 
+    /**
+     * Publishes one page of a list view to the request: rows, page number,
+     * page size, next page flag and the search bean. Sets "No record found"
+     * if the page is empty and no other error message is set.
+     *
+     * @param page    page fetched with a model's searchPage()
+     * @param bean    search criteria
+     * @param request HttpServletRequest
+     */
+    protected void setPage(Page<?> page, BaseBean bean, HttpServletRequest request) {
+
+        if (page.isEmpty() && ServletUtility.getErrorMessage(request).length() == 0) {
+            ServletUtility.setErrorMessage("No record found", request);
+        }
+
+        ServletUtility.setPage(page, request);
+        ServletUtility.setBean(bean, request);
+    }
+
+    /**
+     * Publishes the outcome of a bulk delete: the given success message if
+     * every record was deleted, otherwise the number deleted and the ids
+     * that could not be deleted with their reasons.
+     *
+     * @param result  result of a model's deleteAll()
+     * @param message success message
+     * @param request HttpServletRequest
+     */
+    protected void setDeleteResult(DeleteResult result, String message, HttpServletRequest request) {
+
+        if (result.isSuccess()) {
+            ServletUtility.setSuccessMessage(message, request);
+            return;
+        }
+
+        if (result.getDeleted() > 0) {
+            ServletUtility.setSuccessMessage(result.getDeleted() + " record(s) deleted successfully", request);
+        }
+        ServletUtility.setErrorMessage("Could not delete : " + result.getFailureMessage(), request);
+    }
+
+    /**
+     * Returns the keyset cursor for a list operation: after the last row of
+     * the current page for Next, before its first row for Previous and the
+     * first page for any other operation.
+     *
+     * @param op      operation
+     * @param request HttpServletRequest carrying "firstCursor" and "lastCursor"
+     * @return cursor to search with
+     */
+    protected Cursor getCursor(String op, HttpServletRequest request) {
+
+        if (OP_NEXT.equalsIgnoreCase(op)) {
+            return Cursor.after(request.getParameter("lastCursor"));
+        } else if (OP_PREVIOUS.equalsIgnoreCase(op)) {
+            return Cursor.before(request.getParameter("firstCursor"));
+        }
+        return Cursor.first();
+    }
+
+    /**
+     * Writes the rows of an export, usually a model's export(bean, writer)
+     * with the current search criteria.
+     */
+    protected interface Exporter {
+        long export(ExportWriter writer) throws ApplicationException, IOException;
+    }
+
+    /**
+     * Returns true if the operation is one of the export operations.
+     *
+     * @param op operation
+     * @return true for Export CSV and Export JSON
+     */
+    protected boolean isExport(String op) {
+        return OP_EXPORT_CSV.equalsIgnoreCase(op) || OP_EXPORT_JSON.equalsIgnoreCase(op);
+    }
+
+    /**
+     * Streams an export to the response as a CSV or JSON file download.
+     * Rows are written to the response as they are read, so the response
+     * is committed once the first buffer is full. If the export fails after
+     * that, the download is cut short and the error is only logged.
+     *
+     * @param op       {@link #OP_EXPORT_CSV} or {@link #OP_EXPORT_JSON}
+     * @param name     file name without extension
+     * @param exporter writes the rows
+     * @param response HttpServletResponse
+     * @throws ApplicationException if the export fails before anything is sent
+     * @throws IOException          if the response cannot be written
+     */
+    protected void export(String op, String name, Exporter exporter, HttpServletResponse response)
+            throws ApplicationException, IOException {
+
+        String format = OP_EXPORT_JSON.equalsIgnoreCase(op) ? ExportWriter.JSON : ExportWriter.CSV;
+        ExportWriter writer = ExportWriter.of(format,
+                new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8)));
+
+        response.setContentType(writer.getContentType() + ";charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + name + "." + format + "\"");
+
+        try {
+            long rows = exporter.export(writer);
+            log.info("Exported " + rows + " rows to " + name + "." + format);
+        } catch (ApplicationException e) {
+            if (!response.isCommitted()) {
+                response.reset();
+                throw e;
+            }
+            log.error("Export of " + name + " failed after the response was committed", e);
+        }
+    }
+
     /**
      * Template method that enforces validation before request processing.
+     * Records the time, outcome and operation of every request in
+     * {@link RequestMetrics}. A request fails if it throws, if it was
+     * passed to {@link ServletUtility#handleException} or if its status is
+     * 500 or above.
      */
     @Override
     protected void service(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        preload(request);
-
         String op = DataUtility.getString(request.getParameter("operation"));
 
-        if (DataValidator.isNotNull(op)
-                && !OP_CANCEL.equalsIgnoreCase(op)
-                && !OP_VIEW.equalsIgnoreCase(op)
-                && !OP_DELETE.equalsIgnoreCase(op)
-                && !OP_RESET.equalsIgnoreCase(op)) {
-
-            if (!validate(request)) {
-                BaseBean bean = populateBean(request);
-                ServletUtility.setBean(bean, request);
-                ServletUtility.forward(getView(), request, response);
-                return;
+        RequestMetrics.Timer timer = metrics.timer(operation(op));
+        long start = timer.start();
+        boolean failed = true;
+
+        try {
+            preload(request);
+
+            if (DataValidator.isNotNull(op)
+                    && !OP_CANCEL.equalsIgnoreCase(op)
+                    && !OP_VIEW.equalsIgnoreCase(op)
+                    && !OP_DELETE.equalsIgnoreCase(op)
+                    && !OP_RESET.equalsIgnoreCase(op)) {
+
+                if (!validate(request)) {
+                    BaseBean bean = populateBean(request);
+                    ServletUtility.setBean(bean, request);
+                    ServletUtility.forward(getView(), request, response);
+                    failed = false;
+                    return;
+                }
             }
+
+            super.service(request, response);
+            failed = request.getAttribute("exception") != null || response.getStatus() >= 500;
+        } finally {
+            timer.stop(start, failed);
+        }
+    }
+
+    /**
+     * Returns the metric label of an operation: the value of the matching
+     * OP_ constant, {@link #OP_NONE} or {@link #OP_OTHER}.
+     *
+     * @param op operation parameter
+     * @return operation label
+     */
+    protected String operation(String op) {
+        if (DataValidator.isNull(op)) {
+            return OP_NONE;
         }
+        String operation = operations.get(op.trim());
+        return (operation != null) ? operation : OP_OTHER;
+    }
+
+    /**
+     * Collects the public OP_ String constants of a controller class and
+     * its super classes, looked up ignoring case.
+     */
+    private static Map<String, String> operations(Class<?> type) {
+
+        Map<String, String> operations = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
-        super.service(request, response);
+        for (Field field : type.getFields()) {
+            int modifiers = field.getModifiers();
+            if (field.getName().startsWith("OP_") && field.getType() == String.class
+                    && Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)) {
+                try {
+                    String value = (String) field.get(null);
+                    operations.putIfAbsent(value, value);
+                } catch (IllegalAccessException e) {
+                    log.debug("Cannot read " + field, e);
+                }
+            }
+        }
+        return operations;
     }
 
     /**
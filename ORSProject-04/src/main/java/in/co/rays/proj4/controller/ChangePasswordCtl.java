@@ -17,8 +17,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.RecordNotFoundException;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -50,61 +49,25 @@ public class ChangePasswordCtl extends BaseCtl {
 
     public static final String OP_CHANGE_MY_PROFILE = "Change My Profile";
 
+    private static final RuleSet RULES = new RuleSet()
+            .field("oldPassword", "Old Password").required()
+            .field("newPassword", "New Password").required().password()
+                .differs("oldPassword", "Old and New passwords should be different")
+            .field("confirmPassword", "Confirm Password").required()
+                .same("newPassword", "New and confirm passwords not matched");
+
     /**
      * Validates old, new and confirm password fields.
      */
     @Override
     protected boolean validate(HttpServletRequest request) {
 
-        boolean pass = true;
-
-        String op = request.getParameter("operation");
-
         // If user wants to go to profile, skip validation
-        if (OP_CHANGE_MY_PROFILE.equalsIgnoreCase(op)) {
-            return pass;
-        }
-
-        // Old password
-        if (DataValidator.isNull(request.getParameter("oldPassword"))) {
-            request.setAttribute("oldPassword",
-                    PropertyReader.getValue("error.require", "Old Password"));
-            pass = false;
-        } else if (request.getParameter("oldPassword")
-                .equals(request.getParameter("newPassword"))) {
-            request.setAttribute("newPassword", "Old and New passwords should be different");
-            pass = false;
-        }
-
-        // New password
-        if (DataValidator.isNull(request.getParameter("newPassword"))) {
-            request.setAttribute("newPassword",
-                    PropertyReader.getValue("error.require", "New Password"));
-            pass = false;
-        } else if (!DataValidator.isPasswordLength(request.getParameter("newPassword"))) {
-            request.setAttribute("newPassword", "Password should be 8 to 12 characters");
-            pass = false;
-        } else if (!DataValidator.isPassword(request.getParameter("newPassword"))) {
-            request.setAttribute("newPassword",
-                    "Must contain uppercase, lowercase, digit & special character");
-            pass = false;
-        }
-
-        // Confirm password
-        if (DataValidator.isNull(request.getParameter("confirmPassword"))) {
-            request.setAttribute("confirmPassword",
-                    PropertyReader.getValue("error.require", "Confirm Password"));
-            pass = false;
-        }
-
-        // Match new and confirm password
-        if (!request.getParameter("newPassword").equals(request.getParameter("confirmPassword"))
-                && !"".equals(request.getParameter("confirmPassword"))) {
-            request.setAttribute("confirmPassword", "New and confirm passwords not matched");
-            pass = false;
+        if (OP_CHANGE_MY_PROFILE.equalsIgnoreCase(request.getParameter("operation"))) {
+            return true;
         }
 
-        return pass;
+        return RULES.validate(request);
     }
 
     /**
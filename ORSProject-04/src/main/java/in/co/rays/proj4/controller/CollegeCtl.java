@@ -16,8 +16,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.CollegeModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -46,55 +45,19 @@ public class CollegeCtl extends BaseCtl {
      */
     private static final Logger log = Logger.getLogger(CollegeCtl.class);
 
+    private static final RuleSet RULES = new RuleSet()
+            .field("name", "Name").required().name("Invalid Name")
+            .field("address", "Address").required()
+            .field("state", "State").required()
+            .field("city", "City").required()
+            .field("phoneNo", "Phone No").required().phone();
+
     /**
      * Validates request input for College form.
      */
     @Override
     protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        // Name
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("name"))) {
-            request.setAttribute("name", "Invalid Name");
-            pass = false;
-        }
-
-        // Address
-        if (DataValidator.isNull(request.getParameter("address"))) {
-            request.setAttribute("address", PropertyReader.getValue("error.require", "Address"));
-            pass = false;
-        }
-
-        // State
-        if (DataValidator.isNull(request.getParameter("state"))) {
-            request.setAttribute("state", PropertyReader.getValue("error.require", "State"));
-            pass = false;
-        }
-
-        // City
-        if (DataValidator.isNull(request.getParameter("city"))) {
-            request.setAttribute("city", PropertyReader.getValue("error.require", "City"));
-            pass = false;
-        }
-
-        // Phone No
-        String phone = request.getParameter("phoneNo");
-        if (DataValidator.isNull(phone)) {
-            request.setAttribute("phoneNo", PropertyReader.getValue("error.require", "Phone No"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(phone)) {
-            request.setAttribute("phoneNo", "Phone No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(phone)) {
-            request.setAttribute("phoneNo", "Invalid Phone No");
-            pass = false;
-        }
-
-        return pass;
+        return RULES.validate(request);
     }
 
     /**
@@ -1,7 +1,6 @@
 package in.co.rays.proj4.controller;
 
 import java.io.IOException;
-import java.util.List;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -12,7 +11,10 @@ import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.CollegeBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.CollegeModel;
+import in.co.rays.proj4.model.DeleteResult;
+import in.co.rays.proj4.model.DropdownCache;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -44,14 +46,7 @@ public class CollegeListCtl extends BaseCtl {
 	 */
 	@Override
 	protected void preload(HttpServletRequest request) {
-		CollegeModel collegeModel = new CollegeModel();
-
-		try {
-			List list = collegeModel.list();
-			request.setAttribute("collegeList", list);
-		} catch (ApplicationException e) {
-			e.printStackTrace();
-		}
+		request.setAttribute("collegeList", DropdownCache.list(DropdownCache.COLLEGE));
 	}
 
 	/**
@@ -83,18 +78,8 @@ public class CollegeListCtl extends BaseCtl {
 		CollegeModel model = new CollegeModel();
 
 		try {
-			List<CollegeBean> list = model.search(bean, pageNo, pageSize);
-			List<CollegeBean> next = model.search(bean, pageNo + 1, pageSize);
-
-			if (list == null || list.isEmpty()) {
-				ServletUtility.setErrorMessage("No record found", request);
-			}
-
-			ServletUtility.setList(list, request);
-			ServletUtility.setPageNo(pageNo, request);
-			ServletUtility.setPageSize(pageSize, request);
-			ServletUtility.setBean(bean, request);
-			request.setAttribute("nextListSize", next != null ? next.size() : 0);
+			Page<CollegeBean> page = model.searchPage(bean, pageNo, pageSize);
+			setPage(page, bean, request);
 
 			ServletUtility.forward(getView(), request, response);
 
@@ -111,8 +96,6 @@ public class CollegeListCtl extends BaseCtl {
 	protected void doPost(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
 
-		List list = null;
-		List next = null;
 
 		int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
 		int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -142,6 +125,11 @@ public class CollegeListCtl extends BaseCtl {
 					pageNo--;
 				}
 
+			} else if (isExport(op)) {
+
+				export(op, "colleges", writer -> model.export(bean, writer), response);
+				return;
+
 			} else if (OP_NEW.equalsIgnoreCase(op)) {
 
 				ServletUtility.redirect(ORSView.COLLEGE_CTL, request, response);
@@ -152,12 +140,8 @@ public class CollegeListCtl extends BaseCtl {
 				pageNo = 1;
 
 				if (ids != null && ids.length > 0) {
-					CollegeBean deleteBean = new CollegeBean();
-					for (String id : ids) {
-						deleteBean.setId(DataUtility.getLong(id));
-						model.delete(deleteBean);
-					}
-					ServletUtility.setSuccessMessage("College(s) deleted successfully", request);
+					DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+					setDeleteResult(result, "College(s) deleted successfully", request);
 				} else {
 					ServletUtility.setErrorMessage("Select at least one record", request);
 				}
@@ -173,18 +157,8 @@ public class CollegeListCtl extends BaseCtl {
 				return;
 			}
 
-			list = model.search(bean, pageNo, pageSize);
-			next = model.search(bean, pageNo + 1, pageSize);
-
-			if (list == null || list.isEmpty()) {
-				ServletUtility.setErrorMessage("No record found", request);
-			}
-
-			ServletUtility.setList(list, request);
-			ServletUtility.setPageNo(pageNo, request);
-			ServletUtility.setPageSize(pageSize, request);
-			ServletUtility.setBean(bean, request);
-			request.setAttribute("nextListSize", next != null ? next.size() : 0);
+			Page<CollegeBean> page = model.searchPage(bean, pageNo, pageSize);
+			setPage(page, bean, request);
 
 			ServletUtility.forward(getView(), request, response);
 
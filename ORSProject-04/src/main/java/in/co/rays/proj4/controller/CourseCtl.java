@@ -13,8 +13,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -27,6 +26,11 @@ import in.co.rays.proj4.util.ServletUtility;
 @WebServlet(name = "CourseCtl", urlPatterns = { "/ctl/CourseCtl" })
 public class CourseCtl extends BaseCtl {
 
+	private static final RuleSet RULES = new RuleSet()
+			.field("name", "Name").required().name("Invalid Name")
+			.field("duration", "Duration").required()
+			.field("description", "Description").required();
+
 	/**
 	 * Validates input fields of Course form.
 	 * 
@@ -35,28 +39,7 @@ public class CourseCtl extends BaseCtl {
 	 */
 	@Override
 	protected boolean validate(HttpServletRequest request) {
-
-		boolean pass = true;
-
-		if (DataValidator.isNull(request.getParameter("name"))) {
-			request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-			pass = false;
-		} else if (!DataValidator.isName(request.getParameter("name"))) {
-			request.setAttribute("name", "Invalid Name");
-			pass = false;
-		}
-
-		if (DataValidator.isNull(request.getParameter("duration"))) {
-			request.setAttribute("duration", PropertyReader.getValue("error.require", "Duration"));
-			pass = false;
-		}
-
-		if (DataValidator.isNull(request.getParameter("description"))) {
-			request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-			pass = false;
-		}
-
-		return pass;
+		return RULES.validate(request);
 	}
 
 	/**
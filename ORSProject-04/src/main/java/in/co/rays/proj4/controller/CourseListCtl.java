@@ -12,7 +12,10 @@ import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.CourseBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.CourseModel;
+import in.co.rays.proj4.model.DeleteResult;
+import in.co.rays.proj4.model.DropdownCache;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -37,15 +40,7 @@ public class CourseListCtl extends BaseCtl {
      */
     @Override
     protected void preload(HttpServletRequest request) {
-
-        CourseModel courseModel = new CourseModel();
-
-        try {
-            List courseList = courseModel.list();
-            request.setAttribute("courseList", courseList);
-        } catch (ApplicationException e) {
-            e.printStackTrace();
-        }
+        request.setAttribute("courseList", DropdownCache.list(DropdownCache.COURSE));
     }
 
     /**
@@ -83,18 +78,8 @@ public class CourseListCtl extends BaseCtl {
         CourseModel model = new CourseModel();
 
         try {
-            List<CourseBean> list = model.search(bean, pageNo, pageSize);
-            List<CourseBean> next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
+            Page<CourseBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
@@ -117,8 +102,6 @@ public class CourseListCtl extends BaseCtl {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        List list = null;
-        List next = null;
 
         int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -144,6 +127,11 @@ public class CourseListCtl extends BaseCtl {
                     pageNo--;
                 }
 
+            } else if (isExport(op)) {
+
+                export(op, "courses", writer -> model.export(bean, writer), response);
+                return;
+
             } else if (OP_NEW.equalsIgnoreCase(op)) {
                 ServletUtility.redirect(ORSView.COURSE_CTL, request, response);
                 return;
@@ -153,14 +141,8 @@ public class CourseListCtl extends BaseCtl {
                 pageNo = 1;
 
                 if (ids != null && ids.length > 0) {
-                    CourseBean deleteBean = new CourseBean();
-                    for (String id : ids) {
-
-                        deleteBean.setId(DataUtility.getInt(id));
-                        model.delete(deleteBean);
-
-                    }
-                    ServletUtility.setSuccessMessage("Course deleted successfully", request);
+                    DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+                    setDeleteResult(result, "Course deleted successfully", request);
 
                 } else {
                     ServletUtility.setErrorMessage("Select at least one record", request);
@@ -175,18 +157,8 @@ public class CourseListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
+            Page<CourseBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
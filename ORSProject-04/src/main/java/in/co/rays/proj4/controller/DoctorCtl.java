@@ -17,8 +17,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.DocterModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -34,6 +33,12 @@ public class DoctorCtl extends BaseCtl {
     /** Logger instance */
     private static Logger log = Logger.getLogger(DoctorCtl.class);
 
+    private static final RuleSet RULES = new RuleSet()
+            .field("name", "Name").required().name("Invalid Name")
+            .field("dateOfBirth", "Date of Birth").required().date()
+            .field("mobile", "Mobile No").required().phone()
+            .field("expertise", "Expertise").required();
+
     /**
      * Preloads expertise list for dropdown.
      *
@@ -65,48 +70,7 @@ public class DoctorCtl extends BaseCtl {
 
         log.debug("DoctorCtl validate started");
 
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            request.setAttribute("name",
-                    PropertyReader.getValue("error.require", "Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("name"))) {
-            request.setAttribute("name", "Invalid Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("dateOfBirth"))) {
-            request.setAttribute("dateOfBirth",
-                    PropertyReader.getValue("error.require", "Date of Birth"));
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("dateOfBirth"))) {
-            request.setAttribute("dateOfBirth",
-                    PropertyReader.getValue("error.date", "Date of Birth"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobile"))) {
-            request.setAttribute("mobile",
-                    PropertyReader.getValue("error.require", "Mobile No"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobile"))) {
-            request.setAttribute("mobile",
-                    "Mobile No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobile"))) {
-            request.setAttribute("mobile", "Invalid Mobile No");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("expertise"))) {
-            request.setAttribute("expertise",
-                    PropertyReader.getValue("error.require", "Expertise"));
-            pass = false;
-        }
-
-        log.debug("DoctorCtl validate completed with status : " + pass);
-        return pass;
+        return RULES.validate(request);
     }
 
     /**
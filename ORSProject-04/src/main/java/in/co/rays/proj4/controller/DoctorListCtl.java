@@ -14,8 +14,10 @@ import org.apache.log4j.Logger;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.DoctorBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.DeleteResult;
 import in.co.rays.proj4.model.DocterModel;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -102,19 +104,8 @@ public class DoctorListCtl extends BaseCtl {
         DocterModel model = new DocterModel();
 
         try {
-            List<DoctorBean> list = model.search(bean, pageNo, pageSize);
-            List<DoctorBean> next =
-                    model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", req);
-            }
-
-            ServletUtility.setList(list, req);
-            ServletUtility.setPageNo(pageNo, req);
-            ServletUtility.setPageSize(pageSize, req);
-            ServletUtility.setBean(bean, req);
-            req.setAttribute("nextListSize", next.size());
+            Page<DoctorBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, req);
 
             ServletUtility.forward(getView(), req, resp);
 
@@ -156,6 +147,11 @@ public class DoctorListCtl extends BaseCtl {
             } else if (OP_PREVIOUS.equalsIgnoreCase(op)) {
                 pageNo--;
 
+            } else if (isExport(op)) {
+
+                export(op, "doctors", writer -> model.export(bean, writer), resp);
+                return;
+
             } else if (OP_NEW.equalsIgnoreCase(op)) {
                 ServletUtility.redirect(ORSView.DOCTOR_CTL, req, resp);
                 return;
@@ -164,11 +160,8 @@ public class DoctorListCtl extends BaseCtl {
 
                 pageNo = 1;
                 if (ids != null && ids.length > 0) {
-                    for (String id : ids) {
-                        model.delete(DataUtility.getLong(id));
-                    }
-                    ServletUtility.setSuccessMessage(
-                            "Doctor deleted successfully", req);
+                    DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+                    setDeleteResult(result, "Doctor deleted successfully", req);
                 } else {
                     ServletUtility.setErrorMessage(
                             "Select at least one record", req);
@@ -181,20 +174,8 @@ public class DoctorListCtl extends BaseCtl {
                 return;
             }
 
-            List<DoctorBean> list =
-                    model.search(bean, pageNo, pageSize);
-            List<DoctorBean> next =
-                    model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", req);
-            }
-
-            ServletUtility.setBean(bean, req);
-            ServletUtility.setList(list, req);
-            ServletUtility.setPageNo(pageNo, req);
-            ServletUtility.setPageSize(pageSize, req);
-            req.setAttribute("nextListSize", next.size());
+            Page<DoctorBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, req);
 
         } catch (ApplicationException e) {
             log.error("Error in DoctorListCtl doPost", e);
@@ -0,0 +1,31 @@
+package in.co.rays.proj4.controller;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+import in.co.rays.proj4.util.EmailUtility;
+import in.co.rays.proj4.util.EmailWorker;
+
+/**
+ * EmailWorkerListener starts the {@link EmailWorker} that sends queued mail
+ * when the application is deployed, and stops it and closes the pooled SMTP
+ * connections when it is undeployed.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@WebListener
+public class EmailWorkerListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        EmailWorker.start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        EmailWorker.stop();
+        EmailUtility.getTransportPool().close();
+    }
+}
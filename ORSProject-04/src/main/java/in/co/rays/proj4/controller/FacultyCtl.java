@@ -12,13 +12,10 @@ import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.FacultyBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
-import in.co.rays.proj4.model.CollegeModel;
-import in.co.rays.proj4.model.CourseModel;
+import in.co.rays.proj4.model.DropdownCache;
 import in.co.rays.proj4.model.FacultyModel;
-import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -33,6 +30,17 @@ import in.co.rays.proj4.util.ServletUtility;
 @WebServlet(name = "FacultyCtl", urlPatterns = { "/ctl/FacultyCtl" })
 public class FacultyCtl extends BaseCtl {
 
+    private static final RuleSet RULES = new RuleSet()
+            .field("firstName", "First Name").required().name("Invalid First Name")
+            .field("lastName", "Last Name").required().name("Invalid Last Name")
+            .field("gender", "Gender").required()
+            .field("dob", "Date of Birth").required().date()
+            .field("email", "Email").required().email()
+            .field("mobileNo", "Mobile No").required().phone()
+            .field("collegeId", "College Name").required()
+            .field("courseId", "Course Name").required()
+            .field("subjectId", "Subject Name").required();
+
     /**
      * Preloads data like College List, Course List and Subject List
      * before loading Faculty page.
@@ -41,25 +49,9 @@ public class FacultyCtl extends BaseCtl {
      */
     @Override
     protected void preload(HttpServletRequest request) {
-
-        CollegeModel collegeModel = new CollegeModel();
-        SubjectModel subjectModel = new SubjectModel();
-        CourseModel courseModel = new CourseModel();
-
-        try {
-
-            List collegeList = collegeModel.list();
-            request.setAttribute("collegeList", collegeList);
-
-            List subjectList = subjectModel.list();
-            request.setAttribute("subjectList", subjectList);
-
-            List courseList = courseModel.list();
-            request.setAttribute("courseList", courseList);
-
-        } catch (ApplicationException e) {
-            e.printStackTrace();
-        }
+        request.setAttribute("collegeList", DropdownCache.list(DropdownCache.COLLEGE));
+        request.setAttribute("subjectList", DropdownCache.list(DropdownCache.SUBJECT));
+        request.setAttribute("courseList", DropdownCache.list(DropdownCache.COURSE));
     }
 
     /**
@@ -70,73 +62,7 @@ public class FacultyCtl extends BaseCtl {
      */
     @Override
     protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", PropertyReader.getValue("error.require", "First Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", "Invalid First Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", PropertyReader.getValue("error.require", "Last Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", "Invalid Last Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("gender"))) {
-            request.setAttribute("gender", PropertyReader.getValue("error.require", "Gender"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("dob"))) {
-            request.setAttribute("dob", PropertyReader.getValue("error.require", "Date of Birth"));
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("dob"))) {
-            request.setAttribute("dob", PropertyReader.getValue("error.date", "Date of Birth"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("email"))) {
-            request.setAttribute("email", PropertyReader.getValue("error.require", "Email"));
-            pass = false;
-        } else if (!DataValidator.isEmail(request.getParameter("email"))) {
-            request.setAttribute("email", PropertyReader.getValue("error.email", "Email"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", PropertyReader.getValue("error.require", "Mobile No"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Mobile No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Invalid Mobile No");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("collegeId"))) {
-            request.setAttribute("collegeId", PropertyReader.getValue("error.require", "College Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("courseId"))) {
-            request.setAttribute("courseId", PropertyReader.getValue("error.require", "Course Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("subjectId"))) {
-            request.setAttribute("subjectId", PropertyReader.getValue("error.require", "Subject Name"));
-            pass = false;
-        }
-
-        return pass;
+        return RULES.validate(request);
     }
 
     /**
@@ -11,8 +11,10 @@ import javax.servlet.http.HttpServletResponse;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.FacultyBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.DeleteResult;
 import in.co.rays.proj4.model.FacultyModel;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -64,19 +66,8 @@ public class FacultyListCtl extends BaseCtl {
 		FacultyModel model = new FacultyModel();
 
 		try {
-			List<FacultyBean> list = model.search(bean, pageNo, pageSize);
-			List<FacultyBean> next = model.search(bean, pageNo + 1, pageSize);
-
-			if (list == null || list.isEmpty()) {
-				ServletUtility.setErrorMessage("No record found", request);
-			}
-
-			ServletUtility.setList(list, request);
-			ServletUtility.setPageNo(pageNo, request);
-			ServletUtility.setPageSize(pageSize, request);
-			ServletUtility.setBean(bean, request);
-
-			request.setAttribute("nextListSize", next.size());
+			Page<FacultyBean> page = model.searchPage(bean, pageNo, pageSize);
+			setPage(page, bean, request);
 
 			ServletUtility.forward(getView(), request, response);
 
@@ -97,8 +88,6 @@ public class FacultyListCtl extends BaseCtl {
 	protected void doPost(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
 
-		List list = null;
-		List next = null;
 
 		int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
 		int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -128,6 +117,11 @@ public class FacultyListCtl extends BaseCtl {
 					pageNo--;
 				}
 
+			} else if (isExport(op)) {
+
+				export(op, "faculties", writer -> model.export(bean, writer), response);
+				return;
+
 			} else if (OP_NEW.equalsIgnoreCase(op)) {
 
 				ServletUtility.redirect(ORSView.FACULTY_CTL, request, response);
@@ -139,15 +133,8 @@ public class FacultyListCtl extends BaseCtl {
 
 				if (ids != null && ids.length > 0) {
 
-					FacultyBean deleteBean = new FacultyBean();
-
-					for (String id : ids) {
-
-						deleteBean.setId(DataUtility.getInt(id));
-						model.delete(deleteBean);
-					}
-
-					ServletUtility.setSuccessMessage("Faculty deleted successfully", request);
+					DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+					setDeleteResult(result, "Faculty deleted successfully", request);
 
 				} else {
 					ServletUtility.setErrorMessage("Select at least one record", request);
@@ -164,19 +151,8 @@ public class FacultyListCtl extends BaseCtl {
 				return;
 			}
 
-			list = model.search(bean, pageNo, pageSize);
-			next = model.search(bean, pageNo + 1, pageSize);
-
-			if (list == null || list.isEmpty()) {
-				ServletUtility.setErrorMessage("No record found", request);
-			}
-
-			ServletUtility.setList(list, request);
-			ServletUtility.setPageNo(pageNo, request);
-			ServletUtility.setPageSize(pageSize, request);
-			ServletUtility.setBean(bean, request);
-
-			request.setAttribute("nextListSize", next.size());
+			Page<FacultyBean> page = model.searchPage(bean, pageNo, pageSize);
+			setPage(page, bean, request);
 
 			ServletUtility.forward(getView(), request, response);
 
@@ -14,7 +14,7 @@ import in.co.rays.proj4.exception.RecordNotFoundException;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -28,6 +28,9 @@ import in.co.rays.proj4.util.ServletUtility;
 @WebServlet(name = "ForgetPasswordCtl", urlPatterns = { "/ForgetPasswordCtl" })
 public class ForgetPasswordCtl extends BaseCtl {
 
+	private static final RuleSet RULES = new RuleSet()
+			.field("login", "Email Id").required().rule(DataValidator::isEmail, "error.email", "Login ");
+
 	/**
 	 * Validates Forget Password form fields.
 	 * 
@@ -36,18 +39,7 @@ public class ForgetPasswordCtl extends BaseCtl {
 	 */
 	@Override
 	protected boolean validate(HttpServletRequest request) {
-
-		boolean pass = true;
-
-		if (DataValidator.isNull(request.getParameter("login"))) {
-			request.setAttribute("login", PropertyReader.getValue("error.require", "Email Id"));
-			pass = false;
-		} else if (!DataValidator.isEmail(request.getParameter("login"))) {
-			request.setAttribute("login", PropertyReader.getValue("error.email", "Login "));
-			pass = false;
-		}
-
-		return pass;
+		return RULES.validate(request);
 	}
 
 	/**
@@ -12,8 +12,7 @@ import in.co.rays.proj4.bean.MarksheetBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.MarksheetModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -21,7 +20,8 @@ import in.co.rays.proj4.util.ServletUtility;
  * details using Roll Number.
  * 
  * It validates roll number and displays marksheet data
- * if roll number exists in database.
+ * if roll number exists in database, together with the
+ * merit rank of a passing marksheet.
  * 
  * @author Deepak Verma
  * @version 1.0
@@ -29,6 +29,9 @@ import in.co.rays.proj4.util.ServletUtility;
 @WebServlet(name = "GetMarksheetCtl", urlPatterns = { "/ctl/GetMarksheetCtl" })
 public class GetMarksheetCtl extends BaseCtl {
 
+	private static final RuleSet RULES = new RuleSet()
+			.field("rollNo", "Roll Number").required();
+
 	/**
 	 * Validates Roll Number input field.
 	 * 
@@ -37,15 +40,7 @@ public class GetMarksheetCtl extends BaseCtl {
 	 */
 	@Override
 	protected boolean validate(HttpServletRequest request) {
-
-		boolean pass = true;
-
-		if (DataValidator.isNull(request.getParameter("rollNo"))) {
-			request.setAttribute("rollNo", PropertyReader.getValue("error.require", "Roll Number"));
-			pass = false;
-		}
-
-		return pass;
+		return RULES.validate(request);
 	}
 
 	/**
@@ -99,6 +94,7 @@ public class GetMarksheetCtl extends BaseCtl {
 
 				if (bean != null) {
 					ServletUtility.setBean(bean, request);
+					request.setAttribute("rank", model.getMeritRank(bean));
 				} else {
 					ServletUtility.setErrorMessage("Roll Number does not exist", request);
 				}
@@ -15,8 +15,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -34,6 +33,10 @@ public class LoginCtl extends BaseCtl {
 	public static final String OP_SIGN_IN = "Sign In";
 	public static final String OP_SIGN_UP = "Sign Up";
 
+	private static final RuleSet RULES = new RuleSet()
+			.field("login", "Login Id").required()
+			.field("password", "Password").required();
+
 	/**
 	 * Validates Login form fields.
 	 * 
@@ -43,26 +46,14 @@ public class LoginCtl extends BaseCtl {
 	@Override
 	protected boolean validate(HttpServletRequest request) {
 
-		boolean pass = true;
-
 		String op = request.getParameter("operation");
 
 		// Skip validation for Sign Up and Logout
 		if (OP_SIGN_UP.equals(op) || OP_LOG_OUT.equals(op)) {
-			return pass;
-		}
-
-		if (DataValidator.isNull(request.getParameter("login"))) {
-			request.setAttribute("login", PropertyReader.getValue("error.require", "Login Id"));
-			pass = false;
-		}
-
-		if (DataValidator.isNull(request.getParameter("password"))) {
-			request.setAttribute("password", PropertyReader.getValue("error.require", "Password"));
-			pass = false;
+			return true;
 		}
 
-		return pass;
+		return RULES.validate(request);
 	}
 
 	/**
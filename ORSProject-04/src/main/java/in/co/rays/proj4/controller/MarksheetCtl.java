@@ -1,7 +1,6 @@
 package in.co.rays.proj4.controller;
 
 import java.io.IOException;
-import java.util.List;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -10,14 +9,13 @@ import javax.servlet.http.HttpServletResponse;
 
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.MarksheetBean;
-import in.co.rays.proj4.bean.StudentBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.model.DropdownCache;
 import in.co.rays.proj4.model.MarksheetModel;
-import in.co.rays.proj4.model.StudentModel;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -33,6 +31,13 @@ import in.co.rays.proj4.util.ServletUtility;
 @WebServlet(name = "MarksheetCtl", urlPatterns = { "/ctl/MarksheetCtl" })
 public class MarksheetCtl extends BaseCtl {
 
+	private static final RuleSet RULES = new RuleSet()
+			.field("studentId", "Student Name").required()
+			.field("rollNo", "Roll Number").required().rule(DataValidator::isRollNo, "Roll No is invalid")
+			.field("physics", "Marks").required().integer(0, 100, "Marks should be in 0 to 100")
+			.field("chemistry", "Marks").required().integer(0, 100, "Marks should be in 0 to 100")
+			.field("maths", "Marks").required().integer(0, 100, "Marks should be in 0 to 100");
+
 	/**
 	 * Preloads student list for dropdown.
 	 * 
@@ -40,15 +45,7 @@ public class MarksheetCtl extends BaseCtl {
 	 */
 	@Override
 	protected void preload(HttpServletRequest request) {
-
-		StudentModel studentModel = new StudentModel();
-
-		try {
-			List<StudentBean> studentList = studentModel.list();
-			request.setAttribute("studentList", studentList);
-		} catch (ApplicationException e) {
-			e.printStackTrace();
-		}
+		request.setAttribute("studentList", DropdownCache.list(DropdownCache.STUDENT));
 	}
 
 	/**
@@ -59,62 +56,7 @@ public class MarksheetCtl extends BaseCtl {
 	 */
 	@Override
 	protected boolean validate(HttpServletRequest request) {
-
-		boolean pass = true;
-
-		if (DataValidator.isNull(request.getParameter("studentId"))) {
-			request.setAttribute("studentId", PropertyReader.getValue("error.require", "Student Name"));
-			pass = false;
-		}
-
-		if (DataValidator.isNull(request.getParameter("rollNo"))) {
-			request.setAttribute("rollNo", PropertyReader.getValue("error.require", "Roll Number"));
-			pass = false;
-		} else if (!DataValidator.isRollNo(request.getParameter("rollNo"))) {
-			request.setAttribute("rollNo", "Roll No is invalid");
-			pass = false;
-		}
-
-		// Physics Validation
-		if (DataValidator.isNull(request.getParameter("physics"))) {
-			request.setAttribute("physics", PropertyReader.getValue("error.require", "Marks"));
-			pass = false;
-		} else if (!DataValidator.isInteger(request.getParameter("physics"))) {
-			request.setAttribute("physics", PropertyReader.getValue("error.integer", "Marks"));
-			pass = false;
-		} else if (DataUtility.getInt(request.getParameter("physics")) < 0
-				|| DataUtility.getInt(request.getParameter("physics")) > 100) {
-			request.setAttribute("physics", "Marks should be in 0 to 100");
-			pass = false;
-		}
-
-		// Chemistry Validation
-		if (DataValidator.isNull(request.getParameter("chemistry"))) {
-			request.setAttribute("chemistry", PropertyReader.getValue("error.require", "Marks"));
-			pass = false;
-		} else if (!DataValidator.isInteger(request.getParameter("chemistry"))) {
-			request.setAttribute("chemistry", PropertyReader.getValue("error.integer", "Marks"));
-			pass = false;
-		} else if (DataUtility.getInt(request.getParameter("chemistry")) < 0
-				|| DataUtility.getInt(request.getParameter("chemistry")) > 100) {
-			request.setAttribute("chemistry", "Marks should be in 0 to 100");
-			pass = false;
-		}
-
-		// Maths Validation
-		if (DataValidator.isNull(request.getParameter("maths"))) {
-			request.setAttribute("maths", PropertyReader.getValue("error.require", "Marks"));
-			pass = false;
-		} else if (!DataValidator.isInteger(request.getParameter("maths"))) {
-			request.setAttribute("maths", PropertyReader.getValue("error.integer", "Marks"));
-			pass = false;
-		} else if (DataUtility.getInt(request.getParameter("maths")) < 0
-				|| DataUtility.getInt(request.getParameter("maths")) > 100) {
-			request.setAttribute("maths", "Marks should be in 0 to 100");
-			pass = false;
-		}
-
-		return pass;
+		return RULES.validate(request);
 	}
 
 	/**
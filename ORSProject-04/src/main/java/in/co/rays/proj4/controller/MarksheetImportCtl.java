@@ -0,0 +1,134 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.ImportResult;
+import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.ServletUtility;
+
+/**
+ * MarksheetImportCtl Controller uploads a CSV file of marksheets and imports
+ * it with {@link MarksheetModel#importCsv(Reader, String)}.
+ *
+ * The upload is streamed from the request to the model, so large files are
+ * never held in memory. The number of imported and rejected rows and the
+ * reason for each rejected row are shown on the view.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@WebServlet(name = "MarksheetImportCtl", urlPatterns = { "/ctl/MarksheetImportCtl" })
+@MultipartConfig(fileSizeThreshold = 1024 * 1024, maxFileSize = 50 * 1024 * 1024, maxRequestSize = 51 * 1024 * 1024)
+public class MarksheetImportCtl extends BaseCtl {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String OP_UPLOAD = "Upload";
+
+	/**
+	 * Validates that a non empty file is selected.
+	 *
+	 * @param request HTTP request
+	 * @return true if a file is uploaded else false
+	 */
+	@Override
+	protected boolean validate(HttpServletRequest request) {
+
+		boolean pass = true;
+
+		try {
+			Part part = request.getPart("file");
+			if (part == null || part.getSize() == 0) {
+				request.setAttribute("file", PropertyReader.getValue("error.require", "CSV File"));
+				pass = false;
+			}
+		} catch (IOException | ServletException | IllegalStateException e) {
+			log.error("Invalid marksheet upload", e);
+			request.setAttribute("file", "File could not be uploaded");
+			pass = false;
+		}
+
+		return pass;
+	}
+
+	/**
+	 * Handles GET request for displaying the upload form.
+	 *
+	 * @param request  HTTP request
+	 * @param response HTTP response
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		ServletUtility.forward(getView(), request, response);
+	}
+
+	/**
+	 * Handles POST request for Upload and Cancel operations.
+	 *
+	 * @param request  HTTP request
+	 * @param response HTTP response
+	 */
+	@Override
+	protected void doPost(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		String op = DataUtility.getString(request.getParameter("operation"));
+
+		if (OP_UPLOAD.equalsIgnoreCase(op)) {
+
+			UserBean user = (UserBean) request.getSession().getAttribute("user");
+			String login = (user == null) ? "root" : user.getLogin();
+
+			MarksheetModel model = new MarksheetModel();
+
+			try (Reader reader = new InputStreamReader(request.getPart("file").getInputStream(),
+					StandardCharsets.UTF_8)) {
+
+				ImportResult result = model.importCsv(reader, login);
+
+				ServletUtility.setSuccessMessage(result.getImported() + " marksheet(s) imported", request);
+				if (result.getRejected() > 0) {
+					ServletUtility.setErrorMessage(result.getRejected() + " row(s) rejected", request);
+				}
+				request.setAttribute("importResult", result);
+
+			} catch (ApplicationException e) {
+				e.printStackTrace();
+				ServletUtility.handleException(e, request, response);
+				return;
+			}
+
+		} else if (OP_CANCEL.equalsIgnoreCase(op)) {
+
+			ServletUtility.redirect(ORSView.MARKSHEET_LIST_CTL, request, response);
+			return;
+		}
+
+		ServletUtility.forward(getView(), request, response);
+	}
+
+	/**
+	 * Returns Marksheet import view page.
+	 *
+	 * @return Marksheet import JSP path
+	 */
+	@Override
+	protected String getView() {
+		return ORSView.MARKSHEET_IMPORT_VIEW;
+	}
+}
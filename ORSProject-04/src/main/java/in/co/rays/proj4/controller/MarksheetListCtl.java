@@ -11,8 +11,11 @@ import javax.servlet.http.HttpServletResponse;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.MarksheetBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.DeleteResult;
 import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.util.Cursor;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -63,18 +66,8 @@ public class MarksheetListCtl extends BaseCtl {
 
 		try {
 
-			List<MarksheetBean> list = model.search(bean, pageNo, pageSize);
-			List<MarksheetBean> next = model.search(bean, pageNo + 1, pageSize);
-
-			if (list == null || list.isEmpty()) {
-				ServletUtility.setErrorMessage("No record found", request);
-			}
-
-			ServletUtility.setList(list, request);
-			ServletUtility.setPageNo(pageNo, request);
-			ServletUtility.setPageSize(pageSize, request);
-			ServletUtility.setBean(bean, request);
-			request.setAttribute("nextListSize", next.size());
+			Page<MarksheetBean> page = model.searchPage(bean, Cursor.first(), pageNo, pageSize);
+			setPage(page, bean, request);
 
 			ServletUtility.forward(getView(), request, response);
 
@@ -95,8 +88,6 @@ public class MarksheetListCtl extends BaseCtl {
 	protected void doPost(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
 
-		List list = null;
-		List next = null;
 
 		int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
 		int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -124,6 +115,11 @@ public class MarksheetListCtl extends BaseCtl {
 					pageNo--;
 				}
 
+			} else if (isExport(op)) {
+
+				export(op, "marksheets", writer -> model.export(bean, writer), response);
+				return;
+
 			} else if (OP_NEW.equalsIgnoreCase(op)) {
 
 				ServletUtility.redirect(ORSView.MARKSHEET_CTL, request, response);
@@ -135,14 +131,8 @@ public class MarksheetListCtl extends BaseCtl {
 
 				if (ids != null && ids.length > 0) {
 
-					MarksheetBean deleteBean = new MarksheetBean();
-
-					for (String id : ids) {
-						deleteBean.setId(DataUtility.getInt(id));
-						model.delete(deleteBean);
-					}
-
-					ServletUtility.setSuccessMessage("Marksheet deleted successfully", request);
+					DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+					setDeleteResult(result, "Marksheet deleted successfully", request);
 
 				} else {
 					ServletUtility.setErrorMessage("Select at least one record", request);
@@ -159,19 +149,8 @@ public class MarksheetListCtl extends BaseCtl {
 				return;
 			}
 
-			list = model.search(bean, pageNo, pageSize);
-			next = model.search(bean, pageNo + 1, pageSize);
-
-			if (list == null || list.isEmpty()) {
-				ServletUtility.setErrorMessage("No record found", request);
-			}
-
-			ServletUtility.setList(list, request);
-			ServletUtility.setPageNo(pageNo, request);
-			ServletUtility.setPageSize(pageSize, request);
-			ServletUtility.setBean(bean, request);
-
-			request.setAttribute("nextListSize", next.size());
+			Page<MarksheetBean> page = model.searchPage(bean, getCursor(op, request), pageNo, pageSize);
+			setPage(page, bean, request);
 
 			ServletUtility.forward(getView(), request, response);
 
@@ -1,8 +1,6 @@
 package in.co.rays.proj4.controller;
 
 import java.io.IOException;
-import java.util.List;
-
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -12,6 +10,7 @@ import in.co.rays.proj4.bean.MarksheetBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.MarksheetModel;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -46,15 +45,8 @@ public class MarksheetMeritListCtl extends BaseCtl {
         MarksheetModel model = new MarksheetModel();
 
         try {
-            List<MarksheetBean> list = model.getMeritList(pageNo, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
+            Page<MarksheetBean> page = model.getMeritPage(pageNo, pageSize);
+            setPage(page, null, request);
 
             ServletUtility.forward(getView(), request, response);
 
@@ -65,7 +57,8 @@ public class MarksheetMeritListCtl extends BaseCtl {
     }
 
     /**
-     * Handles POST request for back navigation from merit list page.
+     * Handles POST request for Next, Previous and Back operations on
+     * merit list page.
      * 
      * @param request  HTTP request object
      * @param response HTTP response object
@@ -76,11 +69,36 @@ public class MarksheetMeritListCtl extends BaseCtl {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
+        int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
+        int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
+
+        pageNo = (pageNo == 0) ? 1 : pageNo;
+        pageSize = (pageSize == 0)
+                ? DataUtility.getInt(PropertyReader.getValue("page.size"))
+                : pageSize;
+
         String op = DataUtility.getString(request.getParameter("operation"));
 
         if (OP_BACK.equalsIgnoreCase(op)) {
             ServletUtility.redirect(ORSView.WELCOME_CTL, request, response);
             return;
+        } else if (OP_NEXT.equalsIgnoreCase(op)) {
+            pageNo++;
+        } else if (OP_PREVIOUS.equalsIgnoreCase(op) && pageNo > 1) {
+            pageNo--;
+        }
+
+        MarksheetModel model = new MarksheetModel();
+
+        try {
+            Page<MarksheetBean> page = model.getMeritPage(pageNo, pageSize);
+            setPage(page, null, request);
+
+            ServletUtility.forward(getView(), request, response);
+
+        } catch (ApplicationException e) {
+            e.printStackTrace();
+            ServletUtility.handleException(e, request, response);
         }
     }
 
@@ -0,0 +1,136 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.util.RequestMetrics;
+
+/**
+ * MetricsCtl serves the metrics of the controllers, caches and mail pool,
+ * see {@link RequestMetrics}, as plain text in the Prometheus exposition
+ * format.
+ * <p>
+ * It is mapped to <code>/metrics</code>, outside <code>/ctl</code>, so
+ * {@link FrontController} does not send a scraper to the login page. A
+ * request gets the metrics if any of these holds, otherwise 401 when a
+ * token is configured and 403 when not:
+ * <ul>
+ *   <li>it has the header <code>Authorization: Bearer &lt;token&gt;</code>
+ *       with the token of <code>metrics.token</code></li>
+ *   <li>it comes from an address listed in <code>metrics.allow</code>,
+ *       separated by commas</li>
+ *   <li>it belongs to the session of a logged in admin</li>
+ * </ul>
+ * Both keys are read from system.properties and can be overridden with a
+ * system property of the same name. Both are empty by default, so only an
+ * admin gets the metrics until one is set. It does not extend
+ * {@link BaseCtl}, so reading the metrics is not counted in them.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+@WebServlet(name = "MetricsCtl", urlPatterns = { "/metrics" })
+public class MetricsCtl extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private static Logger log = Logger.getLogger(MetricsCtl.class);
+
+    /** Content type of the Prometheus text format */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String BEARER = "Bearer ";
+
+    private byte[] token;
+
+    private Set<String> allowed;
+
+    /**
+     * Reads the token and the allowed addresses.
+     */
+    @Override
+    public void init() throws ServletException {
+
+        ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.system");
+
+        String value = config(rb, "metrics.token");
+        token = value.isEmpty() ? null : value.getBytes(StandardCharsets.UTF_8);
+
+        allowed = new HashSet<String>();
+        for (String address : config(rb, "metrics.allow").split(",")) {
+            if (!address.trim().isEmpty()) {
+                allowed.add(address.trim());
+            }
+        }
+    }
+
+    private static String config(ResourceBundle rb, String key) {
+        return System.getProperty(key, rb.containsKey(key) ? rb.getString(key) : "").trim();
+    }
+
+    /**
+     * Writes the metrics if the request is allowed to read them.
+     *
+     * @param request  HTTP request object
+     * @param response HTTP response object
+     * @throws ServletException
+     * @throws IOException
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        if (!isAllowed(request)) {
+            log.warn("Metrics refused to " + request.getRemoteAddr());
+            if (token != null) {
+                response.setHeader("WWW-Authenticate", "Bearer realm=\"metrics\"");
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            } else {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            }
+            return;
+        }
+
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-store");
+
+        Writer out = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+        RequestMetrics.write(out);
+    }
+
+    private boolean isAllowed(HttpServletRequest request) {
+
+        String header = request.getHeader("Authorization");
+        if (token != null && header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            byte[] given = header.substring(BEARER.length()).trim().getBytes(StandardCharsets.UTF_8);
+            if (MessageDigest.isEqual(token, given)) {
+                return true;
+            }
+        }
+
+        if (allowed.contains(request.getRemoteAddr())) {
+            return true;
+        }
+
+        HttpSession session = request.getSession(false);
+        UserBean user = (session == null) ? null : (UserBean) session.getAttribute("user");
+        return user != null && user.getRoleId() == RoleBean.ADMIN;
+    }
+}
@@ -31,6 +31,9 @@ public interface ORSView {
 	public String MARKSHEET_MERIT_LIST_VIEW = PAGE_FOLDER + "/MarksheetMeritListView.jsp";
 	public String MARKSHEET_MERIT_LIST_CTL = APP_CONTEXT + "/ctl/MarksheetMeritListCtl";
 
+	public String MARKSHEET_IMPORT_VIEW = PAGE_FOLDER + "/MarksheetImportView.jsp";
+	public String MARKSHEET_IMPORT_CTL = APP_CONTEXT + "/ctl/MarksheetImportCtl";
+
 	public String USER_VIEW = PAGE_FOLDER + "/UserView.jsp";
 	public String USER_CTL = APP_CONTEXT + "/ctl/UserCtl";
 
@@ -88,6 +91,8 @@ public interface ORSView {
 	public String ERROR_VIEW = PAGE_FOLDER + "/ErrorView.jsp";
 	public String ERROR_CTL = APP_CONTEXT + "/ErrorCtl";
 
+	public String METRICS_CTL = APP_CONTEXT + "/metrics";
+
 	public String JAVA_DOC = "/ORSProject-04/doc/index.html";
 
 
@@ -16,8 +16,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.PatientModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -32,6 +31,12 @@ public class PatientCtl extends BaseCtl {
     /** Logger instance for PatientCtl */
     private static Logger log = Logger.getLogger(PatientCtl.class);
 
+    private static final RuleSet RULES = new RuleSet()
+            .field("name", "Name").required().name("Invalid Name")
+            .field("dateOfVisit", "Date of Visit").required().date()
+            .field("mobile", "Mobile No").required().phone()
+            .field("disease", "Disease").required();
+
     /**
      * Preloads disease list for dropdown.
      *
@@ -70,42 +75,7 @@ public class PatientCtl extends BaseCtl {
 
         log.debug("PatientCtl validate started");
 
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("name"))) {
-            request.setAttribute("name", "Invalid Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("dateOfVisit"))) {
-            request.setAttribute("dateOfVisit", PropertyReader.getValue("error.require", "Date of Visit"));
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("dateOfVisit"))) {
-            request.setAttribute("dateOfVisit", PropertyReader.getValue("error.date", "Date of Visit"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobile"))) {
-            request.setAttribute("mobile", PropertyReader.getValue("error.require", "Mobile No"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobile"))) {
-            request.setAttribute("mobile", "Mobile No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobile"))) {
-            request.setAttribute("mobile", "Invalid Mobile No");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("disease"))) {
-            request.setAttribute("disease", PropertyReader.getValue("error.require", "Disease"));
-            pass = false;
-        }
-
-        log.debug("PatientCtl validate completed with status : " + pass);
-        return pass;
+        return RULES.validate(request);
     }
 
     /**
@@ -26,8 +26,10 @@ import org.apache.log4j.Logger;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.PatientBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.DeleteResult;
 import in.co.rays.proj4.model.PatientModel;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -96,18 +98,8 @@ public class PatientListCtl extends BaseCtl {
         PatientModel model = new PatientModel();
 
         try {
-            List<PatientBean> list = model.search(bean, pageNo, pageSize);
-            List<PatientBean> next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", req);
-            }
-
-            ServletUtility.setList(list, req);
-            ServletUtility.setPageNo(pageNo, req);
-            ServletUtility.setPageSize(pageSize, req);
-            ServletUtility.setBean(bean, req);
-            req.setAttribute("nextListSize", next.size());
+            Page<PatientBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, req);
 
             ServletUtility.forward(getView(), req, resp);
 
@@ -155,6 +147,11 @@ public class PatientListCtl extends BaseCtl {
                     pageNo--;
                 }
 
+            } else if (isExport(op)) {
+
+                export(op, "patients", writer -> model.export(bean, writer), resp);
+                return;
+
             } else if (OP_NEW.equalsIgnoreCase(op)) {
                 ServletUtility.redirect(ORSView.PATIENT_CTL, req, resp);
                 return;
@@ -162,10 +159,8 @@ public class PatientListCtl extends BaseCtl {
             } else if (OP_DELETE.equalsIgnoreCase(op)) {
                 pageNo = 1;
                 if (ids != null && ids.length > 0) {
-                    for (String id : ids) {
-                        model.delete(DataUtility.getInt(id));
-                        ServletUtility.setSuccessMessage("Patient deleted successfully", req);
-                    }
+                    DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+                    setDeleteResult(result, "Patient deleted successfully", req);
                 } else {
                     ServletUtility.setErrorMessage("Select at least 1 id.", req);
                 }
@@ -175,18 +170,8 @@ public class PatientListCtl extends BaseCtl {
                 return;
             }
 
-            List list = model.search(bean, pageNo, pageSize);
-            List next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.size() == 0) {
-                ServletUtility.setErrorMessage("No record found", req);
-            }
-
-            ServletUtility.setBean(bean, req);
-            ServletUtility.setList(list, req);
-            ServletUtility.setPageNo(pageNo, req);
-            ServletUtility.setPageSize(pageSize, req);
-            req.setAttribute("nextListSize", next.size());
+            Page<PatientBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, req);
 
         } catch (ApplicationException e) {
             e.printStackTrace();
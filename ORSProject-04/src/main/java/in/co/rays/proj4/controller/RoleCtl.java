@@ -16,8 +16,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -38,6 +37,10 @@ public class RoleCtl extends BaseCtl {
      */
     private static final Logger log = Logger.getLogger(RoleCtl.class);
 
+    private static final RuleSet RULES = new RuleSet()
+            .field("name", "Name").required().name("Invalid Name")
+            .field("description", "Description").required();
+
     /**
      * Validates Role form input fields.
      *
@@ -46,24 +49,7 @@ public class RoleCtl extends BaseCtl {
      */
     @Override
     protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("name"))) {
-            request.setAttribute("name", "Invalid Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            request.setAttribute("description",
-                    PropertyReader.getValue("error.require", "Description"));
-            pass = false;
-        }
-
-        return pass;
+        return RULES.validate(request);
     }
 
     /**
@@ -11,8 +11,11 @@ import javax.servlet.http.HttpServletResponse;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.RoleBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.DeleteResult;
+import in.co.rays.proj4.model.DropdownCache;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -36,14 +39,7 @@ public class RoleListCtl extends BaseCtl {
      */
     @Override
     protected void preload(HttpServletRequest request) {
-        RoleModel roleModel = new RoleModel();
-
-        try {
-            List roleList = roleModel.list();
-            request.setAttribute("roleList", roleList);
-        } catch (ApplicationException e) {
-            e.printStackTrace();
-        }
+        request.setAttribute("roleList", DropdownCache.list(DropdownCache.ROLE));
     }
 
     /**
@@ -83,19 +79,8 @@ public class RoleListCtl extends BaseCtl {
         RoleModel model = new RoleModel();
 
         try {
-            List<RoleBean> list = model.search(bean, pageNo, pageSize);
-            List<RoleBean> next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-
-            request.setAttribute("nextListSize", next.size());
+            Page<RoleBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
@@ -118,8 +103,6 @@ public class RoleListCtl extends BaseCtl {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        List list = null;
-        List next = null;
 
         int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -149,6 +132,11 @@ public class RoleListCtl extends BaseCtl {
                     pageNo--;
                 }
 
+            } else if (isExport(op)) {
+
+                export(op, "roles", writer -> model.export(bean, writer), response);
+                return;
+
             } else if (OP_NEW.equalsIgnoreCase(op)) {
 
                 ServletUtility.redirect(ORSView.ROLE_CTL, request, response);
@@ -160,14 +148,8 @@ public class RoleListCtl extends BaseCtl {
 
                 if (ids != null && ids.length > 0) {
 
-                    RoleBean deleteBean = new RoleBean();
-
-                    for (String id : ids) {
-                        deleteBean.setId(DataUtility.getInt(id));
-                        model.delete(deleteBean);
-                    }
-
-                    ServletUtility.setSuccessMessage("Role deleted successfully", request);
+                    DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+                    setDeleteResult(result, "Role deleted successfully", request);
 
                 } else {
                     ServletUtility.setErrorMessage("Select at least one record", request);
@@ -184,19 +166,8 @@ public class RoleListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-
-            request.setAttribute("nextListSize", next.size());
+            Page<RoleBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
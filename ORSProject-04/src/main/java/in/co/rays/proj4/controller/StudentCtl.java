@@ -1,7 +1,6 @@
 package in.co.rays.proj4.controller;
 
 import java.io.IOException;
-import java.util.List;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -12,7 +11,7 @@ import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.StudentBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
-import in.co.rays.proj4.model.CollegeModel;
+import in.co.rays.proj4.model.DropdownCache;
 import in.co.rays.proj4.model.StudentModel;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.DataValidator;
@@ -38,13 +37,7 @@ public class StudentCtl extends BaseCtl {
      */
     @Override
     protected void preload(HttpServletRequest request) {
-        CollegeModel collegeModel = new CollegeModel();
-        try {
-            List collegeList = collegeModel.list();
-            request.setAttribute("collegeList", collegeList);
-        } catch (ApplicationException e) {
-            e.printStackTrace();
-        }
+        request.setAttribute("collegeList", DropdownCache.list(DropdownCache.COLLEGE));
     }
 
     /**
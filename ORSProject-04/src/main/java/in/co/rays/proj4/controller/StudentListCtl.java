@@ -11,8 +11,11 @@ import javax.servlet.http.HttpServletResponse;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.StudentBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.DeleteResult;
 import in.co.rays.proj4.model.StudentModel;
+import in.co.rays.proj4.util.Cursor;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -67,19 +70,8 @@ public class StudentListCtl extends BaseCtl {
         StudentModel model = new StudentModel();
 
         try {
-            List<StudentBean> list = model.search(bean, pageNo, pageSize);
-            List<StudentBean> next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-
-            request.setAttribute("nextListSize", next.size());
+            Page<StudentBean> page = model.searchPage(bean, Cursor.first(), pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
@@ -102,8 +94,6 @@ public class StudentListCtl extends BaseCtl {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        List list = null;
-        List next = null;
 
         int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -133,6 +123,11 @@ public class StudentListCtl extends BaseCtl {
                     pageNo--;
                 }
 
+            } else if (isExport(op)) {
+
+                export(op, "students", writer -> model.export(bean, writer), response);
+                return;
+
             } else if (OP_NEW.equalsIgnoreCase(op)) {
 
                 ServletUtility.redirect(ORSView.STUDENT_CTL, request, response);
@@ -144,14 +139,8 @@ public class StudentListCtl extends BaseCtl {
 
                 if (ids != null && ids.length > 0) {
 
-                    StudentBean deleteBean = new StudentBean();
-
-                    for (String id : ids) {
-                        deleteBean.setId(DataUtility.getInt(id));
-                        model.delete(deleteBean);
-                    }
-
-                    ServletUtility.setSuccessMessage("Student deleted successfully", request);
+                    DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+                    setDeleteResult(result, "Student deleted successfully", request);
 
                 } else {
                     ServletUtility.setErrorMessage("Select at least one record", request);
@@ -168,19 +157,8 @@ public class StudentListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-
-            request.setAttribute("nextListSize", next.size());
+            Page<StudentBean> page = model.searchPage(bean, getCursor(op, request), pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
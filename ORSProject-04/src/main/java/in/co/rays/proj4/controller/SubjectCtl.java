@@ -1,7 +1,6 @@
 package in.co.rays.proj4.controller;
 
 import java.io.IOException;
-import java.util.List;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -12,11 +11,10 @@ import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.SubjectBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
-import in.co.rays.proj4.model.CourseModel;
+import in.co.rays.proj4.model.DropdownCache;
 import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -31,6 +29,11 @@ import in.co.rays.proj4.util.ServletUtility;
 @WebServlet(name = "SubjectCtl", urlPatterns = { "/ctl/SubjectCtl" })
 public class SubjectCtl extends BaseCtl {
 
+    private static final RuleSet RULES = new RuleSet()
+            .field("name", "Subject Name").required()
+            .field("courseId", "Course Name").required()
+            .field("description", "Description").required();
+
     /**
      * Preloads Course list for dropdown in Subject form.
      *
@@ -38,15 +41,7 @@ public class SubjectCtl extends BaseCtl {
      */
     @Override
     protected void preload(HttpServletRequest request) {
-
-        CourseModel courseModel = new CourseModel();
-
-        try {
-            List courseList = courseModel.list();
-            request.setAttribute("courseList", courseList);
-        } catch (ApplicationException e) {
-            e.printStackTrace();
-        }
+        request.setAttribute("courseList", DropdownCache.list(DropdownCache.COURSE));
     }
 
     /**
@@ -57,25 +52,7 @@ public class SubjectCtl extends BaseCtl {
      */
     @Override
     protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Subject Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("courseId"))) {
-            request.setAttribute("courseId", PropertyReader.getValue("error.require", "Course Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-            pass = false;
-        }
-
-        return pass;
+        return RULES.validate(request);
     }
 
     /**
@@ -11,9 +11,11 @@ import javax.servlet.http.HttpServletResponse;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.SubjectBean;
 import in.co.rays.proj4.exception.ApplicationException;
-import in.co.rays.proj4.model.CourseModel;
+import in.co.rays.proj4.model.DeleteResult;
+import in.co.rays.proj4.model.DropdownCache;
 import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -36,20 +38,8 @@ public class SubjectListCtl extends BaseCtl {
      */
     @Override
     protected void preload(HttpServletRequest request) {
-
-        SubjectModel subjectModel = new SubjectModel();
-        CourseModel courseModel = new CourseModel();
-
-        try {
-            List subjectList = subjectModel.list();
-            request.setAttribute("subjectList", subjectList);
-
-            List courseList = courseModel.list();
-            request.setAttribute("courseList", courseList);
-
-        } catch (ApplicationException e) {
-            e.printStackTrace();
-        }
+        request.setAttribute("subjectList", DropdownCache.list(DropdownCache.SUBJECT));
+        request.setAttribute("courseList", DropdownCache.list(DropdownCache.COURSE));
     }
 
     /**
@@ -90,19 +80,8 @@ public class SubjectListCtl extends BaseCtl {
         SubjectModel model = new SubjectModel();
 
         try {
-            List<SubjectBean> list = model.search(bean, pageNo, pageSize);
-            List<SubjectBean> next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-
-            request.setAttribute("nextListSize", next.size());
+            Page<SubjectBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
@@ -123,8 +102,6 @@ public class SubjectListCtl extends BaseCtl {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        List list = null;
-        List next = null;
 
         int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -154,6 +131,11 @@ public class SubjectListCtl extends BaseCtl {
                     pageNo--;
                 }
 
+            } else if (isExport(op)) {
+
+                export(op, "subjects", writer -> model.export(bean, writer), response);
+                return;
+
             } else if (OP_NEW.equalsIgnoreCase(op)) {
 
                 ServletUtility.redirect(ORSView.SUBJECT_CTL, request, response);
@@ -165,14 +147,8 @@ public class SubjectListCtl extends BaseCtl {
 
                 if (ids != null && ids.length > 0) {
 
-                    SubjectBean deleteBean = new SubjectBean();
-
-                    for (String id : ids) {
-                        deleteBean.setId(DataUtility.getInt(id));
-                        model.delete(deleteBean);
-                    }
-
-                    ServletUtility.setSuccessMessage("Subject deleted successfully", request);
+                    DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+                    setDeleteResult(result, "Subject deleted successfully", request);
 
                 } else {
                     ServletUtility.setErrorMessage("Select at least one record", request);
@@ -189,19 +165,8 @@ public class SubjectListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-
-            request.setAttribute("nextListSize", next.size());
+            Page<SubjectBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
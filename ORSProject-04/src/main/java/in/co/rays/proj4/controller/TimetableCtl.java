@@ -12,12 +12,12 @@ import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.TimetableBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
-import in.co.rays.proj4.model.CourseModel;
-import in.co.rays.proj4.model.SubjectModel;
+import in.co.rays.proj4.model.DropdownCache;
+import in.co.rays.proj4.model.TimetableConflict;
 import in.co.rays.proj4.model.TimetableModel;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -33,6 +33,15 @@ import in.co.rays.proj4.util.ServletUtility;
 @WebServlet(name = "TimetableCtl", urlPatterns = { "/ctl/TimetableCtl" })
 public class TimetableCtl extends BaseCtl {
 
+    private static final RuleSet RULES = new RuleSet()
+            .field("semester", "Semester").required()
+            .field("examDate", "Date of Exam").required().date()
+                .rule(date -> !DataValidator.isSunday(date), "Exam should not be on Sunday")
+            .field("examTime", "Exam Time").required()
+            .field("description", "Description").required()
+            .field("courseId", "Course Name").required()
+            .field("subjectId", "Subject Name").required();
+
     /**
      * Preloads Subject and Course lists for dropdown fields.
      *
@@ -40,20 +49,8 @@ public class TimetableCtl extends BaseCtl {
      */
     @Override
     protected void preload(HttpServletRequest request) {
-
-        SubjectModel subjectModel = new SubjectModel();
-        CourseModel courseModel = new CourseModel();
-
-        try {
-            List subjectList = subjectModel.list();
-            request.setAttribute("subjectList", subjectList);
-
-            List courseList = courseModel.list();
-            request.setAttribute("courseList", courseList);
-
-        } catch (ApplicationException e) {
-            e.printStackTrace();
-        }
+        request.setAttribute("subjectList", DropdownCache.list(DropdownCache.SUBJECT));
+        request.setAttribute("courseList", DropdownCache.list(DropdownCache.COURSE));
     }
 
     /**
@@ -64,46 +61,7 @@ public class TimetableCtl extends BaseCtl {
      */
     @Override
     protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("semester"))) {
-            request.setAttribute("semester", PropertyReader.getValue("error.require", "Semester"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("examDate"))) {
-            request.setAttribute("examDate", PropertyReader.getValue("error.require", "Date of Exam"));
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("examDate"))) {
-            request.setAttribute("examDate", PropertyReader.getValue("error.date", "Date of Exam"));
-            pass = false;
-        } else if (DataValidator.isSunday(request.getParameter("examDate"))) {
-            request.setAttribute("examDate", "Exam should not be on Sunday");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("examTime"))) {
-            request.setAttribute("examTime", PropertyReader.getValue("error.require", "Exam Time"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("courseId"))) {
-            request.setAttribute("courseId", PropertyReader.getValue("error.require", "Course Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("subjectId"))) {
-            request.setAttribute("subjectId", PropertyReader.getValue("error.require", "Subject Name"));
-            pass = false;
-        }
-
-        return pass;
+        return RULES.validate(request);
     }
 
     /**
@@ -179,18 +137,10 @@ public class TimetableCtl extends BaseCtl {
 
             TimetableBean bean = (TimetableBean) populateBean(request);
 
-            TimetableBean bean1;
-            TimetableBean bean2;
-            TimetableBean bean3;
-
             try {
-                // Check duplicate conditions
-                bean1 = model.checkByCourseName(bean.getCourseId(), bean.getExamDate());
-                bean2 = model.checkBySubjectName(bean.getCourseId(), bean.getSubjectId(), bean.getExamDate());
-                bean3 = model.checkBySemester(bean.getCourseId(), bean.getSubjectId(), bean.getSemester(),
-                        bean.getExamDate());
+                List<TimetableConflict> conflicts = model.findConflicts(bean);
 
-                if (bean1 == null && bean2 == null && bean3 == null) {
+                if (conflicts.isEmpty()) {
 
                     model.add(bean);
                     ServletUtility.setBean(bean, request);
@@ -198,9 +148,8 @@ public class TimetableCtl extends BaseCtl {
 
                 } else {
 
-                    bean = (TimetableBean) populateBean(request);
                     ServletUtility.setBean(bean, request);
-                    ServletUtility.setErrorMessage("Timetable already exists!", request);
+                    ServletUtility.setErrorMessage(conflictMessage(conflicts), request);
                 }
 
             } catch (DuplicateRecordException e) {
@@ -219,14 +168,11 @@ public class TimetableCtl extends BaseCtl {
 
             TimetableBean bean = (TimetableBean) populateBean(request);
 
-            TimetableBean bean4;
-
             try {
-                // Check timtable clash based on exam time
-                bean4 = model.checkByExamTime(bean.getCourseId(), bean.getSubjectId(), bean.getSemester(),
-                        bean.getExamDate(), bean.getExamTime(), bean.getDescription());
+                // Check clashes with the other exams of the course
+                List<TimetableConflict> conflicts = model.findConflicts(bean);
 
-                if (id > 0 && bean4 == null) {
+                if (id > 0 && conflicts.isEmpty()) {
 
                     model.update(bean);
                     ServletUtility.setBean(bean, request);
@@ -234,9 +180,9 @@ public class TimetableCtl extends BaseCtl {
 
                 } else {
 
-                    bean = (TimetableBean) populateBean(request);
                     ServletUtility.setBean(bean, request);
-                    ServletUtility.setErrorMessage("Timetable already exists!", request);
+                    ServletUtility.setErrorMessage(
+                            conflicts.isEmpty() ? "Timetable already exists!" : conflictMessage(conflicts), request);
                 }
 
             } catch (DuplicateRecordException e) {
@@ -265,6 +211,23 @@ public class TimetableCtl extends BaseCtl {
         ServletUtility.forward(getView(), request, response);
     }
 
+    /**
+     * Joins the messages of the conflicts, each rule once per clashing exam.
+     *
+     * @param conflicts conflicts of the exam
+     * @return error message
+     */
+    private String conflictMessage(List<TimetableConflict> conflicts) {
+        StringBuilder message = new StringBuilder();
+        for (TimetableConflict conflict : conflicts) {
+            if (message.length() > 0) {
+                message.append("<br>");
+            }
+            message.append(conflict.getMessage());
+        }
+        return message.toString();
+    }
+
     /**
      * Returns Timetable view JSP path.
      *
@@ -13,10 +13,11 @@ import org.apache.log4j.Logger;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.TimetableBean;
 import in.co.rays.proj4.exception.ApplicationException;
-import in.co.rays.proj4.model.CourseModel;
-import in.co.rays.proj4.model.SubjectModel;
+import in.co.rays.proj4.model.DeleteResult;
+import in.co.rays.proj4.model.DropdownCache;
 import in.co.rays.proj4.model.TimetableModel;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -44,19 +45,8 @@ public class TimetableListCtl extends BaseCtl {
 
         log.debug("TimetableListCtl preload started");
 
-        SubjectModel subjectModel = new SubjectModel();
-        CourseModel courseModel = new CourseModel();
-
-        try {
-            List subjectList = subjectModel.list();
-            request.setAttribute("subjectList", subjectList);
-
-            List courseList = courseModel.list();
-            request.setAttribute("courseList", courseList);
-
-        } catch (ApplicationException e) {
-            log.error("Error in preload()", e);
-        }
+        request.setAttribute("subjectList", DropdownCache.list(DropdownCache.SUBJECT));
+        request.setAttribute("courseList", DropdownCache.list(DropdownCache.COURSE));
     }
 
     /**
@@ -103,23 +93,8 @@ public class TimetableListCtl extends BaseCtl {
         TimetableModel model = new TimetableModel();
 
         try {
-            List<TimetableBean> list =
-                    model.search(bean, pageNo, pageSize);
-            List<TimetableBean> next =
-                    model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage(
-                        "No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-
-            request.setAttribute(
-                    "nextListSize", next.size());
+            Page<TimetableBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(
                     getView(), request, response);
@@ -145,8 +120,6 @@ public class TimetableListCtl extends BaseCtl {
 
         log.debug("TimetableListCtl doPost started");
 
-        List list = null;
-        List next = null;
 
         int pageNo = DataUtility.getInt(
                 request.getParameter("pageNo"));
@@ -183,6 +156,11 @@ public class TimetableListCtl extends BaseCtl {
                     pageNo--;
                 }
 
+            } else if (isExport(op)) {
+
+                export(op, "timetables", writer -> model.export(bean, writer), response);
+                return;
+
             } else if (OP_NEW.equalsIgnoreCase(op)) {
 
                 ServletUtility.redirect(
@@ -196,18 +174,8 @@ public class TimetableListCtl extends BaseCtl {
 
                 if (ids != null && ids.length > 0) {
 
-                    TimetableBean deleteBean =
-                            new TimetableBean();
-
-                    for (String id : ids) {
-                        deleteBean.setId(
-                                DataUtility.getInt(id));
-                        model.delete(deleteBean);
-                    }
-
-                    ServletUtility.setSuccessMessage(
-                            "Data is deleted successfully",
-                            request);
+                    DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+                    setDeleteResult(result, "Data is deleted successfully", request);
 
                 } else {
                     ServletUtility.setErrorMessage(
@@ -224,21 +192,8 @@ public class TimetableListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage(
-                        "No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-
-            request.setAttribute(
-                    "nextListSize", next.size());
+            Page<TimetableBean> page = model.searchPage(bean, pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(
                     getView(), request, response);
@@ -13,9 +13,12 @@ import org.apache.log4j.Logger;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.UserBean;
 import in.co.rays.proj4.exception.ApplicationException;
-import in.co.rays.proj4.model.RoleModel;
+import in.co.rays.proj4.model.DeleteResult;
+import in.co.rays.proj4.model.DropdownCache;
 import in.co.rays.proj4.model.UserModel;
+import in.co.rays.proj4.util.Cursor;
 import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.Page;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
 
@@ -43,13 +46,7 @@ public class UserListCtl extends BaseCtl {
 
         log.debug("UserListCtl preload started");
 
-        RoleModel roleModel = new RoleModel();
-        try {
-            List roleList = roleModel.list();
-            request.setAttribute("roleList", roleList);
-        } catch (ApplicationException e) {
-            log.error("Error in preload()", e);
-        }
+        request.setAttribute("roleList", DropdownCache.list(DropdownCache.ROLE));
     }
 
     /**
@@ -97,19 +94,8 @@ public class UserListCtl extends BaseCtl {
         UserModel model = new UserModel();
 
         try {
-            List<UserBean> list = model.search(bean, pageNo, pageSize);
-            List<UserBean> next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-
-            request.setAttribute("nextListSize", next.size());
+            Page<UserBean> page = model.searchPage(bean, Cursor.first(), pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
@@ -133,8 +119,6 @@ public class UserListCtl extends BaseCtl {
 
         log.debug("UserListCtl doPost started");
 
-        List list = null;
-        List next = null;
 
         int pageNo = DataUtility.getInt(
                 request.getParameter("pageNo"));
@@ -169,6 +153,11 @@ public class UserListCtl extends BaseCtl {
                     pageNo--;
                 }
 
+            } else if (isExport(op)) {
+
+                export(op, "users", writer -> model.export(bean, writer), response);
+                return;
+
             } else if (OP_NEW.equalsIgnoreCase(op)) {
 
                 ServletUtility.redirect(
@@ -181,16 +170,8 @@ public class UserListCtl extends BaseCtl {
 
                 if (ids != null && ids.length > 0) {
 
-                    UserBean deleteBean = new UserBean();
-
-                    for (String id : ids) {
-                        deleteBean.setId(
-                                DataUtility.getInt(id));
-                        model.delete(deleteBean);
-                    }
-
-                    ServletUtility.setSuccessMessage(
-                            "User deleted successfully", request);
+                    DeleteResult result = model.deleteAll(DataUtility.getLongs(ids));
+                    setDeleteResult(result, "User deleted successfully", request);
 
                 } else {
                     ServletUtility.setErrorMessage(
@@ -205,19 +186,8 @@ public class UserListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                ServletUtility.setErrorMessage("No record found", request);
-            }
-
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-
-            request.setAttribute("nextListSize", next.size());
+            Page<UserBean> page = model.searchPage(bean, getCursor(op, request), pageNo, pageSize);
+            setPage(page, bean, request);
 
             ServletUtility.forward(getView(), request, response);
 
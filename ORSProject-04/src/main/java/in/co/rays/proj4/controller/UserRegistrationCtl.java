@@ -18,7 +18,7 @@ import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -35,6 +35,17 @@ public class UserRegistrationCtl extends BaseCtl {
 
     public static final String OP_SIGN_UP = "Sign Up";
 
+    private static final RuleSet RULES = new RuleSet()
+            .field("firstName", "First Name").required().name("Invalid First Name")
+            .field("lastName", "Last Name").required().name("Invalid Last Name")
+            .field("login", "Login Id").required().rule(DataValidator::isEmail, "error.email", "Login")
+            .field("password", "Password").required().password()
+            .field("confirmPassword", "Confirm Password").required()
+                .same("password", "Password and Confirm Password must be Same!")
+            .field("gender", "Gender").required()
+            .field("dob", "Date of Birth").required().date()
+            .field("mobileNo", "Mobile No").required().phone();
+
     /**
      * Validates all required fields for User Registration.
      *
@@ -58,94 +69,7 @@ public class UserRegistrationCtl extends BaseCtl {
 
         log.debug("UserRegistrationCtl validate started");
 
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("firstName"))) {
-            request.setAttribute("firstName",
-                    PropertyReader.getValue("error.require", "First Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", "Invalid First Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("lastName"))) {
-            request.setAttribute("lastName",
-                    PropertyReader.getValue("error.require", "Last Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", "Invalid Last Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("login"))) {
-            request.setAttribute("login",
-                    PropertyReader.getValue("error.require", "Login Id"));
-            pass = false;
-        } else if (!DataValidator.isEmail(request.getParameter("login"))) {
-            request.setAttribute("login",
-                    PropertyReader.getValue("error.email", "Login"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("password"))) {
-            request.setAttribute("password",
-                    PropertyReader.getValue("error.require", "Password"));
-            pass = false;
-        } else if (!DataValidator.isPasswordLength(request.getParameter("password"))) {
-            request.setAttribute("password",
-                    "Password should be 8 to 12 characters");
-            pass = false;
-        } else if (!DataValidator.isPassword(request.getParameter("password"))) {
-            request.setAttribute("password",
-                    "Must contain uppercase, lowercase, digit & special character");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("confirmPassword"))) {
-            request.setAttribute("confirmPassword",
-                    PropertyReader.getValue("error.require", "Confirm Password"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("gender"))) {
-            request.setAttribute("gender",
-                    PropertyReader.getValue("error.require", "Gender"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("dob"))) {
-            request.setAttribute("dob",
-                    PropertyReader.getValue("error.require", "Date of Birth"));
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("dob"))) {
-            request.setAttribute("dob",
-                    PropertyReader.getValue("error.date", "Date of Birth"));
-            pass = false;
-        }
-
-        if (!request.getParameter("password")
-                .equals(request.getParameter("confirmPassword"))
-                && !"".equals(request.getParameter("confirmPassword"))) {
-            request.setAttribute("confirmPassword",
-                    "Password and Confirm Password must be Same!");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo",
-                    PropertyReader.getValue("error.require", "Mobile No"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo",
-                    "Mobile No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Invalid Mobile No");
-            pass = false;
-        }
-
-        return pass;
+        return RULES.validate(request);
     }
 
     /**
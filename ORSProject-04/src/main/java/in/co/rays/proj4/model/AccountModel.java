@@ -1,5 +1,6 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -11,29 +12,15 @@ import in.co.rays.proj4.bean.UserBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
 
 public class AccountModel {
 
     public Integer nextPk() throws DatabaseException {
-        Connection conn = null;
-        int pk = 0;
-
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_account");
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                pk = rs.getInt(1);
-            }
-            rs.close();
-            pstmt.close();
-        } catch (Exception e) {
-            throw new DatabaseException("Exception : Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_account");
     }
 
     public long add(AccountBean bean) throws ApplicationException, DuplicateRecordException {
@@ -150,6 +137,19 @@ public class AccountModel {
         }
     }
 
+    /**
+     * Deletes the account records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
+     *
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
+     * @throws ApplicationException if any application level error occurs
+     */
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
+        return BulkDelete.deleteAll("st_account", ids);
+    }
+
     public AccountBean findByPk(long pk) throws ApplicationException {
 
         StringBuffer sql = new StringBuffer("select * from st_account where id=?");
@@ -225,46 +225,75 @@ public class AccountModel {
 		return search(null, 0, 0);
 	}
 	
+	/**
+	 * Searches Account records based on given criteria.
+	 *
+	 * @param bean     search criteria (can be null)
+	 * @param pageNo   page number (for pagination)
+	 * @param pageSize number of records per page
+	 * @return list of AccountBean matching the criteria
+	 * @throws ApplicationException if any application level error occurs
+	 */
 	public List<AccountBean> search(AccountBean bean, int pageNo, int pageSize)
-	        throws ApplicationException {
-
-	    Connection conn = null;
-	    ArrayList<AccountBean> list = new ArrayList<AccountBean>();
-
-	    StringBuffer sql = new StringBuffer("select * from st_account where 1=1");
-
-	    if (bean != null) {
+			throws ApplicationException {
+		return fetch(bean, Page.offset(pageNo, pageSize), pageSize);
+	}
 
-	        if (bean.getId() > 0) {
-	            sql.append(" and id = " + bean.getId());
-	        }
+	/**
+	 * Returns one page of Account records matching the given criteria. One row
+	 * beyond the page is fetched in the same query to tell whether a next page
+	 * exists.
+	 *
+	 * @param bean     search criteria (can be null)
+	 * @param pageNo   page number starting at 1
+	 * @param pageSize number of records per page
+	 * @return page of AccountBean
+	 * @throws ApplicationException if any application level error occurs
+	 */
+	public Page<AccountBean> searchPage(AccountBean bean, int pageNo, int pageSize)
+			throws ApplicationException {
+		return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1), pageNo, pageSize);
+	}
 
-	        if (bean.getAccountNo() != null && bean.getAccountNo().length() > 0) {
-	            sql.append(" and account_no like '" + bean.getAccountNo() + "%'");
-	        }
+	/**
+	 * Writes every account record matching the given criteria to an export,
+	 * ordered by id. Rows are streamed from the database to the writer, so
+	 * the export is never held in memory.
+	 *
+	 * @param bean   search criteria (can be null)
+	 * @param writer CSV or JSON writer
+	 * @return number of records written
+	 * @throws ApplicationException if any application level error occurs
+	 * @throws IOException          if the export cannot be written
+	 */
+	public long export(AccountBean bean, ExportWriter writer) throws ApplicationException, IOException {
+		SearchQuery query = criteria("select id, account_no, account_type, bank_name, balance"
+				+ " from st_account where 1=1", bean);
+		return Export.write(query.orderBy("id"), writer);
+	}
 
-	        if (bean.getAccountType() != null && bean.getAccountType().length() > 0) {
-	            sql.append(" and account_type like '" + bean.getAccountType() + "%'");
-	        }
+	/**
+	 * Fetches Account records matching the given criteria.
+	 *
+	 * @param bean   search criteria (can be null)
+	 * @param offset number of rows to skip
+	 * @param limit  maximum number of rows, 0 for all
+	 * @return list of AccountBean
+	 * @throws ApplicationException if any application level error occurs
+	 */
+	private List<AccountBean> fetch(AccountBean bean, int offset, int limit)
+			throws ApplicationException {
 
-	        if (bean.getBankName() != null && bean.getBankName().length() > 0) {
-	            sql.append(" and bank_name like '" + bean.getBankName() + "%'");
-	        }
+	    Connection conn = null;
+	    ArrayList<AccountBean> list = new ArrayList<AccountBean>();
 
-	        if (bean.getBalance() != null && bean.getBalance().length() > 0) {
-	            sql.append(" and balance like '" + bean.getBalance() + "%'");
-	        }
-	    }
+	    SearchQuery query = criteria("select * from st_account where 1=1", bean);
 
-	    /* ========== Pagination ========== */
-	    if (pageSize > 0) {
-	        pageNo = (pageNo - 1) * pageSize;
-	        sql.append(" limit " + pageNo + ", " + pageSize);
-	    }
+	    query.limit(offset, limit);
 
 	    try {
 	        conn = JDBCDataSource.getConnection();
-	        PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+	        PreparedStatement pstmt = query.prepare(conn);
 	        ResultSet rs = pstmt.executeQuery();
 
 	        while (rs.next()) {
@@ -297,6 +326,28 @@ public class AccountModel {
 	    return list;
 	}
 
+	/**
+	 * Returns a query with the account search criteria of the given bean.
+	 *
+	 * @param select select statement to add the criteria to
+	 * @param bean   search criteria (can be null)
+	 * @return search query
+	 */
+	private SearchQuery criteria(String select, AccountBean bean) {
+
+		SearchQuery query = new SearchQuery(select);
+
+		if (bean != null) {
+			query.equal("id", bean.getId())
+					.startsWith("account_no", bean.getAccountNo())
+					.startsWith("account_type", bean.getAccountType())
+					.startsWith("bank_name", bean.getBankName())
+					.startsWith("balance", bean.getBalance());
+		}
+
+		return query;
+	}
+
 	
 }
 	
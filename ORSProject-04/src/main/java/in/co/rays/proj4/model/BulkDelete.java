@@ -0,0 +1,127 @@
+package in.co.rays.proj4.model;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.UnitOfWork;
+
+/**
+ * BulkDelete deletes many rows of a table by id in one transaction, used by
+ * the <code>deleteAll(long... ids)</code> method of every model.
+ * <p>
+ * The ids are sent as a JDBC batch of <code>delete ... where id = ?</code>
+ * in chunks of {@link #CHUNK_SIZE}. An id that is not found or whose
+ * delete fails (e.g. a row still referenced by another table) is recorded
+ * in the {@link DeleteResult} and the remaining ids are still deleted. The
+ * work runs in a {@link UnitOfWork}, so it joins the caller's transaction
+ * if one is open.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class BulkDelete {
+
+	private static Logger log = Logger.getLogger(BulkDelete.class);
+
+	static final int CHUNK_SIZE = 500;
+
+	private BulkDelete() {
+	}
+
+	/**
+	 * Deletes the rows with the given ids.
+	 *
+	 * @param table table name
+	 * @param ids   ids to delete
+	 * @return number of rows deleted and per-id failures
+	 * @throws ApplicationException if the transaction fails as a whole
+	 */
+	static DeleteResult deleteAll(String table, long... ids) throws ApplicationException {
+
+		DeleteResult result = new DeleteResult();
+
+		if (ids == null || ids.length == 0) {
+			return result;
+		}
+
+		log.debug("deleteAll() started for " + ids.length + " ids of " + table);
+
+		UnitOfWork uow = UnitOfWork.begin();
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+
+		try {
+			conn = JDBCDataSource.getConnection();
+			pstmt = conn.prepareStatement("delete from " + table + " where id = ?");
+
+			for (int from = 0; from < ids.length; from += CHUNK_SIZE) {
+				execute(pstmt, ids, from, Math.min(from + CHUNK_SIZE, ids.length), result);
+			}
+
+			uow.commit();
+
+		} catch (SQLException e) {
+			log.error("Exception in deleteAll()", e);
+			throw new ApplicationException("Exception : Exception in delete " + table);
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt);
+			uow.end();
+		}
+
+		log.debug("deleteAll() deleted " + result.getDeleted() + " rows of " + table);
+		return result;
+	}
+
+	/**
+	 * Executes the deletes of ids[from, to) as batches. If the driver stops
+	 * at a failing statement, that id is recorded and the rest of the chunk
+	 * is sent again.
+	 */
+	private static void execute(PreparedStatement pstmt, long[] ids, int from, int to, DeleteResult result)
+			throws SQLException {
+
+		int next = from;
+
+		while (next < to) {
+
+			for (int i = next; i < to; i++) {
+				pstmt.setLong(1, ids[i]);
+				pstmt.addBatch();
+			}
+
+			int[] counts;
+			String error = null;
+
+			try {
+				counts = pstmt.executeBatch();
+			} catch (BatchUpdateException e) {
+				log.warn("Batch delete failed partly : " + e.getMessage());
+				pstmt.clearBatch();
+				counts = (e.getUpdateCounts() == null) ? new int[0] : e.getUpdateCounts();
+				error = e.getMessage();
+			}
+
+			for (int i = 0; i < counts.length && next < to; i++, next++) {
+				if (counts[i] == Statement.EXECUTE_FAILED) {
+					result.failed(ids[next], "could not be deleted");
+				} else if (counts[i] == 0) {
+					result.failed(ids[next], "not found");
+				} else {
+					result.deleted();
+				}
+			}
+
+			if (next < to) {
+				result.failed(ids[next], (error != null) ? error : "could not be deleted");
+				next++;
+			}
+		}
+	}
+}
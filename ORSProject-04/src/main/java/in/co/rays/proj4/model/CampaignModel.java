@@ -0,0 +1,326 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.CampaignBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PkGenerator;
+import in.co.rays.proj4.util.SchemaUtility;
+
+/**
+ * Model class for notification campaigns in <code>st_campaign</code>.
+ * Provides methods to create a campaign and to start, pause and resume its
+ * sending, which is done by a {@link CampaignRun} in the background.
+ * <p>
+ * The sending progress is saved in the campaign row after every page of
+ * recipients, so a paused, failed or interrupted campaign is resumed from
+ * its last checkpoint by starting it again.
+ * <p>
+ * A campaign is claimed in the table before it is started, so only one
+ * server sends it. A campaign left running by a server that stopped can be
+ * started again once its last checkpoint is <code>campaign.lease</code>
+ * milliseconds old.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class CampaignModel {
+
+    private static Logger log = Logger.getLogger(CampaignModel.class);
+
+    private static volatile boolean ready = false;
+
+    /** Age of the last checkpoint after which a running campaign may be claimed again */
+    private static final long LEASE = CampaignRun.config("campaign.lease", 10 * 60 * 1000);
+
+    /** Running campaigns by id */
+    private static final Map<Long, CampaignRun> runs = new ConcurrentHashMap<>();
+
+    private static final ExecutorService runner = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "campaign-runner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates the table if it is missing.
+     */
+    private static void ensure() {
+        if (!ready) {
+            SchemaUtility.createTable("st_campaign", "id bigint not null primary key, name varchar(100), "
+                    + "subject varchar(255), template varchar(20), audience varchar(20), filter_id bigint, "
+                    + "course_id bigint, status varchar(10), last_key bigint, sent bigint, deferred bigint, "
+                    + "created_by varchar(50), modified_by varchar(50), created_datetime datetime, "
+                    + "modified_datetime datetime");
+            ready = true;
+        }
+    }
+
+    /**
+     * Adds a new campaign, ready to be started.
+     *
+     * @param bean campaign
+     * @return primary key of the new campaign
+     * @throws ApplicationException if any application level error occurs
+     */
+    public long add(CampaignBean bean) throws ApplicationException {
+
+        log.info("add() called");
+
+        if (CampaignBean.RESULT.equals(bean.getTemplate()) && !CampaignBean.RESULTS.equals(bean.getAudience())) {
+            throw new ApplicationException("Result campaign needs the " + CampaignBean.RESULTS + " audience");
+        }
+
+        ensure();
+
+        Connection conn = null;
+        long pk = 0;
+
+        try {
+            pk = PkGenerator.nextPk("st_campaign");
+            conn = JDBCDataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            PreparedStatement pstmt = conn.prepareStatement(
+                    "insert into st_campaign values(?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0, ?, ?, ?, ?)");
+            pstmt.setLong(1, pk);
+            pstmt.setString(2, bean.getName());
+            pstmt.setString(3, bean.getSubject());
+            pstmt.setString(4, bean.getTemplate());
+            pstmt.setString(5, bean.getAudience());
+            pstmt.setLong(6, bean.getFilterId());
+            pstmt.setLong(7, bean.getCourseId());
+            pstmt.setString(8, CampaignBean.READY);
+            pstmt.setString(9, bean.getCreatedBy());
+            pstmt.setString(10, bean.getModifiedBy());
+            pstmt.setTimestamp(11, bean.getCreatedDatetime());
+            pstmt.setTimestamp(12, bean.getModifiedDatetime());
+            pstmt.executeUpdate();
+            conn.commit();
+            pstmt.close();
+
+        } catch (Exception e) {
+            log.error("Exception in add()", e);
+            try {
+                conn.rollback();
+            } catch (Exception ex) {
+                throw new ApplicationException("Exception : add rollback exception " + ex.getMessage());
+            }
+            throw new ApplicationException("Exception : Exception in add Campaign");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+
+        bean.setId(pk);
+        bean.setStatus(CampaignBean.READY);
+        return pk;
+    }
+
+    /**
+     * Finds a campaign by primary key.
+     *
+     * @param pk campaign id
+     * @return campaign, or null if not found
+     * @throws ApplicationException if any application level error occurs
+     */
+    public CampaignBean findByPk(long pk) throws ApplicationException {
+        List<CampaignBean> list = fetch("select * from st_campaign where id = ?", pk);
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    /**
+     * Returns all campaigns, newest first.
+     *
+     * @return list of campaigns
+     * @throws ApplicationException if any application level error occurs
+     */
+    public List<CampaignBean> list() throws ApplicationException {
+        return fetch("select * from st_campaign order by id desc");
+    }
+
+    /**
+     * Starts sending a campaign in the background, or resumes it from its
+     * checkpoint if it was paused or failed.
+     *
+     * @param pk campaign id
+     * @return the run, to follow its progress
+     * @throws ApplicationException if the campaign does not exist, is running
+     *                              here or on another server, or is done
+     */
+    public CampaignRun start(long pk) throws ApplicationException {
+
+        CampaignBean bean = findByPk(pk);
+
+        if (bean == null) {
+            throw new ApplicationException("Campaign not found");
+        }
+        if (CampaignBean.DONE.equals(bean.getStatus())) {
+            throw new ApplicationException("Campaign is already sent");
+        }
+
+        CampaignRun run = new CampaignRun(bean);
+        if (runs.putIfAbsent(pk, run) != null) {
+            throw new ApplicationException("Campaign is already running");
+        }
+
+        try {
+            if (!claim(pk)) {
+                throw new ApplicationException("Campaign is already running");
+            }
+        } catch (ApplicationException e) {
+            runs.remove(pk);
+            throw e;
+        }
+
+        runner.execute(() -> {
+            try {
+                run.run();
+            } finally {
+                runs.remove(pk);
+                run.ended();
+            }
+        });
+        return run;
+    }
+
+    /**
+     * Asks a running campaign to stop after the recipients already queued.
+     * It can be resumed with {@link #start(long)}.
+     *
+     * @param pk campaign id
+     * @return the run, or null if the campaign is not running
+     */
+    public CampaignRun pause(long pk) {
+        CampaignRun run = runs.get(pk);
+        if (run != null) {
+            run.stop();
+        }
+        return run;
+    }
+
+    /**
+     * Returns the run of a campaign that is running on this server.
+     *
+     * @param pk campaign id
+     * @return the run, or null if the campaign is not running
+     */
+    public CampaignRun getRun(long pk) {
+        return runs.get(pk);
+    }
+
+    /**
+     * Sets a campaign running unless another server is running it, in one
+     * conditional update.
+     *
+     * @return true if the campaign was claimed
+     */
+    private static boolean claim(long pk) throws ApplicationException {
+
+        Connection conn = null;
+
+        try {
+            long now = System.currentTimeMillis();
+            conn = JDBCDataSource.getNewConnection();
+            PreparedStatement pstmt = conn.prepareStatement("update st_campaign set status = ?, "
+                    + "modified_datetime = ? where id = ? and (status is null or status <> ? "
+                    + "or modified_datetime < ?)");
+            pstmt.setString(1, CampaignBean.RUNNING);
+            pstmt.setTimestamp(2, new Timestamp(now));
+            pstmt.setLong(3, pk);
+            pstmt.setString(4, CampaignBean.RUNNING);
+            pstmt.setTimestamp(5, new Timestamp(now - LEASE));
+            int count = pstmt.executeUpdate();
+            pstmt.close();
+            return count == 1;
+        } catch (Exception e) {
+            log.error("Exception in claim()", e);
+            throw new ApplicationException("Exception : Exception in starting Campaign");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Saves the status and progress of a campaign.
+     */
+    static void checkpoint(long pk, String status, long lastKey, long sent, long deferred)
+            throws ApplicationException {
+
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getNewConnection();
+            PreparedStatement pstmt = conn.prepareStatement("update st_campaign set status = ?, last_key = ?, "
+                    + "sent = ?, deferred = ?, modified_datetime = ? where id = ?");
+            pstmt.setString(1, status);
+            pstmt.setLong(2, lastKey);
+            pstmt.setLong(3, sent);
+            pstmt.setLong(4, deferred);
+            pstmt.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+            pstmt.setLong(6, pk);
+            pstmt.executeUpdate();
+            pstmt.close();
+        } catch (Exception e) {
+            log.error("Exception in checkpoint()", e);
+            throw new ApplicationException("Exception : Exception in saving Campaign progress");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+    }
+
+    private List<CampaignBean> fetch(String sql, Object... params) throws ApplicationException {
+
+        ensure();
+
+        List<CampaignBean> list = new ArrayList<CampaignBean>();
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(sql);
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                CampaignBean bean = new CampaignBean();
+                bean.setId(rs.getLong(1));
+                bean.setName(rs.getString(2));
+                bean.setSubject(rs.getString(3));
+                bean.setTemplate(rs.getString(4));
+                bean.setAudience(rs.getString(5));
+                bean.setFilterId(rs.getLong(6));
+                bean.setCourseId(rs.getLong(7));
+                bean.setStatus(rs.getString(8));
+                bean.setLastKey(rs.getLong(9));
+                bean.setSent(rs.getLong(10));
+                bean.setDeferred(rs.getLong(11));
+                bean.setCreatedBy(rs.getString(12));
+                bean.setModifiedBy(rs.getString(13));
+                bean.setCreatedDatetime(rs.getTimestamp(14));
+                bean.setModifiedDatetime(rs.getTimestamp(15));
+                list.add(bean);
+            }
+            rs.close();
+            pstmt.close();
+        } catch (Exception e) {
+            log.error("Exception in fetch()", e);
+            throw new ApplicationException("Exception : Exception in getting Campaign");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return list;
+    }
+}
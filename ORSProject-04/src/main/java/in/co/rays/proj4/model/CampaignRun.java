@@ -0,0 +1,639 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.CampaignBean;
+import in.co.rays.proj4.bean.CourseBean;
+import in.co.rays.proj4.bean.TimetableBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.EmailBuilder;
+import in.co.rays.proj4.util.EmailMessage;
+import in.co.rays.proj4.util.EmailOutbox;
+import in.co.rays.proj4.util.EmailUtility;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.RateLimiter;
+
+/**
+ * CampaignRun sends one campaign, started by
+ * {@link CampaignModel#start(long)}.
+ * <p>
+ * A producer reads the audience in key order, <code>campaign.page</code>
+ * recipients per query, each query starting after the last key read, so no
+ * more than one page is held in memory whatever the size of the audience.
+ * It renders each mail with {@link EmailBuilder} and puts it on a queue of
+ * <code>campaign.queue</code> mails; when the queue is full the producer
+ * waits, so reading never runs ahead of sending. <code>campaign.threads</code>
+ * senders take up to <code>campaign.batch</code> mails at a time, wait for
+ * the {@link RateLimiter} of <code>campaign.rate</code> mails per second and
+ * send them with {@link EmailUtility}. A mail that fails is handed to the
+ * {@link EmailOutbox}, which retries it; a mail the outbox does not take
+ * either is counted as lost, so a sender keeps going whatever one mail
+ * throws.
+ * <p>
+ * Neither the producer nor the end of the run waits on a full queue for
+ * good: each offers for up to {@link #OFFER_MILLIS} at a time and gives up
+ * when the run is stopping or no sender is left. A run that ends with mails
+ * not sent is saved as FAILED.
+ * <p>
+ * When every mail of a page and of the pages before it is sent, the last
+ * key of the page is saved as the checkpoint. A run that is paused, fails or
+ * is interrupted is resumed from the checkpoint, so a recipient after it
+ * may receive the mail twice but none is left out.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class CampaignRun {
+
+	private static Logger log = Logger.getLogger(CampaignRun.class);
+
+	private static ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.system");
+
+	/** Queue item that tells a sender to finish */
+	private static final Item END = new Item(null, null);
+
+	/** Longest wait for room in the queue before the senders are checked */
+	private static final long OFFER_MILLIS = 1000;
+
+	private final CampaignBean campaign;
+
+	private final int threads = (int) config("campaign.threads", 4);
+	private final int pageSize = (int) config("campaign.page", 500);
+	private final int batchSize = (int) config("campaign.batch", 20);
+
+	private final BlockingQueue<Item> queue = new ArrayBlockingQueue<>((int) config("campaign.queue", 1000));
+
+	private final RateLimiter limiter = new RateLimiter(config("campaign.rate", 20));
+
+	/** Pages not yet sent completely, in key order */
+	private final Deque<Page> pages = new ArrayDeque<>();
+
+	private final Object saveLock = new Object();
+
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong deferred = new AtomicLong();
+	private final AtomicLong skipped = new AtomicLong();
+	private final AtomicLong lost = new AtomicLong();
+
+	/** Senders that have not returned */
+	private final AtomicInteger alive = new AtomicInteger();
+
+	private final CountDownLatch finished = new CountDownLatch(1);
+
+	private volatile String status = CampaignBean.RUNNING;
+	private volatile long checkpoint;
+	private volatile long total = -1;
+	private volatile boolean stopping = false;
+
+	private volatile long begin;
+	private volatile long end;
+
+	private String course;
+	private String exams;
+
+	/**
+	 * A mail and the page it was read in.
+	 */
+	private static final class Item {
+
+		private final EmailMessage mail;
+		private final Page page;
+
+		private Item(EmailMessage mail, Page page) {
+			this.mail = mail;
+			this.page = page;
+		}
+	}
+
+	/**
+	 * A page of recipients with the number of its mails not yet sent.
+	 */
+	private static final class Page {
+
+		private final AtomicInteger remaining = new AtomicInteger(1);
+		private long lastKey;
+	}
+
+	CampaignRun(CampaignBean campaign) {
+		this.campaign = campaign;
+		this.checkpoint = campaign.getLastKey();
+	}
+
+	/**
+	 * Sends the campaign from its checkpoint and saves the final status.
+	 */
+	void run() {
+
+		begin = System.nanoTime();
+		String result = CampaignBean.FAILED;
+
+		ExecutorService senders = Executors.newFixedThreadPool(threads, task -> {
+			Thread thread = new Thread(task, "campaign-" + campaign.getId() + "-sender");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+			prepare();
+			total = count();
+			log.info("Campaign " + campaign.getId() + " sending to " + total + " recipients from key " + checkpoint);
+
+			alive.set(threads);
+			for (int i = 0; i < threads; i++) {
+				senders.execute(this::send);
+			}
+
+			produce();
+			result = stopping ? CampaignBean.PAUSED : CampaignBean.DONE;
+
+		} catch (ApplicationException | SQLException | RuntimeException e) {
+			log.error("Campaign " + campaign.getId() + " failed", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("Campaign " + campaign.getId() + " interrupted");
+		} finally {
+			if (!finish(senders) && CampaignBean.DONE.equals(result)) {
+				log.error("Campaign " + campaign.getId() + " ended with mails not sent");
+				result = CampaignBean.FAILED;
+			}
+			end = System.nanoTime();
+			status = result;
+			save(result);
+			log.info("Campaign " + campaign.getId() + " " + this);
+		}
+	}
+
+	/**
+	 * Releases {@link #await(long)}, called by {@link CampaignModel} once
+	 * the run no longer counts as running, so the campaign can be started
+	 * again as soon as the wait returns.
+	 */
+	void ended() {
+		finished.countDown();
+	}
+
+	/**
+	 * Asks the run to stop after the mails already queued.
+	 */
+	void stop() {
+		stopping = true;
+	}
+
+	/**
+	 * Waits for the run to finish.
+	 *
+	 * @param timeoutMillis longest wait
+	 * @return true if the run finished
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean await(long timeoutMillis) throws InterruptedException {
+		return finished.await(timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Loads what every mail of the campaign shares.
+	 */
+	private void prepare() throws ApplicationException {
+
+		if (CampaignBean.TIMETABLE.equals(campaign.getTemplate())) {
+
+			CourseBean courseBean = new CourseModel().findByPk(campaign.getCourseId());
+			if (courseBean == null) {
+				throw new ApplicationException("Course of campaign not found");
+			}
+			course = courseBean.getName();
+
+			TimetableBean criteria = new TimetableBean();
+			criteria.setCourseId(campaign.getCourseId());
+			List<TimetableBean> list = new TimetableModel().search(criteria, 0, 0);
+			list.sort(Comparator.comparing(TimetableBean::getExamDate));
+			exams = EmailBuilder.getExamRows(list);
+
+		} else if (!CampaignBean.RESULT.equals(campaign.getTemplate())) {
+			throw new ApplicationException("Unknown campaign template " + campaign.getTemplate());
+		}
+	}
+
+	/**
+	 * Reads the audience page by page after the checkpoint and queues a mail
+	 * for each recipient. Stops queueing when the run is stopping and the
+	 * queue stays full.
+	 *
+	 * @throws ApplicationException if no sender is left
+	 */
+	private void produce() throws ApplicationException, SQLException, InterruptedException {
+
+		long key = checkpoint;
+		List<EmailMessage> mails = new ArrayList<>(pageSize);
+
+		while (!stopping) {
+
+			mails.clear();
+			long last = read(key, mails);
+			if (last < 0) {
+				break;
+			}
+
+			Page page = new Page();
+			page.lastKey = last;
+			page.remaining.addAndGet(mails.size());
+			synchronized (pages) {
+				pages.addLast(page);
+			}
+
+			for (EmailMessage mail : mails) {
+				if (!offer(new Item(mail, page))) {
+					// the page stays incomplete, so the checkpoint stays before it
+					return;
+				}
+			}
+
+			// releases the hold taken while the page was being queued
+			complete(page);
+			key = last;
+		}
+	}
+
+	/**
+	 * Queues an item, waiting while the queue is full and a sender is left.
+	 *
+	 * @return false if the run is stopping and the queue stayed full
+	 * @throws ApplicationException if no sender is left
+	 */
+	private boolean offer(Item item) throws ApplicationException, InterruptedException {
+
+		while (!queue.offer(item, OFFER_MILLIS, TimeUnit.MILLISECONDS)) {
+			if (alive.get() == 0) {
+				throw new ApplicationException("No sender left for campaign " + campaign.getId());
+			}
+			if (stopping) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the page of recipients after the given key.
+	 *
+	 * @return last key of the page, -1 if there are no more recipients
+	 */
+	private long read(long key, List<EmailMessage> mails) throws SQLException {
+
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		long last = -1;
+
+		try {
+			conn = JDBCDataSource.getNewConnection();
+			pstmt = conn.prepareStatement(sql(false));
+			int i = 1;
+			pstmt.setLong(i++, key);
+			if (campaign.getFilterId() > 0) {
+				pstmt.setLong(i++, campaign.getFilterId());
+			}
+			pstmt.setInt(i, pageSize);
+			rs = pstmt.executeQuery();
+
+			while (rs.next()) {
+				last = rs.getLong(1);
+				String email = rs.getString(2);
+				if (email == null || email.trim().isEmpty()) {
+					skipped.incrementAndGet();
+					continue;
+				}
+				EmailMessage mail = new EmailMessage(email.trim(), campaign.getSubject(), render(rs));
+				mail.setMessageType(EmailMessage.HTML_MSG);
+				mails.add(mail);
+			}
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt, rs);
+		}
+		return last;
+	}
+
+	private String render(ResultSet rs) throws SQLException {
+
+		HashMap<String, String> map = new HashMap<>();
+		map.put("firstName", rs.getString(3));
+		map.put("lastName", rs.getString(4));
+
+		if (CampaignBean.RESULT.equals(campaign.getTemplate())) {
+			int physics = rs.getInt(6);
+			int chemistry = rs.getInt(7);
+			int maths = rs.getInt(8);
+			boolean pass = physics > MeritIndex.PASS_MARKS && chemistry > MeritIndex.PASS_MARKS
+					&& maths > MeritIndex.PASS_MARKS;
+			map.put("rollNo", rs.getString(5));
+			map.put("physics", String.valueOf(physics));
+			map.put("chemistry", String.valueOf(chemistry));
+			map.put("maths", String.valueOf(maths));
+			map.put("total", String.valueOf(physics + chemistry + maths));
+			map.put("result", pass ? "Pass" : "Fail");
+			return EmailBuilder.getResultMessage(map);
+		}
+
+		map.put("course", course);
+		map.put("exams", exams);
+		return EmailBuilder.getTimetableMessage(map);
+	}
+
+	/**
+	 * Returns the page or count query of the audience. The page query has
+	 * the key, the filter id if any and the page size as parameters.
+	 */
+	private String sql(boolean count) throws SQLException {
+
+		boolean filter = campaign.getFilterId() > 0;
+		String select;
+		String from;
+		String key;
+
+		if (CampaignBean.STUDENTS.equals(campaign.getAudience())) {
+			select = "id, email, first_name, last_name";
+			from = "st_student where id > ?" + (filter ? " and college_id = ?" : "");
+			key = "id";
+		} else if (CampaignBean.USERS.equals(campaign.getAudience())) {
+			select = "id, login, first_name, last_name";
+			from = "st_user where id > ?" + (filter ? " and role_id = ?" : "");
+			key = "id";
+		} else if (CampaignBean.RESULTS.equals(campaign.getAudience())) {
+			select = "m.id, s.email, s.first_name, s.last_name, m.roll_no, m.physics, m.chemistry, m.maths";
+			from = "st_marksheet m join st_student s on s.id = m.student_id where m.id > ?"
+					+ (filter ? " and s.college_id = ?" : "");
+			key = "m.id";
+		} else {
+			throw new SQLException("Unknown campaign audience " + campaign.getAudience());
+		}
+
+		if (count) {
+			return "select count(*) from " + from;
+		}
+		return "select " + select + " from " + from + " order by " + key + " limit ?";
+	}
+
+	/**
+	 * Counts the whole audience, sent or not.
+	 */
+	private long count() throws SQLException {
+
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+
+		try {
+			conn = JDBCDataSource.getNewConnection();
+			pstmt = conn.prepareStatement(sql(true));
+			pstmt.setLong(1, 0);
+			if (campaign.getFilterId() > 0) {
+				pstmt.setLong(2, campaign.getFilterId());
+			}
+			rs = pstmt.executeQuery();
+			rs.next();
+			return rs.getLong(1);
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt, rs);
+		}
+	}
+
+	/**
+	 * Sender loop, sends batches of queued mails until it takes
+	 * {@link #END}.
+	 */
+	private void send() {
+
+		List<Item> batch = new ArrayList<>(batchSize);
+
+		try {
+			while (true) {
+
+				batch.add(queue.take());
+				queue.drainTo(batch, batchSize - 1);
+
+				int ends = 0;
+				for (Item item : batch) {
+					if (item == END) {
+						ends++;
+					}
+				}
+
+				limiter.acquire(batch.size() - ends);
+
+				for (Item item : batch) {
+					if (item != END) {
+						deliver(item.mail);
+						complete(item.page);
+					}
+				}
+				batch.clear();
+
+				if (ends > 0) {
+					// hand on the ends meant for other senders
+					for (int i = 1; i < ends; i++) {
+						queue.put(END);
+					}
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			alive.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Sends a mail, hands it to the outbox if sending fails and counts it as
+	 * lost if the outbox fails too. Throws nothing, so the sender goes on.
+	 */
+	private void deliver(EmailMessage mail) {
+		try {
+			EmailUtility.sendMail(mail);
+			sent.incrementAndGet();
+			return;
+		} catch (ApplicationException e) {
+			// handed to the outbox below, which retries it
+		} catch (RuntimeException e) {
+			log.error("Campaign " + campaign.getId() + " mail to " + mail.getTo() + " failed", e);
+		}
+
+		try {
+			EmailOutbox.enqueue(mail);
+			deferred.incrementAndGet();
+		} catch (ApplicationException | RuntimeException e) {
+			// e.g. a null connection when the pool has none to hand out
+			lost.incrementAndGet();
+			log.error("Campaign " + campaign.getId() + " mail to " + mail.getTo() + " lost", e);
+		}
+	}
+
+	/**
+	 * Counts a mail of a page as done and moves the checkpoint past every
+	 * leading page that is done.
+	 */
+	private void complete(Page page) {
+
+		if (page.remaining.decrementAndGet() > 0) {
+			return;
+		}
+
+		boolean moved = false;
+		synchronized (pages) {
+			while (!pages.isEmpty() && pages.peekFirst().remaining.get() == 0) {
+				checkpoint = pages.pollFirst().lastKey;
+				moved = true;
+			}
+		}
+
+		if (moved) {
+			save(CampaignBean.RUNNING);
+		}
+	}
+
+	private void save(String state) {
+		synchronized (saveLock) {
+			try {
+				CampaignModel.checkpoint(campaign.getId(), state, checkpoint, getSent(), getDeferred());
+			} catch (ApplicationException | RuntimeException e) {
+				log.error("Campaign " + campaign.getId() + " checkpoint not saved", e);
+			}
+		}
+	}
+
+	/**
+	 * Tells the senders to finish and waits for them. An end that does not
+	 * fit in the queue is not needed once no sender is left.
+	 *
+	 * @return true if every queued mail was sent, deferred or lost
+	 */
+	private boolean finish(ExecutorService senders) {
+
+		try {
+			int ends = 0;
+			while (ends < threads && alive.get() > 0) {
+				if (queue.offer(END, OFFER_MILLIS, TimeUnit.MILLISECONDS)) {
+					ends++;
+				}
+			}
+			senders.shutdown();
+			if (!senders.awaitTermination(10, TimeUnit.MINUTES)) {
+				senders.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			senders.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+
+		synchronized (pages) {
+			return pages.isEmpty();
+		}
+	}
+
+	static long config(String key, long defaultValue) {
+		String value = System.getProperty(key, rb.containsKey(key) ? rb.getString(key) : "").trim();
+		try {
+			return value.isEmpty() ? defaultValue : Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			log.warn("Invalid " + key + " : " + value);
+			return defaultValue;
+		}
+	}
+
+	public long getCampaignId() {
+		return campaign.getId();
+	}
+
+	/**
+	 * Returns RUNNING until the run ends, then DONE, PAUSED or FAILED.
+	 */
+	public String getStatus() {
+		return status;
+	}
+
+	/**
+	 * Returns the size of the audience, -1 until it is counted.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the mails sent, including earlier runs of the campaign.
+	 */
+	public long getSent() {
+		return campaign.getSent() + sent.get();
+	}
+
+	/**
+	 * Returns the failed mails handed to the outbox, including earlier runs.
+	 */
+	public long getDeferred() {
+		return campaign.getDeferred() + deferred.get();
+	}
+
+	/**
+	 * Returns the recipients without an email address in this run.
+	 */
+	public long getSkipped() {
+		return skipped.get();
+	}
+
+	/**
+	 * Returns the failed mails that could not be handed to the outbox.
+	 */
+	public long getLost() {
+		return lost.get();
+	}
+
+	/**
+	 * Returns the mails rendered and waiting for a sender.
+	 */
+	public int getQueued() {
+		return queue.size();
+	}
+
+	public long getCheckpoint() {
+		return checkpoint;
+	}
+
+	public long getElapsedMillis() {
+		long stop = end > 0 ? end : System.nanoTime();
+		return begin > 0 ? (stop - begin) / 1000000 : 0;
+	}
+
+	/**
+	 * Returns the mails sent per second in this run.
+	 */
+	public double getRate() {
+		long millis = getElapsedMillis();
+		return millis > 0 ? sent.get() * 1000.0 / millis : 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[sent=%d/%d, deferred=%d, skipped=%d, lost=%d, queued=%d, checkpoint=%d, "
+				+ "rate=%.1f/s, elapsed=%d ms]", status, getSent(), getTotal(), getDeferred(), getSkipped(),
+				getLost(), getQueued(), getCheckpoint(), getRate(), getElapsedMillis());
+	}
+}
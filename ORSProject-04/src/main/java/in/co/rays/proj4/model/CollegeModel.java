@@ -1,5 +1,6 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -13,7 +14,11 @@ import in.co.rays.proj4.bean.CollegeBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.EntityCache;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
 
 /**
  * Model class for College entity. Provides methods for CRUD operations,
@@ -29,6 +34,9 @@ public class CollegeModel {
     /** Logger instance for CollegeModel */
     private static Logger log = Logger.getLogger(CollegeModel.class);
 
+    /** Read-through cache of findByPk, invalidated by update and delete */
+    private static final EntityCache<CollegeBean> cache = new EntityCache<>("college");
+
     /**
      * Gets the next primary key value for the {@code st_college} table.
      *
@@ -36,36 +44,7 @@ public class CollegeModel {
      * @throws DatabaseException if any database error occurs
      */
     public Integer nextPk() throws DatabaseException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        log.debug("nextPk() started");
-
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(
-                    "select max(id) from st_college");
-
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                pk = rs.getInt(1);
-            }
-
-            rs.close();
-            pstmt.close();
-
-            log.debug("Next PK generated : " + (pk + 1));
-
-        } catch (Exception e) {
-            log.error("Exception in nextPk()", e);
-            throw new DatabaseException("Exception : Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_college");
     }
 
     /**
@@ -112,6 +91,7 @@ public class CollegeModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            DropdownCache.changed(DropdownCache.COLLEGE);
             log.info("College added successfully with PK : " + pk);
 
             pstmt.close();
@@ -175,6 +155,8 @@ public class CollegeModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            cache.invalidate(bean.getId());
+            DropdownCache.changed(DropdownCache.COLLEGE);
             log.info("College updated successfully ID : " + bean.getId());
 
             pstmt.close();
@@ -217,6 +199,8 @@ public class CollegeModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            cache.invalidate(bean.getId());
+            DropdownCache.changed(DropdownCache.COLLEGE);
             log.info("College deleted successfully ID : " + bean.getId());
 
             pstmt.close();
@@ -237,15 +221,43 @@ public class CollegeModel {
     }
 
     /**
-     * Finds a College by primary key.
+     * Deletes the college records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
+     *
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
+     * @throws ApplicationException if any application level error occurs
+     */
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
+        DeleteResult result = BulkDelete.deleteAll("st_college", ids);
+        cache.invalidate(ids);
+        DropdownCache.changed(DropdownCache.COLLEGE);
+        return result;
+    }
+
+    /**
+     * Finds a College by primary key. The bean is served from a
+     * cache shared by all callers and must not be modified.
      *
      * @param pk primary key of college
      * @return CollegeBean if found, otherwise {@code null}
      * @throws ApplicationException if any application level error occurs
      */
     public CollegeBean findByPk(long pk) throws ApplicationException {
+        return cache.get(pk, this::loadByPk);
+    }
 
-        log.debug("findByPk() called PK : " + pk);
+    /**
+     * Loads a College by primary key from the database.
+     *
+     * @param pk primary key of the college
+     * @return CollegeBean if found, otherwise {@code null}
+     * @throws ApplicationException if any application level error occurs
+     */
+    private CollegeBean loadByPk(long pk) throws ApplicationException {
+
+        log.debug("loadByPk() called PK : " + pk);
 
         StringBuffer sql = new StringBuffer(
                 "select * from st_college where id = ?");
@@ -278,7 +290,7 @@ public class CollegeModel {
             pstmt.close();
 
         } catch (Exception e) {
-            log.error("Exception in findByPk()", e);
+            log.error("Exception in loadByPk()", e);
             throw new ApplicationException(
                     "Exception : Exception in getting College by pk");
         } finally {
@@ -360,44 +372,66 @@ public class CollegeModel {
      */
     public List<CollegeBean> search(CollegeBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return fetch(bean, Page.offset(pageNo, pageSize), pageSize);
+    }
 
-        log.debug("search() called");
+    /**
+     * Returns one page of College records matching the given criteria. One row
+     * beyond the page is fetched in the same query to tell whether a next page
+     * exists.
+     *
+     * @param bean     search criteria (can be null)
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of CollegeBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<CollegeBean> searchPage(CollegeBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1), pageNo, pageSize);
+    }
 
-        StringBuffer sql = new StringBuffer(
-                "select * from st_college where 1 = 1");
+    /**
+     * Writes every college record matching the given criteria to an export,
+     * ordered by id. Rows are streamed from the database to the writer, so
+     * the export is never held in memory.
+     *
+     * @param bean   search criteria (can be null)
+     * @param writer CSV or JSON writer
+     * @return number of records written
+     * @throws ApplicationException if any application level error occurs
+     * @throws IOException          if the export cannot be written
+     */
+    public long export(CollegeBean bean, ExportWriter writer) throws ApplicationException, IOException {
+        SearchQuery query = criteria("select id, name, address, state, city, phone_no"
+                + " from st_college where 1=1", bean);
+        return Export.write(query.orderBy("id"), writer);
+    }
 
-        if (bean != null) {
-            if (bean.getId() > 0) {
-                sql.append(" and id = " + bean.getId());
-            }
-            if (bean.getName() != null && bean.getName().length() > 0) {
-                sql.append(" and name like '" + bean.getName() + "%'");
-            }
-            if (bean.getAddress() != null && bean.getAddress().length() > 0) {
-                sql.append(" and address like '" + bean.getAddress() + "%'");
-            }
-            if (bean.getState() != null && bean.getState().length() > 0) {
-                sql.append(" and state like '" + bean.getState() + "%'");
-            }
-            if (bean.getCity() != null && bean.getCity().length() > 0) {
-                sql.append(" and city like '" + bean.getCity() + "%'");
-            }
-            if (bean.getPhoneNo() != null && bean.getPhoneNo().length() > 0) {
-                sql.append(" and phone_no = " + bean.getPhoneNo());
-            }
-        }
+    /**
+     * Fetches College records matching the given criteria.
+     *
+     * @param bean   search criteria (can be null)
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @return list of CollegeBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<CollegeBean> fetch(CollegeBean bean, int offset, int limit)
+            throws ApplicationException {
 
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + ", " + pageSize);
-        }
+        log.debug("search() called");
+
+        SearchQuery query = criteria("select * from st_college where 1=1", bean);
+
+        query.limit(offset, limit);
 
         ArrayList<CollegeBean> list = new ArrayList<CollegeBean>();
         Connection conn = null;
 
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
@@ -427,4 +461,27 @@ public class CollegeModel {
         }
         return list;
     }
+
+    /**
+     * Returns a query with the college search criteria of the given bean.
+     *
+     * @param select select statement to add the criteria to
+     * @param bean   search criteria (can be null)
+     * @return search query
+     */
+    private SearchQuery criteria(String select, CollegeBean bean) {
+
+        SearchQuery query = new SearchQuery(select);
+
+        if (bean != null) {
+            query.equal("id", bean.getId())
+                    .startsWith("name", bean.getName())
+                    .startsWith("address", bean.getAddress())
+                    .startsWith("state", bean.getState())
+                    .startsWith("city", bean.getCity())
+                    .equal("phone_no", bean.getPhoneNo());
+        }
+
+        return query;
+    }
 }
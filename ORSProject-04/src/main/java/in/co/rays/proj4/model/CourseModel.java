@@ -1,5 +1,6 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -12,7 +13,11 @@ import in.co.rays.proj4.bean.CourseBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.EntityCache;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
 
 /**
  * Model class for Course entity. Provides methods for CRUD operations,
@@ -28,6 +33,9 @@ public class CourseModel {
     /** Logger instance for CourseModel */
     private static Logger log = Logger.getLogger(CourseModel.class);
 
+    /** Read-through cache of findByPk, invalidated by update and delete */
+    private static final EntityCache<CourseBean> cache = new EntityCache<>("course");
+
     /**
      * Gets the next primary key value for the {@code st_course} table.
      *
@@ -35,38 +43,7 @@ public class CourseModel {
      * @throws DatabaseException if any database error occurs
      */
     public Integer nextPk() throws DatabaseException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        log.debug("nextPk() started");
-
-        try {
-            conn = JDBCDataSource.getConnection();
-
-            PreparedStatement pstmt =
-                    conn.prepareStatement("select max(id)from st_course");
-
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                pk = rs.getInt(1);
-            }
-
-            rs.close();
-            pstmt.close();
-
-            log.debug("Next PK generated : " + (pk + 1));
-
-        } catch (Exception e) {
-            log.error("Exception in nextPk()", e);
-            throw new DatabaseException("Exception : Exception in getting PK");
-
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_course");
     }
 
     /**
@@ -112,6 +89,7 @@ public class CourseModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            DropdownCache.changed(DropdownCache.COURSE);
             log.info("Course added successfully with PK : " + pk);
 
             pstmt.close();
@@ -171,6 +149,8 @@ public class CourseModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            cache.invalidate(bean.getId());
+            DropdownCache.changed(DropdownCache.COURSE);
             log.info("Course updated successfully ID : " + bean.getId());
 
             pstmt.close();
@@ -212,6 +192,8 @@ public class CourseModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            cache.invalidate(bean.getId());
+            DropdownCache.changed(DropdownCache.COURSE);
             log.info("Course deleted successfully ID : " + bean.getId());
 
             pstmt.close();
@@ -232,15 +214,43 @@ public class CourseModel {
     }
 
     /**
-     * Finds a Course by primary key.
+     * Deletes the course records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
+     *
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
+     * @throws ApplicationException if any application level error occurs
+     */
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
+        DeleteResult result = BulkDelete.deleteAll("st_course", ids);
+        cache.invalidate(ids);
+        DropdownCache.changed(DropdownCache.COURSE);
+        return result;
+    }
+
+    /**
+     * Finds a Course by primary key. The bean is served from a
+     * cache shared by all callers and must not be modified.
      *
      * @param pk primary key of course
      * @return CourseBean if found, otherwise {@code null}
      * @throws ApplicationException if any application level error occurs
      */
     public CourseBean findByPk(long pk) throws ApplicationException {
+        return cache.get(pk, this::loadByPk);
+    }
+
+    /**
+     * Loads a Course by primary key from the database.
+     *
+     * @param pk primary key of the course
+     * @return CourseBean if found, otherwise {@code null}
+     * @throws ApplicationException if any application level error occurs
+     */
+    private CourseBean loadByPk(long pk) throws ApplicationException {
 
-        log.debug("findByPk() called PK : " + pk);
+        log.debug("loadByPk() called PK : " + pk);
 
         StringBuffer sql =
                 new StringBuffer("select * from st_course where id = ?");
@@ -271,7 +281,7 @@ public class CourseModel {
             pstmt.close();
 
         } catch (Exception e) {
-            log.error("Exception in findByPk()", e);
+            log.error("Exception in loadByPk()", e);
             throw new ApplicationException(
                     "Exception : Exception in getting Course by pk");
         } finally {
@@ -351,39 +361,66 @@ public class CourseModel {
      */
     public List<CourseBean> search(CourseBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return fetch(bean, Page.offset(pageNo, pageSize), pageSize);
+    }
 
-        log.debug("search() called");
+    /**
+     * Returns one page of Course records matching the given criteria. One row
+     * beyond the page is fetched in the same query to tell whether a next page
+     * exists.
+     *
+     * @param bean     search criteria (can be null)
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of CourseBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<CourseBean> searchPage(CourseBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1), pageNo, pageSize);
+    }
 
-        StringBuffer sql =
-                new StringBuffer("select * from st_course where 1=1");
+    /**
+     * Writes every course record matching the given criteria to an export,
+     * ordered by id. Rows are streamed from the database to the writer, so
+     * the export is never held in memory.
+     *
+     * @param bean   search criteria (can be null)
+     * @param writer CSV or JSON writer
+     * @return number of records written
+     * @throws ApplicationException if any application level error occurs
+     * @throws IOException          if the export cannot be written
+     */
+    public long export(CourseBean bean, ExportWriter writer) throws ApplicationException, IOException {
+        SearchQuery query = criteria("select id, name, duration, description"
+                + " from st_course where 1=1", bean);
+        return Export.write(query.orderBy("id"), writer);
+    }
 
-        if (bean != null) {
-            if (bean.getId() > 0) {
-                sql.append(" and id = " + bean.getId());
-            }
-            if (bean.getName() != null && bean.getName().length() > 0) {
-                sql.append(" and name like '" + bean.getName() + "%'");
-            }
-            if (bean.getDuration() != null && bean.getDuration().length() > 0) {
-                sql.append(" and duration like '" + bean.getDuration() + "%'");
-            }
-            if (bean.getDescription() != null && bean.getDescription().length() > 0) {
-                sql.append(" and description like '" + bean.getDescription() + "%'");
-            }
-        }
+    /**
+     * Fetches Course records matching the given criteria.
+     *
+     * @param bean   search criteria (can be null)
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @return list of CourseBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<CourseBean> fetch(CourseBean bean, int offset, int limit)
+            throws ApplicationException {
 
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + ", " + pageSize);
-        }
+        log.debug("search() called");
+
+        SearchQuery query = criteria("select * from st_course where 1=1", bean);
+
+        query.limit(offset, limit);
 
         ArrayList<CourseBean> list = new ArrayList<CourseBean>();
         Connection conn = null;
 
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
@@ -411,4 +448,25 @@ public class CourseModel {
         }
         return list;
     }
+
+    /**
+     * Returns a query with the course search criteria of the given bean.
+     *
+     * @param select select statement to add the criteria to
+     * @param bean   search criteria (can be null)
+     * @return search query
+     */
+    private SearchQuery criteria(String select, CourseBean bean) {
+
+        SearchQuery query = new SearchQuery(select);
+
+        if (bean != null) {
+            query.equal("id", bean.getId())
+                    .startsWith("name", bean.getName())
+                    .startsWith("duration", bean.getDuration())
+                    .startsWith("description", bean.getDescription());
+        }
+
+        return query;
+    }
 }
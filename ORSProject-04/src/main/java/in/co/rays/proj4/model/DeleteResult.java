@@ -0,0 +1,73 @@
+package in.co.rays.proj4.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DeleteResult is the outcome of a model's <code>deleteAll(long... ids)</code>:
+ * the number of rows deleted and, for every id that could not be deleted,
+ * the reason.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class DeleteResult {
+
+	private int deleted = 0;
+
+	private final Map<Long, String> failures = new LinkedHashMap<>();
+
+	void deleted() {
+		deleted++;
+	}
+
+	void failed(long id, String reason) {
+		failures.put(id, reason);
+	}
+
+	/**
+	 * Returns the number of rows deleted.
+	 *
+	 * @return deleted row count
+	 */
+	public int getDeleted() {
+		return deleted;
+	}
+
+	/**
+	 * Returns the ids that could not be deleted with their reasons, in the
+	 * order they were requested.
+	 *
+	 * @return failed id to reason
+	 */
+	public Map<Long, String> getFailures() {
+		return Collections.unmodifiableMap(failures);
+	}
+
+	/**
+	 * Returns true if every requested id was deleted.
+	 *
+	 * @return true if nothing failed
+	 */
+	public boolean isSuccess() {
+		return failures.isEmpty();
+	}
+
+	/**
+	 * Returns the failures as one message, e.g.
+	 * <code>5 (not found), 7 (in use)</code>.
+	 *
+	 * @return failure message, empty if nothing failed
+	 */
+	public String getFailureMessage() {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<Long, String> e : failures.entrySet()) {
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+			sb.append(e.getKey()).append(" (").append(e.getValue()).append(")");
+		}
+		return sb.toString();
+	}
+}
@@ -8,6 +8,7 @@ package in.co.rays.proj4.model;
  * @Version: 1.0
  */
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -20,7 +21,11 @@ import in.co.rays.proj4.bean.DoctorBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
 
 /**
  * Model class for managing Doctor entity. Provides methods for add, update,
@@ -38,34 +43,7 @@ public class DocterModel {
 	 * @throws DatabaseException
 	 */
 	public static Integer nextPk() throws DatabaseException {
-
-		Connection conn = null;
-		int pk = 0;
-
-		log.debug("nextPk() started");
-
-		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement("SELECT MAX(id) FROM st_doctor");
-			ResultSet rs = pstmt.executeQuery();
-
-			if (rs.next()) {
-				pk = rs.getInt(1);
-			}
-
-			rs.close();
-			pstmt.close();
-
-			log.debug("Next PK generated : " + (pk + 1));
-
-		} catch (Exception e) {
-			log.error("Exception in nextPk()", e);
-			throw new DatabaseException("Exception in getting PK");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
-		}
-
-		return pk + 1;
+		return (int) PkGenerator.nextPk("st_doctor");
 	}
 
 	/**
@@ -97,7 +75,7 @@ public class DocterModel {
 
 			pstmt.setLong(1, pk);
 			pstmt.setString(2, bean.getName());
-			pstmt.setDate(3, new java.sql.Date(bean.getDateOfBirth().getTime()));
+			pstmt.setDate(3, DataUtility.getSqlDate(bean.getDateOfBirth()));
 			pstmt.setString(4, bean.getMobile());
 			pstmt.setString(5, bean.getExpertise());
 			pstmt.setString(6, bean.getCreatedBy());
@@ -153,7 +131,7 @@ public class DocterModel {
 							+ "created_by=?, modified_by=?, created_datetime=?, modified_datetime=? WHERE id=?");
 
 			pstmt.setString(1, bean.getName());
-			pstmt.setDate(2, new java.sql.Date(bean.getDateOfBirth().getTime()));
+			pstmt.setDate(2, DataUtility.getSqlDate(bean.getDateOfBirth()));
 			pstmt.setString(3, bean.getMobile());
 			pstmt.setString(4, bean.getExpertise());
 			pstmt.setString(5, bean.getCreatedBy());
@@ -219,6 +197,19 @@ public class DocterModel {
 		}
 	}
 
+	/**
+	 * Deletes the doctor records with the given ids in one transaction.
+	 * An id that is not found or cannot be deleted is reported in the
+	 * result and does not stop the others.
+	 *
+	 * @param ids ids of the records to delete
+	 * @return number of records deleted and per-id failures
+	 * @throws ApplicationException if any application level error occurs
+	 */
+	public DeleteResult deleteAll(long... ids) throws ApplicationException {
+		return BulkDelete.deleteAll("st_doctor", ids);
+	}
+
 	/**
 	 * Finds a Doctor by primary key.
 	 * 
@@ -317,42 +308,68 @@ public class DocterModel {
 	 * @return List of DoctorBean
 	 * @throws ApplicationException
 	 */
-	public List<DoctorBean> search(DoctorBean bean, int pageNo, int pageSize) throws ApplicationException {
+	public List<DoctorBean> search(DoctorBean bean, int pageNo, int pageSize)
+			throws ApplicationException {
+		return fetch(bean, Page.offset(pageNo, pageSize), pageSize);
+	}
+
+	/**
+	 * Returns one page of Doctor records matching the given criteria. One row
+	 * beyond the page is fetched in the same query to tell whether a next page
+	 * exists.
+	 *
+	 * @param bean     search criteria (can be null)
+	 * @param pageNo   page number starting at 1
+	 * @param pageSize number of records per page
+	 * @return page of DoctorBean
+	 * @throws ApplicationException if any application level error occurs
+	 */
+	public Page<DoctorBean> searchPage(DoctorBean bean, int pageNo, int pageSize)
+			throws ApplicationException {
+		return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1), pageNo, pageSize);
+	}
+
+	/**
+	 * Writes every doctor record matching the given criteria to an export,
+	 * ordered by id. Rows are streamed from the database to the writer, so
+	 * the export is never held in memory.
+	 *
+	 * @param bean   search criteria (can be null)
+	 * @param writer CSV or JSON writer
+	 * @return number of records written
+	 * @throws ApplicationException if any application level error occurs
+	 * @throws IOException          if the export cannot be written
+	 */
+	public long export(DoctorBean bean, ExportWriter writer) throws ApplicationException, IOException {
+		SearchQuery query = criteria("select id, name, date_of_birth, mobile, expertise"
+				+ " from st_doctor where 1=1", bean);
+		return Export.write(query.orderBy("id"), writer);
+	}
+
+	/**
+	 * Fetches Doctor records matching the given criteria.
+	 *
+	 * @param bean   search criteria (can be null)
+	 * @param offset number of rows to skip
+	 * @param limit  maximum number of rows, 0 for all
+	 * @return list of DoctorBean
+	 * @throws ApplicationException if any application level error occurs
+	 */
+	private List<DoctorBean> fetch(DoctorBean bean, int offset, int limit)
+			throws ApplicationException {
 
 		log.debug("search() called");
 
 		Connection conn = null;
-		StringBuilder sql = new StringBuilder("SELECT * FROM st_doctor WHERE 1=1 ");
-
-		if (bean != null) {
-			if (bean.getId() > 0) {
-				sql.append(" AND id=").append(bean.getId());
-			}
-			if (bean.getName() != null && !bean.getName().isEmpty()) {
-				sql.append(" AND name LIKE '").append(bean.getName()).append("%'");
-			}
-			if (bean.getDateOfBirth() != null) {
-				sql.append(" AND date_of_birth LIKE '").append(new java.sql.Date(bean.getDateOfBirth().getTime()))
-						.append("%'");
-			}
-			if (bean.getExpertise() != null && !bean.getExpertise().isEmpty()) {
-				sql.append(" AND expertise LIKE '").append(bean.getExpertise()).append("%'");
-				
-				 
-				 
-			}
-		}
+		SearchQuery query = criteria("select * from st_doctor where 1=1", bean);
 
-		if (pageSize > 0) {
-			pageNo = (pageNo - 1) * pageSize;
-			sql.append(" LIMIT ").append(pageNo).append(",").append(pageSize);
-		}
+		query.limit(offset, limit);
 
 		List<DoctorBean> list = new ArrayList<>();
 
 		try {
 			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+			PreparedStatement pstmt = query.prepare(conn);
 			ResultSet rs = pstmt.executeQuery();
 
 			while (rs.next()) {
@@ -373,6 +390,27 @@ public class DocterModel {
 		
 	}
 
+	/**
+	 * Returns a query with the doctor search criteria of the given bean.
+	 *
+	 * @param select select statement to add the criteria to
+	 * @param bean   search criteria (can be null)
+	 * @return search query
+	 */
+	private SearchQuery criteria(String select, DoctorBean bean) {
+
+		SearchQuery query = new SearchQuery(select);
+
+		if (bean != null) {
+			query.equal("id", bean.getId())
+					.startsWith("name", bean.getName())
+					.onDay("date_of_birth", bean.getDateOfBirth())
+					.startsWith("expertise", bean.getExpertise());
+		}
+
+		return query;
+	}
+
 	/**
 	 * Maps ResultSet row to DoctorBean.
 	 * 
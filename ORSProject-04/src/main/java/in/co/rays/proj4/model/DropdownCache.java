@@ -0,0 +1,256 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.DropdownItem;
+import in.co.rays.proj4.bean.DropdownListBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.UnitOfWork;
+import in.co.rays.proj4.util.Versioned;
+
+/**
+ * DropdownCache holds the id/name options of the dropdowns that controllers
+ * set in <code>preload()</code>, shared by all requests of the application.
+ * <p>
+ * {@link #list(String)} returns a list that queries nothing until a view
+ * reads it, so requests that only redirect never touch the database. The
+ * options are loaded as {@link DropdownItem}s with one <code>id, name</code>
+ * query and kept with the version of their source table. Every write of
+ * the owning model calls {@link #changed(String)}, which increments the
+ * version, so the next view that renders the dropdown loads it again. If
+ * the write runs in a {@link UnitOfWork} the version is incremented again
+ * when the unit of work ends, so options read before the commit are not
+ * kept.
+ * <p>
+ * The lists are {@link Versioned}, so
+ * {@link in.co.rays.proj4.util.HTMLUtility} keeps their rendered dropdowns
+ * until the source changes. {@link #getHits()} and {@link #getMisses()}
+ * count the reads that found current options and the reads that loaded
+ * them, for {@link in.co.rays.proj4.util.RequestMetrics}.
+ *
+ * Example:
+ * <pre>
+ *   request.setAttribute("collegeList", DropdownCache.list(DropdownCache.COLLEGE));
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class DropdownCache {
+
+	private static Logger log = Logger.getLogger(DropdownCache.class);
+
+	public static final String COLLEGE = "st_college";
+	public static final String COURSE = "st_course";
+	public static final String SUBJECT = "st_subject";
+	public static final String ROLE = "st_role";
+	public static final String STUDENT = "st_student";
+
+	private static final Map<String, String> queries = new ConcurrentHashMap<>();
+
+	static {
+		queries.put(COLLEGE, "select id, name from st_college order by id");
+		queries.put(COURSE, "select id, name from st_course order by id");
+		queries.put(SUBJECT, "select id, name from st_subject order by id");
+		queries.put(ROLE, "select id, name from st_role order by id");
+		queries.put(STUDENT, "select id, concat(first_name, ' ', last_name) from st_student order by id");
+	}
+
+	private static final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+	private static final Map<String, Options> options = new ConcurrentHashMap<>();
+
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+
+	private DropdownCache() {
+	}
+
+	/**
+	 * Options of a source with the version they were loaded at.
+	 */
+	private static final class Options {
+
+		private final long version;
+		private final List<DropdownListBean> items;
+
+		private Options(long version, List<DropdownListBean> items) {
+			this.version = version;
+			this.items = items;
+		}
+	}
+
+	/**
+	 * Returns the options of a source as a list that is loaded when first
+	 * read. A failed load is logged and reads as an empty list.
+	 *
+	 * @param source one of {@link #COLLEGE}, {@link #COURSE},
+	 *               {@link #SUBJECT}, {@link #ROLE} or {@link #STUDENT}
+	 * @return lazily loaded options
+	 */
+	public static List<DropdownListBean> list(String source) {
+
+		if (!queries.containsKey(source)) {
+			throw new IllegalArgumentException("Unknown dropdown source : " + source);
+		}
+		return new LazyList(source);
+	}
+
+	/**
+	 * Returns the current options of a source, loading them if the source
+	 * changed since they were cached.
+	 *
+	 * @param source dropdown source
+	 * @return read-only options
+	 * @throws ApplicationException if the options could not be loaded
+	 */
+	public static List<DropdownListBean> get(String source) throws ApplicationException {
+		return options(source).items;
+	}
+
+	private static Options options(String source) throws ApplicationException {
+
+		long version = version(source).get();
+		Options cached = options.get(source);
+
+		if (cached != null && cached.version == version) {
+			hits.increment();
+			return cached;
+		}
+
+		misses.increment();
+		cached = new Options(version, load(source));
+		options.put(source, cached);
+		return cached;
+	}
+
+	/**
+	 * Returns the reads of all sources that found their options current.
+	 *
+	 * @return hits since start
+	 */
+	public static long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the reads of all sources that loaded their options.
+	 *
+	 * @return misses since start
+	 */
+	public static long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Marks the options of a source as changed, called by every write of
+	 * the owning model.
+	 *
+	 * @param source dropdown source
+	 */
+	static void changed(String source) {
+
+		AtomicLong version = version(source);
+		version.incrementAndGet();
+
+		UnitOfWork uow = UnitOfWork.current();
+		if (uow != null) {
+			uow.afterCompletion(version::incrementAndGet);
+		}
+	}
+
+	private static AtomicLong version(String source) {
+		return versions.computeIfAbsent(source, key -> new AtomicLong());
+	}
+
+	private static List<DropdownListBean> load(String source) throws ApplicationException {
+
+		log.debug("Loading dropdown " + source);
+
+		List<DropdownListBean> items = new ArrayList<>();
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+
+		try {
+			conn = JDBCDataSource.getConnection();
+			pstmt = conn.prepareStatement(queries.get(source));
+			rs = pstmt.executeQuery();
+
+			while (rs.next()) {
+				items.add(new DropdownItem(String.valueOf(rs.getLong(1)), rs.getString(2)));
+			}
+
+		} catch (SQLException e) {
+			log.error("Exception in loading dropdown " + source, e);
+			throw new ApplicationException("Exception : Exception in loading dropdown " + source);
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt, rs);
+		}
+
+		return Collections.unmodifiableList(items);
+	}
+
+	/**
+	 * List that fetches the options of its source on first read. A list
+	 * that failed to load has version -1.
+	 */
+	private static final class LazyList extends AbstractList<DropdownListBean> implements Versioned {
+
+		private static final Options EMPTY = new Options(-1, Collections.<DropdownListBean>emptyList());
+
+		private final String source;
+
+		private Options options;
+
+		private LazyList(String source) {
+			this.source = source;
+		}
+
+		private Options options() {
+			if (options == null) {
+				try {
+					options = DropdownCache.options(source);
+				} catch (ApplicationException e) {
+					log.error("Dropdown " + source + " not available", e);
+					options = EMPTY;
+				}
+			}
+			return options;
+		}
+
+		@Override
+		public DropdownListBean get(int index) {
+			return options().items.get(index);
+		}
+
+		@Override
+		public int size() {
+			return options().items.size();
+		}
+
+		@Override
+		public String getSource() {
+			return source;
+		}
+
+		@Override
+		public long getVersion() {
+			return options().version;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package in.co.rays.proj4.model;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.ExportWriter;
+import in.co.rays.proj4.util.JDBCDataSource;
+
+/**
+ * Export streams the rows of a search query to an {@link ExportWriter}, used
+ * by the <code>export(bean, writer)</code> method of every model.
+ * <p>
+ * The statement is forward-only and read-only, and rows are written as they
+ * are read, so no list of rows is built. MySQL Connector/J otherwise reads
+ * the whole result into memory before returning the first row; for MySQL
+ * the fetch size is set to <code>Integer.MIN_VALUE</code>, which makes the
+ * driver stream the result row by row. Other drivers get a fetch size of
+ * {@link #FETCH_SIZE}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class Export {
+
+	private static Logger log = Logger.getLogger(Export.class);
+
+	static final int FETCH_SIZE = 1000;
+
+	private Export() {
+	}
+
+	/**
+	 * Writes every row of the query with the selected columns as the export
+	 * columns.
+	 *
+	 * @param query  search query selecting the exported columns
+	 * @param writer export writer
+	 * @return number of rows written
+	 * @throws ApplicationException if the query fails
+	 * @throws IOException          if the stream cannot be written
+	 */
+	static long write(SearchQuery query, ExportWriter writer) throws ApplicationException, IOException {
+
+		log.debug("export started : " + query);
+
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		long rows = 0;
+
+		try {
+			conn = JDBCDataSource.getConnection();
+			pstmt = query.prepare(conn);
+			boolean mysql = "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+			pstmt.setFetchSize(mysql ? Integer.MIN_VALUE : FETCH_SIZE);
+
+			rs = pstmt.executeQuery();
+
+			ResultSetMetaData meta = rs.getMetaData();
+			String[] columns = new String[meta.getColumnCount()];
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = meta.getColumnLabel(i + 1).toLowerCase();
+			}
+
+			writer.begin(columns);
+
+			Object[] values = new Object[columns.length];
+			while (rs.next()) {
+				for (int i = 0; i < values.length; i++) {
+					values[i] = rs.getObject(i + 1);
+				}
+				writer.row(values);
+				rows++;
+			}
+
+			writer.end();
+
+		} catch (SQLException e) {
+			log.error("Exception in export", e);
+			throw new ApplicationException("Exception : Exception in export");
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt, rs);
+		}
+
+		log.debug("export wrote " + rows + " rows");
+		return rows;
+	}
+}
@@ -1,5 +1,6 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -15,7 +16,12 @@ import in.co.rays.proj4.bean.SubjectBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
+import in.co.rays.proj4.util.UnitOfWork;
 
 /**
  * Faculty Model class for handling database operations of Faculty.
@@ -32,34 +38,7 @@ public class FacultyModel {
      * Get next primary key from database.
      */
     public Integer nextPk() throws DatabaseException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        log.debug("nextPk() started");
-
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement("select max(id) from st_faculty");
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                pk = rs.getInt(1);
-            }
-
-            rs.close();
-            pstmt.close();
-
-            log.debug("Next PK generated : " + (pk + 1));
-
-        } catch (Exception e) {
-            log.error("Exception in nextPk()", e);
-            throw new DatabaseException("Exception : Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_faculty");
     }
 
     /**
@@ -67,80 +46,86 @@ public class FacultyModel {
      */
     public long add(FacultyBean bean)
             throws ApplicationException, DuplicateRecordException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        log.info("add() called for Faculty Email : " + bean.getEmail());
-
-        // Set College Name
-        CollegeModel collegeModel = new CollegeModel();
-        CollegeBean collegeBean = collegeModel.findByPk(bean.getCollegeId());
-        bean.setCollegeName(collegeBean.getName());
-
-        // Set Course Name
-        CourseModel courseModel = new CourseModel();
-        CourseBean courseBean = courseModel.findByPk(bean.getCourseId());
-        bean.setCourseName(courseBean.getName());
-
-        // Set Subject Name
-        SubjectModel subjectModel = new SubjectModel();
-        SubjectBean subjectBean = subjectModel.findByPk(bean.getSubjectId());
-        bean.setSubjectName(subjectBean.getName());
-
-        // Check for duplicate email
-        FacultyBean existBean = findByEmail(bean.getEmail());
-        if (existBean != null) {
-            log.warn("Duplicate Email found : " + bean.getEmail());
-            throw new DuplicateRecordException("Email Id already exists");
-        }
+        UnitOfWork uow = UnitOfWork.begin();
 
         try {
-            pk = nextPk();
-            conn = JDBCDataSource.getConnection();
-            conn.setAutoCommit(false);
-
-            PreparedStatement pstmt = conn.prepareStatement(
-                "insert into st_faculty values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-
-            pstmt.setInt(1, pk);
-            pstmt.setString(2, bean.getFirstName());
-            pstmt.setString(3, bean.getLastName());
-            pstmt.setDate(4, new java.sql.Date(bean.getDob().getTime()));
-            pstmt.setString(5, bean.getGender());
-            pstmt.setString(6, bean.getMobileNo());
-            pstmt.setString(7, bean.getEmail());
-            pstmt.setLong(8, bean.getCollegeId());
-            pstmt.setString(9, bean.getCollegeName());
-            pstmt.setLong(10, bean.getCourseId());
-            pstmt.setString(11, bean.getCourseName());
-            pstmt.setLong(12, bean.getSubjectId());
-            pstmt.setString(13, bean.getSubjectName());
-            pstmt.setString(14, bean.getCreatedBy());
-            pstmt.setString(15, bean.getModifiedBy());
-            pstmt.setTimestamp(16, bean.getCreatedDatetime());
-            pstmt.setTimestamp(17, bean.getModifiedDatetime());
-
-            pstmt.executeUpdate();
-            conn.commit();
-
-            log.info("Faculty added successfully with PK : " + pk);
-
-            pstmt.close();
+            Connection conn = null;
+            int pk = 0;
+
+            log.info("add() called for Faculty Email : " + bean.getEmail());
+
+            // Set College Name
+            CollegeModel collegeModel = new CollegeModel();
+            CollegeBean collegeBean = collegeModel.findByPk(bean.getCollegeId());
+            bean.setCollegeName(collegeBean.getName());
+
+            // Set Course Name
+            CourseModel courseModel = new CourseModel();
+            CourseBean courseBean = courseModel.findByPk(bean.getCourseId());
+            bean.setCourseName(courseBean.getName());
+
+            // Set Subject Name
+            SubjectModel subjectModel = new SubjectModel();
+            SubjectBean subjectBean = subjectModel.findByPk(bean.getSubjectId());
+            bean.setSubjectName(subjectBean.getName());
+
+            // Check for duplicate email
+            FacultyBean existBean = findByEmail(bean.getEmail());
+            if (existBean != null) {
+                log.warn("Duplicate Email found : " + bean.getEmail());
+                throw new DuplicateRecordException("Email Id already exists");
+            }
 
-        } catch (Exception e) {
-            log.error("Exception in add()", e);
             try {
-                conn.rollback();
-            } catch (Exception ex) {
-                throw new ApplicationException("Rollback error : " + ex.getMessage());
+                pk = nextPk();
+                conn = JDBCDataSource.getConnection();
+                conn.setAutoCommit(false);
+
+                PreparedStatement pstmt = conn.prepareStatement(
+                    "insert into st_faculty values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+
+                pstmt.setInt(1, pk);
+                pstmt.setString(2, bean.getFirstName());
+                pstmt.setString(3, bean.getLastName());
+                pstmt.setDate(4, DataUtility.getSqlDate(bean.getDob()));
+                pstmt.setString(5, bean.getGender());
+                pstmt.setString(6, bean.getMobileNo());
+                pstmt.setString(7, bean.getEmail());
+                pstmt.setLong(8, bean.getCollegeId());
+                pstmt.setString(9, bean.getCollegeName());
+                pstmt.setLong(10, bean.getCourseId());
+                pstmt.setString(11, bean.getCourseName());
+                pstmt.setLong(12, bean.getSubjectId());
+                pstmt.setString(13, bean.getSubjectName());
+                pstmt.setString(14, bean.getCreatedBy());
+                pstmt.setString(15, bean.getModifiedBy());
+                pstmt.setTimestamp(16, bean.getCreatedDatetime());
+                pstmt.setTimestamp(17, bean.getModifiedDatetime());
+
+                pstmt.executeUpdate();
+                conn.commit();
+
+                log.info("Faculty added successfully with PK : " + pk);
+
+                pstmt.close();
+
+            } catch (Exception e) {
+                log.error("Exception in add()", e);
+                try {
+                    conn.rollback();
+                } catch (Exception ex) {
+                    throw new ApplicationException("Rollback error : " + ex.getMessage());
+                }
+                throw new ApplicationException("Exception in adding Faculty");
+            } finally {
+                JDBCDataSource.closeConnection(conn);
             }
-            throw new ApplicationException("Exception in adding Faculty");
+
+            uow.commit();
+            return pk;
         } finally {
-            JDBCDataSource.closeConnection(conn);
+            uow.end();
         }
-
-        return pk;
     }
 
     /**
@@ -148,72 +133,79 @@ public class FacultyModel {
      */
     public void update(FacultyBean bean)
             throws ApplicationException, DuplicateRecordException {
-
-        log.info("update() called for Faculty ID : " + bean.getId());
-
-        // Set related names again
-        CollegeModel collegeModel = new CollegeModel();
-        bean.setCollegeName(collegeModel.findByPk(bean.getCollegeId()).getName());
-
-        CourseModel courseModel = new CourseModel();
-        bean.setCourseName(courseModel.findByPk(bean.getCourseId()).getName());
-
-        SubjectModel subjectModel = new SubjectModel();
-        bean.setSubjectName(subjectModel.findByPk(bean.getSubjectId()).getName());
-
-        FacultyBean existBean = findByEmail(bean.getEmail());
-        if (existBean != null && existBean.getId() != bean.getId()) {
-            log.warn("Duplicate Email during update : " + bean.getEmail());
-            throw new DuplicateRecordException("Email Id already exists");
-        }
-
-        Connection conn = null;
+        UnitOfWork uow = UnitOfWork.begin();
 
         try {
-            conn = JDBCDataSource.getConnection();
-            conn.setAutoCommit(false);
+            log.info("update() called for Faculty ID : " + bean.getId());
 
-            PreparedStatement pstmt = conn.prepareStatement(
-                "update st_faculty set first_name=?, last_name=?, dob=?, gender=?, mobile_no=?, email=?, "
-              + "college_id=?, college_name=?, course_id=?, course_name=?, "
-              + "subject_id=?, subject_name=?, created_by=?, modified_by=?, "
-              + "created_datetime=?, modified_datetime=? where id=?");
-
-            pstmt.setString(1, bean.getFirstName());
-            pstmt.setString(2, bean.getLastName());
-            pstmt.setDate(3, new java.sql.Date(bean.getDob().getTime()));
-            pstmt.setString(4, bean.getGender());
-            pstmt.setString(5, bean.getMobileNo());
-            pstmt.setString(6, bean.getEmail());
-            pstmt.setLong(7, bean.getCollegeId());
-            pstmt.setString(8, bean.getCollegeName());
-            pstmt.setLong(9, bean.getCourseId());
-            pstmt.setString(10, bean.getCourseName());
-            pstmt.setLong(11, bean.getSubjectId());
-            pstmt.setString(12, bean.getSubjectName());
-            pstmt.setString(13, bean.getCreatedBy());
-            pstmt.setString(14, bean.getModifiedBy());
-            pstmt.setTimestamp(15, bean.getCreatedDatetime());
-            pstmt.setTimestamp(16, bean.getModifiedDatetime());
-            pstmt.setLong(17, bean.getId());
+            // Set related names again
+            CollegeModel collegeModel = new CollegeModel();
+            bean.setCollegeName(collegeModel.findByPk(bean.getCollegeId()).getName());
 
-            pstmt.executeUpdate();
-            conn.commit();
+            CourseModel courseModel = new CourseModel();
+            bean.setCourseName(courseModel.findByPk(bean.getCourseId()).getName());
 
-            log.info("Faculty updated successfully ID : " + bean.getId());
+            SubjectModel subjectModel = new SubjectModel();
+            bean.setSubjectName(subjectModel.findByPk(bean.getSubjectId()).getName());
 
-            pstmt.close();
+            FacultyBean existBean = findByEmail(bean.getEmail());
+            if (existBean != null && existBean.getId() != bean.getId()) {
+                log.warn("Duplicate Email during update : " + bean.getEmail());
+                throw new DuplicateRecordException("Email Id already exists");
+            }
+
+            Connection conn = null;
 
-        } catch (Exception e) {
-            log.error("Exception in update()", e);
             try {
-                conn.rollback();
-            } catch (Exception ex) {
-                throw new ApplicationException("Rollback error : " + ex.getMessage());
+                conn = JDBCDataSource.getConnection();
+                conn.setAutoCommit(false);
+
+                PreparedStatement pstmt = conn.prepareStatement(
+                    "update st_faculty set first_name=?, last_name=?, dob=?, gender=?, mobile_no=?, email=?, "
+                  + "college_id=?, college_name=?, course_id=?, course_name=?, "
+                  + "subject_id=?, subject_name=?, created_by=?, modified_by=?, "
+                  + "created_datetime=?, modified_datetime=? where id=?");
+
+                pstmt.setString(1, bean.getFirstName());
+                pstmt.setString(2, bean.getLastName());
+                pstmt.setDate(3, DataUtility.getSqlDate(bean.getDob()));
+                pstmt.setString(4, bean.getGender());
+                pstmt.setString(5, bean.getMobileNo());
+                pstmt.setString(6, bean.getEmail());
+                pstmt.setLong(7, bean.getCollegeId());
+                pstmt.setString(8, bean.getCollegeName());
+                pstmt.setLong(9, bean.getCourseId());
+                pstmt.setString(10, bean.getCourseName());
+                pstmt.setLong(11, bean.getSubjectId());
+                pstmt.setString(12, bean.getSubjectName());
+                pstmt.setString(13, bean.getCreatedBy());
+                pstmt.setString(14, bean.getModifiedBy());
+                pstmt.setTimestamp(15, bean.getCreatedDatetime());
+                pstmt.setTimestamp(16, bean.getModifiedDatetime());
+                pstmt.setLong(17, bean.getId());
+
+                pstmt.executeUpdate();
+                conn.commit();
+
+                log.info("Faculty updated successfully ID : " + bean.getId());
+
+                pstmt.close();
+
+            } catch (Exception e) {
+                log.error("Exception in update()", e);
+                try {
+                    conn.rollback();
+                } catch (Exception ex) {
+                    throw new ApplicationException("Rollback error : " + ex.getMessage());
+                }
+                throw new ApplicationException("Exception in updating Faculty");
+            } finally {
+                JDBCDataSource.closeConnection(conn);
             }
-            throw new ApplicationException("Exception in updating Faculty");
+
+            uow.commit();
         } finally {
-            JDBCDataSource.closeConnection(conn);
+            uow.end();
         }
     }
 
@@ -253,6 +245,19 @@ public class FacultyModel {
         }
     }
 
+    /**
+     * Deletes the faculty records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
+     *
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
+     * @throws ApplicationException if any application level error occurs
+     */
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
+        return BulkDelete.deleteAll("st_faculty", ids);
+    }
+
     /**
      * Find Faculty by Primary Key.
      */
@@ -353,42 +358,66 @@ public class FacultyModel {
      */
     public List<FacultyBean> search(FacultyBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return fetch(bean, Page.offset(pageNo, pageSize), pageSize);
+    }
 
-        log.debug("search() called");
-
-        StringBuffer sql = new StringBuffer(
-                "select * from st_faculty where 1=1");
+    /**
+     * Returns one page of Faculty records matching the given criteria. One row
+     * beyond the page is fetched in the same query to tell whether a next page
+     * exists.
+     *
+     * @param bean     search criteria (can be null)
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of FacultyBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<FacultyBean> searchPage(FacultyBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1), pageNo, pageSize);
+    }
 
-        if (bean != null) {
+    /**
+     * Writes every faculty record matching the given criteria to an export,
+     * ordered by id. Rows are streamed from the database to the writer, so
+     * the export is never held in memory.
+     *
+     * @param bean   search criteria (can be null)
+     * @param writer CSV or JSON writer
+     * @return number of records written
+     * @throws ApplicationException if any application level error occurs
+     * @throws IOException          if the export cannot be written
+     */
+    public long export(FacultyBean bean, ExportWriter writer) throws ApplicationException, IOException {
+        SearchQuery query = criteria("select id, first_name, last_name, dob, gender, mobile_no, email, college_name, course_name, subject_name"
+                + " from st_faculty where 1=1", bean);
+        return Export.write(query.orderBy("id"), writer);
+    }
 
-            if (bean.getId() > 0)
-                sql.append(" and id = " + bean.getId());
-            if (bean.getCollegeId() > 0)
-                sql.append(" and college_id = " + bean.getCollegeId());
-            if (bean.getCourseId() > 0)
-                sql.append(" and course_id = " + bean.getCourseId());
-            if (bean.getSubjectId() > 0)
-                sql.append(" and subject_id = " + bean.getSubjectId());
+    /**
+     * Fetches Faculty records matching the given criteria.
+     *
+     * @param bean   search criteria (can be null)
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @return list of FacultyBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<FacultyBean> fetch(FacultyBean bean, int offset, int limit)
+            throws ApplicationException {
 
-            if (bean.getFirstName() != null)
-                sql.append(" and first_name like '" + bean.getFirstName() + "%'");
+        log.debug("search() called");
 
-            if (bean.getEmail() != null)
-                sql.append(" and email like '" + bean.getEmail() + "%'");
-        }
+        SearchQuery query = criteria("select * from st_faculty where 1=1", bean);
 
-        if (pageSize > 0) {
-            int offset = (pageNo - 1) * pageSize;
-            sql.append(" limit " + offset + "," + pageSize);
-        }
+        query.limit(offset, limit);
 
         List<FacultyBean> list = new ArrayList<>();
         Connection conn = null;
 
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
@@ -408,4 +437,27 @@ public class FacultyModel {
 
         return list;
     }
+
+    /**
+     * Returns a query with the faculty search criteria of the given bean.
+     *
+     * @param select select statement to add the criteria to
+     * @param bean   search criteria (can be null)
+     * @return search query
+     */
+    private SearchQuery criteria(String select, FacultyBean bean) {
+
+        SearchQuery query = new SearchQuery(select);
+
+        if (bean != null) {
+            query.equal("id", bean.getId())
+                    .equal("college_id", bean.getCollegeId())
+                    .equal("course_id", bean.getCourseId())
+                    .equal("subject_id", bean.getSubjectId())
+                    .startsWith("first_name", bean.getFirstName())
+                    .startsWith("email", bean.getEmail());
+        }
+
+        return query;
+    }
 }
@@ -0,0 +1,66 @@
+package in.co.rays.proj4.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ImportResult is the outcome of a file import: the number of rows imported
+ * and rejected, and the reason for each rejected row.
+ * <p>
+ * Only the first {@link #MAX_ERRORS} messages are kept so a file full of bad
+ * rows does not hold all of them in memory; {@link #getRejected()} still
+ * counts every rejected row.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class ImportResult {
+
+	public static final int MAX_ERRORS = 100;
+
+	private int imported = 0;
+
+	private int rejected = 0;
+
+	private final List<String> errors = new ArrayList<>();
+
+	void imported(int count) {
+		imported += count;
+	}
+
+	void rejected(int line, String reason) {
+		rejected++;
+		if (errors.size() < MAX_ERRORS) {
+			errors.add("Line " + line + " : " + reason);
+		}
+	}
+
+	/**
+	 * Returns the number of rows imported.
+	 *
+	 * @return imported row count
+	 */
+	public int getImported() {
+		return imported;
+	}
+
+	/**
+	 * Returns the number of rows rejected.
+	 *
+	 * @return rejected row count
+	 */
+	public int getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Returns the messages of the first {@link #MAX_ERRORS} rejected rows, in
+	 * the order they were found.
+	 *
+	 * @return error messages
+	 */
+	public List<String> getErrors() {
+		return Collections.unmodifiableList(errors);
+	}
+}
@@ -0,0 +1,418 @@
+package in.co.rays.proj4.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.MarksheetBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.exception.DatabaseException;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.DataValidator;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PkGenerator;
+import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.UnitOfWork;
+
+/**
+ * MarksheetImport loads marksheets from a CSV file, used by
+ * {@link MarksheetModel#importCsv(Reader, String)}.
+ * <p>
+ * The file has one marksheet per line:
+ * <pre>
+ *   rollNo,studentId,physics,chemistry,maths
+ *   AB101,12,78,81,90
+ * </pre>
+ * The header line is optional. Lines are read one at a time and validated
+ * with the same {@link DataValidator} rules as the marksheet form. Valid
+ * rows are collected into chunks of {@link #CHUNK_SIZE}; for each chunk the
+ * student names and existing roll numbers are fetched with one query each
+ * and the rows are inserted as one JDBC batch in one transaction, together
+ * with the {@link MeritIndex} rows of the passing marksheets. Only one
+ * chunk is held in memory, so memory use does not grow with the file.
+ * <p>
+ * Rows that fail validation, name an unknown student or repeat a roll
+ * number in any letter case are rejected and reported in the
+ * {@link ImportResult}; the other rows are still imported. If the database
+ * refuses a chunk's batch, that chunk is rolled back and its rows are
+ * inserted one at a time, so only the refused rows are rejected.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class MarksheetImport {
+
+	private static Logger log = Logger.getLogger(MarksheetImport.class);
+
+	static final int CHUNK_SIZE = 1000;
+
+	private static final int COLUMNS = 5;
+
+	private static final String INSERT = "insert into st_marksheet values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private MarksheetImport() {
+	}
+
+	/**
+	 * Imports the marksheets of a CSV file.
+	 *
+	 * @param reader CSV content
+	 * @param user   login stored as created by and modified by
+	 * @return number of rows imported and rejected with reasons
+	 * @throws ApplicationException if the file cannot be read or the
+	 *                              database cannot be reached; chunks saved
+	 *                              before are kept
+	 */
+	static ImportResult importCsv(Reader reader, String user) throws ApplicationException {
+
+		log.debug("importCsv() started");
+
+		ImportResult result = new ImportResult();
+		BufferedReader in = new BufferedReader(reader);
+
+		List<MarksheetBean> chunk = new ArrayList<>(CHUNK_SIZE);
+		List<Integer> lines = new ArrayList<>(CHUNK_SIZE);
+
+		try {
+			String line;
+			int lineNo = 0;
+
+			while ((line = in.readLine()) != null) {
+				lineNo++;
+
+				if (lineNo == 1 && line.startsWith("\uFEFF")) {
+					line = line.substring(1);
+				}
+				if (line.trim().length() == 0) {
+					continue;
+				}
+
+				String[] fields = split(line);
+
+				if (lineNo == 1 && "rollNo".equalsIgnoreCase(fields[0].replace("_", "").replace(" ", ""))) {
+					continue;
+				}
+
+				MarksheetBean bean = parse(fields, lineNo, user, result);
+
+				if (bean != null) {
+					chunk.add(bean);
+					lines.add(lineNo);
+				}
+
+				if (chunk.size() == CHUNK_SIZE) {
+					insert(chunk, lines, result);
+					chunk.clear();
+					lines.clear();
+				}
+			}
+
+			if (!chunk.isEmpty()) {
+				insert(chunk, lines, result);
+			}
+
+		} catch (IOException e) {
+			log.error("Exception in importCsv()", e);
+			throw new ApplicationException("Exception : Exception in reading marksheet file");
+		}
+
+		log.debug("importCsv() imported " + result.getImported() + ", rejected " + result.getRejected());
+		return result;
+	}
+
+	/**
+	 * Validates one line and returns its marksheet, or null after recording
+	 * the errors if it is invalid.
+	 */
+	private static MarksheetBean parse(String[] fields, int lineNo, String user, ImportResult result) {
+
+		if (fields.length != COLUMNS) {
+			result.rejected(lineNo, "Expected " + COLUMNS + " values but found " + fields.length);
+			return null;
+		}
+
+		String rollNo = fields[0];
+		String studentId = fields[1];
+		List<String> errors = new ArrayList<>();
+
+		if (DataValidator.isNull(rollNo)) {
+			errors.add(PropertyReader.getValue("error.require", "Roll Number"));
+		} else if (!DataValidator.isRollNo(rollNo)) {
+			errors.add("Roll No is invalid");
+		}
+
+		if (DataValidator.isNull(studentId)) {
+			errors.add(PropertyReader.getValue("error.require", "Student"));
+		} else if (!DataValidator.isLong(studentId) || DataUtility.getLong(studentId) <= 0) {
+			errors.add("Student is invalid");
+		}
+
+		validateMarks("Physics", fields[2], errors);
+		validateMarks("Chemistry", fields[3], errors);
+		validateMarks("Maths", fields[4], errors);
+
+		if (!errors.isEmpty()) {
+			result.rejected(lineNo, String.join(", ", errors));
+			return null;
+		}
+
+		MarksheetBean bean = new MarksheetBean();
+		bean.setRollNo(rollNo);
+		bean.setStudentId(DataUtility.getLong(studentId));
+		bean.setPhysics(DataUtility.getInt(fields[2]));
+		bean.setChemistry(DataUtility.getInt(fields[3]));
+		bean.setMaths(DataUtility.getInt(fields[4]));
+		bean.setCreatedBy(user);
+		bean.setModifiedBy(user);
+		bean.setCreatedDatetime(DataUtility.getCurrentTimestamp());
+		bean.setModifiedDatetime(bean.getCreatedDatetime());
+		return bean;
+	}
+
+	private static void validateMarks(String subject, String marks, List<String> errors) {
+		if (DataValidator.isNull(marks)) {
+			errors.add(PropertyReader.getValue("error.require", subject + " Marks"));
+		} else if (!DataValidator.isInteger(marks)) {
+			errors.add(subject + " Marks should be a number");
+		} else if (DataUtility.getInt(marks) < 0 || DataUtility.getInt(marks) > 100) {
+			errors.add(subject + " Marks should be in 0 to 100");
+		}
+	}
+
+	/**
+	 * Inserts one chunk of validated rows in one transaction. If the batch
+	 * fails, the chunk is rolled back and its rows are inserted one at a
+	 * time, so only the rows the database refuses are rejected.
+	 */
+	private static void insert(List<MarksheetBean> chunk, List<Integer> lines, ImportResult result)
+			throws ApplicationException {
+
+		List<MarksheetBean> rows = new ArrayList<>(chunk.size());
+		List<Integer> rowLines = new ArrayList<>(chunk.size());
+		SQLException failure = null;
+
+		UnitOfWork uow = UnitOfWork.begin();
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		PreparedStatement merit = null;
+
+		try {
+			conn = JDBCDataSource.getConnection();
+
+			Map<Long, String> names = findStudentNames(conn, chunk);
+			Set<String> rollNos = findRollNos(conn, chunk);
+
+			pstmt = conn.prepareStatement(INSERT);
+			merit = MeritIndex.prepareInsert(conn);
+			long[] ranked = new long[chunk.size()];
+			int passed = 0;
+
+			for (int i = 0; i < chunk.size(); i++) {
+
+				MarksheetBean bean = chunk.get(i);
+				String name = names.get(bean.getStudentId());
+
+				if (name == null) {
+					result.rejected(lines.get(i), "Student " + bean.getStudentId() + " not found");
+					continue;
+				}
+				if (!rollNos.add(key(bean.getRollNo()))) {
+					result.rejected(lines.get(i), "Roll Number " + bean.getRollNo() + " already exists");
+					continue;
+				}
+
+				bean.setId(PkGenerator.nextPk("st_marksheet"));
+				bean.setName(name);
+				rows.add(bean);
+				rowLines.add(lines.get(i));
+
+				setParameters(pstmt, bean);
+				pstmt.addBatch();
+
+				if (MeritIndex.addBatch(merit, bean)) {
+					ranked[passed++] = bean.getId();
+				}
+			}
+
+			if (!rows.isEmpty()) {
+				pstmt.executeBatch();
+			}
+			if (passed > 0) {
+				merit.executeBatch();
+				MeritRank.afterCommit(uow, Arrays.copyOf(ranked, passed));
+			}
+
+			uow.commit();
+			result.imported(rows.size());
+
+		} catch (SQLException e) {
+			failure = e;
+		} catch (DatabaseException e) {
+			log.error("Exception in importCsv()", e);
+			throw new ApplicationException("Exception : Exception in import marksheet");
+		} finally {
+			JDBCDataSource.closeConnection(null, merit);
+			JDBCDataSource.closeConnection(conn, pstmt);
+			uow.end();
+		}
+
+		if (failure != null) {
+			if (rows.isEmpty()) {
+				log.error("Exception in importCsv()", failure);
+				throw new ApplicationException("Exception : Exception in import marksheet");
+			}
+			log.warn("Batch of " + rows.size() + " marksheets failed, inserting them one at a time : "
+					+ failure.getMessage());
+			for (int i = 0; i < rows.size(); i++) {
+				insert(rows.get(i), rowLines.get(i), result);
+			}
+		}
+	}
+
+	/**
+	 * Inserts one row of a failed chunk in a transaction of its own, and
+	 * rejects it with the database error if it fails.
+	 */
+	private static void insert(MarksheetBean bean, int line, ImportResult result) throws ApplicationException {
+
+		UnitOfWork uow = UnitOfWork.begin();
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+
+		try {
+			conn = JDBCDataSource.getConnection();
+			pstmt = conn.prepareStatement(INSERT);
+			setParameters(pstmt, bean);
+			pstmt.executeUpdate();
+			MeritIndex.put(conn, bean.getId(), bean);
+			MeritRank.afterCommit(uow, bean.getId());
+
+			uow.commit();
+			result.imported(1);
+
+		} catch (SQLException e) {
+			String message = String.valueOf(e.getMessage());
+			int end = message.indexOf('\n');
+			result.rejected(line, "Could not be saved : " + (end < 0 ? message : message.substring(0, end)));
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt);
+			uow.end();
+		}
+	}
+
+	private static void setParameters(PreparedStatement pstmt, MarksheetBean bean) throws SQLException {
+		pstmt.setLong(1, bean.getId());
+		pstmt.setString(2, bean.getRollNo());
+		pstmt.setLong(3, bean.getStudentId());
+		pstmt.setString(4, bean.getName());
+		pstmt.setInt(5, bean.getPhysics());
+		pstmt.setInt(6, bean.getChemistry());
+		pstmt.setInt(7, bean.getMaths());
+		pstmt.setString(8, bean.getCreatedBy());
+		pstmt.setString(9, bean.getModifiedBy());
+		pstmt.setTimestamp(10, bean.getCreatedDatetime());
+		pstmt.setTimestamp(11, bean.getModifiedDatetime());
+	}
+
+	/**
+	 * Returns the roll number as compared for duplicates, ignoring case as
+	 * the case-insensitive collation of <code>roll_no</code> does.
+	 */
+	private static String key(String rollNo) {
+		return rollNo.toUpperCase(Locale.ROOT);
+	}
+
+	/**
+	 * Returns "first last" name by id of the students of a chunk.
+	 */
+	private static Map<Long, String> findStudentNames(Connection conn, List<MarksheetBean> chunk)
+			throws SQLException {
+
+		Set<Long> ids = new LinkedHashSet<>();
+		for (MarksheetBean bean : chunk) {
+			ids.add(bean.getStudentId());
+		}
+
+		Map<Long, String> names = new HashMap<>();
+
+		try (PreparedStatement pstmt = new SearchQuery("select id, first_name, last_name from st_student where 1=1")
+				.in("id", ids).prepare(conn); ResultSet rs = pstmt.executeQuery()) {
+			while (rs.next()) {
+				names.put(rs.getLong(1), rs.getString(2) + " " + rs.getString(3));
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Returns the roll numbers of a chunk that already have a marksheet, in
+	 * upper case.
+	 */
+	private static Set<String> findRollNos(Connection conn, List<MarksheetBean> chunk) throws SQLException {
+
+		Set<String> rollNos = new LinkedHashSet<>();
+		for (MarksheetBean bean : chunk) {
+			rollNos.add(bean.getRollNo());
+		}
+
+		Set<String> existing = new HashSet<>();
+
+		try (PreparedStatement pstmt = new SearchQuery("select roll_no from st_marksheet where 1=1")
+				.in("roll_no", rollNos).prepare(conn); ResultSet rs = pstmt.executeQuery()) {
+			while (rs.next()) {
+				existing.add(key(rs.getString(1)));
+			}
+		}
+		return existing;
+	}
+
+	/**
+	 * Splits a CSV line into trimmed values. Values may be enclosed in double
+	 * quotes, with <code>""</code> for a quote inside them.
+	 */
+	private static String[] split(String line) {
+
+		List<String> values = new ArrayList<>(COLUMNS);
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					value.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					value.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(value.toString().trim());
+				value.setLength(0);
+			} else {
+				value.append(c);
+			}
+		}
+		values.add(value.toString().trim());
+
+		return values.toArray(new String[values.size()]);
+	}
+}
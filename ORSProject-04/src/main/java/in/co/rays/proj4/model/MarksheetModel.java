@@ -1,8 +1,11 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,7 +16,13 @@ import in.co.rays.proj4.bean.StudentBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.Cursor;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
+import in.co.rays.proj4.util.SchemaUtility;
+import in.co.rays.proj4.util.UnitOfWork;
 
 /**
  * Model class for Marksheet entity. Provides methods for CRUD operations,
@@ -36,34 +45,7 @@ public class MarksheetModel {
      * @throws DatabaseException if any database error occurs
      */
     public Integer nextPk() throws DatabaseException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        log.debug("nextPk() started");
-
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement("select max(id) from st_marksheet");
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                pk = rs.getInt(1);
-            }
-
-            rs.close();
-            pstmt.close();
-
-            log.debug("Next PK generated : " + (pk + 1));
-
-        } catch (Exception e) {
-            log.error("Exception in nextPk()", e);
-            throw new DatabaseException("Exception in Marksheet getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_marksheet");
     }
 
     /**
@@ -76,63 +58,73 @@ public class MarksheetModel {
      */
     public long add(MarksheetBean bean)
             throws ApplicationException, DuplicateRecordException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        log.info("add() called for Roll No : " + bean.getRollNo());
-
-        // Set student name from Student table
-        StudentModel studentModel = new StudentModel();
-        StudentBean studentbean = studentModel.findByPk(bean.getStudentId());
-        bean.setName(studentbean.getFirstName() + " " + studentbean.getLastName());
-
-        // Check duplicate roll number
-        MarksheetBean existBean = findByRollNo(bean.getRollNo());
-        if (existBean != null) {
-            log.warn("Duplicate Roll No found : " + bean.getRollNo());
-            throw new DuplicateRecordException("Roll Number already exists");
-        }
+        MeritIndex.ensure();
+        UnitOfWork uow = UnitOfWork.begin();
 
         try {
-            pk = nextPk();
-            conn = JDBCDataSource.getConnection();
-            conn.setAutoCommit(false);
-
-            PreparedStatement pstmt = conn.prepareStatement(
-                "insert into st_marksheet values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            Connection conn = null;
+            int pk = 0;
 
-            pstmt.setInt(1, pk);
-            pstmt.setString(2, bean.getRollNo());
-            pstmt.setLong(3, bean.getStudentId());
-            pstmt.setString(4, bean.getName());
-            pstmt.setInt(5, bean.getPhysics());
-            pstmt.setInt(6, bean.getChemistry());
-            pstmt.setInt(7, bean.getMaths());
-            pstmt.setString(8, bean.getCreatedBy());
-            pstmt.setString(9, bean.getModifiedBy());
-            pstmt.setTimestamp(10, bean.getCreatedDatetime());
-            pstmt.setTimestamp(11, bean.getModifiedDatetime());
+            log.info("add() called for Roll No : " + bean.getRollNo());
 
-            pstmt.executeUpdate();
-            conn.commit();
+            // Set student name from Student table
+            StudentModel studentModel = new StudentModel();
+            StudentBean studentbean = studentModel.findByPk(bean.getStudentId());
+            bean.setName(studentbean.getFirstName() + " " + studentbean.getLastName());
 
-            log.info("Marksheet added successfully PK : " + pk);
-
-            pstmt.close();
+            // Check duplicate roll number
+            MarksheetBean existBean = findByRollNo(bean.getRollNo());
+            if (existBean != null) {
+                log.warn("Duplicate Roll No found : " + bean.getRollNo());
+                throw new DuplicateRecordException("Roll Number already exists");
+            }
 
-        } catch (Exception e) {
-            log.error("Exception in add()", e);
             try {
-                conn.rollback();
-            } catch (Exception ex) {
-                throw new ApplicationException("add rollback exception " + ex.getMessage());
+                pk = nextPk();
+                conn = JDBCDataSource.getConnection();
+                conn.setAutoCommit(false);
+
+                PreparedStatement pstmt = conn.prepareStatement(
+                    "insert into st_marksheet values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+
+                pstmt.setInt(1, pk);
+                pstmt.setString(2, bean.getRollNo());
+                pstmt.setLong(3, bean.getStudentId());
+                pstmt.setString(4, bean.getName());
+                pstmt.setInt(5, bean.getPhysics());
+                pstmt.setInt(6, bean.getChemistry());
+                pstmt.setInt(7, bean.getMaths());
+                pstmt.setString(8, bean.getCreatedBy());
+                pstmt.setString(9, bean.getModifiedBy());
+                pstmt.setTimestamp(10, bean.getCreatedDatetime());
+                pstmt.setTimestamp(11, bean.getModifiedDatetime());
+
+                pstmt.executeUpdate();
+                MeritIndex.put(conn, pk, bean);
+                MeritRank.afterCommit(uow, pk);
+                conn.commit();
+
+                log.info("Marksheet added successfully PK : " + pk);
+
+                pstmt.close();
+
+            } catch (Exception e) {
+                log.error("Exception in add()", e);
+                try {
+                    conn.rollback();
+                } catch (Exception ex) {
+                    throw new ApplicationException("add rollback exception " + ex.getMessage());
+                }
+                throw new ApplicationException("Exception in add marksheet");
+            } finally {
+                JDBCDataSource.closeConnection(conn);
             }
-            throw new ApplicationException("Exception in add marksheet");
+
+            uow.commit();
+            return pk;
         } finally {
-            JDBCDataSource.closeConnection(conn);
+            uow.end();
         }
-        return pk;
     }
 
     /**
@@ -144,100 +136,171 @@ public class MarksheetModel {
      */
     public void update(MarksheetBean bean)
             throws ApplicationException, DuplicateRecordException {
+        MeritIndex.ensure();
+        UnitOfWork uow = UnitOfWork.begin();
 
-        log.info("update() called for Marksheet ID : " + bean.getId());
-
-        Connection conn = null;
+        try {
+            log.info("update() called for Marksheet ID : " + bean.getId());
 
-        MarksheetBean existBean = findByRollNo(bean.getRollNo());
-        if (existBean != null && existBean.getId() != bean.getId()) {
-            log.warn("Duplicate Roll No during update : " + bean.getRollNo());
-            throw new DuplicateRecordException("Roll No is already exist");
-        }
+            Connection conn = null;
 
-        // Set student name from Student table
-        StudentModel studentModel = new StudentModel();
-        StudentBean studentbean = studentModel.findByPk(bean.getStudentId());
-        bean.setName(studentbean.getFirstName() + " " + studentbean.getLastName());
+            MarksheetBean existBean = findByRollNo(bean.getRollNo());
+            if (existBean != null && existBean.getId() != bean.getId()) {
+                log.warn("Duplicate Roll No during update : " + bean.getRollNo());
+                throw new DuplicateRecordException("Roll No is already exist");
+            }
 
-        try {
-            conn = JDBCDataSource.getConnection();
-            conn.setAutoCommit(false);
+            // Set student name from Student table
+            StudentModel studentModel = new StudentModel();
+            StudentBean studentbean = studentModel.findByPk(bean.getStudentId());
+            bean.setName(studentbean.getFirstName() + " " + studentbean.getLastName());
 
-            PreparedStatement pstmt = conn.prepareStatement(
-                "update st_marksheet set roll_no = ?, student_id = ?, name = ?, physics = ?, chemistry = ?, maths = ?, "
-              + "created_by = ?, modified_by = ?, created_datetime = ?, modified_datetime = ? where id = ?");
+            try {
+                conn = JDBCDataSource.getConnection();
+                conn.setAutoCommit(false);
+
+                PreparedStatement pstmt = conn.prepareStatement(
+                    "update st_marksheet set roll_no = ?, student_id = ?, name = ?, physics = ?, chemistry = ?, maths = ?, "
+                  + "created_by = ?, modified_by = ?, created_datetime = ?, modified_datetime = ? where id = ?");
+
+                pstmt.setString(1, bean.getRollNo());
+                pstmt.setLong(2, bean.getStudentId());
+                pstmt.setString(3, bean.getName());
+                pstmt.setInt(4, bean.getPhysics());
+                pstmt.setInt(5, bean.getChemistry());
+                pstmt.setInt(6, bean.getMaths());
+                pstmt.setString(7, bean.getCreatedBy());
+                pstmt.setString(8, bean.getModifiedBy());
+                pstmt.setTimestamp(9, bean.getCreatedDatetime());
+                pstmt.setTimestamp(10, bean.getModifiedDatetime());
+                pstmt.setLong(11, bean.getId());
+
+                pstmt.executeUpdate();
+                MeritIndex.put(conn, bean.getId(), bean);
+                MeritRank.afterCommit(uow, bean.getId());
+                conn.commit();
+
+                log.info("Marksheet updated successfully ID : " + bean.getId());
+
+                pstmt.close();
+
+            } catch (Exception e) {
+                log.error("Exception in update()", e);
+                try {
+                    conn.rollback();
+                } catch (Exception ex) {
+                    throw new ApplicationException("Update rollback exception " + ex.getMessage());
+                }
+                throw new ApplicationException("Exception in updating Marksheet ");
+            } finally {
+                JDBCDataSource.closeConnection(conn);
+            }
 
-            pstmt.setString(1, bean.getRollNo());
-            pstmt.setLong(2, bean.getStudentId());
-            pstmt.setString(3, bean.getName());
-            pstmt.setInt(4, bean.getPhysics());
-            pstmt.setInt(5, bean.getChemistry());
-            pstmt.setInt(6, bean.getMaths());
-            pstmt.setString(7, bean.getCreatedBy());
-            pstmt.setString(8, bean.getModifiedBy());
-            pstmt.setTimestamp(9, bean.getCreatedDatetime());
-            pstmt.setTimestamp(10, bean.getModifiedDatetime());
-            pstmt.setLong(11, bean.getId());
+            uow.commit();
+        } finally {
+            uow.end();
+        }
+    }
 
-            pstmt.executeUpdate();
-            conn.commit();
+    /**
+     * Deletes a Marksheet record.
+     *
+     * @param bean MarksheetBean containing ID of the marksheet to delete
+     * @throws ApplicationException if any application level error occurs
+     */
+    public void delete(MarksheetBean bean) throws ApplicationException {
 
-            log.info("Marksheet updated successfully ID : " + bean.getId());
+        MeritIndex.ensure();
+        UnitOfWork uow = UnitOfWork.begin();
 
-            pstmt.close();
+        try {
+            Connection conn = null;
+            log.info("delete() called for Marksheet ID : " + bean.getId());
 
-        } catch (Exception e) {
-            log.error("Exception in update()", e);
             try {
-                conn.rollback();
-            } catch (Exception ex) {
-                throw new ApplicationException("Update rollback exception " + ex.getMessage());
+                conn = JDBCDataSource.getConnection();
+                conn.setAutoCommit(false);
+
+                PreparedStatement pstmt =
+                        conn.prepareStatement("delete from st_marksheet where id = ?");
+                pstmt.setLong(1, bean.getId());
+                pstmt.executeUpdate();
+                MeritIndex.remove(conn, bean.getId());
+                conn.commit();
+
+                log.info("Marksheet deleted successfully ID : " + bean.getId());
+
+                pstmt.close();
+
+            } catch (Exception e) {
+                log.error("Exception in delete()", e);
+                try {
+                    conn.rollback();
+                } catch (Exception ex) {
+                    throw new ApplicationException("Delete rollback exception " + ex.getMessage());
+                }
+                throw new ApplicationException("Exception in delete marksheet");
+            } finally {
+                JDBCDataSource.closeConnection(conn);
             }
-            throw new ApplicationException("Exception in updating Marksheet ");
+
+            MeritRank.afterCommit(uow, bean.getId());
+            uow.commit();
         } finally {
-            JDBCDataSource.closeConnection(conn);
+            uow.end();
         }
     }
 
     /**
-     * Deletes a Marksheet record.
+     * Deletes the marksheet records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
      *
-     * @param bean MarksheetBean containing ID of the marksheet to delete
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
      * @throws ApplicationException if any application level error occurs
      */
-    public void delete(MarksheetBean bean) throws ApplicationException {
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
 
+        MeritIndex.ensure();
+        UnitOfWork uow = UnitOfWork.begin();
         Connection conn = null;
-        log.info("delete() called for Marksheet ID : " + bean.getId());
 
         try {
-            conn = JDBCDataSource.getConnection();
-            conn.setAutoCommit(false);
+            DeleteResult result = BulkDelete.deleteAll("st_marksheet", ids);
 
-            PreparedStatement pstmt =
-                    conn.prepareStatement("delete from st_marksheet where id = ?");
-            pstmt.setLong(1, bean.getId());
-            pstmt.executeUpdate();
-            conn.commit();
-
-            log.info("Marksheet deleted successfully ID : " + bean.getId());
+            conn = JDBCDataSource.getConnection();
+            MeritIndex.remove(conn, ids);
+            MeritRank.afterCommit(uow, ids);
 
-            pstmt.close();
+            uow.commit();
+            return result;
 
-        } catch (Exception e) {
-            log.error("Exception in delete()", e);
-            try {
-                conn.rollback();
-            } catch (Exception ex) {
-                throw new ApplicationException("Delete rollback exception " + ex.getMessage());
-            }
+        } catch (SQLException e) {
+            log.error("Exception in deleteAll()", e);
             throw new ApplicationException("Exception in delete marksheet");
         } finally {
             JDBCDataSource.closeConnection(conn);
+            uow.end();
         }
     }
 
+    /**
+     * Imports marksheets from a CSV file of
+     * <code>rollNo,studentId,physics,chemistry,maths</code> lines. The file
+     * is streamed and saved in chunks, each chunk in its own transaction.
+     * Invalid rows are reported in the result and do not stop the import.
+     *
+     * @param reader CSV content
+     * @param user   login of the user importing the file
+     * @return number of rows imported and rejected with reasons
+     * @throws ApplicationException if any application level error occurs
+     */
+    public ImportResult importCsv(Reader reader, String user) throws ApplicationException {
+        MeritIndex.ensure();
+        return MarksheetImport.importCsv(reader, user);
+    }
+
     /**
      * Finds a Marksheet by primary key.
      *
@@ -360,45 +423,86 @@ public class MarksheetModel {
      */
     public List<MarksheetBean> search(MarksheetBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return fetch(bean, Page.offset(pageNo, pageSize), pageSize, null);
+    }
 
-        log.debug("search() called");
+    /**
+     * Returns one page of Marksheet records matching the given criteria. One row
+     * beyond the page is fetched in the same query to tell whether a next page
+     * exists.
+     *
+     * @param bean     search criteria (can be null)
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of MarksheetBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<MarksheetBean> searchPage(MarksheetBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1, null), pageNo, pageSize);
+    }
 
-        StringBuffer sql =
-                new StringBuffer("select * from st_marksheet where 1=1");
+    /**
+     * Returns one keyset page of Marksheet records matching the given criteria,
+     * ordered by roll number and id. The page starts after, or ends before, the
+     * given cursor, so a deep page costs the same as the first one.
+     *
+     * @param bean     search criteria (can be null)
+     * @param cursor   position to seek to, {@link Cursor#first()} for the first page
+     * @param pageNo   page number starting at 1, used for serial numbers only
+     * @param pageSize number of records per page
+     * @return page of MarksheetBean with the cursors of its first and last rows
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<MarksheetBean> searchPage(MarksheetBean bean, Cursor cursor, int pageNo, int pageSize)
+            throws ApplicationException {
+        SchemaUtility.createIndex("st_marksheet", "idx_marksheet_roll_no", "roll_no, id");
+        return Page.seek(fetch(bean, 0, pageSize + 1, cursor), pageNo, pageSize, cursor, MarksheetBean::getRollNo);
+    }
 
-        if (bean != null) {
-            if (bean.getId() > 0) {
-                sql.append(" and id = " + bean.getId());
-            }
-            if (bean.getRollNo() != null && bean.getRollNo().length() > 0) {
-                sql.append(" and roll_no like '" + bean.getRollNo() + "%'");
-            }
-            if (bean.getName() != null && bean.getName().length() > 0) {
-                sql.append(" and name like '" + bean.getName() + "%'");
-            }
-            if (bean.getPhysics() != null && bean.getPhysics() > 0) {
-                sql.append(" and physics = " + bean.getPhysics());
-            }
-            if (bean.getChemistry() != null && bean.getChemistry() > 0) {
-                sql.append(" and chemistry = " + bean.getChemistry());
-            }
-            if (bean.getMaths() != null && bean.getMaths() > 0) {
-                sql.append(" and maths = " + bean.getMaths());
-            }
-        }
+    /**
+     * Writes every marksheet record matching the given criteria to an export,
+     * ordered by id. Rows are streamed from the database to the writer, so
+     * the export is never held in memory.
+     *
+     * @param bean   search criteria (can be null)
+     * @param writer CSV or JSON writer
+     * @return number of records written
+     * @throws ApplicationException if any application level error occurs
+     * @throws IOException          if the export cannot be written
+     */
+    public long export(MarksheetBean bean, ExportWriter writer) throws ApplicationException, IOException {
+        SearchQuery query = criteria("select id, roll_no, student_id, name, physics, chemistry, maths"
+                + " from st_marksheet where 1=1", bean);
+        return Export.write(query.orderBy("id"), writer);
+    }
 
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + ", " + pageSize);
-        }
+    /**
+     * Fetches Marksheet records matching the given criteria.
+     *
+     * @param bean   search criteria (can be null)
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @param cursor keyset position ordered by roll_no and id, null for none
+     * @return list of MarksheetBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<MarksheetBean> fetch(MarksheetBean bean, int offset, int limit, Cursor cursor)
+            throws ApplicationException {
+
+        log.debug("search() called");
+
+        SearchQuery query = criteria("select * from st_marksheet where 1=1", bean);
+
+        query.seek("roll_no", cursor).limit(offset, limit);
 
         ArrayList<MarksheetBean> list = new ArrayList<>();
         Connection conn = null;
 
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
+
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
@@ -428,9 +532,33 @@ public class MarksheetModel {
         return list;
     }
 
+    /**
+     * Returns a query with the marksheet search criteria of the given bean.
+     *
+     * @param select select statement to add the criteria to
+     * @param bean   search criteria (can be null)
+     * @return search query
+     */
+    private SearchQuery criteria(String select, MarksheetBean bean) {
+
+        SearchQuery query = new SearchQuery(select);
+
+        if (bean != null) {
+            query.equal("id", bean.getId())
+                    .startsWith("roll_no", bean.getRollNo())
+                    .startsWith("name", bean.getName())
+                    .equal("physics", bean.getPhysics())
+                    .equal("chemistry", bean.getChemistry())
+                    .equal("maths", bean.getMaths());
+        }
+
+        return query;
+    }
+
     /**
      * Returns merit list of students (only those who passed all subjects), ordered
-     * by total marks in descending order.
+     * by total marks in descending order. The list is read from the
+     * {@code st_merit} ranking kept by add, update, delete and import.
      *
      * @param pageNo   page number (for pagination)
      * @param pageSize number of records per page
@@ -439,28 +567,51 @@ public class MarksheetModel {
      */
     public List<MarksheetBean> getMeritList(int pageNo, int pageSize)
             throws ApplicationException {
+        return fetchMeritList(Page.offset(pageNo, pageSize), pageSize);
+    }
+
+    /**
+     * Returns one page of the merit list. One row beyond the page is fetched
+     * in the same query to tell whether a next page exists.
+     *
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of MarksheetBean representing merit list
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<MarksheetBean> getMeritPage(int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetchMeritList(Page.offset(pageNo, pageSize), pageSize + 1), pageNo, pageSize);
+    }
+
+    /**
+     * Fetches merit list rows.
+     *
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @return list of MarksheetBean representing merit list
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<MarksheetBean> fetchMeritList(int offset, int limit)
+            throws ApplicationException {
 
         log.debug("getMeritList() called");
 
+        MeritIndex.ensure();
+
         ArrayList<MarksheetBean> list = new ArrayList<>();
 
-        StringBuffer sql = new StringBuffer(
-            "select id, roll_no, name, physics, chemistry, maths, "
-          + "(physics + chemistry + maths) as total "
-          + "from st_marksheet where physics > 33 and chemistry > 33 "
-          + "and maths > 33 order by total desc");
+        SearchQuery query = new SearchQuery(
+            "select m.id, m.roll_no, m.name, m.physics, m.chemistry, m.maths "
+          + "from st_merit r join st_marksheet m on m.id = r.marksheet_id where 1=1");
 
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + ", " + pageSize);
-        }
+        query.orderBy("r.total desc, r.marksheet_id desc").limit(offset, limit);
 
         Connection conn = null;
 
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
@@ -485,4 +636,55 @@ public class MarksheetModel {
         }
         return list;
     }
+
+    /**
+     * Fills the merit ranking again from {@code st_marksheet}. Needed only
+     * after marksheets are changed outside this model, e.g. by a script.
+     *
+     * @return number of marksheets on the merit list
+     * @throws ApplicationException if any application level error occurs
+     */
+    public int rebuildMeritList() throws ApplicationException {
+        MeritIndex.ensure();
+        int rows = MeritIndex.rebuild();
+        MeritRank.reset();
+        return rows;
+    }
+
+    /**
+     * Returns the merit rank of a marksheet from its marks, 1 for the
+     * highest total. Marksheets with equal totals share a rank. The rank is
+     * answered from memory without a query.
+     *
+     * @param bean marksheet with its marks
+     * @return merit rank, or 0 if the marksheet did not pass
+     * @throws ApplicationException if any application level error occurs
+     */
+    public int getMeritRank(MarksheetBean bean) throws ApplicationException {
+        return MeritIndex.isPass(bean) ? MeritRank.rank(MeritIndex.total(bean)) : 0;
+    }
+
+    /**
+     * Returns the merit rank of a marksheet by roll number, answered from
+     * memory without a query.
+     *
+     * @param rollNo roll number
+     * @return merit rank, or 0 if no passing marksheet has the roll number
+     * @throws ApplicationException if any application level error occurs
+     */
+    public int getMeritRank(String rollNo) throws ApplicationException {
+        return MeritRank.rank(rollNo);
+    }
+
+    /**
+     * Returns the ids of the top marksheets in merit list order, answered
+     * from memory without a query.
+     *
+     * @param k number of marksheets
+     * @return up to k marksheet ids, highest total first
+     * @throws ApplicationException if any application level error occurs
+     */
+    public long[] getMeritTop(int k) throws ApplicationException {
+        return MeritRank.top(k);
+    }
 }
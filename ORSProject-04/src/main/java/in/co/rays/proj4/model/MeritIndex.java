@@ -0,0 +1,241 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.MarksheetBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.SchemaUtility;
+
+/**
+ * MeritIndex maintains <code>st_merit</code>, the materialized merit ranking
+ * read by {@link MarksheetModel#getMeritList(int, int)}.
+ * <p>
+ * The table has one row per passing marksheet with its total marks, and a
+ * descending index on <code>(total, marksheet_id)</code>. A page of the
+ * merit list is therefore a range read of that index joined to the page's
+ * marksheets by primary key, instead of computing and sorting the total of
+ * every marksheet on each request.
+ * <p>
+ * MarksheetModel keeps the table in step in the same transaction as every
+ * add, update, delete and import. The table is created and filled from
+ * <code>st_marksheet</code> the first time it is needed, and filled again
+ * while it stays empty with passing marksheets present; after marksheets
+ * are changed outside the application it can be filled again with
+ * {@link #rebuild()}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class MeritIndex {
+
+	private static Logger log = Logger.getLogger(MeritIndex.class);
+
+	/** Minimum marks to pass, each subject must be above it */
+	static final int PASS_MARKS = 33;
+
+	private static final String INSERT = "insert into st_merit (marksheet_id, total) values (?, ?)";
+
+	private static volatile boolean ready = false;
+
+	private MeritIndex() {
+	}
+
+	/**
+	 * Creates the table and its index if they are missing, and fills the
+	 * table if it is empty while passing marksheets exist. The check is made
+	 * on the table itself, so a fill that failed is tried again on the next
+	 * call instead of leaving the merit list empty.
+	 *
+	 * @throws ApplicationException if the table could not be checked or
+	 *                              filled
+	 */
+	static void ensure() throws ApplicationException {
+
+		if (ready) {
+			return;
+		}
+
+		synchronized (MeritIndex.class) {
+			if (!ready) {
+				SchemaUtility.createTable("st_merit", "marksheet_id bigint not null primary key, total int not null");
+				if (isStale()) {
+					rebuild();
+				}
+				SchemaUtility.createIndex("st_merit", "idx_merit_total", "total desc, marksheet_id desc");
+				ready = true;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if <code>st_merit</code> is empty but a marksheet passes,
+	 * i.e. the table was never filled or its fill failed.
+	 *
+	 * @throws ApplicationException if the tables could not be read
+	 */
+	private static boolean isStale() throws ApplicationException {
+
+		Connection conn = null;
+		Statement stmt = null;
+
+		try {
+			conn = JDBCDataSource.getNewConnection();
+			stmt = conn.createStatement();
+			try (ResultSet rs = stmt.executeQuery("select 1 from st_merit limit 1")) {
+				if (rs.next()) {
+					return false;
+				}
+			}
+			try (ResultSet rs = stmt.executeQuery("select 1 from st_marksheet where physics > " + PASS_MARKS
+					+ " and chemistry > " + PASS_MARKS + " and maths > " + PASS_MARKS + " limit 1")) {
+				return rs.next();
+			}
+
+		} catch (SQLException e) {
+			log.error("Exception in isStale()", e);
+			throw new ApplicationException("Exception : Exception in checking merit list");
+		} finally {
+			JDBCDataSource.closeConnection(conn, stmt);
+		}
+	}
+
+	/**
+	 * Returns true if the marks pass, i.e. the marksheet is on the merit
+	 * list.
+	 */
+	static boolean isPass(MarksheetBean bean) {
+		return bean.getPhysics() > PASS_MARKS && bean.getChemistry() > PASS_MARKS
+				&& bean.getMaths() > PASS_MARKS;
+	}
+
+	/**
+	 * Returns the total marks of a marksheet.
+	 */
+	static int total(MarksheetBean bean) {
+		return bean.getPhysics() + bean.getChemistry() + bean.getMaths();
+	}
+
+	/**
+	 * Replaces the merit row of a saved marksheet.
+	 *
+	 * @param conn connection of the transaction that saved the marksheet
+	 * @param id   marksheet id
+	 * @param bean saved marks
+	 * @throws SQLException if the row could not be written
+	 */
+	static void put(Connection conn, long id, MarksheetBean bean) throws SQLException {
+
+		try (PreparedStatement pstmt = conn.prepareStatement("delete from st_merit where marksheet_id = ?")) {
+			pstmt.setLong(1, id);
+			pstmt.executeUpdate();
+		}
+
+		if (isPass(bean)) {
+			try (PreparedStatement pstmt = conn.prepareStatement(INSERT)) {
+				pstmt.setLong(1, id);
+				pstmt.setInt(2, total(bean));
+				pstmt.executeUpdate();
+			}
+		}
+	}
+
+	/**
+	 * Prepares the insert statement for {@link #addBatch(PreparedStatement,
+	 * MarksheetBean)}.
+	 */
+	static PreparedStatement prepareInsert(Connection conn) throws SQLException {
+		return conn.prepareStatement(INSERT);
+	}
+
+	/**
+	 * Adds the merit row of a new marksheet to an insert batch if it passes.
+	 *
+	 * @param pstmt statement from {@link #prepareInsert(Connection)}
+	 * @param bean  new marksheet with its id
+	 * @return true if a row was added to the batch
+	 * @throws SQLException if the parameters could not be set
+	 */
+	static boolean addBatch(PreparedStatement pstmt, MarksheetBean bean) throws SQLException {
+		if (!isPass(bean)) {
+			return false;
+		}
+		pstmt.setLong(1, bean.getId());
+		pstmt.setInt(2, total(bean));
+		pstmt.addBatch();
+		return true;
+	}
+
+	/**
+	 * Removes the merit rows of deleted marksheets. A row is only removed
+	 * once its marksheet is gone, so ids whose delete failed keep their
+	 * rank.
+	 *
+	 * @param conn connection of the transaction that deleted the marksheets
+	 * @param ids  marksheet ids
+	 * @throws SQLException if the rows could not be deleted
+	 */
+	static void remove(Connection conn, long... ids) throws SQLException {
+
+		if (ids == null || ids.length == 0) {
+			return;
+		}
+
+		try (PreparedStatement pstmt = conn.prepareStatement("delete from st_merit where marksheet_id = ?"
+				+ " and not exists (select 1 from st_marksheet where id = ?)")) {
+			for (long id : ids) {
+				pstmt.setLong(1, id);
+				pstmt.setLong(2, id);
+				pstmt.addBatch();
+			}
+			pstmt.executeBatch();
+		}
+	}
+
+	/**
+	 * Fills the table again from <code>st_marksheet</code> in one
+	 * transaction.
+	 *
+	 * @return number of marksheets on the merit list
+	 * @throws ApplicationException if the table could not be filled
+	 */
+	static int rebuild() throws ApplicationException {
+
+		log.info("Rebuilding st_merit");
+
+		Connection conn = null;
+		Statement stmt = null;
+		int rows = 0;
+
+		try {
+			conn = JDBCDataSource.getNewConnection();
+			conn.setAutoCommit(false);
+			stmt = conn.createStatement();
+			stmt.executeUpdate("delete from st_merit");
+			rows = stmt.executeUpdate("insert into st_merit (marksheet_id, total) "
+					+ "select id, physics + chemistry + maths from st_marksheet where physics > " + PASS_MARKS
+					+ " and chemistry > " + PASS_MARKS + " and maths > " + PASS_MARKS);
+			conn.commit();
+
+		} catch (SQLException e) {
+			log.error("Exception in rebuild()", e);
+			try {
+				conn.rollback();
+			} catch (Exception ex) {
+				throw new ApplicationException("Exception : Rebuild rollback exception " + ex.getMessage());
+			}
+			throw new ApplicationException("Exception : Exception in rebuilding merit list");
+		} finally {
+			JDBCDataSource.closeConnection(conn, stmt);
+		}
+
+		log.info("st_merit rebuilt with " + rows + " rows");
+		return rows;
+	}
+}
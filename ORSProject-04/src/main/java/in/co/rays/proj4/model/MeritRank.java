@@ -0,0 +1,389 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.UnitOfWork;
+
+/**
+ * MeritRank answers "what is my rank?" from memory, used by
+ * {@link MarksheetModel#getMeritRank(String)} and the marksheet pages.
+ * <p>
+ * Totals of passing marksheets can only be 0 - {@link #MAX_TOTAL}, so the
+ * number of marksheets per total is kept in a Fenwick tree over that range.
+ * The rank of a total is one more than the number of marksheets with a
+ * higher total, a prefix sum of the tree, and the total of the k-th ranked
+ * marksheet is found by descending the tree; both take O(log 301) steps
+ * however many marksheets there are. Marksheets with equal totals share a
+ * rank. The roll number and total of each ranked marksheet are kept by id
+ * and by roll number, and the ids of each total are kept sorted, so top-K
+ * lists marksheets in the same order as the merit list.
+ * <p>
+ * The ranking is loaded from <code>st_merit</code> the first time it is
+ * used. MarksheetModel hands the ids of every add, update and delete to
+ * {@link #afterCommit(UnitOfWork, long...)}, so the ranking changes only
+ * once the transaction has committed. The change then reads the committed
+ * rows of those ids again while it holds the write lock, instead of
+ * applying the marks the transaction saved. Two transactions saving the
+ * same marksheet may run their hooks in either order; whichever runs last
+ * reads the newer total, so the ranking ends as the table does.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class MeritRank {
+
+	private static Logger log = Logger.getLogger(MeritRank.class);
+
+	/** Highest possible total, three subjects of 100 marks */
+	static final int MAX_TOTAL = 300;
+
+	private static final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** Fenwick tree of marksheet counts, total t at index t + 1 */
+	private static int[] tree;
+
+	/** Ids of merit rows read per query by {@link #refresh(long...)} */
+	private static final int REFRESH_SIZE = 500;
+
+	/** Marksheet ids of each total in ascending order */
+	private static List<TreeSet<Long>> ids;
+
+	private static Map<Long, Entry> byId;
+
+	private static Map<String, Entry> byRollNo;
+
+	private static int size;
+
+	private static volatile boolean loaded = false;
+
+	private MeritRank() {
+	}
+
+	/**
+	 * Roll number and total of a ranked marksheet.
+	 */
+	private static final class Entry {
+
+		private final long id;
+		private final String rollNo;
+		private final int total;
+
+		private Entry(long id, String rollNo, int total) {
+			this.id = id;
+			this.rollNo = rollNo;
+			this.total = total;
+		}
+	}
+
+	/**
+	 * Returns the rank of a total, 1 for the highest.
+	 *
+	 * @param total total marks of a passing marksheet
+	 * @return rank among the ranked marksheets
+	 * @throws ApplicationException if the ranking could not be loaded
+	 */
+	static int rank(int total) throws ApplicationException {
+
+		load();
+
+		lock.readLock().lock();
+		try {
+			return size - count(total + 1) + 1;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the rank of a marksheet by roll number.
+	 *
+	 * @param rollNo roll number
+	 * @return rank, or 0 if the marksheet is not on the merit list
+	 * @throws ApplicationException if the ranking could not be loaded
+	 */
+	static int rank(String rollNo) throws ApplicationException {
+
+		load();
+
+		lock.readLock().lock();
+		try {
+			Entry entry = (rollNo == null) ? null : byRollNo.get(rollNo);
+			return (entry == null) ? 0 : size - count(entry.total + 1) + 1;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the ids of the top marksheets in merit list order.
+	 *
+	 * @param k number of marksheets
+	 * @return up to k marksheet ids, highest total first
+	 * @throws ApplicationException if the ranking could not be loaded
+	 */
+	static long[] top(int k) throws ApplicationException {
+
+		load();
+
+		lock.readLock().lock();
+		try {
+			long[] top = new long[Math.max(0, Math.min(k, size))];
+			if (top.length == 0) {
+				return top;
+			}
+
+			int lowest = kth(top.length);
+			int n = 0;
+
+			for (int total = MAX_TOTAL; total >= lowest && n < top.length; total--) {
+				Iterator<Long> it = ids.get(total).descendingIterator();
+				while (it.hasNext() && n < top.length) {
+					top[n++] = it.next();
+				}
+			}
+			return top;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of ranked marksheets.
+	 *
+	 * @return size of the merit list
+	 * @throws ApplicationException if the ranking could not be loaded
+	 */
+	static int size() throws ApplicationException {
+
+		load();
+
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Brings the rank entries of saved or deleted marksheets in line with
+	 * <code>st_merit</code> once the unit of work commits.
+	 *
+	 * @param uow unit of work saving or deleting the marksheets
+	 * @param ids marksheet ids
+	 */
+	static void afterCommit(UnitOfWork uow, long... ids) {
+		if (ids != null && ids.length > 0) {
+			uow.afterCommit(() -> refresh(ids));
+		}
+	}
+
+	/**
+	 * Reads the merit rows of the given marksheets and replaces their rank
+	 * entries, removing those that have no row. The rows are read while the
+	 * write lock is held, so no older change can be applied after them.
+	 * Before the ranking is loaded nothing is read; the load reads the
+	 * committed table. If the rows cannot be read the ranking is dropped
+	 * and loaded again on next use.
+	 *
+	 * @param ids marksheet ids
+	 */
+	static void refresh(long... ids) {
+
+		lock.writeLock().lock();
+		Connection conn = null;
+
+		try {
+			if (!loaded) {
+				return;
+			}
+
+			List<Entry> entries = new ArrayList<>();
+			conn = JDBCDataSource.getNewConnection();
+
+			for (int from = 0; from < ids.length; from += REFRESH_SIZE) {
+				long[] part = Arrays.copyOfRange(ids, from, Math.min(ids.length, from + REFRESH_SIZE));
+				StringBuilder sql = new StringBuilder("select r.marksheet_id, m.roll_no, r.total"
+						+ " from st_merit r join st_marksheet m on m.id = r.marksheet_id where r.marksheet_id in (?");
+				for (int i = 1; i < part.length; i++) {
+					sql.append(", ?");
+				}
+				try (PreparedStatement pstmt = conn.prepareStatement(sql.append(')').toString())) {
+					for (int i = 0; i < part.length; i++) {
+						pstmt.setLong(i + 1, part[i]);
+					}
+					try (ResultSet rs = pstmt.executeQuery()) {
+						while (rs.next()) {
+							entries.add(new Entry(rs.getLong(1), rs.getString(2), rs.getInt(3)));
+						}
+					}
+				}
+			}
+
+			for (long id : ids) {
+				delete(id);
+			}
+			for (Entry entry : entries) {
+				put(entry);
+			}
+
+		} catch (SQLException | RuntimeException e) {
+			log.error("Exception in refresh(), merit rank will be loaded again", e);
+			loaded = false;
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Drops the ranking so it is loaded again on next use, e.g. after
+	 * {@link MeritIndex#rebuild()}.
+	 */
+	static void reset() {
+		lock.writeLock().lock();
+		try {
+			loaded = false;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Loads the ranking from <code>st_merit</code> once.
+	 */
+	private static void load() throws ApplicationException {
+
+		if (loaded) {
+			return;
+		}
+
+		MeritIndex.ensure();
+
+		lock.writeLock().lock();
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+
+		try {
+			if (loaded) {
+				return;
+			}
+
+			long begin = System.currentTimeMillis();
+
+			tree = new int[MAX_TOTAL + 2];
+			ids = new ArrayList<>(MAX_TOTAL + 1);
+			for (int total = 0; total <= MAX_TOTAL; total++) {
+				ids.add(new TreeSet<>());
+			}
+			byId = new HashMap<>();
+			byRollNo = new HashMap<>();
+			size = 0;
+
+			conn = JDBCDataSource.getNewConnection();
+			pstmt = conn.prepareStatement("select r.marksheet_id, m.roll_no, r.total"
+					+ " from st_merit r join st_marksheet m on m.id = r.marksheet_id");
+			rs = pstmt.executeQuery();
+
+			while (rs.next()) {
+				put(new Entry(rs.getLong(1), rs.getString(2), rs.getInt(3)));
+			}
+
+			loaded = true;
+			log.info("Merit rank loaded " + size + " marksheets in " + (System.currentTimeMillis() - begin)
+					+ " ms");
+
+		} catch (SQLException e) {
+			log.error("Exception in load()", e);
+			throw new ApplicationException("Exception : Exception in loading merit rank");
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt, rs);
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds an entry for a marksheet that has none, called with the write
+	 * lock held.
+	 */
+	private static void put(Entry entry) {
+		byId.put(entry.id, entry);
+		byRollNo.put(entry.rollNo, entry);
+		ids.get(entry.total).add(entry.id);
+		add(entry.total, 1);
+		size++;
+	}
+
+	/**
+	 * Removes an entry, called with the write lock held.
+	 */
+	private static void delete(long id) {
+
+		Entry entry = byId.remove(id);
+
+		if (entry != null) {
+			if (byRollNo.get(entry.rollNo) == entry) {
+				byRollNo.remove(entry.rollNo);
+			}
+			ids.get(entry.total).remove(id);
+			add(entry.total, -1);
+			size--;
+		}
+	}
+
+	/**
+	 * Adds delta to the count of a total.
+	 */
+	private static void add(int total, int delta) {
+		for (int i = total + 1; i < tree.length; i += i & -i) {
+			tree[i] += delta;
+		}
+	}
+
+	/**
+	 * Returns the number of marksheets with a total below the given one.
+	 */
+	private static int count(int total) {
+		int sum = 0;
+		for (int i = Math.min(total, MAX_TOTAL + 1); i > 0; i -= i & -i) {
+			sum += tree[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the total of the k-th ranked marksheet, 1 &lt;= k &lt;= size,
+	 * by finding the highest total with at least size - k + 1 marksheets at
+	 * or below it.
+	 */
+	private static int kth(int k) {
+
+		int target = size - k + 1;
+		int pos = 0;
+
+		for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+			if (pos + step < tree.length && tree[pos + step] < target) {
+				pos += step;
+				target -= tree[pos];
+			}
+		}
+		return pos;
+	}
+}
@@ -8,6 +8,7 @@ package in.co.rays.proj4.model;
  * @Version: 1.0
  */
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -20,7 +21,11 @@ import in.co.rays.proj4.bean.PatientBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
 
 /**
  * Model class for managing Patient entity. Provides methods for 
@@ -38,35 +43,7 @@ public class PatientModel {
      * @throws DatabaseException
      */
     public static Integer nextPk() throws DatabaseException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        log.debug("nextPk() started");
-
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement("SELECT MAX(id) FROM st_patient");
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                pk = rs.getInt(1);
-            }
-
-            rs.close();
-            pstmt.close();
-
-            log.debug("Next PK generated : " + (pk + 1));
-
-        } catch (Exception e) {
-            log.error("Exception in nextPk()", e);
-            throw new DatabaseException("Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_patient");
     }
 
     /**
@@ -100,7 +77,7 @@ public class PatientModel {
 
             pstmt.setLong(1, pk);
             pstmt.setString(2, bean.getName());
-            pstmt.setDate(3, new java.sql.Date(bean.getDateOfVisit().getTime()));
+            pstmt.setDate(3, DataUtility.getSqlDate(bean.getDateOfVisit()));
             pstmt.setString(4, bean.getMobile());
             pstmt.setString(5, bean.getDisease());
             pstmt.setString(6, bean.getCreatedBy());
@@ -158,7 +135,7 @@ public class PatientModel {
                   + "created_by=?, modified_by=?, created_datetime=?, modified_datetime=? WHERE id=?");
 
             pstmt.setString(1, bean.getName());
-            pstmt.setDate(2, new java.sql.Date(bean.getDateOfVisit().getTime()));
+            pstmt.setDate(2, DataUtility.getSqlDate(bean.getDateOfVisit()));
             pstmt.setString(3, bean.getMobile());
             pstmt.setString(4, bean.getDisease());
             pstmt.setString(5, bean.getCreatedBy());
@@ -227,6 +204,19 @@ public class PatientModel {
         }
     }
 
+    /**
+     * Deletes the patient records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
+     *
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
+     * @throws ApplicationException if any application level error occurs
+     */
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
+        return BulkDelete.deleteAll("st_patient", ids);
+    }
+
     /**
      * Finds a Patient by primary key.
      * 
@@ -327,42 +317,66 @@ public class PatientModel {
      */
     public List<PatientBean> search(PatientBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return fetch(bean, Page.offset(pageNo, pageSize), pageSize);
+    }
+
+    /**
+     * Returns one page of Patient records matching the given criteria. One row
+     * beyond the page is fetched in the same query to tell whether a next page
+     * exists.
+     *
+     * @param bean     search criteria (can be null)
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of PatientBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<PatientBean> searchPage(PatientBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1), pageNo, pageSize);
+    }
+
+    /**
+     * Writes every patient record matching the given criteria to an export,
+     * ordered by id. Rows are streamed from the database to the writer, so
+     * the export is never held in memory.
+     *
+     * @param bean   search criteria (can be null)
+     * @param writer CSV or JSON writer
+     * @return number of records written
+     * @throws ApplicationException if any application level error occurs
+     * @throws IOException          if the export cannot be written
+     */
+    public long export(PatientBean bean, ExportWriter writer) throws ApplicationException, IOException {
+        SearchQuery query = criteria("select id, name, date_of_visit, mobile, disease"
+                + " from st_patient where 1=1", bean);
+        return Export.write(query.orderBy("id"), writer);
+    }
+
+    /**
+     * Fetches Patient records matching the given criteria.
+     *
+     * @param bean   search criteria (can be null)
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @return list of PatientBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<PatientBean> fetch(PatientBean bean, int offset, int limit)
+            throws ApplicationException {
 
         log.debug("search() called");
 
         Connection conn = null;
-        StringBuilder sql =
-                new StringBuilder("SELECT * FROM st_patient WHERE 1=1 ");
-
-        if (bean != null) {
-            if (bean.getId() > 0) {
-                sql.append(" AND id=").append(bean.getId());
-            }
-            if (bean.getName() != null && !bean.getName().isEmpty()) {
-                sql.append(" AND name LIKE '").append(bean.getName()).append("%'");
-            }
-            if (bean.getDateOfVisit() != null) {
-                sql.append(" AND date_of_visit LIKE '")
-                   .append(new java.sql.Date(bean.getDateOfVisit().getTime()))
-                   .append("%'");
-            }
-            if (bean.getDisease() != null && !bean.getDisease().isEmpty()) {
-                sql.append(" AND disease LIKE '")
-                   .append(bean.getDisease()).append("%'");
-            }
-        }
+        SearchQuery query = criteria("select * from st_patient where 1=1", bean);
 
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" LIMIT ").append(pageNo).append(",").append(pageSize);
-        }
+        query.limit(offset, limit);
 
         List<PatientBean> list = new ArrayList<>();
 
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
@@ -382,6 +396,27 @@ public class PatientModel {
         return list;
     }
 
+    /**
+     * Returns a query with the patient search criteria of the given bean.
+     *
+     * @param select select statement to add the criteria to
+     * @param bean   search criteria (can be null)
+     * @return search query
+     */
+    private SearchQuery criteria(String select, PatientBean bean) {
+
+        SearchQuery query = new SearchQuery(select);
+
+        if (bean != null) {
+            query.equal("id", bean.getId())
+                    .startsWith("name", bean.getName())
+                    .onDay("date_of_visit", bean.getDateOfVisit())
+                    .startsWith("disease", bean.getDisease());
+        }
+
+        return query;
+    }
+
     /**
      * Maps ResultSet row to PatientBean.
      * 
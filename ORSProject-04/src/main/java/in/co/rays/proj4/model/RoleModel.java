@@ -1,5 +1,6 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -12,7 +13,11 @@ import in.co.rays.proj4.bean.RoleBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.EntityCache;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
 
 /**
  * Model class for Role entity. Provides methods for CRUD operations,
@@ -28,6 +33,9 @@ public class RoleModel {
     /** Logger instance for RoleModel */
     private static Logger log = Logger.getLogger(RoleModel.class);
 
+    /** Read-through cache of findByPk, invalidated by update and delete */
+    private static final EntityCache<RoleBean> cache = new EntityCache<>("role");
+
     /**
      * Gets the next primary key value for the {@code st_role} table.
      *
@@ -35,35 +43,7 @@ public class RoleModel {
      * @throws DatabaseException if any database error occurs
      */
     public Integer nextPk() throws DatabaseException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        log.debug("nextPk() started");
-
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement("select max(id) from st_role");
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                pk = rs.getInt(1);
-            }
-
-            rs.close();
-            pstmt.close();
-
-            log.debug("Next PK generated : " + (pk + 1));
-
-        } catch (Exception e) {
-            log.error("Exception in nextPk()", e);
-            throw new DatabaseException("Exception : Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_role");
     }
 
     /**
@@ -107,6 +87,7 @@ public class RoleModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            DropdownCache.changed(DropdownCache.ROLE);
             log.info("Role added successfully PK : " + pk);
 
             pstmt.close();
@@ -148,6 +129,8 @@ public class RoleModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            cache.invalidate(bean.getId());
+            DropdownCache.changed(DropdownCache.ROLE);
             log.info("Role deleted successfully ID : " + bean.getId());
 
             pstmt.close();
@@ -166,6 +149,22 @@ public class RoleModel {
         }
     }
 
+    /**
+     * Deletes the role records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
+     *
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
+     * @throws ApplicationException if any application level error occurs
+     */
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
+        DeleteResult result = BulkDelete.deleteAll("st_role", ids);
+        cache.invalidate(ids);
+        DropdownCache.changed(DropdownCache.ROLE);
+        return result;
+    }
+
     /**
      * Updates an existing Role record.
      *
@@ -205,6 +204,8 @@ public class RoleModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            cache.invalidate(bean.getId());
+            DropdownCache.changed(DropdownCache.ROLE);
             log.info("Role updated successfully ID : " + bean.getId());
 
             pstmt.close();
@@ -224,15 +225,27 @@ public class RoleModel {
     }
 
     /**
-     * Finds a Role by primary key.
+     * Finds a Role by primary key. The bean is served from a
+     * cache shared by all callers and must not be modified.
      *
      * @param pk primary key of the role
      * @return RoleBean if found, otherwise {@code null}
      * @throws ApplicationException if any application level error occurs
      */
     public RoleBean findByPk(long pk) throws ApplicationException {
+        return cache.get(pk, this::loadByPk);
+    }
 
-        log.debug("findByPk() called PK : " + pk);
+    /**
+     * Loads a Role by primary key from the database.
+     *
+     * @param pk primary key of the role
+     * @return RoleBean if found, otherwise {@code null}
+     * @throws ApplicationException if any application level error occurs
+     */
+    private RoleBean loadByPk(long pk) throws ApplicationException {
+
+        log.debug("loadByPk() called PK : " + pk);
 
         RoleBean bean = null;
         Connection conn = null;
@@ -263,7 +276,7 @@ public class RoleModel {
             pstmt.close();
 
         } catch (Exception e) {
-            log.error("Exception in findByPk()", e);
+            log.error("Exception in loadByPk()", e);
             throw new ApplicationException("Exception : Exception in getting User by pk");
         } finally {
             JDBCDataSource.closeConnection(conn);
@@ -343,36 +356,66 @@ public class RoleModel {
      */
     public List<RoleBean> search(RoleBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return fetch(bean, Page.offset(pageNo, pageSize), pageSize);
+    }
 
-        log.debug("search() called");
+    /**
+     * Returns one page of Role records matching the given criteria. One row
+     * beyond the page is fetched in the same query to tell whether a next page
+     * exists.
+     *
+     * @param bean     search criteria (can be null)
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of RoleBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<RoleBean> searchPage(RoleBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1), pageNo, pageSize);
+    }
 
-        StringBuffer sql =
-                new StringBuffer("select * from st_role where 1=1");
+    /**
+     * Writes every role record matching the given criteria to an export,
+     * ordered by id. Rows are streamed from the database to the writer, so
+     * the export is never held in memory.
+     *
+     * @param bean   search criteria (can be null)
+     * @param writer CSV or JSON writer
+     * @return number of records written
+     * @throws ApplicationException if any application level error occurs
+     * @throws IOException          if the export cannot be written
+     */
+    public long export(RoleBean bean, ExportWriter writer) throws ApplicationException, IOException {
+        SearchQuery query = criteria("select id, name, description"
+                + " from st_role where 1=1", bean);
+        return Export.write(query.orderBy("id"), writer);
+    }
 
-        if (bean != null) {
-            if (bean.getId() > 0) {
-                sql.append(" and id = " + bean.getId());
-            }
-            if (bean.getName() != null && bean.getName().length() > 0) {
-                sql.append(" and name like '" + bean.getName() + "%'");
-            }
-            if (bean.getDescription() != null && bean.getDescription().length() > 0) {
-                sql.append(" and description like '" + bean.getDescription() + "%'");
-            }
-        }
+    /**
+     * Fetches Role records matching the given criteria.
+     *
+     * @param bean   search criteria (can be null)
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @return list of RoleBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<RoleBean> fetch(RoleBean bean, int offset, int limit)
+            throws ApplicationException {
 
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + ", " + pageSize);
-        }
+        log.debug("search() called");
+
+        SearchQuery query = criteria("select * from st_role where 1=1", bean);
+
+        query.limit(offset, limit);
 
         Connection conn = null;
         ArrayList<RoleBean> list = new ArrayList<>();
 
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
@@ -399,4 +442,24 @@ public class RoleModel {
 
         return list;
     }
+
+    /**
+     * Returns a query with the role search criteria of the given bean.
+     *
+     * @param select select statement to add the criteria to
+     * @param bean   search criteria (can be null)
+     * @return search query
+     */
+    private SearchQuery criteria(String select, RoleBean bean) {
+
+        SearchQuery query = new SearchQuery(select);
+
+        if (bean != null) {
+            query.equal("id", bean.getId())
+                    .startsWith("name", bean.getName())
+                    .startsWith("description", bean.getDescription());
+        }
+
+        return query;
+    }
 }
@@ -0,0 +1,223 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import in.co.rays.proj4.util.Cursor;
+import in.co.rays.proj4.util.DataUtility;
+
+/**
+ * SearchQuery builds the parameterized select statement of a model's
+ * search() method.
+ * <p>
+ * Criteria values are never concatenated into the SQL text, they are bound
+ * as statement parameters. The SQL text therefore only depends on which
+ * criteria are set, so each search has a small, bounded set of statement
+ * shapes that the driver and MySQL can cache and reuse, and user input
+ * cannot change the statement. Criteria with an empty value (null, empty
+ * string, zero id) are skipped, like the hand written searches did.
+ *
+ * Example:
+ * <pre>
+ *   SearchQuery query = new SearchQuery("select * from st_role where 1=1")
+ *           .equal("id", bean.getId())
+ *           .startsWith("name", bean.getName())
+ *           .limit(offset, limit);
+ *   PreparedStatement pstmt = query.prepare(conn);
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class SearchQuery {
+
+	private final StringBuilder sql;
+
+	private final List<Object> params = new ArrayList<>();
+
+	/**
+	 * Starts a query from a select statement with a where clause, criteria
+	 * are appended with <code>and</code>.
+	 *
+	 * @param select select statement, e.g.
+	 *               <code>select * from st_role where 1=1</code>
+	 */
+	SearchQuery(String select) {
+		this.sql = new StringBuilder(select);
+	}
+
+	/**
+	 * Adds <code>column = ?</code> if the value is greater than zero.
+	 */
+	SearchQuery equal(String column, long value) {
+		if (value > 0) {
+			sql.append(" and ").append(column).append(" = ?");
+			params.add(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds <code>column = ?</code> if the value is not null and greater than
+	 * zero.
+	 */
+	SearchQuery equal(String column, Integer value) {
+		if (value != null && value > 0) {
+			sql.append(" and ").append(column).append(" = ?");
+			params.add(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds <code>column = ?</code> if the value is not empty.
+	 */
+	SearchQuery equal(String column, String value) {
+		if (value != null && value.length() > 0) {
+			sql.append(" and ").append(column).append(" = ?");
+			params.add(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds <code>column like ?</code> matching values that start with the
+	 * given prefix if it is not empty. Wildcards in the prefix match
+	 * literally.
+	 */
+	SearchQuery startsWith(String column, String prefix) {
+		if (prefix != null && prefix.length() > 0) {
+			sql.append(" and ").append(column).append(" like ?");
+			params.add(escapeLike(prefix) + "%");
+		}
+		return this;
+	}
+
+	/**
+	 * Adds <code>column &gt;= ? and column &lt; ?</code> matching the whole
+	 * day of the given date if it is not null. Works for date and datetime
+	 * columns and can use an index on the column.
+	 */
+	SearchQuery onDay(String column, Date day) {
+		if (day != null) {
+			LocalDate date = DataUtility.getLocalDate(day);
+			java.sql.Date from = java.sql.Date.valueOf(date);
+			java.sql.Date to = java.sql.Date.valueOf(date.plusDays(1));
+
+			sql.append(" and ").append(column).append(" >= ? and ").append(column).append(" < ?");
+			params.add(from);
+			params.add(to);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds <code>column in (?, ?, ...)</code> with one parameter per value.
+	 * An empty collection matches no rows.
+	 */
+	SearchQuery in(String column, Collection<?> values) {
+		if (values.isEmpty()) {
+			sql.append(" and 1=0");
+			return this;
+		}
+		sql.append(" and ").append(column).append(" in (");
+		String separator = "";
+		for (Object value : values) {
+			sql.append(separator).append("?");
+			params.add(value);
+			separator = ", ";
+		}
+		sql.append(")");
+		return this;
+	}
+
+	/**
+	 * Adds the keyset predicate and order of a cursor if it is not null,
+	 * ordering by the given column and id.
+	 */
+	SearchQuery seek(String column, Cursor cursor) {
+		if (cursor != null) {
+			if (cursor.hasKey()) {
+				sql.append(" and (").append(column).append(", id) ").append(cursor.isForward() ? ">" : "<")
+						.append(" (?, ?)");
+				params.add(cursor.getKey());
+				params.add(cursor.getId());
+			}
+			orderBy(cursor.isForward() ? column + ", id" : column + " desc, id desc");
+		}
+		return this;
+	}
+
+	/**
+	 * Adds an order by clause.
+	 */
+	SearchQuery orderBy(String order) {
+		sql.append(" order by ").append(order);
+		return this;
+	}
+
+	/**
+	 * Adds <code>limit ?, ?</code> if the limit is greater than zero.
+	 */
+	SearchQuery limit(int offset, int limit) {
+		if (limit > 0) {
+			sql.append(" limit ?, ?");
+			params.add(offset);
+			params.add(limit);
+		}
+		return this;
+	}
+
+	/**
+	 * Prepares the statement on the given connection and binds all
+	 * parameters.
+	 *
+	 * @param conn connection
+	 * @return prepared statement ready to execute
+	 * @throws SQLException if the statement could not be prepared
+	 */
+	PreparedStatement prepare(Connection conn) throws SQLException {
+
+		PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+
+		for (int i = 0; i < params.size(); i++) {
+			Object value = params.get(i);
+			if (value instanceof Long) {
+				pstmt.setLong(i + 1, (Long) value);
+			} else if (value instanceof Integer) {
+				pstmt.setInt(i + 1, (Integer) value);
+			} else if (value instanceof java.sql.Date) {
+				pstmt.setDate(i + 1, (java.sql.Date) value);
+			} else {
+				pstmt.setString(i + 1, (String) value);
+			}
+		}
+		return pstmt;
+	}
+
+	/**
+	 * Returns the SQL text with placeholders.
+	 */
+	@Override
+	public String toString() {
+		return sql.toString();
+	}
+
+	private static String escapeLike(String value) {
+		StringBuilder sb = new StringBuilder(value.length() + 4);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' || c == '%' || c == '_') {
+				sb.append('\\');
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+}
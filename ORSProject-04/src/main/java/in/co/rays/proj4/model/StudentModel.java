@@ -1,5 +1,6 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -13,7 +14,14 @@ import in.co.rays.proj4.bean.StudentBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.Cursor;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
+import in.co.rays.proj4.util.SchemaUtility;
+import in.co.rays.proj4.util.UnitOfWork;
 
 /**
  * Model class for Student entity. Provides methods for CRUD operations,
@@ -36,34 +44,7 @@ public class StudentModel {
      * @throws DatabaseException if any database error occurs
      */
     public Integer nextPk() throws DatabaseException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        log.debug("nextPk() started");
-
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement("select max(id) from st_student");
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                pk = rs.getInt(1);
-            }
-
-            rs.close();
-            pstmt.close();
-
-            log.debug("Next PK generated : " + (pk + 1));
-
-        } catch (Exception e) {
-            log.error("Exception in nextPk()", e);
-            throw new DatabaseException("Exception : Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_student");
     }
 
     /**
@@ -76,64 +57,72 @@ public class StudentModel {
      */
     public long add(StudentBean bean)
             throws ApplicationException, DuplicateRecordException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        log.info("add() called for Student Email : " + bean.getEmail());
-
-        CollegeModel collegeModel = new CollegeModel();
-        CollegeBean collegeBean = collegeModel.findByPk(bean.getCollegeId());
-        bean.setCollegeName(collegeBean.getName());
-
-        StudentBean existBean = findByEmailId(bean.getEmail());
-        if (existBean != null) {
-            log.warn("Duplicate Email found : " + bean.getEmail());
-            throw new DuplicateRecordException("Email already exists");
-        }
+        UnitOfWork uow = UnitOfWork.begin();
 
         try {
-            pk = nextPk();
-            conn = JDBCDataSource.getConnection();
-            conn.setAutoCommit(false);
+            Connection conn = null;
+            int pk = 0;
 
-            PreparedStatement pstmt = conn.prepareStatement(
-                "insert into st_student values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-
-            pstmt.setInt(1, pk);
-            pstmt.setString(2, bean.getFirstName());
-            pstmt.setString(3, bean.getLastName());
-            pstmt.setDate(4, new java.sql.Date(bean.getDob().getTime()));
-            pstmt.setString(5, bean.getGender());
-            pstmt.setString(6, bean.getMobileNo());
-            pstmt.setString(7, bean.getEmail());
-            pstmt.setLong(8, bean.getCollegeId());
-            pstmt.setString(9, bean.getCollegeName());
-            pstmt.setString(10, bean.getCreatedBy());
-            pstmt.setString(11, bean.getModifiedBy());
-            pstmt.setTimestamp(12, bean.getCreatedDatetime());
-            pstmt.setTimestamp(13, bean.getModifiedDatetime());
-
-            pstmt.executeUpdate();
-            conn.commit();
+            log.info("add() called for Student Email : " + bean.getEmail());
 
-            log.info("Student added successfully PK : " + pk);
+            CollegeModel collegeModel = new CollegeModel();
+            CollegeBean collegeBean = collegeModel.findByPk(bean.getCollegeId());
+            bean.setCollegeName(collegeBean.getName());
 
-            pstmt.close();
+            StudentBean existBean = findByEmailId(bean.getEmail());
+            if (existBean != null) {
+                log.warn("Duplicate Email found : " + bean.getEmail());
+                throw new DuplicateRecordException("Email already exists");
+            }
 
-        } catch (Exception e) {
-            log.error("Exception in add()", e);
             try {
-                conn.rollback();
-            } catch (Exception ex) {
-                throw new ApplicationException(
-                        "Exception : add rollback exception " + ex.getMessage());
+                pk = nextPk();
+                conn = JDBCDataSource.getConnection();
+                conn.setAutoCommit(false);
+
+                PreparedStatement pstmt = conn.prepareStatement(
+                    "insert into st_student values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+
+                pstmt.setInt(1, pk);
+                pstmt.setString(2, bean.getFirstName());
+                pstmt.setString(3, bean.getLastName());
+                pstmt.setDate(4, DataUtility.getSqlDate(bean.getDob()));
+                pstmt.setString(5, bean.getGender());
+                pstmt.setString(6, bean.getMobileNo());
+                pstmt.setString(7, bean.getEmail());
+                pstmt.setLong(8, bean.getCollegeId());
+                pstmt.setString(9, bean.getCollegeName());
+                pstmt.setString(10, bean.getCreatedBy());
+                pstmt.setString(11, bean.getModifiedBy());
+                pstmt.setTimestamp(12, bean.getCreatedDatetime());
+                pstmt.setTimestamp(13, bean.getModifiedDatetime());
+
+                pstmt.executeUpdate();
+                conn.commit();
+
+                DropdownCache.changed(DropdownCache.STUDENT);
+                log.info("Student added successfully PK : " + pk);
+
+                pstmt.close();
+
+            } catch (Exception e) {
+                log.error("Exception in add()", e);
+                try {
+                    conn.rollback();
+                } catch (Exception ex) {
+                    throw new ApplicationException(
+                            "Exception : add rollback exception " + ex.getMessage());
+                }
+                throw new ApplicationException("Exception : Exception in add Student");
+            } finally {
+                JDBCDataSource.closeConnection(conn);
             }
-            throw new ApplicationException("Exception : Exception in add Student");
+
+            uow.commit();
+            return pk;
         } finally {
-            JDBCDataSource.closeConnection(conn);
+            uow.end();
         }
-        return pk;
     }
 
     /**
@@ -145,63 +134,71 @@ public class StudentModel {
      */
     public void update(StudentBean bean)
             throws ApplicationException, DuplicateRecordException {
-
-        Connection conn = null;
-
-        log.info("update() called for Student ID : " + bean.getId());
-
-        StudentBean existBean = findByEmailId(bean.getEmail());
-        if (existBean != null && existBean.getId() != bean.getId()) {
-            log.warn("Duplicate Email during update : " + bean.getEmail());
-            throw new DuplicateRecordException("Email Id is already exist");
-        }
-
-        CollegeModel collegeModel = new CollegeModel();
-        CollegeBean collegeBean = collegeModel.findByPk(bean.getCollegeId());
-        bean.setCollegeName(collegeBean.getName());
+        UnitOfWork uow = UnitOfWork.begin();
 
         try {
-            conn = JDBCDataSource.getConnection();
-            conn.setAutoCommit(false);
+            Connection conn = null;
 
-            PreparedStatement pstmt = conn.prepareStatement(
-                "update st_student set first_name = ?, last_name = ?, dob = ?, gender = ?, "
-              + "mobile_no = ?, email = ?, college_id = ?, college_name = ?, "
-              + "created_by = ?, modified_by = ?, created_datetime = ?, "
-              + "modified_datetime = ? where id = ?");
-
-            pstmt.setString(1, bean.getFirstName());
-            pstmt.setString(2, bean.getLastName());
-            pstmt.setDate(3, new java.sql.Date(bean.getDob().getTime()));
-            pstmt.setString(4, bean.getGender());
-            pstmt.setString(5, bean.getMobileNo());
-            pstmt.setString(6, bean.getEmail());
-            pstmt.setLong(7, bean.getCollegeId());
-            pstmt.setString(8, bean.getCollegeName());
-            pstmt.setString(9, bean.getCreatedBy());
-            pstmt.setString(10, bean.getModifiedBy());
-            pstmt.setTimestamp(11, bean.getCreatedDatetime());
-            pstmt.setTimestamp(12, bean.getModifiedDatetime());
-            pstmt.setLong(13, bean.getId());
+            log.info("update() called for Student ID : " + bean.getId());
 
-            pstmt.executeUpdate();
-            conn.commit();
-
-            log.info("Student updated successfully ID : " + bean.getId());
+            StudentBean existBean = findByEmailId(bean.getEmail());
+            if (existBean != null && existBean.getId() != bean.getId()) {
+                log.warn("Duplicate Email during update : " + bean.getEmail());
+                throw new DuplicateRecordException("Email Id is already exist");
+            }
 
-            pstmt.close();
+            CollegeModel collegeModel = new CollegeModel();
+            CollegeBean collegeBean = collegeModel.findByPk(bean.getCollegeId());
+            bean.setCollegeName(collegeBean.getName());
 
-        } catch (Exception e) {
-            log.error("Exception in update()", e);
             try {
-                conn.rollback();
-            } catch (Exception ex) {
-                throw new ApplicationException(
-                        "Exception : Delete rollback exception " + ex.getMessage());
+                conn = JDBCDataSource.getConnection();
+                conn.setAutoCommit(false);
+
+                PreparedStatement pstmt = conn.prepareStatement(
+                    "update st_student set first_name = ?, last_name = ?, dob = ?, gender = ?, "
+                  + "mobile_no = ?, email = ?, college_id = ?, college_name = ?, "
+                  + "created_by = ?, modified_by = ?, created_datetime = ?, "
+                  + "modified_datetime = ? where id = ?");
+
+                pstmt.setString(1, bean.getFirstName());
+                pstmt.setString(2, bean.getLastName());
+                pstmt.setDate(3, DataUtility.getSqlDate(bean.getDob()));
+                pstmt.setString(4, bean.getGender());
+                pstmt.setString(5, bean.getMobileNo());
+                pstmt.setString(6, bean.getEmail());
+                pstmt.setLong(7, bean.getCollegeId());
+                pstmt.setString(8, bean.getCollegeName());
+                pstmt.setString(9, bean.getCreatedBy());
+                pstmt.setString(10, bean.getModifiedBy());
+                pstmt.setTimestamp(11, bean.getCreatedDatetime());
+                pstmt.setTimestamp(12, bean.getModifiedDatetime());
+                pstmt.setLong(13, bean.getId());
+
+                pstmt.executeUpdate();
+                conn.commit();
+
+                DropdownCache.changed(DropdownCache.STUDENT);
+                log.info("Student updated successfully ID : " + bean.getId());
+
+                pstmt.close();
+
+            } catch (Exception e) {
+                log.error("Exception in update()", e);
+                try {
+                    conn.rollback();
+                } catch (Exception ex) {
+                    throw new ApplicationException(
+                            "Exception : Delete rollback exception " + ex.getMessage());
+                }
+                throw new ApplicationException("Exception in updating Student ");
+            } finally {
+                JDBCDataSource.closeConnection(conn);
             }
-            throw new ApplicationException("Exception in updating Student ");
+
+            uow.commit();
         } finally {
-            JDBCDataSource.closeConnection(conn);
+            uow.end();
         }
     }
 
@@ -226,6 +223,7 @@ public class StudentModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            DropdownCache.changed(DropdownCache.STUDENT);
             log.info("Student deleted successfully ID : " + bean.getId());
 
             pstmt.close();
@@ -244,6 +242,21 @@ public class StudentModel {
         }
     }
 
+    /**
+     * Deletes the student records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
+     *
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
+     * @throws ApplicationException if any application level error occurs
+     */
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
+        DeleteResult result = BulkDelete.deleteAll("st_student", ids);
+        DropdownCache.changed(DropdownCache.STUDENT);
+        return result;
+    }
+
     /**
      * Finds a Student by primary key.
      *
@@ -373,51 +386,86 @@ public class StudentModel {
      */
     public List<StudentBean> search(StudentBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return fetch(bean, Page.offset(pageNo, pageSize), pageSize, null);
+    }
 
-        log.debug("search() called");
+    /**
+     * Returns one page of Student records matching the given criteria. One row
+     * beyond the page is fetched in the same query to tell whether a next page
+     * exists.
+     *
+     * @param bean     search criteria (can be null)
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of StudentBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<StudentBean> searchPage(StudentBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1, null), pageNo, pageSize);
+    }
 
-        StringBuffer sql =
-                new StringBuffer("select * from st_student where 1 = 1");
+    /**
+     * Returns one keyset page of Student records matching the given criteria,
+     * ordered by first name and id. The page starts after, or ends before, the
+     * given cursor, so a deep page costs the same as the first one.
+     *
+     * @param bean     search criteria (can be null)
+     * @param cursor   position to seek to, {@link Cursor#first()} for the first page
+     * @param pageNo   page number starting at 1, used for serial numbers only
+     * @param pageSize number of records per page
+     * @return page of StudentBean with the cursors of its first and last rows
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<StudentBean> searchPage(StudentBean bean, Cursor cursor, int pageNo, int pageSize)
+            throws ApplicationException {
+        SchemaUtility.createIndex("st_student", "idx_student_first_name", "first_name, id");
+        return Page.seek(fetch(bean, 0, pageSize + 1, cursor), pageNo, pageSize, cursor, StudentBean::getFirstName);
+    }
 
-        if (bean != null) {
-            if (bean.getId() > 0) {
-                sql.append(" and id = " + bean.getId());
-            }
-            if (bean.getFirstName() != null && bean.getFirstName().length() > 0) {
-                sql.append(" and first_name like '" + bean.getFirstName() + "%'");
-            }
-            if (bean.getLastName() != null && bean.getLastName().length() > 0) {
-                sql.append(" and last_name like '" + bean.getLastName() + "%'");
-            }
-            if (bean.getDob() != null && bean.getDob().getDate() > 0) {
-                sql.append(" and dob = " + bean.getDob());
-            }
-            if (bean.getGender() != null && bean.getGender().length() > 0) {
-                sql.append(" and gender like '" + bean.getGender() + "%'");
-            }
-            if (bean.getMobileNo() != null && bean.getMobileNo().length() > 0) {
-                sql.append(" and mobile_no like '" + bean.getMobileNo() + "%'");
-            }
-            if (bean.getEmail() != null && bean.getEmail().length() > 0) {
-                sql.append(" and email like '" + bean.getEmail() + "%'");
-            }
-            if (bean.getCollegeName() != null && bean.getCollegeName().length() > 0) {
-                sql.append(" and college_name = " + bean.getCollegeName());
-            }
-        }
+    /**
+     * Writes every student record matching the given criteria to an export,
+     * ordered by id. Rows are streamed from the database to the writer, so
+     * the export is never held in memory.
+     *
+     * @param bean   search criteria (can be null)
+     * @param writer CSV or JSON writer
+     * @return number of records written
+     * @throws ApplicationException if any application level error occurs
+     * @throws IOException          if the export cannot be written
+     */
+    public long export(StudentBean bean, ExportWriter writer) throws ApplicationException, IOException {
+        SearchQuery query = criteria("select id, first_name, last_name, dob, gender, mobile_no, email, college_name"
+                + " from st_student where 1=1", bean);
+        return Export.write(query.orderBy("id"), writer);
+    }
 
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + ", " + pageSize);
-        }
+    /**
+     * Fetches Student records matching the given criteria.
+     *
+     * @param bean   search criteria (can be null)
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @param cursor keyset position ordered by first_name and id, null for none
+     * @return list of StudentBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<StudentBean> fetch(StudentBean bean, int offset, int limit, Cursor cursor)
+            throws ApplicationException {
+
+        log.debug("search() called");
+
+        SearchQuery query = criteria("select * from st_student where 1=1", bean);
+
+        query.seek("first_name", cursor).limit(offset, limit);
 
         ArrayList<StudentBean> list = new ArrayList<>();
         Connection conn = null;
 
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
+
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
@@ -449,4 +497,29 @@ public class StudentModel {
         }
         return list;
     }
+
+    /**
+     * Returns a query with the student search criteria of the given bean.
+     *
+     * @param select select statement to add the criteria to
+     * @param bean   search criteria (can be null)
+     * @return search query
+     */
+    private SearchQuery criteria(String select, StudentBean bean) {
+
+        SearchQuery query = new SearchQuery(select);
+
+        if (bean != null) {
+            query.equal("id", bean.getId())
+                    .startsWith("first_name", bean.getFirstName())
+                    .startsWith("last_name", bean.getLastName())
+                    .onDay("dob", bean.getDob())
+                    .startsWith("gender", bean.getGender())
+                    .startsWith("mobile_no", bean.getMobileNo())
+                    .startsWith("email", bean.getEmail())
+                    .equal("college_name", bean.getCollegeName());
+        }
+
+        return query;
+    }
 }
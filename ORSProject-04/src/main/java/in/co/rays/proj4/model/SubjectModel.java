@@ -1,5 +1,6 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -13,7 +14,11 @@ import in.co.rays.proj4.bean.SubjectBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.EntityCache;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
 
 /**
  * Model class for Subject entity. Provides methods for CRUD operations,
@@ -27,6 +32,9 @@ public class SubjectModel {
     /** Logger instance for SubjectModel */
     private static Logger log = Logger.getLogger(SubjectModel.class);
 
+    /** Read-through cache of findByPk, invalidated by update and delete */
+    private static final EntityCache<SubjectBean> cache = new EntityCache<>("subject");
+
     /**
      * Gets the next primary key for the st_subject table.
      *
@@ -34,33 +42,7 @@ public class SubjectModel {
      * @throws DatabaseException if any database error occurs
      */
     public Integer nextPk() throws DatabaseException {
-        Connection conn = null;
-        int pk = 0;
-
-        log.debug("nextPk() started");
-
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement("select max(id) from st_subject");
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                pk = rs.getInt(1);
-            }
-
-            rs.close();
-            pstmt.close();
-
-            log.debug("Next PK generated : " + (pk + 1));
-
-        } catch (Exception e) {
-            log.error("Exception in nextPk()", e);
-            throw new DatabaseException("Exception : Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_subject");
     }
 
     /**
@@ -110,6 +92,7 @@ public class SubjectModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            DropdownCache.changed(DropdownCache.SUBJECT);
             log.info("Subject added successfully PK : " + pk);
 
             pstmt.close();
@@ -175,6 +158,8 @@ public class SubjectModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            cache.invalidate(bean.getId());
+            DropdownCache.changed(DropdownCache.SUBJECT);
             log.info("Subject updated successfully ID : " + bean.getId());
 
             pstmt.close();
@@ -214,6 +199,8 @@ public class SubjectModel {
             pstmt.executeUpdate();
             conn.commit();
 
+            cache.invalidate(bean.getId());
+            DropdownCache.changed(DropdownCache.SUBJECT);
             log.info("Subject deleted successfully ID : " + bean.getId());
 
             pstmt.close();
@@ -233,15 +220,43 @@ public class SubjectModel {
     }
 
     /**
-     * Finds a Subject by primary key.
+     * Deletes the subject records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
+     *
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
+     * @throws ApplicationException if any application level error occurs
+     */
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
+        DeleteResult result = BulkDelete.deleteAll("st_subject", ids);
+        cache.invalidate(ids);
+        DropdownCache.changed(DropdownCache.SUBJECT);
+        return result;
+    }
+
+    /**
+     * Finds a Subject by primary key. The bean is served from a
+     * cache shared by all callers and must not be modified.
      *
      * @param pk primary key of subject
      * @return SubjectBean if found, otherwise null
      * @throws ApplicationException if any application level error occurs
      */
     public SubjectBean findByPk(long pk) throws ApplicationException {
+        return cache.get(pk, this::loadByPk);
+    }
 
-        log.debug("findByPk() called PK : " + pk);
+    /**
+     * Loads a Subject by primary key from the database.
+     *
+     * @param pk primary key of the subject
+     * @return SubjectBean if found, otherwise {@code null}
+     * @throws ApplicationException if any application level error occurs
+     */
+    private SubjectBean loadByPk(long pk) throws ApplicationException {
+
+        log.debug("loadByPk() called PK : " + pk);
 
         StringBuffer sql =
                 new StringBuffer("select * from st_subject where id = ?");
@@ -273,7 +288,7 @@ public class SubjectModel {
             pstmt.close();
 
         } catch (Exception e) {
-            log.error("Exception in findByPk()", e);
+            log.error("Exception in loadByPk()", e);
             throw new ApplicationException("Exception : Exception in getting Subject by pk");
         } finally {
             JDBCDataSource.closeConnection(conn);
@@ -353,42 +368,66 @@ public class SubjectModel {
      */
     public List<SubjectBean> search(SubjectBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return fetch(bean, Page.offset(pageNo, pageSize), pageSize);
+    }
 
-        log.debug("search() called");
+    /**
+     * Returns one page of Subject records matching the given criteria. One row
+     * beyond the page is fetched in the same query to tell whether a next page
+     * exists.
+     *
+     * @param bean     search criteria (can be null)
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of SubjectBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<SubjectBean> searchPage(SubjectBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1), pageNo, pageSize);
+    }
 
-        StringBuffer sql =
-                new StringBuffer("select * from st_subject where 1=1");
+    /**
+     * Writes every subject record matching the given criteria to an export,
+     * ordered by id. Rows are streamed from the database to the writer, so
+     * the export is never held in memory.
+     *
+     * @param bean   search criteria (can be null)
+     * @param writer CSV or JSON writer
+     * @return number of records written
+     * @throws ApplicationException if any application level error occurs
+     * @throws IOException          if the export cannot be written
+     */
+    public long export(SubjectBean bean, ExportWriter writer) throws ApplicationException, IOException {
+        SearchQuery query = criteria("select id, name, course_id, course_name, description"
+                + " from st_subject where 1=1", bean);
+        return Export.write(query.orderBy("id"), writer);
+    }
 
-        if (bean != null) {
-            if (bean.getId() > 0) {
-                sql.append(" and id = " + bean.getId());
-            }
-            if (bean.getName() != null && bean.getName().length() > 0) {
-                sql.append(" and name like '" + bean.getName() + "%'");
-            }
-            if (bean.getCourseId() > 0) {
-                sql.append(" and course_id = " + bean.getCourseId());
-            }
-            if (bean.getCourseName() != null && bean.getCourseName().length() > 0) {
-                sql.append(" and course_name like '" + bean.getCourseName() + "%'");
-            }
-            if (bean.getDescription() != null && bean.getDescription().length() > 0) {
-                sql.append(" and description like '" + bean.getDescription() + "%'");
-            }
-        }
+    /**
+     * Fetches Subject records matching the given criteria.
+     *
+     * @param bean   search criteria (can be null)
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @return list of SubjectBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<SubjectBean> fetch(SubjectBean bean, int offset, int limit)
+            throws ApplicationException {
 
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + ", " + pageSize);
-        }
+        log.debug("search() called");
+
+        SearchQuery query = criteria("select * from st_subject where 1=1", bean);
+
+        query.limit(offset, limit);
 
         ArrayList<SubjectBean> list = new ArrayList<>();
         Connection conn = null;
 
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
@@ -416,4 +455,26 @@ public class SubjectModel {
         }
         return list;
     }
+
+    /**
+     * Returns a query with the subject search criteria of the given bean.
+     *
+     * @param select select statement to add the criteria to
+     * @param bean   search criteria (can be null)
+     * @return search query
+     */
+    private SearchQuery criteria(String select, SubjectBean bean) {
+
+        SearchQuery query = new SearchQuery(select);
+
+        if (bean != null) {
+            query.equal("id", bean.getId())
+                    .startsWith("name", bean.getName())
+                    .equal("course_id", bean.getCourseId())
+                    .startsWith("course_name", bean.getCourseName())
+                    .startsWith("description", bean.getDescription());
+        }
+
+        return query;
+    }
 }
@@ -0,0 +1,93 @@
+package in.co.rays.proj4.model;
+
+import in.co.rays.proj4.bean.TimetableBean;
+import in.co.rays.proj4.util.DataUtility;
+
+/**
+ * TimetableConflict is one scheduling rule broken by a proposed exam,
+ * returned by {@link TimetableModel#findConflicts(TimetableBean)}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class TimetableConflict {
+
+	/**
+	 * Scheduling rules, each checked against the other exams of the same
+	 * course on the same day.
+	 */
+	public enum Rule {
+
+		/** A course has at most one exam per day */
+		COURSE_DAY,
+
+		/** A subject of a course is examined at most once per day */
+		SUBJECT_DAY,
+
+		/** A semester of a subject is examined at most once per day */
+		SEMESTER_DAY,
+
+		/** Two exams of a course never share a time slot */
+		TIME_SLOT
+	}
+
+	private final Rule rule;
+	private final TimetableBean proposed;
+	private final TimetableBean existing;
+
+	TimetableConflict(Rule rule, TimetableBean proposed, TimetableBean existing) {
+		this.rule = rule;
+		this.proposed = proposed;
+		this.existing = existing;
+	}
+
+	public Rule getRule() {
+		return rule;
+	}
+
+	/**
+	 * Returns the exam that was checked.
+	 *
+	 * @return proposed exam
+	 */
+	public TimetableBean getProposed() {
+		return proposed;
+	}
+
+	/**
+	 * Returns the scheduled exam it conflicts with. Its id is 0 if it is an
+	 * earlier exam of the same batch.
+	 *
+	 * @return conflicting exam
+	 */
+	public TimetableBean getExisting() {
+		return existing;
+	}
+
+	/**
+	 * Returns a message for the user.
+	 *
+	 * @return conflict message
+	 */
+	public String getMessage() {
+
+		String day = DataUtility.getDateString(existing.getExamDate());
+
+		switch (rule) {
+		case COURSE_DAY:
+			return existing.getCourseName() + " already has an exam on " + day;
+		case SUBJECT_DAY:
+			return existing.getSubjectName() + " is already examined on " + day;
+		case SEMESTER_DAY:
+			return existing.getSubjectName() + " of semester " + existing.getSemester() + " is already examined on "
+					+ day;
+		default:
+			return existing.getCourseName() + " already has an exam at " + existing.getExamTime() + " on " + day;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return rule + " : " + getMessage();
+	}
+}
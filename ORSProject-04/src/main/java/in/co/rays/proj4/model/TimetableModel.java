@@ -1,11 +1,14 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import in.co.rays.proj4.bean.CourseBean;
 import in.co.rays.proj4.bean.FacultyBean;
@@ -14,7 +17,12 @@ import in.co.rays.proj4.bean.TimetableBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
+import in.co.rays.proj4.util.UnitOfWork;
 
 /**
  * Model class for Timetable entity. Provides methods for CRUD operations
@@ -32,23 +40,7 @@ public class TimetableModel {
      * @throws DatabaseException if any database error occurs
      */
     public Integer nextPk() throws DatabaseException {
-        Connection conn = null;
-        int pk = 0;
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_timetable");
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                pk = rs.getInt(1);
-            }
-            rs.close();
-            pstmt.close();
-        } catch (Exception e) {
-            throw new DatabaseException("Exception : Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_timetable");
     }
 
     /**
@@ -60,51 +52,59 @@ public class TimetableModel {
      * @throws DuplicateRecordException if a duplicate record is found (if you later add checks)
      */
     public long add(TimetableBean bean) throws ApplicationException, DuplicateRecordException {
-        Connection conn = null;
-        int pk = 0;
+        UnitOfWork uow = UnitOfWork.begin();
 
-        CourseModel courseModel = new CourseModel();
-        CourseBean courseBean = courseModel.findByPk(bean.getCourseId());
-        bean.setCourseName(courseBean.getName());
+        try {
+            Connection conn = null;
+            int pk = 0;
 
-        SubjectModel subjectModel = new SubjectModel();
-        SubjectBean subjectBean = subjectModel.findByPk(bean.getSubjectId());
-        bean.setSubjectName(subjectBean.getName());
+            CourseModel courseModel = new CourseModel();
+            CourseBean courseBean = courseModel.findByPk(bean.getCourseId());
+            bean.setCourseName(courseBean.getName());
+
+            SubjectModel subjectModel = new SubjectModel();
+            SubjectBean subjectBean = subjectModel.findByPk(bean.getSubjectId());
+            bean.setSubjectName(subjectBean.getName());
 
-        try {
-            conn = JDBCDataSource.getConnection();
-            pk = nextPk();
-            conn.setAutoCommit(false); // Begin transaction
-            PreparedStatement pstmt = conn
-                    .prepareStatement("insert into st_timetable values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-            pstmt.setInt(1, pk);
-            pstmt.setString(2, bean.getSemester());
-            pstmt.setString(3, bean.getDescription());
-            pstmt.setDate(4, new java.sql.Date(bean.getExamDate().getTime()));
-            pstmt.setString(5, bean.getExamTime());
-            pstmt.setLong(6, bean.getCourseId());
-            pstmt.setString(7, bean.getCourseName());
-            pstmt.setLong(8, bean.getSubjectId());
-            pstmt.setString(9, bean.getSubjectName());
-            pstmt.setString(10, bean.getCreatedBy());
-            pstmt.setString(11, bean.getModifiedBy());
-            pstmt.setTimestamp(12, bean.getCreatedDatetime());
-            pstmt.setTimestamp(13, bean.getModifiedDatetime());
-            pstmt.executeUpdate();
-            conn.commit(); // End transaction
-            pstmt.close();
-        } catch (Exception e) {
-            e.printStackTrace();
             try {
-                conn.rollback();
-            } catch (Exception ex) {
-                throw new ApplicationException("Exception : add rollback exception " + ex.getMessage());
+                conn = JDBCDataSource.getConnection();
+                pk = nextPk();
+                conn.setAutoCommit(false); // Begin transaction
+                PreparedStatement pstmt = conn
+                        .prepareStatement("insert into st_timetable values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                pstmt.setInt(1, pk);
+                pstmt.setString(2, bean.getSemester());
+                pstmt.setString(3, bean.getDescription());
+                pstmt.setDate(4, DataUtility.getSqlDate(bean.getExamDate()));
+                pstmt.setString(5, bean.getExamTime());
+                pstmt.setLong(6, bean.getCourseId());
+                pstmt.setString(7, bean.getCourseName());
+                pstmt.setLong(8, bean.getSubjectId());
+                pstmt.setString(9, bean.getSubjectName());
+                pstmt.setString(10, bean.getCreatedBy());
+                pstmt.setString(11, bean.getModifiedBy());
+                pstmt.setTimestamp(12, bean.getCreatedDatetime());
+                pstmt.setTimestamp(13, bean.getModifiedDatetime());
+                pstmt.executeUpdate();
+                conn.commit(); // End transaction
+                pstmt.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+                try {
+                    conn.rollback();
+                } catch (Exception ex) {
+                    throw new ApplicationException("Exception : add rollback exception " + ex.getMessage());
+                }
+                throw new ApplicationException("Exception : Exception in add Timetable");
+            } finally {
+                JDBCDataSource.closeConnection(conn);
             }
-            throw new ApplicationException("Exception : Exception in add Timetable");
+
+            uow.commit();
+            return pk;
         } finally {
-            JDBCDataSource.closeConnection(conn);
+            uow.end();
         }
-        return pk;
     }
 
     /**
@@ -115,49 +115,56 @@ public class TimetableModel {
      * @throws DuplicateRecordException if a duplicate record is found (if you later add checks)
      */
     public void update(TimetableBean bean) throws ApplicationException, DuplicateRecordException {
+        UnitOfWork uow = UnitOfWork.begin();
 
-        Connection conn = null;
+        try {
+            Connection conn = null;
 
-        CourseModel courseModel = new CourseModel();
-        CourseBean courseBean = courseModel.findByPk(bean.getCourseId());
-        bean.setCourseName(courseBean.getName());
+            CourseModel courseModel = new CourseModel();
+            CourseBean courseBean = courseModel.findByPk(bean.getCourseId());
+            bean.setCourseName(courseBean.getName());
 
-        SubjectModel subjectModel = new SubjectModel();
-        SubjectBean subjectBean = subjectModel.findByPk(bean.getSubjectId());
-        bean.setSubjectName(subjectBean.getName());
+            SubjectModel subjectModel = new SubjectModel();
+            SubjectBean subjectBean = subjectModel.findByPk(bean.getSubjectId());
+            bean.setSubjectName(subjectBean.getName());
 
-        try {
-            conn = JDBCDataSource.getConnection();
-
-            conn.setAutoCommit(false); // Begin transaction
-            PreparedStatement pstmt = conn.prepareStatement(
-                    "update st_timetable set semester = ?, description = ?, exam_date = ?, exam_time = ?, course_id = ?, course_name = ?, subject_id = ?, subject_name = ?, created_by = ?, modified_by = ?, created_datetime = ?, modified_datetime = ? where id = ?");
-
-            pstmt.setString(1, bean.getSemester());
-            pstmt.setString(2, bean.getDescription());
-            pstmt.setDate(3, new java.sql.Date(bean.getExamDate().getTime()));
-            pstmt.setString(4, bean.getExamTime());
-            pstmt.setLong(5, bean.getCourseId());
-            pstmt.setString(6, bean.getCourseName());
-            pstmt.setLong(7, bean.getSubjectId());
-            pstmt.setString(8, bean.getSubjectName());
-            pstmt.setString(9, bean.getCreatedBy());
-            pstmt.setString(10, bean.getModifiedBy());
-            pstmt.setTimestamp(11, bean.getCreatedDatetime());
-            pstmt.setTimestamp(12, bean.getModifiedDatetime());
-            pstmt.setLong(13, bean.getId());
-            pstmt.executeUpdate();
-            conn.commit(); // End transaction
-            pstmt.close();
-        } catch (Exception e) {
             try {
-                conn.rollback();
-            } catch (Exception ex) {
-                throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
+                conn = JDBCDataSource.getConnection();
+
+                conn.setAutoCommit(false); // Begin transaction
+                PreparedStatement pstmt = conn.prepareStatement(
+                        "update st_timetable set semester = ?, description = ?, exam_date = ?, exam_time = ?, course_id = ?, course_name = ?, subject_id = ?, subject_name = ?, created_by = ?, modified_by = ?, created_datetime = ?, modified_datetime = ? where id = ?");
+
+                pstmt.setString(1, bean.getSemester());
+                pstmt.setString(2, bean.getDescription());
+                pstmt.setDate(3, DataUtility.getSqlDate(bean.getExamDate()));
+                pstmt.setString(4, bean.getExamTime());
+                pstmt.setLong(5, bean.getCourseId());
+                pstmt.setString(6, bean.getCourseName());
+                pstmt.setLong(7, bean.getSubjectId());
+                pstmt.setString(8, bean.getSubjectName());
+                pstmt.setString(9, bean.getCreatedBy());
+                pstmt.setString(10, bean.getModifiedBy());
+                pstmt.setTimestamp(11, bean.getCreatedDatetime());
+                pstmt.setTimestamp(12, bean.getModifiedDatetime());
+                pstmt.setLong(13, bean.getId());
+                pstmt.executeUpdate();
+                conn.commit(); // End transaction
+                pstmt.close();
+            } catch (Exception e) {
+                try {
+                    conn.rollback();
+                } catch (Exception ex) {
+                    throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
+                }
+                throw new ApplicationException("Exception in updating Timetable ");
+            } finally {
+                JDBCDataSource.closeConnection(conn);
             }
-            throw new ApplicationException("Exception in updating Timetable ");
+
+            uow.commit();
         } finally {
-            JDBCDataSource.closeConnection(conn);
+            uow.end();
         }
     }
 
@@ -190,6 +197,19 @@ public class TimetableModel {
         }
     }
 
+    /**
+     * Deletes the timetable records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
+     *
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
+     * @throws ApplicationException if any application level error occurs
+     */
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
+        return BulkDelete.deleteAll("st_timetable", ids);
+    }
+
     /**
      * Finds a Timetable by primary key.
      *
@@ -249,7 +269,7 @@ public class TimetableModel {
             conn = JDBCDataSource.getConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, courseId);
-            pstmt.setDate(2, new java.sql.Date(examDate.getTime()));
+            pstmt.setDate(2, DataUtility.getSqlDate(examDate));
 
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
@@ -300,7 +320,7 @@ public class TimetableModel {
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, courseId);
             pstmt.setLong(2, subjectId);
-            pstmt.setDate(3, new java.sql.Date(examDate.getTime()));
+            pstmt.setDate(3, DataUtility.getSqlDate(examDate));
 
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
@@ -354,7 +374,7 @@ public class TimetableModel {
             pstmt.setLong(1, courseId);
             pstmt.setLong(2, subjectId);
             pstmt.setString(3, semester);
-            pstmt.setDate(4, new java.sql.Date(examDate.getTime()));
+            pstmt.setDate(4, DataUtility.getSqlDate(examDate));
 
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
@@ -408,7 +428,7 @@ public class TimetableModel {
             pstmt.setLong(1, courseId);
             pstmt.setLong(2, subjectId);
             pstmt.setString(3, semester);
-            pstmt.setDate(4, new java.sql.Date(examDate.getTime()));
+            pstmt.setDate(4, DataUtility.getSqlDate(examDate));
             pstmt.setString(5, examTime);
             pstmt.setString(6, description);
 
@@ -458,52 +478,130 @@ public class TimetableModel {
      * @return list of TimetableBean matching the criteria
      * @throws ApplicationException if any application level error occurs
      */
-    public List<TimetableBean> search(TimetableBean bean, int pageNo, int pageSize) throws ApplicationException {
-        StringBuffer sql = new StringBuffer("select * from st_timetable where 1=1");
+    public List<TimetableBean> search(TimetableBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return fetch(bean, Page.offset(pageNo, pageSize), pageSize);
+    }
 
-        if (bean != null) {
-            if (bean.getId() > 0) {
-                sql.append(" and id = " + bean.getId());
-            }
-            if (bean.getCourseId() > 0) {
-                sql.append(" and course_id = " + bean.getCourseId());
-            }
-            if (bean.getCourseName() != null && bean.getCourseName().length() > 0) {
-                sql.append(" and course_name like '" + bean.getCourseName() + "%'");
-            }
-            if (bean.getSubjectId() > 0) {
-                sql.append(" and subject_id = " + bean.getSubjectId());
-            }
-            if (bean.getSubjectName() != null && bean.getSubjectName().length() > 0) {
-                sql.append(" and subject_name like '" + bean.getSubjectName() + "%'");
-            }
-            if (bean.getSemester() != null && bean.getSemester().length() > 0) {
-                sql.append(" and semester like '" + bean.getSemester() + "%'");
-            }
-            if (bean.getDescription() != null && bean.getDescription().length() > 0) {
-                sql.append(" and description like '" + bean.getDescription() + "%'");
-            }
-            if (bean.getExamDate() != null && bean.getExamDate().getDate() > 0) {
-                sql.append(" and exam_date like '" + new java.sql.Date(bean.getExamDate().getTime()) + "%'");
-            }
-            if (bean.getExamTime() != null && bean.getExamTime().length() > 0) {
-                sql.append(" and exam_time like '" + bean.getExamTime() + "%'");
-            }
+    /**
+     * Returns one page of Timetable records matching the given criteria. One row
+     * beyond the page is fetched in the same query to tell whether a next page
+     * exists.
+     *
+     * @param bean     search criteria (can be null)
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of TimetableBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<TimetableBean> searchPage(TimetableBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1), pageNo, pageSize);
+    }
+
+    /**
+     * Writes every timetable record matching the given criteria to an export,
+     * ordered by id. Rows are streamed from the database to the writer, so
+     * the export is never held in memory.
+     *
+     * @param bean   search criteria (can be null)
+     * @param writer CSV or JSON writer
+     * @return number of records written
+     * @throws ApplicationException if any application level error occurs
+     * @throws IOException          if the export cannot be written
+     */
+    public long export(TimetableBean bean, ExportWriter writer) throws ApplicationException, IOException {
+        SearchQuery query = criteria("select id, semester, description, exam_date, exam_time, course_name, subject_name"
+                + " from st_timetable where 1=1", bean);
+        return Export.write(query.orderBy("id"), writer);
+    }
+
+    /**
+     * Returns every conflict rule a proposed exam breaks against the exams
+     * already scheduled, loading the exams of its course on its exam day
+     * with one query. When the exam is an update, the record with its id is
+     * not counted.
+     *
+     * @param bean proposed exam
+     * @return conflicts, empty if the exam can be scheduled
+     * @throws ApplicationException if any application level error occurs
+     */
+    public List<TimetableConflict> findConflicts(TimetableBean bean) throws ApplicationException {
+
+        if (bean.getCourseId() <= 0 || bean.getExamDate() == null) {
+            return new ArrayList<TimetableConflict>();
         }
 
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + ", " + pageSize);
+        SearchQuery query = new SearchQuery("select * from st_timetable where 1=1")
+                .equal("course_id", bean.getCourseId())
+                .onDay("exam_date", bean.getExamDate());
+
+        return new TimetableSchedule(load(query)).check(bean);
+    }
+
+    /**
+     * Returns the conflicts of each exam of a batch, in the order of the
+     * batch. The scheduled exams of all courses in the batch are loaded with
+     * one query, and each exam is also checked against the exams before it
+     * in the batch.
+     *
+     * @param beans proposed exams
+     * @return conflicts of each exam, empty where the exam can be scheduled
+     * @throws ApplicationException if any application level error occurs
+     */
+    public List<List<TimetableConflict>> findConflicts(List<TimetableBean> beans) throws ApplicationException {
+
+        Set<Long> courseIds = new HashSet<Long>();
+        for (TimetableBean bean : beans) {
+            courseIds.add(bean.getCourseId());
         }
 
+        TimetableSchedule schedule = new TimetableSchedule(
+                load(new SearchQuery("select * from st_timetable where 1=1").in("course_id", courseIds)));
+
+        List<List<TimetableConflict>> conflicts = new ArrayList<List<TimetableConflict>>(beans.size());
+        for (TimetableBean bean : beans) {
+            conflicts.add(schedule.check(bean));
+            schedule.add(bean);
+        }
+        return conflicts;
+    }
+
+    /**
+     * Fetches Timetable records matching the given criteria.
+     *
+     * @param bean   search criteria (can be null)
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @return list of TimetableBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<TimetableBean> fetch(TimetableBean bean, int offset, int limit)
+            throws ApplicationException {
+        SearchQuery query = criteria("select * from st_timetable where 1=1", bean);
+
+        query.limit(offset, limit);
+
+        return load(query);
+    }
+
+    /**
+     * Runs a <code>select *</code> query on st_timetable.
+     *
+     * @param query timetable query
+     * @return list of TimetableBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<TimetableBean> load(SearchQuery query) throws ApplicationException {
+
         ArrayList<TimetableBean> list = new ArrayList<TimetableBean>();
         Connection conn = null;
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
-                bean = new TimetableBean();
+                TimetableBean bean = new TimetableBean();
                 bean.setId(rs.getLong(1));
                 bean.setSemester(rs.getString(2));
                 bean.setDescription(rs.getString(3));
@@ -528,4 +626,30 @@ public class TimetableModel {
         }
         return list;
     }
+
+    /**
+     * Returns a query with the timetable search criteria of the given bean.
+     *
+     * @param select select statement to add the criteria to
+     * @param bean   search criteria (can be null)
+     * @return search query
+     */
+    private SearchQuery criteria(String select, TimetableBean bean) {
+
+        SearchQuery query = new SearchQuery(select);
+
+        if (bean != null) {
+            query.equal("id", bean.getId())
+                    .equal("course_id", bean.getCourseId())
+                    .startsWith("course_name", bean.getCourseName())
+                    .equal("subject_id", bean.getSubjectId())
+                    .startsWith("subject_name", bean.getSubjectName())
+                    .startsWith("semester", bean.getSemester())
+                    .startsWith("description", bean.getDescription())
+                    .onDay("exam_date", bean.getExamDate())
+                    .startsWith("exam_time", bean.getExamTime());
+        }
+
+        return query;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package in.co.rays.proj4.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import in.co.rays.proj4.bean.TimetableBean;
+import in.co.rays.proj4.model.TimetableConflict.Rule;
+import in.co.rays.proj4.util.DataUtility;
+
+/**
+ * TimetableSchedule indexes scheduled exams by course and exam day so the
+ * conflict rules of a proposed exam are checked in one pass over the exams
+ * of its course on that day, without querying the database.
+ * <p>
+ * Time slots such as <code>08:00 AM to 11:00 AM</code> are compared as
+ * minute intervals, so overlapping slots conflict even if their text
+ * differs. Slots that cannot be parsed conflict only with the same text.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+final class TimetableSchedule {
+
+	private static final Pattern TIME = Pattern.compile("(\\d{1,2}):(\\d{2})\\s*([AaPp][Mm])");
+
+	private final Map<Long, Map<String, List<TimetableBean>>> courses = new HashMap<>();
+
+	/**
+	 * Creates a schedule of the given exams.
+	 *
+	 * @param exams scheduled exams
+	 */
+	TimetableSchedule(Collection<TimetableBean> exams) {
+		for (TimetableBean exam : exams) {
+			add(exam);
+		}
+	}
+
+	/**
+	 * Adds an exam to the schedule, so later checks see it.
+	 *
+	 * @param exam exam with course and exam date
+	 */
+	void add(TimetableBean exam) {
+		if (exam.getExamDate() == null) {
+			return;
+		}
+		courses.computeIfAbsent(exam.getCourseId(), key -> new HashMap<>())
+				.computeIfAbsent(day(exam), key -> new ArrayList<>()).add(exam);
+	}
+
+	/**
+	 * Returns every rule the proposed exam breaks against the scheduled
+	 * exams. A scheduled exam with the same id as the proposed one is the
+	 * exam being updated and is skipped.
+	 *
+	 * @param proposed proposed exam
+	 * @return conflicts, empty if there are none
+	 */
+	List<TimetableConflict> check(TimetableBean proposed) {
+
+		List<TimetableConflict> conflicts = new ArrayList<>();
+
+		if (proposed.getExamDate() == null) {
+			return conflicts;
+		}
+
+		Map<String, List<TimetableBean>> days = courses.get(proposed.getCourseId());
+		List<TimetableBean> exams = days == null ? null : days.get(day(proposed));
+
+		if (exams == null) {
+			return conflicts;
+		}
+
+		int[] slot = slot(proposed.getExamTime());
+
+		for (TimetableBean exam : exams) {
+
+			if (proposed.getId() > 0 && exam.getId() == proposed.getId()) {
+				continue;
+			}
+
+			conflicts.add(new TimetableConflict(Rule.COURSE_DAY, proposed, exam));
+
+			if (exam.getSubjectId() == proposed.getSubjectId()) {
+				conflicts.add(new TimetableConflict(Rule.SUBJECT_DAY, proposed, exam));
+
+				if (same(exam.getSemester(), proposed.getSemester())) {
+					conflicts.add(new TimetableConflict(Rule.SEMESTER_DAY, proposed, exam));
+				}
+			}
+
+			if (overlaps(slot, proposed.getExamTime(), exam.getExamTime())) {
+				conflicts.add(new TimetableConflict(Rule.TIME_SLOT, proposed, exam));
+			}
+		}
+
+		return conflicts;
+	}
+
+	private static String day(TimetableBean exam) {
+		return DataUtility.getLocalDate(exam.getExamDate()).toString();
+	}
+
+	private static boolean same(String a, String b) {
+		return a != null && b != null && a.trim().equalsIgnoreCase(b.trim());
+	}
+
+	private static boolean overlaps(int[] slot, String proposed, String scheduled) {
+		int[] other = slot(scheduled);
+		if (slot == null || other == null) {
+			return same(proposed, scheduled);
+		}
+		return slot[0] < other[1] && other[0] < slot[1];
+	}
+
+	/**
+	 * Parses a time slot into start and end minute of the day.
+	 *
+	 * @return start and end minute, null if the slot cannot be parsed
+	 */
+	static int[] slot(String examTime) {
+
+		if (examTime == null) {
+			return null;
+		}
+
+		Matcher matcher = TIME.matcher(examTime);
+		int[] slot = new int[2];
+
+		for (int i = 0; i < 2; i++) {
+			if (!matcher.find()) {
+				return null;
+			}
+			int hour = Integer.parseInt(matcher.group(1)) % 12;
+			if (matcher.group(3).equalsIgnoreCase("PM")) {
+				hour += 12;
+			}
+			slot[i] = hour * 60 + Integer.parseInt(matcher.group(2));
+		}
+
+		return slot[0] < slot[1] ? slot : null;
+	}
+}
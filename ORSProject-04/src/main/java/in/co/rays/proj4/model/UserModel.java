@@ -1,5 +1,6 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -14,10 +15,17 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.exception.RecordNotFoundException;
+import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.EmailBuilder;
 import in.co.rays.proj4.util.EmailMessage;
-import in.co.rays.proj4.util.EmailUtility;
+import in.co.rays.proj4.util.EmailOutbox;
+import in.co.rays.proj4.util.Cursor;
+import in.co.rays.proj4.util.ExportWriter;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Page;
+import in.co.rays.proj4.util.PkGenerator;
+import in.co.rays.proj4.util.SchemaUtility;
+import in.co.rays.proj4.util.UnitOfWork;
 
 /**
  * Model class for User entity. Provides methods for CRUD operations,
@@ -34,29 +42,7 @@ public class UserModel {
      * Gets the next primary key value for st_user table.
      */
     public Integer nextPk() throws DatabaseException {
-
-        Connection conn = null;
-        int pk = 0;
-
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement("select max(id) from st_user");
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                pk = rs.getInt(1);
-            }
-            rs.close();
-            pstmt.close();
-
-        } catch (Exception e) {
-            log.error("Exception in nextPk()", e);
-            throw new DatabaseException("Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-        return pk + 1;
+        return (int) PkGenerator.nextPk("st_user");
     }
 
     /**
@@ -88,7 +74,7 @@ public class UserModel {
             pstmt.setString(3, bean.getLastName());
             pstmt.setString(4, bean.getLogin());
             pstmt.setString(5, bean.getPassword());
-            pstmt.setDate(6, new java.sql.Date(bean.getDob().getTime()));
+            pstmt.setDate(6, DataUtility.getSqlDate(bean.getDob()));
             pstmt.setString(7, bean.getMobileNo());
             pstmt.setLong(8, bean.getRoleId());
             pstmt.setString(9, bean.getGender());
@@ -152,6 +138,19 @@ public class UserModel {
         }
     }
 
+    /**
+     * Deletes the user records with the given ids in one transaction.
+     * An id that is not found or cannot be deleted is reported in the
+     * result and does not stop the others.
+     *
+     * @param ids ids of the records to delete
+     * @return number of records deleted and per-id failures
+     * @throws ApplicationException if any application level error occurs
+     */
+    public DeleteResult deleteAll(long... ids) throws ApplicationException {
+        return BulkDelete.deleteAll("st_user", ids);
+    }
+
     /**
      * Updates a User record.
      */
@@ -180,7 +179,7 @@ public class UserModel {
             pstmt.setString(2, bean.getLastName());
             pstmt.setString(3, bean.getLogin());
             pstmt.setString(4, bean.getPassword());
-            pstmt.setDate(5, new java.sql.Date(bean.getDob().getTime()));
+            pstmt.setDate(5, DataUtility.getSqlDate(bean.getDob()));
             pstmt.setString(6, bean.getMobileNo());
             pstmt.setLong(7, bean.getRoleId());
             pstmt.setString(8, bean.getGender());
@@ -338,33 +337,84 @@ public class UserModel {
      */
     public List<UserBean> search(UserBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return fetch(bean, Page.offset(pageNo, pageSize), pageSize, null);
+    }
 
-        StringBuffer sql = new StringBuffer("select * from st_user where 1=1");
+    /**
+     * Returns one page of User records matching the given criteria. One row
+     * beyond the page is fetched in the same query to tell whether a next page
+     * exists.
+     *
+     * @param bean     search criteria (can be null)
+     * @param pageNo   page number starting at 1
+     * @param pageSize number of records per page
+     * @return page of UserBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<UserBean> searchPage(UserBean bean, int pageNo, int pageSize)
+            throws ApplicationException {
+        return Page.of(fetch(bean, Page.offset(pageNo, pageSize), pageSize + 1, null), pageNo, pageSize);
+    }
 
-        if (bean != null) {
-            if (bean.getFirstName() != null && bean.getFirstName().length() > 0) {
-                sql.append(" and first_name like '" + bean.getFirstName() + "%'");
-            }
-            if (bean.getLogin() != null && bean.getLogin().length() > 0) {
-                sql.append(" and login like '" + bean.getLogin() + "%'");
-            }
-            if (bean.getRoleId() > 0) {
-                sql.append(" and role_id = " + bean.getRoleId());
-            }
-        }
+    /**
+     * Returns one keyset page of User records matching the given criteria,
+     * ordered by login and id. The page starts after, or ends before, the
+     * given cursor, so a deep page costs the same as the first one.
+     *
+     * @param bean     search criteria (can be null)
+     * @param cursor   position to seek to, {@link Cursor#first()} for the first page
+     * @param pageNo   page number starting at 1, used for serial numbers only
+     * @param pageSize number of records per page
+     * @return page of UserBean with the cursors of its first and last rows
+     * @throws ApplicationException if any application level error occurs
+     */
+    public Page<UserBean> searchPage(UserBean bean, Cursor cursor, int pageNo, int pageSize)
+            throws ApplicationException {
+        SchemaUtility.createIndex("st_user", "idx_user_login", "login, id");
+        return Page.seek(fetch(bean, 0, pageSize + 1, cursor), pageNo, pageSize, cursor, UserBean::getLogin);
+    }
 
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + "," + pageSize);
-        }
+    /**
+     * Writes every user record matching the given criteria to an export,
+     * ordered by id. Rows are streamed from the database to the writer, so
+     * the export is never held in memory.
+     *
+     * @param bean   search criteria (can be null)
+     * @param writer CSV or JSON writer
+     * @return number of records written
+     * @throws ApplicationException if any application level error occurs
+     * @throws IOException          if the export cannot be written
+     */
+    public long export(UserBean bean, ExportWriter writer) throws ApplicationException, IOException {
+        SearchQuery query = criteria("select id, first_name, last_name, login, dob, mobile_no, role_id, gender"
+                + " from st_user where 1=1", bean);
+        return Export.write(query.orderBy("id"), writer);
+    }
+
+    /**
+     * Fetches User records matching the given criteria.
+     *
+     * @param bean   search criteria (can be null)
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows, 0 for all
+     * @param cursor keyset position ordered by login and id, null for none
+     * @return list of UserBean
+     * @throws ApplicationException if any application level error occurs
+     */
+    private List<UserBean> fetch(UserBean bean, int offset, int limit, Cursor cursor)
+            throws ApplicationException {
+
+        SearchQuery query = criteria("select * from st_user where 1=1", bean);
+
+        query.seek("login", cursor).limit(offset, limit);
 
         List<UserBean> list = new ArrayList<>();
         Connection conn = null;
 
         try {
             conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt =
-                    conn.prepareStatement(sql.toString());
+            PreparedStatement pstmt = query.prepare(conn);
+
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
@@ -383,43 +433,71 @@ public class UserModel {
     }
 
     /**
-     * Change password.
+     * Returns a query with the user search criteria of the given bean.
+     *
+     * @param select select statement to add the criteria to
+     * @param bean   search criteria (can be null)
+     * @return search query
+     */
+    private SearchQuery criteria(String select, UserBean bean) {
+
+        SearchQuery query = new SearchQuery(select);
+
+        if (bean != null) {
+            query.startsWith("first_name", bean.getFirstName())
+                    .startsWith("login", bean.getLogin())
+                    .equal("role_id", bean.getRoleId());
+        }
+
+        return query;
+    }
+
+    /**
+     * Change password. The notification mail is queued in the same
+     * transaction as the new password and sent by the email worker.
      */
     public boolean changePassword(Long id, String oldPassword, String newPassword)
             throws RecordNotFoundException, ApplicationException {
 
-        UserBean bean = findByPk(id);
+        UnitOfWork uow = UnitOfWork.begin();
 
-        if (bean != null && bean.getPassword().equals(oldPassword)) {
-            bean.setPassword(newPassword);
-            try {
-                update(bean);
-            } catch (DuplicateRecordException e) {
-                throw new ApplicationException("Login already exists");
+        try {
+            UserBean bean = findByPk(id);
+
+            if (bean != null && bean.getPassword().equals(oldPassword)) {
+                bean.setPassword(newPassword);
+                try {
+                    update(bean);
+                } catch (DuplicateRecordException e) {
+                    throw new ApplicationException("Login already exists");
+                }
+            } else {
+                throw new RecordNotFoundException("Old Password is Invalid");
             }
-        } else {
-            throw new RecordNotFoundException("Old Password is Invalid");
-        }
 
-        HashMap<String, String> map = new HashMap<>();
-        map.put("login", bean.getLogin());
-        map.put("password", bean.getPassword());
+            HashMap<String, String> map = new HashMap<>();
+            map.put("login", bean.getLogin());
+            map.put("password", bean.getPassword());
 
-        String message = EmailBuilder.getChangePasswordMessage(map);
+            String message = EmailBuilder.getChangePasswordMessage(map);
 
-        EmailMessage msg = new EmailMessage();
-        msg.setTo(bean.getLogin());
-        msg.setSubject("Password Changed Successfully");
-        msg.setMessage(message);
-        msg.setMessageType(EmailMessage.HTML_MSG);
+            EmailMessage msg = new EmailMessage();
+            msg.setTo(bean.getLogin());
+            msg.setSubject("Password Changed Successfully");
+            msg.setMessage(message);
+            msg.setMessageType(EmailMessage.HTML_MSG);
 
-        EmailUtility.sendMail(msg);
+            EmailOutbox.enqueue(msg);
 
-        return true;
+            uow.commit();
+            return true;
+        } finally {
+            uow.end();
+        }
     }
 
     /**
-     * Forget password.
+     * Forget password. The mail is queued and sent by the email worker.
      */
     public boolean forgetPassword(String login)
             throws RecordNotFoundException, ApplicationException {
@@ -442,31 +520,40 @@ public class UserModel {
         msg.setMessage(message);
         msg.setMessageType(EmailMessage.HTML_MSG);
 
-        EmailUtility.sendMail(msg);
+        EmailOutbox.enqueue(msg);
         return true;
     }
 
     /**
-     * Register user.
+     * Register user. The welcome mail is queued in the same transaction as
+     * the new user and sent by the email worker.
      */
     public long registerUser(UserBean bean)
             throws DuplicateRecordException, ApplicationException {
 
-        long pk = add(bean);
+        UnitOfWork uow = UnitOfWork.begin();
 
-        HashMap<String, String> map = new HashMap<>();
-        map.put("login", bean.getLogin());
-        map.put("password", bean.getPassword());
+        try {
+            long pk = add(bean);
 
-        String message = EmailBuilder.getUserRegistrationMessage(map);
+            HashMap<String, String> map = new HashMap<>();
+            map.put("login", bean.getLogin());
+            map.put("password", bean.getPassword());
 
-        EmailMessage msg = new EmailMessage();
-        msg.setTo(bean.getLogin());
-        msg.setSubject("Registration Successful");
-        msg.setMessage(message);
-        msg.setMessageType(EmailMessage.HTML_MSG);
+            String message = EmailBuilder.getUserRegistrationMessage(map);
 
-        EmailUtility.sendMail(msg);
-        return pk;
+            EmailMessage msg = new EmailMessage();
+            msg.setTo(bean.getLogin());
+            msg.setSubject("Registration Successful");
+            msg.setMessage(message);
+            msg.setMessageType(EmailMessage.HTML_MSG);
+
+            EmailOutbox.enqueue(msg);
+
+            uow.commit();
+            return pk;
+        } finally {
+            uow.end();
+        }
     }
 }
@@ -0,0 +1,204 @@
+package in.co.rays.proj4.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SmtpStub is a minimal in-process SMTP server for the email tests. It
+ * accepts plain connections on a free local port, advertises no extensions
+ * so that no TLS or authentication is negotiated, and records the
+ * recipients of every message it accepts.
+ * <p>
+ * {@link #failNext(int)} makes the next messages fail with a temporary
+ * <code>451</code> error, and {@link #disconnectAll()} drops the open
+ * connections as a server restart would.
+ *
+ * Example:
+ * <pre>
+ *   SmtpStub smtp = new SmtpStub();
+ *   System.setProperty("smtp.server", "127.0.0.1");
+ *   System.setProperty("smtp.port", String.valueOf(smtp.getPort()));
+ *   System.setProperty("smtp.ssl", "false");
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class SmtpStub implements AutoCloseable {
+
+	private final ServerSocket server;
+
+	private final List<String> recipients = Collections.synchronizedList(new ArrayList<String>());
+
+	private final AtomicInteger connections = new AtomicInteger();
+
+	private final Set<Socket> open = Collections.synchronizedSet(new HashSet<Socket>());
+
+	private final AtomicInteger failures = new AtomicInteger();
+
+	private final AtomicInteger failNext = new AtomicInteger();
+
+	public SmtpStub() throws IOException {
+		server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		Thread acceptor = new Thread(this::accept, "smtp-stub");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	public int getPort() {
+		return server.getLocalPort();
+	}
+
+	/**
+	 * Returns the recipients of the accepted messages, one entry per
+	 * recipient of each message.
+	 */
+	public List<String> getRecipients() {
+		synchronized (recipients) {
+			return new ArrayList<String>(recipients);
+		}
+	}
+
+	public int getConnections() {
+		return connections.get();
+	}
+
+	/**
+	 * Returns the number of client connections not yet closed.
+	 */
+	public int getOpen() {
+		return open.size();
+	}
+
+	public int getFailures() {
+		return failures.get();
+	}
+
+	/**
+	 * Fails the next <code>count</code> messages.
+	 */
+	public void failNext(int count) {
+		failNext.set(count);
+	}
+
+	/**
+	 * Waits until at least <code>count</code> recipients were received.
+	 *
+	 * @return true if they were received within the timeout
+	 */
+	public boolean await(int count, long timeoutMillis) throws InterruptedException {
+		long end = System.currentTimeMillis() + timeoutMillis;
+		while (recipients.size() < count) {
+			if (System.currentTimeMillis() > end) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+
+	/**
+	 * Closes every open client connection.
+	 */
+	public void disconnectAll() throws IOException {
+		synchronized (open) {
+			for (Socket socket : open) {
+				socket.close();
+			}
+			open.clear();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		server.close();
+	}
+
+	private void accept() {
+		while (!server.isClosed()) {
+			try {
+				Socket socket = server.accept();
+				connections.incrementAndGet();
+				open.add(socket);
+				Thread session = new Thread(() -> session(socket), "smtp-stub-session");
+				session.setDaemon(true);
+				session.start();
+			} catch (IOException e) {
+				// closed
+			}
+		}
+	}
+
+	private void session(Socket socket) {
+
+		try (Socket s = socket) {
+			BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+			OutputStream out = s.getOutputStream();
+
+			reply(out, "220 localhost SMTP stub");
+
+			List<String> to = new ArrayList<String>();
+			boolean failing = false;
+			String line;
+
+			while ((line = in.readLine()) != null) {
+
+				String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+
+				switch (command) {
+				case "EHLO":
+				case "HELO":
+					reply(out, "250 localhost");
+					break;
+				case "MAIL":
+					to.clear();
+					failing = failNext.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0;
+					reply(out, failing ? "451 Temporary failure" : "250 OK");
+					if (failing) {
+						failures.incrementAndGet();
+					}
+					break;
+				case "RCPT":
+					to.add(line.substring(line.indexOf('<') + 1, line.lastIndexOf('>')));
+					reply(out, failing ? "503 Bad sequence" : "250 OK");
+					break;
+				case "DATA":
+					reply(out, "354 End data with <CR><LF>.<CR><LF>");
+					while ((line = in.readLine()) != null && !line.equals(".")) {
+						// message body is not kept
+					}
+					recipients.addAll(to);
+					reply(out, "250 OK");
+					break;
+				case "QUIT":
+					reply(out, "221 Bye");
+					return;
+				default:
+					reply(out, "250 OK");
+					break;
+				}
+			}
+		} catch (IOException e) {
+			// client went away
+		} finally {
+			open.remove(socket);
+		}
+	}
+
+	private static void reply(OutputStream out, String line) throws IOException {
+		out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+	}
+}
@@ -0,0 +1,100 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.model.DeleteResult;
+import in.co.rays.proj4.model.RoleModel;
+
+/**
+ * Test of the models' bulk delete.
+ * <p>
+ * testDeleteAll() deletes {@link #ROWS} roles with one call to
+ * {@link RoleModel#deleteAll(long...)} and the same number with one
+ * {@link RoleModel#delete(RoleBean)} per id, and prints both timings.
+ * testFailures() mixes unknown ids into the request and checks that they are
+ * reported while the existing rows are still deleted.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestBulkDelete {
+
+	private static final int ROWS = 500;
+
+	public static void main(String[] args) throws Exception {
+
+		testDeleteAll();
+		testFailures();
+	}
+
+	public static void testDeleteAll() throws Exception {
+
+		RoleModel model = new RoleModel();
+
+		long[] ids = addRoles(model, ROWS);
+		long begin = System.nanoTime();
+		for (long id : ids) {
+			RoleBean bean = new RoleBean();
+			bean.setId(id);
+			model.delete(bean);
+		}
+		long loop = System.nanoTime() - begin;
+
+		ids = addRoles(model, ROWS);
+		begin = System.nanoTime();
+		DeleteResult result = model.deleteAll(ids);
+		long bulk = System.nanoTime() - begin;
+
+		System.out.println("delete() x " + ROWS + " : " + loop / 1000000 + " ms");
+		System.out.println("deleteAll(" + ROWS + ") : " + bulk / 1000000 + " ms, deleted "
+				+ result.getDeleted());
+
+		if (result.getDeleted() != ROWS || !result.isSuccess()) {
+			throw new AssertionError("Expected " + ROWS + " deleted, got " + result.getDeleted() + " : "
+					+ result.getFailureMessage());
+		}
+		for (long id : ids) {
+			if (model.findByPk(id) != null) {
+				throw new AssertionError("Role " + id + " was not deleted");
+			}
+		}
+	}
+
+	public static void testFailures() throws Exception {
+
+		RoleModel model = new RoleModel();
+
+		long[] added = addRoles(model, 3);
+		long missing = added[2] + 1000000;
+		long[] ids = { added[0], missing, added[1], added[2], missing + 1 };
+
+		DeleteResult result = model.deleteAll(ids);
+
+		System.out.println("deleted " + result.getDeleted() + ", failed : " + result.getFailureMessage());
+
+		if (result.getDeleted() != 3 || result.getFailures().size() != 2
+				|| !result.getFailures().containsKey(missing)
+				|| !result.getFailures().containsKey(missing + 1)) {
+			throw new AssertionError("Unexpected result : " + result.getDeleted() + " deleted, "
+					+ result.getFailureMessage());
+		}
+	}
+
+	private static long[] addRoles(RoleModel model, int count) throws Exception {
+
+		long[] ids = new long[count];
+		for (int i = 0; i < count; i++) {
+			RoleBean bean = new RoleBean();
+			bean.setName("bulk" + System.nanoTime() + "n" + i);
+			bean.setDescription("Bulk delete test");
+			bean.setCreatedBy("test");
+			bean.setModifiedBy("test");
+			bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+			bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+			ids[i] = model.add(bean);
+		}
+		return ids;
+	}
+}
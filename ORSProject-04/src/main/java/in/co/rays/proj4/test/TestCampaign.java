@@ -0,0 +1,348 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import in.co.rays.proj4.bean.CampaignBean;
+import in.co.rays.proj4.bean.CourseBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.CampaignModel;
+import in.co.rays.proj4.model.CampaignRun;
+import in.co.rays.proj4.model.CourseModel;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PkGenerator;
+
+/**
+ * Test of {@link CampaignModel} and {@link CampaignRun} against the local
+ * {@link SmtpStub}.
+ * <p>
+ * Adds the given number of students (default {@link #STUDENTS}) to a test
+ * college, one in a hundred without an email address. testDone() sends a
+ * timetable campaign to all of them, testResume() pauses a campaign and
+ * resumes it from its checkpoint, testRate() checks the rate limit,
+ * testClaim() that a campaign running on another server is not started
+ * until its checkpoint is older than the lease, and testResult() sends a
+ * result campaign to students with a marksheet. The
+ * test students and marksheets are deleted at the end.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestCampaign {
+
+	private static final int STUDENTS = 20000;
+
+	private static final long COLLEGE = 900001;
+	private static final long SMALL_COLLEGE = 900002;
+	private static final int SMALL = 300;
+
+	private static final long TIMEOUT = 10 * 60 * 1000;
+
+	private static final CampaignModel model = new CampaignModel();
+
+	private static SmtpStub smtp;
+	private static long courseId;
+
+	public static void main(String[] args) throws Exception {
+
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : STUDENTS;
+
+		smtp = new SmtpStub();
+		System.setProperty("smtp.server", "127.0.0.1");
+		System.setProperty("smtp.port", String.valueOf(smtp.getPort()));
+		System.setProperty("smtp.ssl", "false");
+
+		try {
+			courseId = addCourse();
+			int withEmail = addStudents(COLLEGE, count);
+			addStudents(SMALL_COLLEGE, SMALL);
+
+			testDone(withEmail);
+			testResume(withEmail);
+			testRate();
+			testClaim();
+			testResult();
+		} finally {
+			cleanUp();
+			smtp.close();
+		}
+	}
+
+	public static void testDone(int withEmail) throws Exception {
+
+		System.setProperty("campaign.rate", "0");
+
+		Map<String, Integer> before = received();
+		CampaignRun run = model.start(model.add(campaign("Timetable", CampaignBean.STUDENTS, COLLEGE)));
+
+		long peak = 0;
+		while (!run.await(200)) {
+			peak = Math.max(peak, usedHeap());
+		}
+
+		if (!CampaignBean.DONE.equals(run.getStatus()) || run.getSent() != withEmail) {
+			throw new AssertionError("Expected DONE with " + withEmail + " sent : " + run);
+		}
+		if (delivered(before) != withEmail) {
+			throw new AssertionError("Expected " + withEmail + " mails, server got " + delivered(before));
+		}
+
+		System.out.println("sent " + run);
+		System.out.println("peak heap " + peak / (1024 * 1024) + " MB");
+	}
+
+	public static void testResume(int withEmail) throws Exception {
+
+		System.setProperty("campaign.rate", "5000");
+
+		Map<String, Integer> before = received();
+		long id = model.add(campaign("Resumed", CampaignBean.STUDENTS, COLLEGE));
+		CampaignRun run = model.start(id);
+
+		while (run.getSent() < withEmail / 3) {
+			if (run.await(10)) {
+				throw new AssertionError("Campaign ended before pause : " + run);
+			}
+		}
+		model.pause(id);
+		run.await(TIMEOUT);
+
+		CampaignBean paused = model.findByPk(id);
+		if (!CampaignBean.PAUSED.equals(paused.getStatus()) || paused.getLastKey() == 0) {
+			throw new AssertionError("Expected PAUSED with a checkpoint : " + run);
+		}
+		System.out.println("paused " + run);
+
+		System.setProperty("campaign.rate", "0");
+		run = model.start(id);
+		run.await(TIMEOUT);
+
+		if (!CampaignBean.DONE.equals(model.findByPk(id).getStatus())) {
+			throw new AssertionError("Resumed campaign not done : " + run);
+		}
+
+		Map<String, Integer> after = received();
+		int duplicates = 0;
+		for (int i = 0; i < withEmail; i++) {
+			String to = email(COLLEGE, i);
+			if (!after.containsKey(to)) {
+				continue;
+			}
+			int n = after.get(to) - before.getOrDefault(to, 0);
+			if (n < 1) {
+				throw new AssertionError(to + " left out after resume");
+			}
+			duplicates += n - 1;
+		}
+		System.out.println("resumed " + run + ", " + duplicates + " sent twice");
+	}
+
+	public static void testRate() throws Exception {
+
+		System.setProperty("campaign.rate", "200");
+
+		CampaignRun run = model.start(model.add(campaign("Rate", CampaignBean.STUDENTS, SMALL_COLLEGE)));
+		run.await(TIMEOUT);
+
+		// SMALL mails at 200 per second, the first batch is not delayed
+		if (run.getElapsedMillis() < (SMALL - 20) * 1000L / 200 - 100) {
+			throw new AssertionError("Rate limit not applied : " + run);
+		}
+		System.out.println("rate limited " + run);
+	}
+
+	public static void testClaim() throws Exception {
+
+		System.setProperty("campaign.rate", "0");
+		long id = model.add(campaign("Claim", CampaignBean.STUDENTS, SMALL_COLLEGE));
+
+		// running on another server, checkpoint just saved
+		setRunning(id, System.currentTimeMillis());
+		try {
+			model.start(id);
+			throw new AssertionError("Started a campaign running on another server");
+		} catch (ApplicationException e) {
+			// expected
+		}
+		if (model.getRun(id) != null) {
+			throw new AssertionError("Refused campaign left registered as running");
+		}
+
+		// that server stopped an hour ago
+		setRunning(id, System.currentTimeMillis() - 60 * 60 * 1000);
+		CampaignRun run = model.start(id);
+		run.await(TIMEOUT);
+
+		if (!CampaignBean.DONE.equals(model.findByPk(id).getStatus())) {
+			throw new AssertionError("Campaign with an expired lease not done : " + run);
+		}
+	}
+
+	public static void testResult() throws Exception {
+
+		System.setProperty("campaign.rate", "0");
+		int marksheets = addMarksheets(SMALL_COLLEGE, 50);
+
+		CampaignBean bean = campaign("Result", CampaignBean.RESULTS, SMALL_COLLEGE);
+		bean.setTemplate(CampaignBean.RESULT);
+		CampaignRun run = model.start(model.add(bean));
+		run.await(TIMEOUT);
+
+		if (!CampaignBean.DONE.equals(run.getStatus()) || run.getSent() != marksheets) {
+			throw new AssertionError("Expected " + marksheets + " result mails : " + run);
+		}
+	}
+
+	private static CampaignBean campaign(String name, String audience, long filterId) {
+		CampaignBean bean = new CampaignBean();
+		bean.setName(name + " " + System.nanoTime());
+		bean.setSubject(name + " Test");
+		bean.setTemplate(CampaignBean.TIMETABLE);
+		bean.setAudience(audience);
+		bean.setFilterId(filterId);
+		bean.setCourseId(courseId);
+		bean.setCreatedBy("test");
+		bean.setModifiedBy("test");
+		bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		return bean;
+	}
+
+	private static void setRunning(long id, long checkpoint) throws Exception {
+
+		Connection conn = JDBCDataSource.getNewConnection();
+
+		try (PreparedStatement pstmt = conn
+				.prepareStatement("update st_campaign set status = ?, modified_datetime = ? where id = ?")) {
+			pstmt.setString(1, CampaignBean.RUNNING);
+			pstmt.setTimestamp(2, new Timestamp(checkpoint));
+			pstmt.setLong(3, id);
+			pstmt.executeUpdate();
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+	}
+
+	private static Map<String, Integer> received() {
+		Map<String, Integer> counts = new HashMap<String, Integer>();
+		for (String to : smtp.getRecipients()) {
+			counts.merge(to, 1, Integer::sum);
+		}
+		return counts;
+	}
+
+	private static int delivered(Map<String, Integer> before) {
+		List<String> all = smtp.getRecipients();
+		int total = 0;
+		for (int n : before.values()) {
+			total += n;
+		}
+		return all.size() - total;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static String email(long collegeId, int i) {
+		return "campaign" + collegeId + "." + i + "@test.com";
+	}
+
+	private static long addCourse() throws Exception {
+		CourseBean bean = new CourseBean();
+		bean.setName("Campaign Course " + System.nanoTime());
+		bean.setDuration("3 Year");
+		bean.setDescription("Test");
+		bean.setCreatedBy("test");
+		bean.setModifiedBy("test");
+		bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		return new CourseModel().add(bean);
+	}
+
+	/**
+	 * Adds students in batches, every hundredth without an email address.
+	 *
+	 * @return number of students with an email address
+	 */
+	private static int addStudents(long collegeId, int count) throws Exception {
+
+		Connection conn = JDBCDataSource.getNewConnection();
+		int withEmail = 0;
+
+		try {
+			conn.setAutoCommit(false);
+			PreparedStatement pstmt = conn
+					.prepareStatement("insert into st_student values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+			Timestamp now = new Timestamp(new Date().getTime());
+
+			for (int i = 0; i < count; i++) {
+				boolean hasEmail = i % 100 != 99;
+				pstmt.setLong(1, PkGenerator.nextPk("st_student"));
+				pstmt.setString(2, "First" + i);
+				pstmt.setString(3, "Last" + i);
+				pstmt.setDate(4, new java.sql.Date(now.getTime()));
+				pstmt.setString(5, "Male");
+				pstmt.setString(6, "9876543210");
+				pstmt.setString(7, hasEmail ? email(collegeId, withEmail++) : null);
+				pstmt.setLong(8, collegeId);
+				pstmt.setString(9, "Campaign College");
+				pstmt.setString(10, "test");
+				pstmt.setString(11, "test");
+				pstmt.setTimestamp(12, now);
+				pstmt.setTimestamp(13, now);
+				pstmt.addBatch();
+				if (i % 1000 == 999) {
+					pstmt.executeBatch();
+				}
+			}
+			pstmt.executeBatch();
+			conn.commit();
+			pstmt.close();
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return withEmail;
+	}
+
+	/**
+	 * Adds a marksheet for the first students of a college with an email
+	 * address.
+	 *
+	 * @return number of marksheets added
+	 */
+	private static int addMarksheets(long collegeId, int count) throws Exception {
+
+		Connection conn = JDBCDataSource.getNewConnection();
+
+		try (Statement stmt = conn.createStatement()) {
+			return stmt.executeUpdate("insert into st_marksheet (id, roll_no, student_id, name, physics, chemistry, "
+					+ "maths, created_by, modified_by, created_datetime, modified_datetime) "
+					+ "select id, concat('CMP', id), id, first_name, 60, 70, 80, 'test', 'test', created_datetime, "
+					+ "modified_datetime from st_student where college_id = " + collegeId
+					+ " and email is not null order by id limit " + count);
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+	}
+
+	private static void cleanUp() throws Exception {
+
+		Connection conn = JDBCDataSource.getNewConnection();
+
+		try (Statement stmt = conn.createStatement()) {
+			stmt.executeUpdate("delete from st_marksheet where roll_no like 'CMP%'");
+			stmt.executeUpdate("delete from st_student where college_id in (" + COLLEGE + ", " + SMALL_COLLEGE + ")");
+			stmt.executeUpdate("delete from st_course where id = " + courseId);
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.DataValidator;
+
+/**
+ * Test of the date methods of {@link DataUtility}.
+ * <p>
+ * testParse() checks valid, invalid and empty dates and timestamps,
+ * testConvert() the conversions used by the models, and testThreads() has
+ * {@link #THREADS} threads parse and format {@link #ROUNDS} random dates
+ * each, every result checked. For comparison it runs the same rounds on
+ * one shared <code>SimpleDateFormat</code>, as DataUtility did before, and
+ * prints how many of those came out wrong.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestDataUtility {
+
+	private static final int THREADS = 8;
+	private static final int ROUNDS = 100000;
+
+	public static void main(String[] args) throws Exception {
+
+		testParse();
+		testConvert();
+		testThreads();
+	}
+
+	public static void testParse() {
+
+		check(LocalDate.of(2024, 10, 15), DataUtility.getLocalDate("15-10-2024"));
+		check(LocalDate.of(2024, 2, 29), DataUtility.getLocalDate(" 29-02-2024 "));
+		check(LocalDate.of(2024, 1, 5), DataUtility.getLocalDate("5-1-2024"));
+
+		for (String bad : new String[] { null, "", "31-02-2024", "29-02-2023", "2024-10-15", "15/10/2024",
+				"15-10-24", "15-13-2024", "aa-bb-cccc", "15-10-2024x" }) {
+			if (DataUtility.getDate(bad) != null || DataValidator.isDate(bad)) {
+				throw new AssertionError("Parsed bad date " + bad);
+			}
+		}
+
+		check("15-10-2024", DataUtility.getDateString(DataUtility.getDate("15-10-2024")));
+		check("", DataUtility.getDateString((Date) null));
+
+		Timestamp tm = DataUtility.getTimestamp("15-10-2024 10:30:45");
+		check(Timestamp.valueOf(LocalDateTime.of(2024, 10, 15, 10, 30, 45)), tm);
+		check("15-10-2024 10:30:45", DataUtility.getTimestampString(tm));
+		check(null, DataUtility.getTimestamp("15-10-2024 25:30:45"));
+
+		check(true, DataValidator.isSunday("13-10-2024"));
+		check(false, DataValidator.isSunday("15-10-2024"));
+	}
+
+	public static void testConvert() {
+
+		LocalDate day = LocalDate.of(2024, 3, 31);
+		Date utilDate = Date.from(day.atStartOfDay(ZoneId.systemDefault()).plusHours(13).toInstant());
+		java.sql.Date sqlDate = java.sql.Date.valueOf(day);
+
+		check(day, DataUtility.getLocalDate(utilDate));
+		check(day, DataUtility.getLocalDate(sqlDate));
+		check(sqlDate, DataUtility.getSqlDate(utilDate));
+		if (DataUtility.getSqlDate(sqlDate) != sqlDate) {
+			throw new AssertionError("java.sql.Date was copied");
+		}
+		check(null, DataUtility.getSqlDate(null));
+		check("31-03-2024", DataUtility.getDateString(utilDate));
+		check("31-03-2024", DataUtility.getDateString(sqlDate));
+	}
+
+	public static void testThreads() throws Exception {
+
+		int wrong = run(new Converter() {
+			public String format(Date date) {
+				return DataUtility.getDateString(date);
+			}
+
+			public Date parse(String val) {
+				return DataUtility.getDate(val);
+			}
+		});
+
+		if (wrong > 0) {
+			throw new AssertionError(wrong + " dates came out wrong");
+		}
+		System.out.println("java.time : 0 of " + THREADS * ROUNDS + " wrong");
+
+		SimpleDateFormat shared = new SimpleDateFormat(DataUtility.APP_DATE_FORMAT);
+		int legacy = run(new Converter() {
+			public String format(Date date) {
+				return shared.format(date);
+			}
+
+			public Date parse(String val) {
+				try {
+					return shared.parse(val);
+				} catch (ParseException | RuntimeException e) {
+					return null;
+				}
+			}
+		});
+		System.out.println("shared SimpleDateFormat : " + legacy + " of " + THREADS * ROUNDS + " wrong");
+	}
+
+	/**
+	 * Date methods under test.
+	 */
+	private interface Converter {
+
+		String format(Date date);
+
+		Date parse(String val);
+	}
+
+	/**
+	 * Formats and parses random dates on all threads and returns the number
+	 * of wrong results.
+	 */
+	private static int run(Converter converter) throws Exception {
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+
+		for (int t = 0; t < THREADS; t++) {
+			results.add(pool.submit(new Callable<Integer>() {
+				public Integer call() {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					int wrong = 0;
+					for (int i = 0; i < ROUNDS; i++) {
+						LocalDate day = LocalDate.ofEpochDay(random.nextLong(-7300, 29200));
+						String text = String.format("%02d-%02d-%04d", day.getDayOfMonth(), day.getMonthValue(),
+								day.getYear());
+
+						Date parsed = converter.parse(text);
+						String formatted = converter.format(java.sql.Date.valueOf(day));
+
+						if (parsed == null || !java.sql.Date.valueOf(day).equals(new java.sql.Date(parsed.getTime()))
+								|| !text.equals(formatted)) {
+							wrong++;
+						}
+					}
+					return wrong;
+				}
+			}));
+		}
+
+		int wrong = 0;
+		for (Future<Integer> result : results) {
+			wrong += result.get();
+		}
+		pool.shutdown();
+		return wrong;
+	}
+
+	private static void check(Object expected, Object actual) {
+		if (expected == null ? actual != null : !expected.equals(actual)) {
+			throw new AssertionError("Expected " + expected + ", got " + actual);
+		}
+	}
+}
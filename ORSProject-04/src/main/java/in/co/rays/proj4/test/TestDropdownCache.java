@@ -0,0 +1,131 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import in.co.rays.proj4.bean.CourseBean;
+import in.co.rays.proj4.bean.DropdownListBean;
+import in.co.rays.proj4.model.CourseModel;
+import in.co.rays.proj4.model.DropdownCache;
+import in.co.rays.proj4.util.UnitOfWork;
+
+/**
+ * Test of {@link DropdownCache}.
+ * <p>
+ * testCached() checks that unchanged options are served from the cache,
+ * testChanged() that add, update and delete of a course show in the next
+ * read, and testRollback() that options read inside a rolled back unit of
+ * work are not kept. testSpeed() times {@link #READS} reads against
+ * {@link CourseModel#list()}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestDropdownCache {
+
+	private static final int READS = 1000;
+
+	private static final CourseModel model = new CourseModel();
+
+	public static void main(String[] args) throws Exception {
+
+		testCached();
+		testChanged();
+		testRollback();
+		testSpeed();
+	}
+
+	public static void testCached() throws Exception {
+
+		List<DropdownListBean> lazy = DropdownCache.list(DropdownCache.COURSE);
+
+		if (DropdownCache.get(DropdownCache.COURSE) != DropdownCache.get(DropdownCache.COURSE)) {
+			throw new AssertionError("Unchanged options were loaded again");
+		}
+		if (lazy.size() != model.list().size()) {
+			throw new AssertionError("Expected " + model.list().size() + " options, got " + lazy.size());
+		}
+	}
+
+	public static void testChanged() throws Exception {
+
+		CourseBean bean = course("Dropdown Course " + System.nanoTime());
+		bean.setId(model.add(bean));
+
+		try {
+			if (!contains(bean.getName())) {
+				throw new AssertionError("Added course is not in the dropdown");
+			}
+
+			bean.setName("Dropdown Renamed " + System.nanoTime());
+			model.update(bean);
+
+			if (!contains(bean.getName())) {
+				throw new AssertionError("Updated course name is not in the dropdown");
+			}
+		} finally {
+			model.delete(bean);
+		}
+
+		if (contains(bean.getName())) {
+			throw new AssertionError("Deleted course is still in the dropdown");
+		}
+	}
+
+	public static void testRollback() throws Exception {
+
+		String name = "Rolled Back " + System.nanoTime();
+
+		UnitOfWork uow = UnitOfWork.begin();
+		try {
+			model.add(course(name));
+			if (!contains(name)) {
+				throw new AssertionError("Course not visible inside the unit of work");
+			}
+		} finally {
+			uow.end();
+		}
+
+		if (contains(name)) {
+			throw new AssertionError("Rolled back course is still in the dropdown");
+		}
+	}
+
+	public static void testSpeed() throws Exception {
+
+		long begin = System.nanoTime();
+		for (int i = 0; i < READS; i++) {
+			model.list().size();
+		}
+		System.out.println("CourseModel.list() x " + READS + " : " + (System.nanoTime() - begin) / 1000000 + " ms");
+
+		begin = System.nanoTime();
+		for (int i = 0; i < READS; i++) {
+			DropdownCache.list(DropdownCache.COURSE).size();
+		}
+		System.out.println("DropdownCache.list() x " + READS + " : " + (System.nanoTime() - begin) / 1000000
+				+ " ms");
+	}
+
+	private static boolean contains(String name) {
+		for (DropdownListBean option : DropdownCache.list(DropdownCache.COURSE)) {
+			if (name.equals(option.getValue())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static CourseBean course(String name) {
+		CourseBean bean = new CourseBean();
+		bean.setName(name);
+		bean.setDuration("3 Year");
+		bean.setDescription("Test");
+		bean.setCreatedBy("test");
+		bean.setModifiedBy("test");
+		bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		return bean;
+	}
+}
@@ -0,0 +1,163 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.model.UserModel;
+import in.co.rays.proj4.util.EmailMessage;
+import in.co.rays.proj4.util.EmailOutbox;
+import in.co.rays.proj4.util.EmailWorker;
+import in.co.rays.proj4.util.UnitOfWork;
+
+/**
+ * Test of {@link EmailOutbox} and {@link EmailWorker} against the local
+ * {@link SmtpStub}.
+ * <p>
+ * testRollback() checks that mail queued in a rolled back unit of work is
+ * not kept, testRegister() that registration succeeds while the SMTP server
+ * fails and the mail is sent on retry, and testGiveUp() that a mail is
+ * marked failed after the last attempt. testThroughput() times sending
+ * {@link #MAILS} queued mails.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestEmailOutbox {
+
+	private static final int MAILS = 200;
+
+	private static final long TIMEOUT = 30000;
+
+	private static SmtpStub smtp;
+
+	public static void main(String[] args) throws Exception {
+
+		smtp = new SmtpStub();
+
+		System.setProperty("smtp.server", "127.0.0.1");
+		System.setProperty("smtp.port", String.valueOf(smtp.getPort()));
+		System.setProperty("smtp.ssl", "false");
+		System.setProperty("email.outbox.poll", "100");
+		System.setProperty("email.outbox.backoff", "50");
+		System.setProperty("email.outbox.maxAttempts", "3");
+
+		try {
+			testRollback();
+			EmailWorker.start();
+			testRegister();
+			testGiveUp();
+			testThroughput();
+		} finally {
+			EmailWorker.stop();
+			smtp.close();
+		}
+	}
+
+	public static void testRollback() throws Exception {
+
+		long id;
+
+		UnitOfWork uow = UnitOfWork.begin();
+		try {
+			id = EmailOutbox.enqueue(mail("rollback@test.com"));
+			if (!EmailOutbox.PENDING.equals(EmailOutbox.getStatus(id))) {
+				throw new AssertionError("Mail not visible inside the unit of work");
+			}
+		} finally {
+			uow.end();
+		}
+
+		if (EmailOutbox.getStatus(id) != null) {
+			throw new AssertionError("Rolled back mail is still queued");
+		}
+	}
+
+	public static void testRegister() throws Exception {
+
+		UserModel model = new UserModel();
+		UserBean bean = user("outbox" + System.nanoTime() + "@test.com");
+		int received = smtp.getRecipients().size();
+
+		smtp.failNext(1);
+
+		long begin = System.nanoTime();
+		bean.setId(model.registerUser(bean));
+		System.out.println("registerUser() : " + (System.nanoTime() - begin) / 1000000 + " ms");
+
+		try {
+			if (!smtp.await(received + 1, TIMEOUT) || !smtp.getRecipients().contains(bean.getLogin())) {
+				throw new AssertionError("Registration mail not sent");
+			}
+			if (smtp.getFailures() < 1) {
+				throw new AssertionError("Registration mail was not retried");
+			}
+		} finally {
+			model.delete(bean);
+		}
+	}
+
+	public static void testGiveUp() throws Exception {
+
+		smtp.failNext(3);
+		long id = EmailOutbox.enqueue(mail("giveup@test.com"));
+
+		awaitStatus(id, EmailOutbox.FAILED);
+		smtp.failNext(0);
+	}
+
+	public static void testThroughput() throws Exception {
+
+		int received = smtp.getRecipients().size();
+		long last = 0;
+
+		long begin = System.nanoTime();
+		for (int i = 0; i < MAILS; i++) {
+			last = EmailOutbox.enqueue(mail("bulk" + i + "@test.com"));
+		}
+		long queued = System.nanoTime() - begin;
+
+		if (!smtp.await(received + MAILS, TIMEOUT)) {
+			throw new AssertionError("Only " + (smtp.getRecipients().size() - received) + " of " + MAILS + " sent");
+		}
+		awaitStatus(last, EmailOutbox.SENT);
+		long elapsed = System.nanoTime() - begin;
+
+		System.out.println("enqueue() x " + MAILS + " : " + queued / 1000000 + " ms");
+		System.out.println("sent " + MAILS + " : " + elapsed / 1000000 + " ms, " + smtp.getConnections()
+				+ " SMTP connections");
+	}
+
+	private static void awaitStatus(long id, String status) throws Exception {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (!status.equals(EmailOutbox.getStatus(id))) {
+			if (System.currentTimeMillis() > end) {
+				throw new AssertionError("Mail " + id + " is " + EmailOutbox.getStatus(id) + ", expected " + status);
+			}
+			Thread.sleep(20);
+		}
+	}
+
+	private static EmailMessage mail(String to) {
+		EmailMessage msg = new EmailMessage(to, "Outbox Test", "<p>Test</p>");
+		msg.setMessageType(EmailMessage.HTML_MSG);
+		return msg;
+	}
+
+	private static UserBean user(String login) {
+		UserBean bean = new UserBean();
+		bean.setFirstName("Outbox");
+		bean.setLastName("Test");
+		bean.setLogin(login);
+		bean.setPassword("Pass@123");
+		bean.setDob(new Date());
+		bean.setMobileNo("9876543210");
+		bean.setRoleId(2);
+		bean.setGender("Male");
+		bean.setCreatedBy("test");
+		bean.setModifiedBy("test");
+		bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		return bean;
+	}
+}
@@ -0,0 +1,168 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+import in.co.rays.proj4.bean.CourseBean;
+import in.co.rays.proj4.model.CourseModel;
+import in.co.rays.proj4.util.EntityCache;
+import in.co.rays.proj4.util.UnitOfWork;
+
+/**
+ * Test of the read-through {@link EntityCache} in front of
+ * {@link CourseModel#findByPk(long)}.
+ * <p>
+ * testHits() checks the hit and miss counters, testInvalidate() that update
+ * and delete drop the cached bean, testRollback() that a bean read inside a
+ * rolled back unit of work is not left in the cache, and testKillSwitch()
+ * that a disabled cache goes to the database. testSpeed() times
+ * {@link #LOOKUPS} lookups with the cache on and off.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestEntityCache {
+
+	private static final int LOOKUPS = 10000;
+
+	private static final CourseModel model = new CourseModel();
+
+	public static void main(String[] args) throws Exception {
+
+		long id = addCourse();
+
+		try {
+			testHits(id);
+			testInvalidate(id);
+			testRollback(id);
+			testKillSwitch(id);
+			testSpeed(id);
+		} finally {
+			EntityCache.setEnabled(true);
+			model.deleteAll(id);
+		}
+
+		if (model.findByPk(id) != null) {
+			throw new AssertionError("Deleted course is still found");
+		}
+
+		for (EntityCache<?> cache : EntityCache.getCaches()) {
+			System.out.println(cache);
+		}
+	}
+
+	public static void testHits(long id) throws Exception {
+
+		EntityCache<?> cache = cache("course");
+		long hits = cache.getHits();
+		long misses = cache.getMisses();
+
+		CourseBean first = model.findByPk(id);
+		CourseBean second = model.findByPk(id);
+
+		if (first != second || cache.getMisses() - misses != 1 || cache.getHits() - hits != 1) {
+			throw new AssertionError("Expected 1 miss and 1 hit : " + cache);
+		}
+	}
+
+	public static void testInvalidate(long id) throws Exception {
+
+		CourseBean bean = copy(model.findByPk(id));
+		bean.setName("Cache Course " + System.nanoTime());
+		model.update(bean);
+
+		if (!bean.getName().equals(model.findByPk(id).getName())) {
+			throw new AssertionError("Stale course after update");
+		}
+	}
+
+	public static void testRollback(long id) throws Exception {
+
+		String name = model.findByPk(id).getName();
+
+		UnitOfWork uow = UnitOfWork.begin();
+		try {
+			CourseBean bean = copy(model.findByPk(id));
+			bean.setName("Rolled Back " + System.nanoTime());
+			model.update(bean);
+
+			if (!bean.getName().equals(model.findByPk(id).getName())) {
+				throw new AssertionError("Update not visible inside the unit of work");
+			}
+		} finally {
+			uow.end();
+		}
+
+		if (!name.equals(model.findByPk(id).getName())) {
+			throw new AssertionError("Rolled back course is still cached");
+		}
+	}
+
+	public static void testKillSwitch(long id) throws Exception {
+
+		EntityCache<?> cache = cache("course");
+		model.findByPk(id);
+
+		EntityCache.setEnabled(false);
+		long hits = cache.getHits();
+		model.findByPk(id);
+		model.findByPk(id);
+
+		if (cache.getHits() != hits || cache.size() != 0) {
+			throw new AssertionError("Disabled cache was used : " + cache);
+		}
+		EntityCache.setEnabled(true);
+	}
+
+	public static void testSpeed(long id) throws Exception {
+
+		for (boolean on : new boolean[] { false, true }) {
+			EntityCache.setEnabled(on);
+			long begin = System.nanoTime();
+			for (int i = 0; i < LOOKUPS; i++) {
+				model.findByPk(id);
+			}
+			long elapsed = System.nanoTime() - begin;
+			System.out.println("findByPk() x " + LOOKUPS + (on ? " cached : " : " uncached : ") + elapsed / 1000000
+					+ " ms");
+		}
+	}
+
+	private static EntityCache<?> cache(String name) {
+		for (EntityCache<?> cache : EntityCache.getCaches()) {
+			if (cache.getName().equals(name)) {
+				return cache;
+			}
+		}
+		throw new AssertionError("No cache " + name);
+	}
+
+	/**
+	 * Copies a cached bean before changing it, cached beans are shared.
+	 */
+	private static CourseBean copy(CourseBean cached) {
+		CourseBean bean = new CourseBean();
+		bean.setId(cached.getId());
+		bean.setName(cached.getName());
+		bean.setDuration(cached.getDuration());
+		bean.setDescription(cached.getDescription());
+		bean.setCreatedBy(cached.getCreatedBy());
+		bean.setModifiedBy(cached.getModifiedBy());
+		bean.setCreatedDatetime(cached.getCreatedDatetime());
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		return bean;
+	}
+
+	private static long addCourse() throws Exception {
+
+		CourseBean bean = new CourseBean();
+		bean.setName("Cache Course " + System.nanoTime());
+		bean.setDuration("3 Year");
+		bean.setDescription("Test");
+		bean.setCreatedBy("test");
+		bean.setModifiedBy("test");
+		bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		return model.add(bean);
+	}
+}
@@ -0,0 +1,216 @@
+package in.co.rays.proj4.test;
+
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import in.co.rays.proj4.bean.CollegeBean;
+import in.co.rays.proj4.bean.MarksheetBean;
+import in.co.rays.proj4.bean.StudentBean;
+import in.co.rays.proj4.model.CollegeModel;
+import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.model.StudentModel;
+import in.co.rays.proj4.util.ExportWriter;
+
+/**
+ * Test of the models' streaming export.
+ * <p>
+ * testExport() imports {@link #ROWS} marksheets, exports them as CSV to a
+ * stream that discards the output and prints the time and the peak heap
+ * growth, then loads the same rows with search(bean, 0, 0) for comparison.
+ * testFormats() exports a filtered selection as CSV and JSON and checks the
+ * output.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestExport {
+
+	private static final int ROWS = 100000;
+
+	/** Roll numbers EA000 onwards, testFormats() selects EX000 - EX009 */
+	private static final int ROLL_NO_BASE = 4 * 26000;
+
+	private static final MarksheetModel model = new MarksheetModel();
+
+	private static long peak;
+
+	public static void main(String[] args) throws Exception {
+
+		long studentId = addStudent();
+		MarksheetBean criteria = new MarksheetBean();
+		criteria.setName("Export Student");
+
+		try {
+			model.importCsv(new CsvReader(studentId), "test");
+			testExport(criteria);
+			testFormats(studentId);
+		} finally {
+			cleanUp(criteria, studentId);
+		}
+	}
+
+	public static void testExport(MarksheetBean criteria) throws Exception {
+
+		System.gc();
+		long heap = usedHeap();
+		peak = heap;
+
+		Writer discard = new Writer() {
+			private long chars = 0;
+
+			@Override
+			public void write(char[] buf, int off, int len) {
+				chars += len;
+				if (chars > 1024 * 1024) {
+					chars = 0;
+					peak = Math.max(peak, usedHeap());
+				}
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+
+		long begin = System.nanoTime();
+		long rows = model.export(criteria, ExportWriter.of(ExportWriter.CSV, discard));
+		long elapsed = System.nanoTime() - begin;
+
+		System.out.println("export(" + rows + " rows) : " + elapsed / 1000000 + " ms, peak heap growth "
+				+ (peak - heap) / 1024 + " KB");
+
+		if (rows != ROWS) {
+			throw new AssertionError("Expected " + ROWS + " rows, got " + rows);
+		}
+
+		System.gc();
+		heap = usedHeap();
+		begin = System.nanoTime();
+		List<MarksheetBean> list = model.search(criteria, 0, 0);
+		elapsed = System.nanoTime() - begin;
+
+		System.out.println("search(" + list.size() + " rows) : " + elapsed / 1000000 + " ms, heap growth "
+				+ (usedHeap() - heap) / 1024 + " KB");
+	}
+
+	public static void testFormats(long studentId) throws Exception {
+
+		MarksheetBean criteria = new MarksheetBean();
+		criteria.setRollNo("EX00");
+
+		StringWriter csv = new StringWriter();
+		model.export(criteria, ExportWriter.of(ExportWriter.CSV, csv));
+		System.out.print(csv);
+
+		StringWriter json = new StringWriter();
+		model.export(criteria, ExportWriter.of(ExportWriter.JSON, json));
+		System.out.print(json);
+
+		String[] lines = csv.toString().split("\r\n");
+		if (!"id,roll_no,student_id,name,physics,chemistry,maths".equals(lines[0]) || lines.length != 11) {
+			throw new AssertionError("Unexpected CSV export");
+		}
+		if (!json.toString().startsWith("[\n{\"id\":") || !json.toString().contains("\"roll_no\":\"EX001\"")
+				|| !json.toString().contains("\"student_id\":" + studentId + ",")) {
+			throw new AssertionError("Unexpected JSON export");
+		}
+
+		StringWriter quoted = new StringWriter();
+		ExportWriter writer = ExportWriter.of(ExportWriter.CSV, quoted);
+		writer.begin(new String[] { "a", "b", "c" });
+		writer.row(new Object[] { "x,\"y\"", "=1+1", -5 });
+		writer.end();
+		if (!quoted.toString().endsWith("\"x,\"\"y\"\"\",'=1+1,-5\r\n")) {
+			throw new AssertionError("Unexpected CSV quoting : " + quoted);
+		}
+	}
+
+	/**
+	 * Generates the marksheet file line by line.
+	 */
+	private static class CsvReader extends Reader {
+
+		private final long studentId;
+		private int row = 0;
+		private String line = "";
+		private int pos = 0;
+
+		CsvReader(long studentId) {
+			this.studentId = studentId;
+		}
+
+		@Override
+		public int read(char[] buf, int off, int len) {
+			if (pos == line.length()) {
+				if (row == ROWS) {
+					return -1;
+				}
+				int n = ROLL_NO_BASE + row++;
+				line = "" + (char) ('A' + n / 26000) + (char) ('A' + n / 1000 % 26)
+						+ String.format("%03d", n % 1000) + "," + studentId + "," + n % 101 + "," + (n * 7) % 101 + "," + (n * 13) % 101 + "\n";
+				pos = 0;
+			}
+			int n = Math.min(len, line.length() - pos);
+			line.getChars(pos, pos + n, buf, off);
+			pos += n;
+			return n;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static long addStudent() throws Exception {
+
+		CollegeBean college = new CollegeBean();
+		college.setName("Export College " + System.nanoTime());
+		college.setAddress("Test");
+		college.setState("MP");
+		college.setCity("Indore");
+		college.setPhoneNo("9876543210");
+		college.setCreatedBy("test");
+		college.setModifiedBy("test");
+		college.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		college.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		long collegeId = new CollegeModel().add(college);
+
+		StudentBean bean = new StudentBean();
+		bean.setFirstName("Export");
+		bean.setLastName("Student");
+		bean.setDob(new Date());
+		bean.setGender("Male");
+		bean.setMobileNo("9876543210");
+		bean.setEmail("export" + System.nanoTime() + "@test.com");
+		bean.setCollegeId(collegeId);
+		bean.setCreatedBy("test");
+		bean.setModifiedBy("test");
+		bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		return new StudentModel().add(bean);
+	}
+
+	private static void cleanUp(MarksheetBean criteria, long studentId) throws Exception {
+
+		List<MarksheetBean> list = model.search(criteria, 0, 0);
+		long[] ids = new long[list.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = list.get(i).getId();
+		}
+		model.deleteAll(ids);
+		new StudentModel().deleteAll(studentId);
+	}
+}
@@ -0,0 +1,143 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.model.RoleModel;
+import in.co.rays.proj4.util.EntityCache;
+import in.co.rays.proj4.util.JDBCDataSource;
+
+/**
+ * Throughput of the model hot paths under the active JDBC tuning profile.
+ * <p>
+ * The profile is fixed when the pool starts, so run this class once per
+ * profile and compare the output:
+ * <pre>
+ *   java -Ddb.profile=      ... in.co.rays.proj4.test.TestJdbcProfiles
+ *   java -Ddb.profile=oltp  ... in.co.rays.proj4.test.TestJdbcProfiles
+ *   java -Ddb.profile=bulk  ... in.co.rays.proj4.test.TestJdbcProfiles
+ *   java -Ddb.profile=benchmark ... in.co.rays.proj4.test.TestJdbcProfiles
+ * </pre>
+ * The runs that compare the profiles turn the {@link EntityCache} off, so
+ * every findByPk goes to the database. A last findByPk run with the caches
+ * on is printed after them, followed by the counters of each cache.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestJdbcProfiles {
+
+	private static final int THREADS = 16;
+	private static final int OPS_PER_THREAD = 2000;
+	private static final int ROWS = 200;
+
+	private interface Operation {
+		void run(int thread, int i) throws Exception;
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Profile : '" + JDBCDataSource.getProfile() + "'");
+
+		RoleModel model = new RoleModel();
+		List<Long> pks = new ArrayList<>();
+
+		for (int i = 0; i < ROWS; i++) {
+			pks.add(model.add(role("profile" + System.nanoTime() + "n" + i)));
+		}
+
+		List<Long> added = new ArrayList<>();
+		boolean cached = EntityCache.isEnabled();
+
+		try {
+			EntityCache.setEnabled(false);
+
+			// warm up pool and statement caches
+			run("warm up", (t, i) -> model.findByPk(pks.get(i % ROWS)));
+
+			run("findByPk", (t, i) -> model.findByPk(pks.get((t * 31 + i) % ROWS)));
+
+			RoleBean criteria = new RoleBean();
+			criteria.setName("profile");
+			run("searchPage", (t, i) -> model.searchPage(criteria, 1 + i % 20, 10));
+
+			run("add", (t, i) -> {
+				if (i % 10 == 0) {
+					long pk = model.add(role("profileadd" + System.nanoTime() + "t" + t + "n" + i));
+					synchronized (added) {
+						added.add(pk);
+					}
+				} else {
+					model.findByPk(pks.get(i % ROWS));
+				}
+			});
+
+			EntityCache.setEnabled(true);
+			run("findByPk cached", (t, i) -> model.findByPk(pks.get((t * 31 + i) % ROWS)));
+
+			for (EntityCache<?> cache : EntityCache.getCaches()) {
+				System.out.println(cache);
+			}
+
+		} finally {
+			EntityCache.setEnabled(cached);
+			pks.addAll(added);
+			for (long pk : pks) {
+				RoleBean bean = new RoleBean();
+				bean.setId(pk);
+				model.delete(bean);
+			}
+		}
+	}
+
+	private static void run(String name, Operation op) throws Exception {
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(THREADS);
+		AtomicInteger errors = new AtomicInteger();
+
+		for (int t = 0; t < THREADS; t++) {
+			final int thread = t;
+			pool.execute(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < OPS_PER_THREAD; i++) {
+						op.run(thread, i);
+					}
+				} catch (Exception e) {
+					errors.incrementAndGet();
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		done.await();
+		long elapsed = System.nanoTime() - begin;
+		pool.shutdown();
+
+		System.out.println(String.format("%-16s : %8d ops/s, %d errors", name,
+				(long) (THREADS * OPS_PER_THREAD / (elapsed / 1e9)), errors.get()));
+	}
+
+	private static RoleBean role(String name) {
+		RoleBean bean = new RoleBean();
+		bean.setName(name);
+		bean.setDescription("JDBC profile benchmark");
+		bean.setCreatedBy("test");
+		bean.setModifiedBy("test");
+		bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		return bean;
+	}
+}
@@ -0,0 +1,162 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.model.UserModel;
+import in.co.rays.proj4.util.Cursor;
+import in.co.rays.proj4.util.Page;
+
+/**
+ * Tests keyset pagination of {@link UserModel#searchPage(UserBean, Cursor, int, int)}.
+ * <p>
+ * testWalk() follows the Next cursors to the last page and the Previous
+ * cursors back to the first one, and fails if a row is skipped, repeated or
+ * out of order. testDeepPage() compares the time of the first and the last
+ * page with offset and keyset pagination.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestKeysetPagination {
+
+	private static final int ROWS = 2000;
+	private static final int PAGE_SIZE = 10;
+	private static final int ROUNDS = 50;
+
+	public static void main(String[] args) throws Exception {
+
+		UserModel model = new UserModel();
+		List<Long> pks = insertUsers(model);
+
+		try {
+			testWalk(model);
+			testDeepPage(model);
+		} finally {
+			for (long pk : pks) {
+				UserBean bean = new UserBean();
+				bean.setId(pk);
+				model.delete(bean);
+			}
+		}
+	}
+
+	public static void testWalk(UserModel model) throws Exception {
+
+		UserBean bean = new UserBean();
+		bean.setLogin("keyset");
+
+		List<String> forward = new ArrayList<>();
+		Set<Long> ids = new HashSet<>();
+
+		Page<UserBean> page = model.searchPage(bean, Cursor.first(), 1, PAGE_SIZE);
+		int pages = 1;
+		boolean first = !page.hasPrevious();
+		collect(page, forward, ids);
+
+		while (page.hasNext()) {
+			page = model.searchPage(bean, Cursor.after(page.getLastCursor()), ++pages, PAGE_SIZE);
+			collect(page, forward, ids);
+		}
+
+		List<String> backward = new ArrayList<>();
+
+		while (page.hasPrevious()) {
+			page = model.searchPage(bean, Cursor.before(page.getFirstCursor()), --pages, PAGE_SIZE);
+			List<String> logins = new ArrayList<>();
+			collect(page, logins, new HashSet<Long>());
+			backward.addAll(0, logins);
+		}
+
+		boolean sorted = true;
+		for (int i = 1; i < forward.size(); i++) {
+			if (forward.get(i - 1).compareTo(forward.get(i)) > 0) {
+				sorted = false;
+			}
+		}
+
+		System.out.println("Rows forward      : " + forward.size() + " / " + ROWS);
+		System.out.println("Distinct ids      : " + ids.size());
+		System.out.println("Sorted by login   : " + sorted);
+		System.out.println("Back to page      : " + pages);
+
+		List<String> expected = forward.subList(0, forward.size() - PAGE_SIZE);
+
+		if (first && sorted && ids.size() == ROWS && forward.size() == ROWS && pages == 1
+				&& backward.equals(expected)) {
+			System.out.println("Test walk pass");
+		} else {
+			System.out.println("Test walk fail");
+		}
+	}
+
+	public static void testDeepPage(UserModel model) throws Exception {
+
+		UserBean bean = new UserBean();
+		bean.setLogin("keyset");
+
+		int lastPage = ROWS / PAGE_SIZE;
+
+		List<UserBean> seek = model.searchPage(bean, Cursor.first(), 1, ROWS).getList();
+		UserBean previous = seek.get(ROWS - PAGE_SIZE - 1);
+		Cursor deep = Cursor.after(previous.getLogin(), previous.getId());
+
+		long offsetFirst = time(() -> model.searchPage(bean, 1, PAGE_SIZE));
+		long offsetLast = time(() -> model.searchPage(bean, lastPage, PAGE_SIZE));
+		long keysetFirst = time(() -> model.searchPage(bean, Cursor.first(), 1, PAGE_SIZE));
+		long keysetLast = time(() -> model.searchPage(bean, deep, lastPage, PAGE_SIZE));
+
+		System.out.println("Offset  first/last page ms : " + offsetFirst / 1e6 / ROUNDS + " / "
+				+ offsetLast / 1e6 / ROUNDS);
+		System.out.println("Keyset  first/last page ms : " + keysetFirst / 1e6 / ROUNDS + " / "
+				+ keysetLast / 1e6 / ROUNDS);
+	}
+
+	private interface Query {
+		void run() throws Exception;
+	}
+
+	private static long time(Query query) throws Exception {
+		query.run();
+		long begin = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			query.run();
+		}
+		return System.nanoTime() - begin;
+	}
+
+	private static void collect(Page<UserBean> page, List<String> logins, Set<Long> ids) {
+		for (UserBean bean : page.getList()) {
+			logins.add(bean.getLogin());
+			ids.add(bean.getId());
+		}
+	}
+
+	private static List<Long> insertUsers(UserModel model) throws Exception {
+
+		List<Long> pks = new ArrayList<>();
+
+		for (int i = 0; i < ROWS; i++) {
+			UserBean bean = new UserBean();
+			bean.setFirstName("Keyset");
+			bean.setLastName("Test");
+			bean.setLogin("keyset" + (i * 7919 % ROWS) + "@test.com");
+			bean.setPassword("Pass@123");
+			bean.setDob(new Date());
+			bean.setMobileNo("9999999999");
+			bean.setRoleId(2);
+			bean.setGender("Male");
+			bean.setCreatedBy("test");
+			bean.setModifiedBy("test");
+			bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+			bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+			pks.add(model.add(bean));
+		}
+		return pks;
+	}
+}
@@ -0,0 +1,197 @@
+package in.co.rays.proj4.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.mail.Message;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.EmailMessage;
+import in.co.rays.proj4.util.EmailUtility;
+import in.co.rays.proj4.util.MailTransportPool;
+
+/**
+ * Test of the {@link MailTransportPool} behind
+ * {@link EmailUtility#sendMail(EmailMessage)} against the local
+ * {@link SmtpStub}.
+ * <p>
+ * testReuse() checks that sequential mail shares one connection,
+ * testConcurrent() that parallel senders open no more than
+ * {@link #POOL_SIZE} connections, testReconnect() that mail is sent after
+ * the server dropped the pooled connections, testReconnectFails() that the
+ * new connection is closed when the mail fails on it too, and
+ * testRejected() that a rejected message fails without breaking the next
+ * one. testSpeed() times
+ * {@link #MAILS} messages with a connection per message and pooled.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestMailTransportPool {
+
+	private static final int MAILS = 200;
+
+	private static final int POOL_SIZE = 2;
+
+	private static SmtpStub smtp;
+
+	public static void main(String[] args) throws Exception {
+
+		smtp = new SmtpStub();
+
+		System.setProperty("smtp.server", "127.0.0.1");
+		System.setProperty("smtp.port", String.valueOf(smtp.getPort()));
+		System.setProperty("smtp.ssl", "false");
+		System.setProperty("smtp.pool.size", String.valueOf(POOL_SIZE));
+
+		try {
+			testReuse();
+			testConcurrent();
+			testReconnect();
+			testReconnectFails();
+			testRejected();
+			testSpeed();
+			System.out.println(EmailUtility.getTransportPool());
+		} finally {
+			EmailUtility.getTransportPool().close();
+			smtp.close();
+		}
+	}
+
+	public static void testReuse() throws Exception {
+
+		int connections = smtp.getConnections();
+
+		for (int i = 0; i < 20; i++) {
+			EmailUtility.sendMail(mail("reuse" + i + "@test.com"));
+		}
+
+		if (smtp.getConnections() - connections != 1) {
+			throw new AssertionError("Expected 1 connection, got " + (smtp.getConnections() - connections));
+		}
+	}
+
+	public static void testConcurrent() throws Exception {
+
+		int connections = smtp.getConnections();
+		int received = smtp.getRecipients().size();
+		List<Thread> threads = new ArrayList<Thread>();
+		List<Throwable> errors = new ArrayList<Throwable>();
+
+		for (int t = 0; t < 4; t++) {
+			int n = t;
+			Thread thread = new Thread(() -> {
+				try {
+					for (int i = 0; i < 25; i++) {
+						EmailUtility.sendMail(mail("concurrent" + n + "." + i + "@test.com"));
+					}
+				} catch (ApplicationException e) {
+					synchronized (errors) {
+						errors.add(e);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		if (!errors.isEmpty()) {
+			throw new AssertionError("Concurrent send failed : " + errors);
+		}
+		if (smtp.getRecipients().size() - received != 100) {
+			throw new AssertionError("Expected 100 messages, got " + (smtp.getRecipients().size() - received));
+		}
+		if (smtp.getConnections() - connections > POOL_SIZE) {
+			throw new AssertionError("Opened " + (smtp.getConnections() - connections) + " connections");
+		}
+	}
+
+	public static void testReconnect() throws Exception {
+
+		long reconnects = EmailUtility.getTransportPool().getReconnects();
+
+		smtp.disconnectAll();
+		Thread.sleep(50);
+		EmailUtility.sendMail(mail("reconnect@test.com"));
+
+		if (!smtp.getRecipients().contains("reconnect@test.com")) {
+			throw new AssertionError("Mail not sent after disconnect");
+		}
+		if (EmailUtility.getTransportPool().getReconnects() == reconnects) {
+			throw new AssertionError("No reconnect counted");
+		}
+	}
+
+	public static void testReconnectFails() throws Exception {
+
+		smtp.disconnectAll();
+		Thread.sleep(50);
+		smtp.failNext(1);
+		try {
+			EmailUtility.sendMail(mail("reconnectfails@test.com"));
+			throw new AssertionError("Mail refused after reconnect did not fail");
+		} catch (ApplicationException e) {
+			// expected
+		}
+
+		Thread.sleep(100);
+		if (smtp.getOpen() != 0) {
+			throw new AssertionError(smtp.getOpen() + " connections left open after the failed reconnect");
+		}
+	}
+
+	public static void testRejected() throws Exception {
+
+		smtp.failNext(1);
+		try {
+			EmailUtility.sendMail(mail("rejected@test.com"));
+			throw new AssertionError("Rejected mail did not fail");
+		} catch (ApplicationException e) {
+			// expected
+		}
+
+		EmailUtility.sendMail(mail("accepted@test.com"));
+		if (!smtp.getRecipients().contains("accepted@test.com")) {
+			throw new AssertionError("Mail after a rejected one not sent");
+		}
+	}
+
+	public static void testSpeed() throws Exception {
+
+		Properties props = new Properties();
+		props.put("mail.smtp.host", "127.0.0.1");
+		props.put("mail.smtp.port", String.valueOf(smtp.getPort()));
+		Session session = Session.getInstance(props);
+
+		long begin = System.nanoTime();
+		for (int i = 0; i < MAILS; i++) {
+			Message msg = new MimeMessage(session);
+			msg.setFrom(new InternetAddress("test@test.com"));
+			msg.setRecipient(Message.RecipientType.TO, new InternetAddress("single" + i + "@test.com"));
+			msg.setSubject("Pool Test");
+			msg.setContent("<p>Test</p>", "text/html");
+			Transport.send(msg);
+		}
+		System.out.println("Transport.send() x " + MAILS + " : " + (System.nanoTime() - begin) / 1000000 + " ms");
+
+		begin = System.nanoTime();
+		for (int i = 0; i < MAILS; i++) {
+			EmailUtility.sendMail(mail("pooled" + i + "@test.com"));
+		}
+		System.out.println("pooled sendMail() x " + MAILS + " : " + (System.nanoTime() - begin) / 1000000 + " ms");
+	}
+
+	private static EmailMessage mail(String to) {
+		EmailMessage msg = new EmailMessage(to, "Pool Test", "<p>Test</p>");
+		msg.setMessageType(EmailMessage.HTML_MSG);
+		return msg;
+	}
+}
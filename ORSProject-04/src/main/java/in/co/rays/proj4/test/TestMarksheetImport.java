@@ -0,0 +1,235 @@
+package in.co.rays.proj4.test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import in.co.rays.proj4.bean.CollegeBean;
+import in.co.rays.proj4.bean.MarksheetBean;
+import in.co.rays.proj4.bean.StudentBean;
+import in.co.rays.proj4.model.CollegeModel;
+import in.co.rays.proj4.model.ImportResult;
+import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.model.StudentModel;
+
+/**
+ * Test of {@link MarksheetModel#importCsv(Reader, String)}.
+ * <p>
+ * testImport() streams a generated file of {@link #ROWS} lines, some of them
+ * invalid, prints the import rate and the heap used before and after, and
+ * checks the imported and rejected counts. testAdd() adds {@link #ADD_ROWS}
+ * marksheets one at a time with {@link MarksheetModel#add(MarksheetBean)}
+ * for comparison. testErrors() checks the messages of rejected rows,
+ * including a roll number repeated in lower case.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestMarksheetImport {
+
+	private static final int ROWS = 20000;
+	private static final int ADD_ROWS = 500;
+	private static final int STUDENTS = 50;
+
+	private static final MarksheetModel model = new MarksheetModel();
+
+	private static final List<String> rollNos = new ArrayList<>();
+
+	private static long[] studentIds;
+
+	private static int nextRollNo = (int) (Math.random() * 400000);
+
+	public static void main(String[] args) throws Exception {
+
+		studentIds = addStudents();
+
+		try {
+			testImport();
+			testAdd();
+			testErrors();
+		} finally {
+			cleanUp();
+		}
+	}
+
+	public static void testImport() throws Exception {
+
+		System.gc();
+		long heap = usedHeap();
+		long begin = System.nanoTime();
+
+		ImportResult result = model.importCsv(new CsvReader(ROWS), "test");
+
+		long elapsed = System.nanoTime() - begin;
+
+		System.out.println("importCsv(" + ROWS + ") : " + elapsed / 1000000 + " ms, "
+				+ (long) (result.getImported() / (elapsed / 1e9)) + " rows/s, imported " + result.getImported()
+				+ ", rejected " + result.getRejected());
+		System.gc();
+		System.out.println("heap used before " + heap / 1024 + " KB, after " + usedHeap() / 1024 + " KB");
+
+		int invalid = ROWS / 100;
+		if (result.getRejected() != invalid || result.getImported() != ROWS - invalid) {
+			throw new AssertionError("Expected " + invalid + " rejected rows, got " + result.getRejected());
+		}
+		if (result.getErrors().size() != Math.min(invalid, ImportResult.MAX_ERRORS)) {
+			throw new AssertionError("Unexpected error list size " + result.getErrors().size());
+		}
+	}
+
+	public static void testAdd() throws Exception {
+
+		long begin = System.nanoTime();
+
+		for (int i = 0; i < ADD_ROWS; i++) {
+			MarksheetBean bean = new MarksheetBean();
+			bean.setRollNo(nextRollNo());
+			bean.setStudentId(studentIds[i % STUDENTS]);
+			bean.setPhysics(i % 101);
+			bean.setChemistry((i * 7) % 101);
+			bean.setMaths((i * 13) % 101);
+			bean.setCreatedBy("test");
+			bean.setModifiedBy("test");
+			bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+			bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+			model.add(bean);
+		}
+
+		long elapsed = System.nanoTime() - begin;
+		System.out.println("add() x " + ADD_ROWS + " : " + elapsed / 1000000 + " ms, "
+				+ (long) (ADD_ROWS / (elapsed / 1e9)) + " rows/s");
+	}
+
+	public static void testErrors() throws Exception {
+
+		String rollNo = nextRollNo();
+		String csv = "rollNo,studentId,physics,chemistry,maths\n"
+				+ rollNo + "," + studentIds[0] + ",70,80,90\n"
+				+ "A1," + studentIds[0] + ",70,80,90\n"
+				+ nextRollNo() + ",999999999,70,80,90\n"
+				+ rollNo + "," + studentIds[1] + ",70,80,90\n"
+				+ rollNo.toLowerCase() + "," + studentIds[1] + ",70,80,90\n"
+				+ nextRollNo() + "," + studentIds[0] + ",70,abc,101\n"
+				+ nextRollNo() + "," + studentIds[0] + ",70\n";
+
+		ImportResult result = model.importCsv(new StringReader(csv), "test");
+
+		for (String error : result.getErrors()) {
+			System.out.println(error);
+		}
+
+		if (result.getImported() != 1 || result.getRejected() != 6) {
+			throw new AssertionError("Expected 1 imported and 6 rejected, got " + result.getImported() + " and "
+					+ result.getRejected());
+		}
+	}
+
+	/**
+	 * Generates the CSV file line by line, so the test itself does not hold
+	 * the file in memory. Every 100th row has invalid marks.
+	 */
+	private static class CsvReader extends Reader {
+
+		private final int rows;
+		private int row = -1;
+		private String line = "";
+		private int pos = 0;
+
+		CsvReader(int rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		public int read(char[] buf, int off, int len) {
+			if (pos == line.length()) {
+				if (++row > rows) {
+					return -1;
+				}
+				line = (row == 0) ? "rollNo,studentId,physics,chemistry,maths\n" : line(row);
+				pos = 0;
+			}
+			int n = Math.min(len, line.length() - pos);
+			line.getChars(pos, pos + n, buf, off);
+			pos += n;
+			return n;
+		}
+
+		private String line(int i) {
+			int physics = (i % 100 == 0) ? 120 : i % 101;
+			return nextRollNo() + "," + studentIds[i % STUDENTS] + "," + physics + "," + (i * 7) % 101 + ","
+					+ (i * 13) % 101 + "\n";
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static String nextRollNo() {
+		int n = nextRollNo++ % 676000;
+		String rollNo = "" + (char) ('A' + n / 26000) + (char) ('A' + n / 1000 % 26) + String.format("%03d", n % 1000);
+		rollNos.add(rollNo);
+		return rollNo;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static long[] addStudents() throws Exception {
+
+		CollegeBean college = new CollegeBean();
+		college.setName("Import College " + System.nanoTime());
+		college.setAddress("Test");
+		college.setState("MP");
+		college.setCity("Indore");
+		college.setPhoneNo("9876543210");
+		college.setCreatedBy("test");
+		college.setModifiedBy("test");
+		college.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		college.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		long collegeId = new CollegeModel().add(college);
+
+		StudentModel studentModel = new StudentModel();
+		long[] ids = new long[STUDENTS];
+
+		for (int i = 0; i < STUDENTS; i++) {
+			StudentBean bean = new StudentBean();
+			bean.setFirstName("Import");
+			bean.setLastName("Student" + i);
+			bean.setDob(new Date());
+			bean.setGender("Male");
+			bean.setMobileNo("9876543210");
+			bean.setEmail("import" + System.nanoTime() + "n" + i + "@test.com");
+			bean.setCollegeId(collegeId);
+			bean.setCreatedBy("test");
+			bean.setModifiedBy("test");
+			bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+			bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+			ids[i] = studentModel.add(bean);
+		}
+		return ids;
+	}
+
+	private static void cleanUp() throws Exception {
+
+		List<Long> ids = new ArrayList<>();
+		for (String rollNo : rollNos) {
+			MarksheetBean bean = model.findByRollNo(rollNo);
+			if (bean != null) {
+				ids.add(bean.getId());
+			}
+		}
+
+		long[] pks = new long[ids.size()];
+		for (int i = 0; i < pks.length; i++) {
+			pks[i] = ids.get(i);
+		}
+		model.deleteAll(pks);
+		new StudentModel().deleteAll(studentIds);
+	}
+}
@@ -0,0 +1,313 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import in.co.rays.proj4.bean.CollegeBean;
+import in.co.rays.proj4.bean.MarksheetBean;
+import in.co.rays.proj4.bean.StudentBean;
+import in.co.rays.proj4.model.CollegeModel;
+import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.model.StudentModel;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PkGenerator;
+
+/**
+ * Test of the materialized merit ranking read by
+ * {@link MarksheetModel#getMeritList(int, int)}.
+ * <p>
+ * testMeritList() inserts {@link #ROWS} marksheets (or the count given as
+ * the first argument) straight into <code>st_marksheet</code>, rebuilds the
+ * ranking, and times the first and a deep page of the merit list against
+ * the previous query that computed and sorted the total of every marksheet.
+ * Both must return the same marksheets in the same order. testRank()
+ * checks the in-memory rank by roll number and top-K against SQL and times
+ * the lookups. testMaintain() checks that update and delete keep both the
+ * ranking table and the in-memory rank current.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestMeritList {
+
+	private static final int ROWS = 1000000;
+	private static final int PAGE_SIZE = 10;
+	private static final int RUNS = 20;
+
+	private static final String USER = "meritbench";
+
+	private static final String COMPUTED = "select id, roll_no, name, physics, chemistry, maths, "
+			+ "(physics + chemistry + maths) as total from st_marksheet "
+			+ "where physics > 33 and chemistry > 33 and maths > 33 "
+			+ "order by total desc, id desc limit ?, ?";
+
+	private static final MarksheetModel model = new MarksheetModel();
+
+	public static void main(String[] args) throws Exception {
+
+		int rows = (args.length > 0) ? Integer.parseInt(args[0]) : ROWS;
+		long studentId = addStudent();
+
+		try {
+			insert(rows, studentId);
+			testMeritList(rows);
+			testRank();
+			testMaintain();
+		} finally {
+			cleanUp(studentId);
+		}
+	}
+
+	public static void testMeritList(int rows) throws Exception {
+
+		long begin = System.nanoTime();
+		int ranked = model.rebuildMeritList();
+		System.out.println("rebuildMeritList() : " + ranked + " of " + rows + " marksheets ranked in "
+				+ (System.nanoTime() - begin) / 1000000 + " ms");
+
+		int deepPage = ranked / PAGE_SIZE / 2;
+
+		for (int pageNo : new int[] { 1, 2, deepPage }) {
+
+			List<MarksheetBean> computed = computed(pageNo);
+			List<MarksheetBean> ranking = model.getMeritList(pageNo, PAGE_SIZE);
+
+			if (computed.size() != ranking.size()) {
+				throw new AssertionError("Page " + pageNo + " : expected " + computed.size() + " rows, got "
+						+ ranking.size());
+			}
+			for (int i = 0; i < computed.size(); i++) {
+				if (computed.get(i).getId() != ranking.get(i).getId()) {
+					throw new AssertionError("Page " + pageNo + " row " + i + " : expected id "
+							+ computed.get(i).getId() + ", got " + ranking.get(i).getId());
+				}
+			}
+
+			begin = System.nanoTime();
+			for (int i = 0; i < RUNS; i++) {
+				computed(pageNo);
+			}
+			long before = (System.nanoTime() - begin) / RUNS;
+
+			begin = System.nanoTime();
+			for (int i = 0; i < RUNS; i++) {
+				model.getMeritList(pageNo, PAGE_SIZE);
+			}
+			long after = (System.nanoTime() - begin) / RUNS;
+
+			System.out.println("page " + pageNo + " : computed " + before / 1000 + " us, ranking " + after / 1000
+					+ " us");
+		}
+	}
+
+	public static void testRank() throws Exception {
+
+		long begin = System.nanoTime();
+		long[] top = model.getMeritTop(PAGE_SIZE);
+		System.out.println("first getMeritTop() with load : " + (System.nanoTime() - begin) / 1000000 + " ms");
+
+		List<MarksheetBean> page = model.getMeritList(1, PAGE_SIZE);
+		for (int i = 0; i < top.length; i++) {
+			if (top[i] != page.get(i).getId()) {
+				throw new AssertionError("Top " + i + " : expected id " + page.get(i).getId() + ", got " + top[i]);
+			}
+		}
+
+		List<String> rollNos = new ArrayList<>();
+		List<Integer> ranks = new ArrayList<>();
+		Connection conn = JDBCDataSource.getConnection();
+
+		try (PreparedStatement pstmt = conn.prepareStatement("select m.roll_no,"
+				+ " (select count(*) from st_merit h where h.total > r.total) + 1"
+				+ " from st_merit r join st_marksheet m on m.id = r.marksheet_id"
+				+ " where m.created_by = ? order by r.marksheet_id limit 1000")) {
+			pstmt.setString(1, USER);
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) {
+				rollNos.add(rs.getString(1));
+				ranks.add(rs.getInt(2));
+			}
+			rs.close();
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+
+		begin = System.nanoTime();
+		for (int i = 0; i < rollNos.size(); i++) {
+			int rank = model.getMeritRank(rollNos.get(i));
+			if (rank != ranks.get(i)) {
+				throw new AssertionError(rollNos.get(i) + " : expected rank " + ranks.get(i) + ", got " + rank);
+			}
+		}
+		long elapsed = System.nanoTime() - begin;
+
+		System.out.println("getMeritRank() x " + rollNos.size() + " : " + elapsed / rollNos.size() + " ns each");
+	}
+
+	public static void testMaintain() throws Exception {
+
+		MarksheetBean top = model.getMeritList(1, 1).get(0);
+		MarksheetBean bean = model.findByPk(top.getId());
+
+		bean.setPhysics(100);
+		bean.setChemistry(100);
+		bean.setMaths(100);
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		model.update(bean);
+
+		if (!contains(model.getMeritList(1, PAGE_SIZE), bean.getId())) {
+			throw new AssertionError("Updated marksheet is not at the top of the merit list");
+		}
+		if (model.getMeritRank(bean.getRollNo()) != 1 || model.getMeritRank(bean) != 1) {
+			throw new AssertionError("Updated marksheet is not ranked first");
+		}
+
+		bean.setPhysics(20);
+		model.update(bean);
+
+		if (contains(model.getMeritList(1, PAGE_SIZE), bean.getId())) {
+			throw new AssertionError("Failed marksheet is still on the merit list");
+		}
+		if (model.getMeritRank(bean.getRollNo()) != 0) {
+			throw new AssertionError("Failed marksheet still has a rank");
+		}
+
+		MarksheetBean first = model.getMeritList(1, 1).get(0);
+		model.delete(first);
+
+		if (contains(model.getMeritList(1, PAGE_SIZE), first.getId())) {
+			throw new AssertionError("Deleted marksheet is still on the merit list");
+		}
+		if (model.getMeritRank(first.getRollNo()) != 0 || model.getMeritTop(1)[0] == first.getId()) {
+			throw new AssertionError("Deleted marksheet still has a rank");
+		}
+	}
+
+	private static boolean contains(List<MarksheetBean> list, long id) {
+		for (MarksheetBean bean : list) {
+			if (bean.getId() == id) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Runs the merit list query used before the ranking table.
+	 */
+	private static List<MarksheetBean> computed(int pageNo) throws Exception {
+
+		List<MarksheetBean> list = new ArrayList<>();
+		Connection conn = JDBCDataSource.getConnection();
+
+		try (PreparedStatement pstmt = conn.prepareStatement(COMPUTED)) {
+			pstmt.setInt(1, (pageNo - 1) * PAGE_SIZE);
+			pstmt.setInt(2, PAGE_SIZE);
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) {
+				MarksheetBean bean = new MarksheetBean();
+				bean.setId(rs.getLong(1));
+				list.add(bean);
+			}
+			rs.close();
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return list;
+	}
+
+	/**
+	 * Inserts the benchmark marksheets with a JDBC batch. Roll numbers are
+	 * unique but do not follow the form's format, which allows fewer than a
+	 * million values.
+	 */
+	private static void insert(int rows, long studentId) throws Exception {
+
+		long begin = System.nanoTime();
+		Timestamp now = new Timestamp(new Date().getTime());
+		Connection conn = JDBCDataSource.getConnection();
+		long seed = 42;
+
+		try (PreparedStatement pstmt = conn
+				.prepareStatement("insert into st_marksheet values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+
+			conn.setAutoCommit(false);
+
+			for (int i = 0; i < rows; i++) {
+				long id = PkGenerator.nextPk("st_marksheet");
+				pstmt.setLong(1, id);
+				pstmt.setString(2, "MB" + id);
+				pstmt.setLong(3, studentId);
+				pstmt.setString(4, "Merit Student " + i);
+				for (int column = 5; column <= 7; column++) {
+					seed = seed * 6364136223846793005L + 1442695040888963407L;
+					pstmt.setInt(column, (int) ((seed >>> 33) % 101));
+				}
+				pstmt.setString(8, USER);
+				pstmt.setString(9, USER);
+				pstmt.setTimestamp(10, now);
+				pstmt.setTimestamp(11, now);
+				pstmt.addBatch();
+
+				if (i % 1000 == 999) {
+					pstmt.executeBatch();
+					conn.commit();
+				}
+			}
+			pstmt.executeBatch();
+			conn.commit();
+
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+
+		System.out.println("inserted " + rows + " marksheets in " + (System.nanoTime() - begin) / 1000000 + " ms");
+	}
+
+	private static long addStudent() throws Exception {
+
+		CollegeBean college = new CollegeBean();
+		college.setName("Merit College " + System.nanoTime());
+		college.setAddress("Test");
+		college.setState("MP");
+		college.setCity("Indore");
+		college.setPhoneNo("9876543210");
+		college.setCreatedBy(USER);
+		college.setModifiedBy(USER);
+		college.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		college.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		long collegeId = new CollegeModel().add(college);
+
+		StudentBean bean = new StudentBean();
+		bean.setFirstName("Merit");
+		bean.setLastName("Student");
+		bean.setDob(new Date());
+		bean.setGender("Male");
+		bean.setMobileNo("9876543210");
+		bean.setEmail("merit" + System.nanoTime() + "@test.com");
+		bean.setCollegeId(collegeId);
+		bean.setCreatedBy(USER);
+		bean.setModifiedBy(USER);
+		bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		return new StudentModel().add(bean);
+	}
+
+	private static void cleanUp(long studentId) throws Exception {
+
+		Connection conn = JDBCDataSource.getConnection();
+		try (Statement stmt = conn.createStatement()) {
+			stmt.executeUpdate("delete from st_marksheet where created_by = '" + USER + "'");
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		model.rebuildMeritList();
+		new StudentModel().deleteAll(studentId);
+	}
+}
@@ -0,0 +1,127 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.model.RoleModel;
+import in.co.rays.proj4.util.Page;
+
+/**
+ * Compares the old two-query pagination of list controllers with
+ * {@link RoleModel#searchPage(RoleBean, int, int)}.
+ * <p>
+ * The old path ran <code>search(pageNo)</code> and
+ * <code>search(pageNo + 1)</code> per page view to compute
+ * <code>nextListSize</code>; the new path runs one query fetching
+ * <code>pageSize + 1</code> rows. Both paths walk all pages of the same data,
+ * the test fails if they disagree on rows or on the next page flag.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestPagination {
+
+	private static final int ROWS = 500;
+	private static final int PAGE_SIZE = 10;
+	private static final int ROUNDS = 20;
+
+	public static void main(String[] args) throws Exception {
+
+		RoleModel model = new RoleModel();
+		List<Long> pks = insertRoles(model);
+
+		try {
+			testSearchPage(model);
+		} finally {
+			for (long pk : pks) {
+				RoleBean bean = new RoleBean();
+				bean.setId(pk);
+				model.delete(bean);
+			}
+		}
+	}
+
+	public static void testSearchPage(RoleModel model) throws Exception {
+
+		RoleBean bean = new RoleBean();
+		bean.setName("page");
+
+		int views = 0;
+		int oldQueries = 0;
+		int newQueries = 0;
+		boolean same = true;
+
+		long oldTime = 0;
+		long newTime = 0;
+
+		for (int round = 0; round < ROUNDS; round++) {
+
+			boolean more = true;
+
+			for (int pageNo = 1; more; pageNo++) {
+
+				long begin = System.nanoTime();
+				List<RoleBean> list = model.search(bean, pageNo, PAGE_SIZE);
+				List<RoleBean> next = model.search(bean, pageNo + 1, PAGE_SIZE);
+				oldTime += System.nanoTime() - begin;
+				oldQueries += 2;
+
+				begin = System.nanoTime();
+				Page<RoleBean> page = model.searchPage(bean, pageNo, PAGE_SIZE);
+				newTime += System.nanoTime() - begin;
+				newQueries += 1;
+
+				if (page.hasNext() != (next.size() != 0) || !sameIds(list, page.getList())) {
+					same = false;
+				}
+
+				more = page.hasNext();
+				views++;
+			}
+		}
+
+		System.out.println("Page views             : " + views);
+		System.out.println("Queries per view old   : " + (double) oldQueries / views);
+		System.out.println("Queries per view new   : " + (double) newQueries / views);
+		System.out.println("Avg ms per view old    : " + oldTime / 1e6 / views);
+		System.out.println("Avg ms per view new    : " + newTime / 1e6 / views);
+
+		if (same) {
+			System.out.println("Test searchPage pass");
+		} else {
+			System.out.println("Test searchPage fail");
+		}
+	}
+
+	private static boolean sameIds(List<RoleBean> a, List<RoleBean> b) {
+		if (a.size() != b.size()) {
+			return false;
+		}
+		for (int i = 0; i < a.size(); i++) {
+			if (a.get(i).getId() != b.get(i).getId()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static List<Long> insertRoles(RoleModel model) throws Exception {
+
+		List<Long> pks = new ArrayList<>();
+
+		for (int i = 0; i < ROWS; i++) {
+			RoleBean bean = new RoleBean();
+			bean.setName("page" + System.nanoTime() + "n" + i);
+			bean.setDescription("Pagination test");
+			bean.setCreatedBy("test");
+			bean.setModifiedBy("test");
+			bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+			bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+			pks.add(model.add(bean));
+		}
+		return pks;
+	}
+}
@@ -0,0 +1,137 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.model.RoleModel;
+import in.co.rays.proj4.util.PkGenerator;
+
+/**
+ * Concurrent stress test of {@link PkGenerator}.
+ * <p>
+ * testNextPk() draws ids from many threads and fails if any id is handed out
+ * twice. testInsertThroughput() inserts roles from many threads through
+ * {@link RoleModel#add(RoleBean)} and prints inserts per second.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestPkGenerator {
+
+	private static final int THREADS = 32;
+	private static final int IDS_PER_THREAD = 10000;
+	private static final int INSERTS_PER_THREAD = 50;
+
+	public static void main(String[] args) throws Exception {
+
+		testNextPk();
+		testInsertThroughput();
+	}
+
+	public static void testNextPk() throws Exception {
+
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		AtomicInteger duplicates = new AtomicInteger();
+		List<Exception> errors = new CopyOnWriteArrayList<>();
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(THREADS);
+
+		for (int i = 0; i < THREADS; i++) {
+			pool.execute(() -> {
+				try {
+					start.await();
+					for (int j = 0; j < IDS_PER_THREAD; j++) {
+						if (!ids.add(PkGenerator.nextPk("st_role"))) {
+							duplicates.incrementAndGet();
+						}
+					}
+				} catch (Exception e) {
+					errors.add(e);
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		done.await();
+		long elapsed = System.nanoTime() - begin;
+		pool.shutdown();
+
+		int total = THREADS * IDS_PER_THREAD;
+		System.out.println("Ids drawn       : " + ids.size() + " / " + total);
+		System.out.println("Duplicates      : " + duplicates.get());
+		System.out.println("Errors          : " + errors.size());
+		System.out.println("Ids per second  : " + (long) (total / (elapsed / 1e9)));
+
+		if (duplicates.get() > 0 || !errors.isEmpty() || ids.size() != total) {
+			System.out.println("Test nextPk fail");
+		} else {
+			System.out.println("Test nextPk pass");
+		}
+	}
+
+	public static void testInsertThroughput() throws Exception {
+
+		RoleModel model = new RoleModel();
+		List<Long> pks = new CopyOnWriteArrayList<>();
+		List<Exception> errors = new CopyOnWriteArrayList<>();
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(THREADS);
+		String run = Long.toString(System.currentTimeMillis(), 36);
+
+		for (int i = 0; i < THREADS; i++) {
+			final int thread = i;
+			pool.execute(() -> {
+				try {
+					start.await();
+					for (int j = 0; j < INSERTS_PER_THREAD; j++) {
+						RoleBean bean = new RoleBean();
+						bean.setName("stress" + run + "t" + thread + "n" + j);
+						bean.setDescription("PkGenerator stress test");
+						bean.setCreatedBy("stress");
+						bean.setModifiedBy("stress");
+						bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+						bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+						pks.add(model.add(bean));
+					}
+				} catch (Exception e) {
+					errors.add(e);
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		done.await();
+		long elapsed = System.nanoTime() - begin;
+		pool.shutdown();
+
+		System.out.println("Rows inserted      : " + pks.size() + " / " + (THREADS * INSERTS_PER_THREAD));
+		System.out.println("Distinct pks       : " + pks.stream().distinct().count());
+		System.out.println("Errors             : " + errors.size());
+		System.out.println("Inserts per second : " + (long) (pks.size() / (elapsed / 1e9)));
+
+		for (long pk : pks) {
+			RoleBean bean = new RoleBean();
+			bean.setId(pk);
+			model.delete(bean);
+		}
+	}
+}
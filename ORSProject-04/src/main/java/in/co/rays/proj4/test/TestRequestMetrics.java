@@ -0,0 +1,166 @@
+package in.co.rays.proj4.test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import in.co.rays.proj4.controller.LoginCtl;
+import in.co.rays.proj4.model.DropdownCache;
+import in.co.rays.proj4.model.RoleModel;
+import in.co.rays.proj4.util.EntityCache;
+import in.co.rays.proj4.util.RequestMetrics;
+
+/**
+ * Test of {@link RequestMetrics} and of the operation labels of the
+ * controllers.
+ * <p>
+ * testConcurrent() records from several threads and checks that no
+ * request is lost and none is left in flight, testBuckets() where a
+ * request lands in the histogram, testFormat() the Prometheus text,
+ * cache and mail series included, and testOperations() that a controller
+ * labels only its own operations.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestRequestMetrics {
+
+	private static final int THREADS = 8;
+
+	private static final int REQUESTS = 100000;
+
+	public static void main(String[] args) throws Exception {
+
+		testConcurrent();
+		testBuckets();
+		testFormat();
+		testOperations();
+
+		StringWriter out = new StringWriter();
+		RequestMetrics.write(out);
+		System.out.print(out);
+	}
+
+	public static void testConcurrent() throws InterruptedException {
+
+		RequestMetrics.Timer timer = RequestMetrics.controller("TestCtl").timer("Search");
+		long count = timer.getCount();
+		long errors = timer.getErrors();
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < THREADS; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < REQUESTS; i++) {
+					timer.stop(timer.start(), i % 10 == 0);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		long start = System.nanoTime();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		check("count", count + THREADS * REQUESTS, timer.getCount());
+		check("errors", errors + THREADS * REQUESTS / 10, timer.getErrors());
+		check("in flight", 0, RequestMetrics.controller("TestCtl").getInFlight());
+
+		long buckets = 0;
+		for (long bucket : timer.getBucketCounts()) {
+			buckets += bucket;
+		}
+		check("bucket total", timer.getCount(), buckets);
+
+		System.out.println("Recorded " + THREADS * REQUESTS + " requests on " + THREADS + " threads in "
+				+ elapsed / 1000000 + " ms, " + elapsed / (THREADS * REQUESTS) + " ns per request");
+	}
+
+	public static void testBuckets() {
+
+		RequestMetrics.Timer timer = RequestMetrics.controller("TestCtl").timer("Save");
+		long[] before = timer.getBucketCounts();
+
+		long start = timer.start();
+		timer.stop(start - 3000000, false);
+		timer.stop(timer.start() - 60000000000L, true);
+
+		long[] after = timer.getBucketCounts();
+		check("3 ms bucket, le 0.005", before[2] + 1, after[2]);
+		check("60 s bucket, +Inf", before[after.length - 1] + 1, after[after.length - 1]);
+		check("in flight", 0, RequestMetrics.controller("TestCtl").getInFlight());
+	}
+
+	public static void testFormat() throws Exception {
+
+		RequestMetrics.Timer timer = RequestMetrics.controller("Test\"Ctl").timer("Go");
+		timer.stop(timer.start(), false);
+		new RoleModel();
+
+		StringWriter out = new StringWriter();
+		RequestMetrics.write(out);
+		String text = out.toString();
+
+		for (String line : new String[] { "# TYPE ors_http_requests_in_flight gauge",
+				"# TYPE ors_http_request_errors_total counter",
+				"# TYPE ors_http_request_duration_seconds histogram",
+				"ors_http_request_duration_seconds_bucket{controller=\"Test\\\"Ctl\",operation=\"Go\",le=\"+Inf\"} 1",
+				"ors_http_request_duration_seconds_count{controller=\"Test\\\"Ctl\",operation=\"Go\"} 1",
+				"ors_http_request_errors_total{controller=\"Test\\\"Ctl\",operation=\"Go\"} 0",
+				"# TYPE ors_cache_hits_total counter", "# TYPE ors_cache_misses_total counter",
+				"ors_cache_hits_total{cache=\"dropdown\"} " + DropdownCache.getHits(),
+				"# TYPE ors_mail_sent_total counter", "# TYPE ors_mail_idle_transports gauge" }) {
+			if (!text.contains(line + "\n")) {
+				throw new AssertionError("Missing line " + line + " in\n" + text);
+			}
+		}
+		for (EntityCache<?> cache : EntityCache.getCaches()) {
+			String line = "ors_cache_misses_total{cache=\"" + cache.getName() + "\"} " + cache.getMisses();
+			if (!text.contains(line + "\n")) {
+				throw new AssertionError("Missing line " + line + " in\n" + text);
+			}
+		}
+		for (String line : text.split("\n")) {
+			if (!line.startsWith("#") && !line.matches("ors_[a-z_]+\\{[^}]*\\} [0-9.]+")) {
+				throw new AssertionError("Invalid line " + line);
+			}
+		}
+	}
+
+	public static void testOperations() {
+
+		Labels ctl = new Labels();
+		checkLabel("Sign In", ctl.label("sign in"));
+		checkLabel("Save", ctl.label(" Save "));
+		checkLabel("none", ctl.label(null));
+		checkLabel("none", ctl.label(""));
+		checkLabel("other", ctl.label("Drop Table"));
+	}
+
+	/**
+	 * Controller with the operations of {@link LoginCtl}, to read its
+	 * labels.
+	 */
+	private static class Labels extends LoginCtl {
+
+		private static final long serialVersionUID = 1L;
+
+		String label(String op) {
+			return operation(op);
+		}
+	}
+
+	private static void check(String name, long expected, long actual) {
+		if (expected != actual) {
+			throw new AssertionError(name + " : expected " + expected + " but was " + actual);
+		}
+	}
+
+	private static void checkLabel(String expected, String actual) {
+		if (!expected.equals(actual)) {
+			throw new AssertionError("Expected label " + expected + " but was " + actual);
+		}
+	}
+}
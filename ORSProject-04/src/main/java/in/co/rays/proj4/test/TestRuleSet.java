@@ -0,0 +1,144 @@
+package in.co.rays.proj4.test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import in.co.rays.proj4.util.DataValidator;
+import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
+
+/**
+ * Test of {@link RuleSet} and the numeric checks of {@link DataValidator}.
+ * <p>
+ * testNumbers() compares isInteger() and isLong() with
+ * <code>Integer.parseInt</code> and <code>Long.parseLong</code> at the
+ * edges of their range, testValid() runs a valid user form, testErrors()
+ * checks the message of each kind of rule and testSame() the password
+ * confirmation.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestRuleSet {
+
+	private static final RuleSet USER = new RuleSet()
+			.field("firstName", "First Name").required().name("Invalid First Name")
+			.field("login", "Login Id").required().rule(DataValidator::isEmail, "error.email", "Login")
+			.field("password", "Password").required().password()
+			.field("confirmPassword", "Confirm Password").required()
+					.same("password", "Password and Confirm Password must be Same!")
+			.field("dob", "Date of Birth").required().date()
+			.field("mobileNo", "Mobile No").required().phone()
+			.field("marks", "Marks").required().integer(0, 100, "Marks should be in 0 to 100")
+			.field("remark", "Remark").name("Invalid Remark");
+
+	public static void main(String[] args) {
+
+		testNumbers();
+		testValid();
+		testErrors();
+		testSame();
+	}
+
+	public static void testNumbers() {
+
+		String[] values = { "0", "-0", "+7", "-", "+", "", " 1", "1 ", "12a", "2147483647", "2147483648",
+				"-2147483648", "-2147483649", "9223372036854775807", "9223372036854775808",
+				"-9223372036854775808", "-9223372036854775809", "00000000000000000000001" };
+
+		for (String value : values) {
+			if (DataValidator.isInteger(value) != parses(() -> Integer.parseInt(value))) {
+				throw new AssertionError("isInteger(\"" + value + "\") differs from Integer.parseInt");
+			}
+			if (DataValidator.isLong(value) != parses(() -> Long.parseLong(value))) {
+				throw new AssertionError("isLong(\"" + value + "\") differs from Long.parseLong");
+			}
+		}
+		if (DataValidator.isInteger(null) || DataValidator.isLong(null)) {
+			throw new AssertionError("null is a number");
+		}
+
+		check(true, DataValidator.isDouble("-12.5"));
+		check(true, DataValidator.isDouble("1.5e3"));
+		check(false, DataValidator.isDouble("1.2.3"));
+		check(false, DataValidator.isDouble("abc"));
+	}
+
+	public static void testValid() {
+
+		Map<String, String> errors = new HashMap<String, String>();
+		if (!USER.validate(form()::get, errors::put) || !errors.isEmpty()) {
+			throw new AssertionError("Valid form failed : " + errors);
+		}
+	}
+
+	public static void testErrors() {
+
+		Map<String, String> form = form();
+		form.put("firstName", " ");
+		form.put("login", "ram");
+		form.put("password", "short");
+		form.put("dob", "31-02-2024");
+		form.put("mobileNo", "12345");
+		form.put("marks", "101");
+		form.put("remark", "-x");
+
+		Map<String, String> errors = new HashMap<String, String>();
+		if (USER.validate(form::get, errors::put)) {
+			throw new AssertionError("Invalid form passed");
+		}
+
+		check(PropertyReader.getValue("error.require", "First Name"), errors.get("firstName"));
+		check(PropertyReader.getValue("error.email", "Login"), errors.get("login"));
+		check("Password should be 8 to 12 characters", errors.get("password"));
+		check(PropertyReader.getValue("error.date", "Date of Birth"), errors.get("dob"));
+		check("Mobile No must have 10 digits", errors.get("mobileNo"));
+		check("Marks should be in 0 to 100", errors.get("marks"));
+		check("Invalid Remark", errors.get("remark"));
+
+		form.put("marks", "ten");
+		form.put("mobileNo", "1234567890");
+		errors.clear();
+		USER.validate(form::get, errors::put);
+		check(PropertyReader.getValue("error.integer", "Marks"), errors.get("marks"));
+		check("Invalid Mobile No", errors.get("mobileNo"));
+	}
+
+	public static void testSame() {
+
+		Map<String, String> form = form();
+		form.put("confirmPassword", "Other@123");
+
+		Map<String, String> errors = new HashMap<String, String>();
+		USER.validate(form::get, errors::put);
+		check("Password and Confirm Password must be Same!", errors.get("confirmPassword"));
+		check(1, errors.size());
+	}
+
+	private static Map<String, String> form() {
+		Map<String, String> form = new HashMap<String, String>();
+		form.put("firstName", "Ram");
+		form.put("login", "ram@sunrays.co.in");
+		form.put("password", "Ram@1234");
+		form.put("confirmPassword", "Ram@1234");
+		form.put("dob", "15-10-2000");
+		form.put("mobileNo", "9876543210");
+		form.put("marks", "75");
+		return form;
+	}
+
+	private static boolean parses(Runnable parse) {
+		try {
+			parse.run();
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static void check(Object expected, Object actual) {
+		if (expected == null ? actual != null : !expected.equals(actual)) {
+			throw new AssertionError("Expected " + expected + ", got " + actual);
+		}
+	}
+}
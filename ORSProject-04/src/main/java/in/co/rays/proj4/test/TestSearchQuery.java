@@ -0,0 +1,99 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.model.RoleModel;
+
+/**
+ * Tests the parameterized search of the models through
+ * {@link RoleModel#search(RoleBean, int, int)}.
+ * <p>
+ * Search values are bound as parameters: quotes in a value must not break
+ * or change the statement, and <code>%</code> or <code>_</code> in a value
+ * must match literally. testThroughput() runs many searches with distinct
+ * values, which now share one statement shape.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestSearchQuery {
+
+	private static final int SEARCHES = 5000;
+
+	public static void main(String[] args) throws Exception {
+
+		RoleModel model = new RoleModel();
+		List<Long> pks = new ArrayList<>();
+
+		try {
+			pks.add(add(model, "sq_50%_off"));
+			pks.add(add(model, "sq_50xyoff"));
+			pks.add(add(model, "sq_O'Brien"));
+
+			testLiteralWildcards(model);
+			testQuotes(model);
+			testThroughput(model);
+
+		} finally {
+			for (long pk : pks) {
+				RoleBean bean = new RoleBean();
+				bean.setId(pk);
+				model.delete(bean);
+			}
+		}
+	}
+
+	public static void testLiteralWildcards(RoleModel model) throws Exception {
+
+		List<RoleBean> list = model.search(name("sq_50%_"), 0, 0);
+
+		if (list.size() == 1 && "sq_50%_off".equals(list.get(0).getName())) {
+			System.out.println("Test literal wildcards pass");
+		} else {
+			System.out.println("Test literal wildcards fail : " + list.size() + " rows");
+		}
+	}
+
+	public static void testQuotes(RoleModel model) throws Exception {
+
+		List<RoleBean> found = model.search(name("sq_O'B"), 0, 0);
+		List<RoleBean> injected = model.search(name("x' or '1'='1"), 0, 0);
+
+		if (found.size() == 1 && injected.isEmpty()) {
+			System.out.println("Test quotes pass");
+		} else {
+			System.out.println("Test quotes fail : " + found.size() + " / " + injected.size() + " rows");
+		}
+	}
+
+	public static void testThroughput(RoleModel model) throws Exception {
+
+		long begin = System.nanoTime();
+		for (int i = 0; i < SEARCHES; i++) {
+			model.search(name("sq_" + i), 1, 10);
+		}
+		long elapsed = System.nanoTime() - begin;
+
+		System.out.println("Searches per second : " + (long) (SEARCHES / (elapsed / 1e9)));
+	}
+
+	private static RoleBean name(String name) {
+		RoleBean bean = new RoleBean();
+		bean.setName(name);
+		return bean;
+	}
+
+	private static long add(RoleModel model, String name) throws Exception {
+		RoleBean bean = name(name);
+		bean.setDescription("SearchQuery test");
+		bean.setCreatedBy("test");
+		bean.setModifiedBy("test");
+		bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+		return model.add(bean);
+	}
+}
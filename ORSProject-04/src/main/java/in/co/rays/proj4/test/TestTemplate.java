@@ -0,0 +1,161 @@
+package in.co.rays.proj4.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import in.co.rays.proj4.bean.DropdownItem;
+import in.co.rays.proj4.bean.DropdownListBean;
+import in.co.rays.proj4.model.DropdownCache;
+import in.co.rays.proj4.util.EmailBuilder;
+import in.co.rays.proj4.util.HTMLUtility;
+import in.co.rays.proj4.util.Template;
+import in.co.rays.proj4.util.Versioned;
+
+/**
+ * Test of {@link Template} and of the cached dropdowns of
+ * {@link HTMLUtility}.
+ * <p>
+ * testCompile() checks placeholders and bad templates, testEscape() the
+ * escaped values of HTML templates, testEmail() that a mail of
+ * {@link EmailBuilder} is unchanged and escapes the names in it, testDropdown() that a
+ * {@link Versioned} list renders the same as a plain one and is cached
+ * until its version changes, and testDropdownCache() the same for a list of
+ * {@link DropdownCache}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestTemplate {
+
+	public static void main(String[] args) throws Exception {
+
+		testCompile();
+		testEscape();
+		testEmail();
+		testDropdown();
+		testDropdownCache();
+	}
+
+	public static void testCompile() {
+
+		HashMap<String, String> map = new HashMap<String, String>();
+		map.put("a", "1");
+		map.put("b", "2");
+
+		check("x1y2z1", Template.compile("x{{a}}y{{ b }}z{{a}}").render(map));
+		check("1null", Template.compile("{{a}}{{missing}}").render(map));
+		check("plain", Template.compile("plain").render(map));
+
+		for (String bad : new String[] { "x{{a", "x{{ }}y" }) {
+			try {
+				Template.compile(bad);
+				throw new AssertionError("Compiled bad template " + bad);
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	public static void testEscape() {
+
+		HashMap<String, String> map = new HashMap<String, String>();
+		map.put("name", "<b>Tom & \"Jerry\"</b>'s");
+		map.put("rows", "<tr></tr>");
+
+		check("<p>&lt;b&gt;Tom &amp; &quot;Jerry&quot;&lt;/b&gt;&#39;s</p><tr></tr>",
+				Template.compileHtml("<p>{{name}}</p>{{& rows}}").render(map));
+		check("<b>Tom & \"Jerry\"</b>'s<tr></tr>", Template.compile("{{name}}{{rows}}").render(map));
+
+		String plain = "Ram Sharma";
+		if (Template.escapeHtml(plain) != plain) {
+			throw new AssertionError("Text without special characters was copied");
+		}
+	}
+
+	public static void testEmail() {
+
+		HashMap<String, String> map = new HashMap<String, String>();
+		map.put("firstName", "Ram");
+		map.put("lastName", "Sharma");
+		map.put("login", "ram@test.com");
+		map.put("password", "Pass@123");
+
+		check("<html><body style='font-family:Arial;'><h2 style='color:#27AE60;'>Password Changed Successfully</h2>"
+				+ "<p>Dear <b>Ram Sharma</b>,</p><p>Your password has been updated successfully.</p>"
+				+ "<p><b>Login Id:</b> ram@test.com</p><p><b>New Password:</b> Pass@123</p><hr>"
+				+ "<p>If this change was not done by you, immediately contact ORS support.</p>"
+				+ "<br><p><b>ORS Team</b></p></body></html>", EmailBuilder.getChangePasswordMessage(map));
+
+		map.put("firstName", "<script>x</script>");
+		map.put("lastName", "O'Neil");
+		map.put("rollNo", "AB123");
+		if (!EmailBuilder.getResultMessage(map).contains("<b>&lt;script&gt;x&lt;/script&gt; O&#39;Neil</b>")) {
+			throw new AssertionError("Name not escaped : " + EmailBuilder.getResultMessage(map));
+		}
+	}
+
+	public static void testDropdown() {
+
+		TestList list = new TestList(3);
+		List<DropdownListBean> plain = new ArrayList<DropdownListBean>(list);
+
+		for (String selected : new String[] { null, "1", "2", "9" }) {
+			check(HTMLUtility.getList("courseId", selected, plain), HTMLUtility.getList("courseId", selected, list));
+		}
+
+		if (HTMLUtility.getList("courseId", "2", list) != HTMLUtility.getList("courseId", "2", list)) {
+			throw new AssertionError("Dropdown was rendered again");
+		}
+
+		list.add(new DropdownItem("4", "Option 4"));
+		list.version++;
+		if (!HTMLUtility.getList("courseId", "2", list).contains("Option 4")) {
+			throw new AssertionError("Changed list still rendered from the cache");
+		}
+	}
+
+	public static void testDropdownCache() throws Exception {
+
+		List<DropdownListBean> lazy = DropdownCache.list(DropdownCache.ROLE);
+		List<DropdownListBean> roles = DropdownCache.get(DropdownCache.ROLE);
+		String selected = roles.isEmpty() ? null : roles.get(0).getKey();
+
+		check(HTMLUtility.getList("roleId", selected, new ArrayList<DropdownListBean>(roles)),
+				HTMLUtility.getList("roleId", selected, lazy));
+	}
+
+	private static void check(String expected, String actual) {
+		if (!expected.equals(actual)) {
+			throw new AssertionError("Expected\n" + expected + "\ngot\n" + actual);
+		}
+	}
+
+	/**
+	 * Options list with a version set by the test.
+	 */
+	private static final class TestList extends ArrayList<DropdownListBean> implements Versioned {
+
+		private static final long serialVersionUID = 1L;
+
+		private long version = 1;
+
+		private TestList(int size) {
+			for (int i = 1; i <= size; i++) {
+				add(new DropdownItem(String.valueOf(i), "Option " + i));
+			}
+			Collections.reverse(this);
+		}
+
+		@Override
+		public String getSource() {
+			return "test";
+		}
+
+		@Override
+		public long getVersion() {
+			return version;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import in.co.rays.proj4.bean.BaseBean;
+import in.co.rays.proj4.bean.CourseBean;
+import in.co.rays.proj4.bean.SubjectBean;
+import in.co.rays.proj4.bean.TimetableBean;
+import in.co.rays.proj4.model.CourseModel;
+import in.co.rays.proj4.model.SubjectModel;
+import in.co.rays.proj4.model.TimetableConflict;
+import in.co.rays.proj4.model.TimetableConflict.Rule;
+import in.co.rays.proj4.model.TimetableModel;
+import in.co.rays.proj4.util.UnitOfWork;
+
+/**
+ * Test of {@link TimetableModel#findConflicts(TimetableBean)} and its batch
+ * form.
+ * <p>
+ * All records are added in a unit of work that is rolled back at the end.
+ * testRules() checks that every broken rule is returned, testUpdate() that
+ * an exam does not conflict with itself, and testBatch() that exams of a
+ * batch are checked against each other. testSpeed() times {@link #CHECKS}
+ * checks against the three single-rule queries.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class TestTimetableConflicts {
+
+	private static final int CHECKS = 1000;
+
+	private static final String MORNING = "08:00 AM to 11:00 AM";
+	private static final String NOON = "12:00 PM to 03:00 PM";
+
+	private static final TimetableModel model = new TimetableModel();
+
+	private static long courseId;
+	private static long subjectId;
+	private static long otherSubjectId;
+	private static Date day;
+
+	public static void main(String[] args) throws Exception {
+
+		UnitOfWork uow = UnitOfWork.begin();
+		try {
+			setUp();
+
+			TimetableBean exam = exam(subjectId, "1", day, MORNING);
+			exam.setId(model.add(exam));
+
+			testRules();
+			testUpdate(exam);
+			testBatch();
+			testSpeed();
+		} finally {
+			uow.end();
+		}
+	}
+
+	public static void testRules() throws Exception {
+
+		expect(model.findConflicts(exam(subjectId, "1", day, MORNING)), Rule.COURSE_DAY, Rule.SUBJECT_DAY,
+				Rule.SEMESTER_DAY, Rule.TIME_SLOT);
+		expect(model.findConflicts(exam(subjectId, "2", day, NOON)), Rule.COURSE_DAY, Rule.SUBJECT_DAY);
+		expect(model.findConflicts(exam(otherSubjectId, "1", day, NOON)), Rule.COURSE_DAY);
+		expect(model.findConflicts(exam(otherSubjectId, "1", day, "10:00 AM to 01:00 PM")), Rule.COURSE_DAY,
+				Rule.TIME_SLOT);
+		expect(model.findConflicts(exam(subjectId, "1", next(day), MORNING)));
+	}
+
+	public static void testUpdate(TimetableBean exam) throws Exception {
+
+		TimetableBean bean = exam(subjectId, "1", day, NOON);
+		bean.setId(exam.getId());
+		expect(model.findConflicts(bean));
+	}
+
+	public static void testBatch() throws Exception {
+
+		List<List<TimetableConflict>> conflicts = model.findConflicts(Arrays.asList(
+				exam(otherSubjectId, "1", next(day), MORNING),
+				exam(subjectId, "1", next(day), MORNING),
+				exam(subjectId, "1", day, MORNING)));
+
+		expect(conflicts.get(0));
+		expect(conflicts.get(1), Rule.COURSE_DAY, Rule.TIME_SLOT);
+		expect(conflicts.get(2), Rule.COURSE_DAY, Rule.SUBJECT_DAY, Rule.SEMESTER_DAY, Rule.TIME_SLOT);
+	}
+
+	public static void testSpeed() throws Exception {
+
+		TimetableBean bean = exam(otherSubjectId, "1", day, NOON);
+
+		long begin = System.nanoTime();
+		for (int i = 0; i < CHECKS; i++) {
+			model.checkByCourseName(bean.getCourseId(), bean.getExamDate());
+			model.checkBySubjectName(bean.getCourseId(), bean.getSubjectId(), bean.getExamDate());
+			model.checkBySemester(bean.getCourseId(), bean.getSubjectId(), bean.getSemester(), bean.getExamDate());
+		}
+		System.out.println("checkBy*() x " + CHECKS + " : " + (System.nanoTime() - begin) / 1000000 + " ms");
+
+		begin = System.nanoTime();
+		for (int i = 0; i < CHECKS; i++) {
+			model.findConflicts(bean);
+		}
+		System.out.println("findConflicts() x " + CHECKS + " : " + (System.nanoTime() - begin) / 1000000 + " ms");
+
+		List<TimetableBean> batch = new ArrayList<TimetableBean>();
+		for (int i = 0; i < CHECKS; i++) {
+			batch.add(exam(i % 2 == 0 ? subjectId : otherSubjectId, "1", day, NOON));
+		}
+
+		begin = System.nanoTime();
+		model.findConflicts(batch);
+		System.out.println("findConflicts(batch of " + CHECKS + ") : " + (System.nanoTime() - begin) / 1000000
+				+ " ms");
+	}
+
+	private static void expect(List<TimetableConflict> conflicts, Rule... rules) {
+
+		Set<Rule> found = EnumSet.noneOf(Rule.class);
+		for (TimetableConflict conflict : conflicts) {
+			found.add(conflict.getRule());
+		}
+
+		Set<Rule> expected = EnumSet.noneOf(Rule.class);
+		expected.addAll(Arrays.asList(rules));
+
+		if (!found.equals(expected)) {
+			throw new AssertionError("Expected " + expected + ", got " + conflicts);
+		}
+	}
+
+	private static void setUp() throws Exception {
+
+		CourseBean course = new CourseBean();
+		course.setName("Conflict Course " + System.nanoTime());
+		course.setDuration("3 Year");
+		course.setDescription("Test");
+		audit(course);
+		courseId = new CourseModel().add(course);
+
+		subjectId = addSubject(course);
+		otherSubjectId = addSubject(course);
+
+		Calendar cal = Calendar.getInstance();
+		cal.add(Calendar.YEAR, 1);
+		day = cal.getTime();
+	}
+
+	private static long addSubject(CourseBean course) throws Exception {
+
+		SubjectBean subject = new SubjectBean();
+		subject.setName("Conflict Subject " + System.nanoTime());
+		subject.setCourseId(courseId);
+		subject.setCourseName(course.getName());
+		subject.setDescription("Test");
+		audit(subject);
+		return new SubjectModel().add(subject);
+	}
+
+	private static TimetableBean exam(long subjectId, String semester, Date examDate, String examTime) {
+
+		TimetableBean bean = new TimetableBean();
+		bean.setCourseId(courseId);
+		bean.setSubjectId(subjectId);
+		bean.setSemester(semester);
+		bean.setExamDate(examDate);
+		bean.setExamTime(examTime);
+		bean.setDescription("Test");
+		audit(bean);
+		return bean;
+	}
+
+	private static void audit(BaseBean bean) {
+		bean.setCreatedBy("test");
+		bean.setModifiedBy("test");
+		bean.setCreatedDatetime(new Timestamp(new Date().getTime()));
+		bean.setModifiedDatetime(new Timestamp(new Date().getTime()));
+	}
+
+	private static Date next(Date date) {
+		return new Date(date.getTime() + 24L * 60 * 60 * 1000);
+	}
+}
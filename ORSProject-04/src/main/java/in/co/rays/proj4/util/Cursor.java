@@ -0,0 +1,138 @@
+package in.co.rays.proj4.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor is the position of a keyset (seek) page: the sort key and id of the
+ * row the page starts after, or ends before.
+ * <p>
+ * A keyset page is fetched with
+ * <code>where (key, id) &gt; (?, ?) order by key, id</code>
+ * instead of <code>limit offset, size</code>, so the database seeks straight
+ * to the position through the <code>(key, id)</code> index and page 10,000
+ * costs the same as page 1.
+ * <p>
+ * Cursors travel between requests as opaque tokens, see {@link #encode()}
+ * and {@link #after(String)}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class Cursor {
+
+	private static final Cursor FIRST = new Cursor(null, 0, true);
+
+	private final String key;
+	private final long id;
+	private final boolean forward;
+
+	private Cursor(String key, long id, boolean forward) {
+		this.key = key;
+		this.id = id;
+		this.forward = forward;
+	}
+
+	/**
+	 * Returns the cursor of the first page.
+	 *
+	 * @return first page cursor
+	 */
+	public static Cursor first() {
+		return FIRST;
+	}
+
+	/**
+	 * Returns a cursor for the rows after the given position.
+	 *
+	 * @param key sort key of the last row seen
+	 * @param id  id of the last row seen
+	 * @return forward cursor
+	 */
+	public static Cursor after(String key, long id) {
+		return new Cursor(key, id, true);
+	}
+
+	/**
+	 * Returns a cursor for the rows before the given position.
+	 *
+	 * @param key sort key of the first row seen
+	 * @param id  id of the first row seen
+	 * @return backward cursor
+	 */
+	public static Cursor before(String key, long id) {
+		return new Cursor(key, id, false);
+	}
+
+	/**
+	 * Decodes a token into a cursor for the rows after it. A null or
+	 * malformed token yields the first page.
+	 *
+	 * @param token token from {@link #encode()}
+	 * @return forward cursor
+	 */
+	public static Cursor after(String token) {
+		return decode(token, true);
+	}
+
+	/**
+	 * Decodes a token into a cursor for the rows before it. A null or
+	 * malformed token yields the first page.
+	 *
+	 * @param token token from {@link #encode()}
+	 * @return backward cursor
+	 */
+	public static Cursor before(String token) {
+		return decode(token, false);
+	}
+
+	private static Cursor decode(String token, boolean forward) {
+		if (DataValidator.isNull(token)) {
+			return FIRST;
+		}
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int sep = value.indexOf(':');
+			if (sep < 0) {
+				return FIRST;
+			}
+			return new Cursor(value.substring(sep + 1), Long.parseLong(value.substring(0, sep)), forward);
+		} catch (IllegalArgumentException e) {
+			return FIRST;
+		}
+	}
+
+	/**
+	 * Encodes the position of this cursor into an opaque, URL safe token.
+	 *
+	 * @return token, or empty string for the first page
+	 */
+	public String encode() {
+		if (key == null) {
+			return "";
+		}
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((id + ":" + key).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Returns true if this cursor points at a row, false for the first page.
+	 *
+	 * @return true if a position is set
+	 */
+	public boolean hasKey() {
+		return key != null;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public boolean isForward() {
+		return forward;
+	}
+}
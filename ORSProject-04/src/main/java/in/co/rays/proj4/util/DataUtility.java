@@ -1,12 +1,30 @@
 package in.co.rays.proj4.util;
 
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
 import java.util.Date;
 
+import org.apache.log4j.Logger;
+
 /**
  * DataUtility class provides helper methods for converting
  * Strings, Dates, Timestamps and validating input data.
+ * <p>
+ * Dates are parsed and formatted with <code>java.time</code>, so all
+ * methods can be called by any number of request threads at once. A date
+ * in the {@link #APP_DATE_FORMAT} as sent by the date picker is read
+ * without a formatter, other dates such as single digit days go through a
+ * <code>DateTimeFormatter</code>. Parsing is strict: 31-02-2024 is not a
+ * date.
+ * <p>
+ * Models convert with {@link #getSqlDate(Date)} and
+ * {@link #getLocalDate(Date)}, which also accept the
+ * <code>java.sql.Date</code> that the beans hold after a select.
  * 
  * @author Deepak Verma
  * @version 1.0
@@ -16,8 +34,22 @@ public class DataUtility {
 	public static final String APP_DATE_FORMAT = "dd-MM-yyyy";
 	public static final String APP_TIME_FORMAT = "dd-MM-yyyy HH:mm:ss";
 
-	private static final SimpleDateFormat formatter = new SimpleDateFormat(APP_DATE_FORMAT);
-	private static final SimpleDateFormat timeFormatter = new SimpleDateFormat(APP_TIME_FORMAT);
+	/** Formats and parses {@link #APP_DATE_FORMAT} */
+	public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-uuuu")
+			.withResolverStyle(ResolverStyle.STRICT);
+
+	/** Formats and parses {@link #APP_TIME_FORMAT} */
+	public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-uuuu HH:mm:ss")
+			.withResolverStyle(ResolverStyle.STRICT);
+
+	/** Also reads 1 digit days and months */
+	private static final DateTimeFormatter DATE_PARSER = DateTimeFormatter.ofPattern("d-M-uuuu")
+			.withResolverStyle(ResolverStyle.STRICT);
+
+	/** Zone of dates without a time, fixed at startup as the formatters it replaced were */
+	private static final ZoneId zone = ZoneId.systemDefault();
+
+	private static Logger log = Logger.getLogger(DataUtility.class);
 
 	/**
 	 * Trims string if not null
@@ -70,45 +102,154 @@ public class DataUtility {
 	}
 
 	/**
-	 * Convert string into Date
+	 * Convert string array into long array safely
+	 */
+	public static long[] getLongs(String[] vals) {
+		if (vals == null) {
+			return new long[0];
+		}
+		long[] longs = new long[vals.length];
+		for (int i = 0; i < vals.length; i++) {
+			longs[i] = getLong(vals[i]);
+		}
+		return longs;
+	}
+
+	/**
+	 * Convert string into Date, a java.sql.Date of that day
 	 */
 	public static Date getDate(String val) {
+		LocalDate date = getLocalDate(val);
+		return date != null ? java.sql.Date.valueOf(date) : null;
+	}
+
+	/**
+	 * Convert string in {@link #APP_DATE_FORMAT} into LocalDate, null if it
+	 * is empty or not a date
+	 */
+	public static LocalDate getLocalDate(String val) {
+
+		if (DataValidator.isNull(val)) {
+			return null;
+		}
+
+		String s = val.trim();
+
 		try {
-			if (DataValidator.isNotNull(val)) {
-				return formatter.parse(val);
+			if (s.length() == 10 && s.charAt(2) == '-' && s.charAt(5) == '-') {
+				int day = digits(s, 0, 2);
+				int month = digits(s, 3, 5);
+				int year = digits(s, 6, 10);
+				if (day >= 0 && month >= 0 && year >= 0) {
+					return LocalDate.of(year, month, day);
+				}
 			}
-		} catch (Exception e) {
-			System.out.println("Date parsing error: " + e.getMessage());
+			return LocalDate.parse(s, DATE_PARSER);
+		} catch (DateTimeException e) {
+			log.debug("Not a date : " + val);
+			return null;
+		}
+	}
+
+	/**
+	 * Convert Date to LocalDate, in the server's zone
+	 */
+	public static LocalDate getLocalDate(Date date) {
+		if (date == null) {
+			return null;
+		}
+		if (date instanceof java.sql.Date) {
+			return ((java.sql.Date) date).toLocalDate();
 		}
-		return null;
+		return date.toInstant().atZone(zone).toLocalDate();
+	}
+
+	/**
+	 * Convert Date to the java.sql.Date of the same day, for
+	 * <code>PreparedStatement.setDate()</code>
+	 */
+	public static java.sql.Date getSqlDate(Date date) {
+		if (date == null || date instanceof java.sql.Date) {
+			return (java.sql.Date) date;
+		}
+		return java.sql.Date.valueOf(getLocalDate(date));
 	}
 
 	/**
 	 * Convert Date to String
 	 */
 	public static String getDateString(Date date) {
-		try {
-			if (date != null) {
-				return formatter.format(date);
-			}
-		} catch (Exception e) {
-			System.out.println("Date format error: " + e.getMessage());
+		return date != null ? getDateString(getLocalDate(date)) : "";
+	}
+
+	/**
+	 * Convert LocalDate to String in {@link #APP_DATE_FORMAT}
+	 */
+	public static String getDateString(LocalDate date) {
+
+		if (date == null) {
+			return "";
+		}
+
+		int year = date.getYear();
+		if (year < 1000 || year > 9999) {
+			return DATE_FORMATTER.format(date);
 		}
-		return "";
+
+		char[] chars = new char[10];
+		pad(chars, 0, date.getDayOfMonth(), 2);
+		chars[2] = '-';
+		pad(chars, 3, date.getMonthValue(), 2);
+		chars[5] = '-';
+		pad(chars, 6, year, 4);
+		return new String(chars);
 	}
 
 	/**
 	 * Convert String to Timestamp
 	 */
 	public static Timestamp getTimestamp(String val) {
+		if (DataValidator.isNull(val)) {
+			return null;
+		}
 		try {
-			if (DataValidator.isNotNull(val)) {
-				return new Timestamp(timeFormatter.parse(val).getTime());
+			return Timestamp.valueOf(LocalDateTime.parse(val.trim(), TIME_FORMATTER));
+		} catch (DateTimeException e) {
+			log.debug("Not a timestamp : " + val);
+			return null;
+		}
+	}
+
+	/**
+	 * Convert Timestamp to String in {@link #APP_TIME_FORMAT}
+	 */
+	public static String getTimestampString(Timestamp tm) {
+		return tm != null ? TIME_FORMATTER.format(tm.toLocalDateTime()) : "";
+	}
+
+	/**
+	 * Returns the number in chars from..to, -1 if one is not a digit
+	 */
+	private static int digits(String s, int from, int to) {
+		int n = 0;
+		for (int i = from; i < to; i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
 			}
-		} catch (Exception e) {
-			System.out.println("Timestamp parsing error: " + e.getMessage());
+			n = n * 10 + (c - '0');
+		}
+		return n;
+	}
+
+	/**
+	 * Writes a number zero padded to the given width
+	 */
+	private static void pad(char[] chars, int at, int n, int width) {
+		for (int i = at + width - 1; i >= at; i--) {
+			chars[i] = (char) ('0' + n % 10);
+			n /= 10;
 		}
-		return null;
 	}
 
 	/**
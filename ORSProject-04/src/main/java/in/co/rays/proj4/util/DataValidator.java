@@ -1,7 +1,7 @@
 package in.co.rays.proj4.util;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.time.DayOfWeek;
+import java.util.regex.Pattern;
 
 /**
  * Utility class for validating common data types such as String, number,
@@ -10,12 +10,31 @@ import java.util.Date;
  * This class provides static helper methods that can be reused across the
  * project for server-side validation.
  * </p>
+ * <p>
+ * The patterns are compiled once, and numbers are checked digit by digit
+ * instead of catching the exception of a failed parse.
+ * </p>
  *
  * @author Deepak Verma
  * @version 1.0
  */
 public class DataValidator {
 
+    private static final Pattern EMAIL = Pattern
+            .compile("^[_A-Za-z0-9-]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$");
+
+    private static final Pattern NAME = Pattern.compile("^[^-\\s][\\p{L} .'-]+$");
+
+    private static final Pattern ROLL_NO = Pattern.compile("[a-zA-Z]{2}[0-9]{3}");
+
+    private static final Pattern PASSWORD = Pattern
+            .compile("(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=])(?=\\S+$).{8,12}");
+
+    private static final Pattern PHONE_NO = Pattern.compile("^[6-9][0-9]{9}$");
+
+    /** Decimal number with optional fraction and exponent */
+    private static final Pattern DOUBLE = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+
     /**
      * Checks if the given String is null or empty after trimming.
      *
@@ -23,11 +42,15 @@ public class DataValidator {
      * @return {@code true} if the value is null or empty, otherwise {@code false}
      */
     public static boolean isNull(String val) {
-        if (val == null || val.trim().length() == 0) {
-            return true;
-        } else {
-            return false;
+        if (val != null) {
+            for (int i = 0; i < val.length(); i++) {
+                // trim() removes every char up to the space
+                if (val.charAt(i) > ' ') {
+                    return false;
+                }
+            }
         }
+        return true;
     }
 
     /**
@@ -42,23 +65,14 @@ public class DataValidator {
         return !isNull(val);
     }
     /**
-     * Checks whether a String is a valid Double number
+     * Checks whether a String is a valid Double number, a decimal number
+     * such as -12.5 or 1.5e3
      * 
      * @param val input String
      * @return true if valid double, false otherwise
      */
     public static boolean isDouble(String val) {
-
-    	if (val == null || val.trim().length() == 0) {
-    		return false;
-    	}
-
-    	try {
-    		Double.parseDouble(val.trim());
-    		return true;
-    	} catch (NumberFormatException e) {
-    		return false;
-    	}
+        return isNotNull(val) && DOUBLE.matcher(val.trim()).matches();
     }
 
 
@@ -70,17 +84,7 @@ public class DataValidator {
      *         otherwise {@code false}
      */
     public static boolean isInteger(String val) {
-
-        if (isNotNull(val)) {
-            try {
-                Integer.parseInt(val);
-                return true;
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isNumber(val, Integer.MIN_VALUE, Integer.MAX_VALUE);
     }
 
     /**
@@ -91,16 +95,46 @@ public class DataValidator {
      *         otherwise {@code false}
      */
     public static boolean isLong(String val) {
-        if (isNotNull(val)) {
-            try {
-                Long.parseLong(val);
-                return true;
-            } catch (NumberFormatException e) {
+        return isNumber(val, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Checks that a String is an optional sign and ASCII digits with a value
+     * from min to max, as accepted by {@link Long#parseLong(String)}.
+     */
+    private static boolean isNumber(String val, long min, long max) {
+
+        if (val == null || val.isEmpty()) {
+            return false;
+        }
+
+        int i = 0;
+        boolean negative = false;
+        char first = val.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (val.length() == 1) {
                 return false;
             }
-        } else {
-            return false;
+            i = 1;
+        }
+
+        // accumulate negatively so that Long.MIN_VALUE fits
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < val.length(); i++) {
+            int digit = val.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multmin) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
         }
+        return true;
     }
 
     /**
@@ -111,19 +145,7 @@ public class DataValidator {
      *         otherwise {@code false}
      */
     public static boolean isEmail(String val) {
-
-        String emailreg = "^[_A-Za-z0-9-]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(emailreg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-
-        } else {
-            return false;
-        }
+        return isNotNull(val) && EMAIL.matcher(val).matches();
     }
 
     /**
@@ -138,18 +160,7 @@ public class DataValidator {
      *         otherwise {@code false}
      */
     public static boolean isName(String val) {
-
-        String namereg = "^[^-\\s][\\p{L} .'-]+$";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(namereg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isNotNull(val) && NAME.matcher(val).matches();
     }
 
     /**
@@ -163,18 +174,7 @@ public class DataValidator {
      *         otherwise {@code false}
      */
     public static boolean isRollNo(String val) {
-
-        String rollreg = "[a-zA-Z]{2}[0-9]{3}";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(rollreg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isNotNull(val) && ROLL_NO.matcher(val).matches();
     }
 
     /**
@@ -196,19 +196,7 @@ public class DataValidator {
      *         otherwise {@code false}
      */
     public static boolean isPassword(String val) {
-
-        String passreg = "(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=])(?=\\S+$).{8,12}";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(passreg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-
-        } else {
-            return false;
-        }
+        return isNotNull(val) && PASSWORD.matcher(val).matches();
     }
 
     /**
@@ -241,19 +229,7 @@ public class DataValidator {
      *         otherwise {@code false}
      */
     public static boolean isPhoneNo(String val) {
-
-        String phonereg = "^[6-9][0-9]{9}$";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(phonereg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-
-        } else {
-            return false;
-        }
+        return isNotNull(val) && PHONE_NO.matcher(val).matches();
     }
 
     /**
@@ -275,9 +251,9 @@ public class DataValidator {
     }
 
     /**
-     * Validates if the given String can be parsed into a valid {@link Date}.
+     * Validates if the given String can be parsed into a valid date.
      * <p>
-     * The actual parsing format depends on {@link DataUtility#getDate(String)}.
+     * The actual parsing format depends on {@link DataUtility#getLocalDate(String)}.
      * </p>
      *
      * @param val the date String to validate
@@ -285,35 +261,21 @@ public class DataValidator {
      *         otherwise {@code false}
      */
     public static boolean isDate(String val) {
-
-        Date d = null;
-        if (isNotNull(val)) {
-            d = DataUtility.getDate(val);
-        }
-        return d != null;
+        return DataUtility.getLocalDate(val) != null;
     }
 
     /**
      * Checks whether the given date falls on a Sunday.
      * <p>
-     * The String is converted to a {@link Date} using
-     * {@link DataUtility#getDate(String)}, then the day of week is checked.
+     * The String is converted to a date using
+     * {@link DataUtility#getLocalDate(String)}, then the day of week is checked.
      * </p>
      *
      * @param val the date String to check
      * @return {@code true} if the date is Sunday, otherwise {@code false}
      */
     public static boolean isSunday(String val) {
-
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(DataUtility.getDate(val));
-        int i = cal.get(Calendar.DAY_OF_WEEK);
-
-        if (i == Calendar.SUNDAY) {
-            return true;
-        } else {
-            return false;
-        }
+        return DataUtility.getLocalDate(val).getDayOfWeek() == DayOfWeek.SUNDAY;
     }
 
     /**
@@ -377,7 +339,7 @@ public class DataValidator {
 
         // Test isDate
         System.out.println("\nisDate Test:");
-        System.out.println("Valid Date: '2025-01-01' -> " + isDate("2025-01-01"));
+        System.out.println("Valid Date: '01-01-2025' -> " + isDate("01-01-2025"));
         System.out.println("Invalid Date: '10/15/2024' -> " + isDate("10/15/2024"));
 
         // Test isSunday
@@ -1,6 +1,10 @@
 package in.co.rays.proj4.util;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import in.co.rays.proj4.bean.TimetableBean;
 
 /**
  * EmailBuilder class is used to build different types
@@ -11,13 +15,87 @@ import java.util.HashMap;
  *   <li>User Registration mail</li>
  *   <li>Forgot Password mail</li>
  *   <li>Change Password mail</li>
+ *   <li>Timetable and result announcement mail</li>
  * </ul>
  * 
+ * Each message is an HTML {@link Template} compiled once when the class is
+ * loaded, so building a mail only fills in its values. The values are
+ * HTML-escaped, except the exam rows, which are built here already
+ * escaped.
+ * 
  * @author Deepak Verma
  * @version 1.0
  */
 public class EmailBuilder {
 
+    private static final Template REGISTRATION = Template.compileHtml(
+            "<html><body style='font-family:Arial;'>"
+            + "<h2 style='color:#2E86C1;'>Welcome to ORS</h2>"
+            + "<p>Dear <b>{{login}}</b>,</p>"
+            + "<p>Your registration is successfully completed.</p>"
+            + "<p><b>Login Id:</b> {{login}}</p>"
+            + "<p><b>Password:</b> {{password}}</p>"
+            + "<p style='color:red;'>For security reasons, please change your password after login.</p>"
+            + "<hr>"
+            + "<p>For support contact:</p>"
+            // Using HTML entities instead of raw emoji to avoid encoding issues
+            + "<p>&#x260E; +91 98273 60504</p>"
+            + "<p>&#x2709; hrd@sunrays.co.in</p>"
+            + "<br><p><b>Thanks &amp; Regards</b><br>ORS Team</p>"
+            + "</body></html>");
+
+    private static final Template FORGET_PASSWORD = Template.compileHtml(
+            "<html><body style='font-family:Arial;'>"
+            + "<h2 style='color:#E67E22;'>Password Recovery</h2>"
+            + "<p>Hello <b>{{firstName}} {{lastName}}</b>,</p>"
+            + "<p>Your login credentials are:</p>"
+            + "<p><b>Login Id:</b> {{login}}</p>"
+            + "<p><b>Password:</b> {{password}}</p>"
+            + "<hr>"
+            + "<p>If you did not request this, please ignore this email.</p>"
+            + "<br><p><b>ORS Support Team</b></p>"
+            + "</body></html>");
+
+    private static final Template CHANGE_PASSWORD = Template.compileHtml(
+            "<html><body style='font-family:Arial;'>"
+            + "<h2 style='color:#27AE60;'>Password Changed Successfully</h2>"
+            + "<p>Dear <b>{{firstName}} {{lastName}}</b>,</p>"
+            + "<p>Your password has been updated successfully.</p>"
+            + "<p><b>Login Id:</b> {{login}}</p>"
+            + "<p><b>New Password:</b> {{password}}</p>"
+            + "<hr>"
+            + "<p>If this change was not done by you, immediately contact ORS support.</p>"
+            + "<br><p><b>ORS Team</b></p>"
+            + "</body></html>");
+
+    private static final Template EXAM_ROW = Template.compileHtml(
+            "<tr><td>{{date}}</td><td>{{time}}</td><td>{{subject}}</td><td>{{semester}}</td></tr>");
+
+    private static final Template TIMETABLE = Template.compileHtml(
+            "<html><body style='font-family:Arial;'>"
+            + "<h2 style='color:#2E86C1;'>Examination Timetable Released</h2>"
+            + "<p>Dear <b>{{firstName}} {{lastName}}</b>,</p>"
+            + "<p>The examination timetable of <b>{{course}}</b> has been published.</p>"
+            + "<table border='1' cellpadding='5' style='border-collapse:collapse;'>"
+            + "<tr><th>Date</th><th>Time</th><th>Subject</th><th>Semester</th></tr>"
+            + "{{&exams}}"
+            + "</table>"
+            + "<br><p><b>ORS Team</b></p>"
+            + "</body></html>");
+
+    private static final Template RESULT = Template.compileHtml(
+            "<html><body style='font-family:Arial;'>"
+            + "<h2 style='color:#27AE60;'>Result Declared</h2>"
+            + "<p>Dear <b>{{firstName}} {{lastName}}</b>,</p>"
+            + "<p>Your result has been published.</p>"
+            + "<p><b>Roll No:</b> {{rollNo}}</p>"
+            + "<p><b>Physics:</b> {{physics}}</p>"
+            + "<p><b>Chemistry:</b> {{chemistry}}</p>"
+            + "<p><b>Maths:</b> {{maths}}</p>"
+            + "<p><b>Total:</b> {{total}} ({{result}})</p>"
+            + "<br><p><b>ORS Team</b></p>"
+            + "</body></html>");
+
     /**
      * Builds registration success email HTML.
      * 
@@ -25,30 +103,7 @@ public class EmailBuilder {
      * @return formatted HTML email
      */
     public static String getUserRegistrationMessage(HashMap<String, String> map) {
-
-        StringBuilder msg = new StringBuilder();
-
-        msg.append("<html><body style='font-family:Arial;'>");
-        msg.append("<h2 style='color:#2E86C1;'>Welcome to ORS</h2>");
-        msg.append("<p>Dear <b>").append(map.get("login")).append("</b>,</p>");
-
-        msg.append("<p>Your registration is successfully completed.</p>");
-
-        msg.append("<p><b>Login Id:</b> ").append(map.get("login")).append("</p>");
-        msg.append("<p><b>Password:</b> ").append(map.get("password")).append("</p>");
-
-        msg.append("<p style='color:red;'>For security reasons, please change your password after login.</p>");
-
-        msg.append("<hr>");
-        msg.append("<p>For support contact:</p>");
-        // Using HTML entities instead of raw emoji to avoid encoding issues
-        msg.append("<p>&#x260E; +91 98273 60504</p>");   // telephone symbol
-        msg.append("<p>&#x2709; hrd@sunrays.co.in</p>"); // envelope symbol
-
-        msg.append("<br><p><b>Thanks &amp; Regards</b><br>ORS Team</p>");
-        msg.append("</body></html>");
-
-        return msg.toString();
+        return REGISTRATION.render(map);
     }
 
     /**
@@ -58,28 +113,7 @@ public class EmailBuilder {
      * @return formatted HTML email
      */
     public static String getForgetPasswordMessage(HashMap<String, String> map) {
-
-        StringBuilder msg = new StringBuilder();
-
-        msg.append("<html><body style='font-family:Arial;'>");
-        msg.append("<h2 style='color:#E67E22;'>Password Recovery</h2>");
-
-        msg.append("<p>Hello <b>")
-           .append(map.get("firstName")).append(" ")
-           .append(map.get("lastName")).append("</b>,</p>");
-
-        msg.append("<p>Your login credentials are:</p>");
-
-        msg.append("<p><b>Login Id:</b> ").append(map.get("login")).append("</p>");
-        msg.append("<p><b>Password:</b> ").append(map.get("password")).append("</p>");
-
-        msg.append("<hr>");
-        msg.append("<p>If you did not request this, please ignore this email.</p>");
-
-        msg.append("<br><p><b>ORS Support Team</b></p>");
-        msg.append("</body></html>");
-
-        return msg.toString();
+        return FORGET_PASSWORD.render(map);
     }
 
     /**
@@ -89,27 +123,51 @@ public class EmailBuilder {
      * @return formatted HTML email
      */
     public static String getChangePasswordMessage(HashMap<String, String> map) {
+        return CHANGE_PASSWORD.render(map);
+    }
 
-        StringBuilder msg = new StringBuilder();
-
-        msg.append("<html><body style='font-family:Arial;'>");
-        msg.append("<h2 style='color:#27AE60;'>Password Changed Successfully</h2>");
-
-        msg.append("<p>Dear <b>")
-           .append(map.get("firstName")).append(" ")
-           .append(map.get("lastName")).append("</b>,</p>");
+    /**
+     * Builds the table rows of an exam schedule, once for all mails of a
+     * timetable announcement.
+     * 
+     * @param exams exams of the course
+     * @return HTML table rows
+     */
+    public static String getExamRows(List<TimetableBean> exams) {
 
-        msg.append("<p>Your password has been updated successfully.</p>");
+        StringBuilder rows = new StringBuilder();
+        Map<String, Object> row = new HashMap<String, Object>();
 
-        msg.append("<p><b>Login Id:</b> ").append(map.get("login")).append("</p>");
-        msg.append("<p><b>New Password:</b> ").append(map.get("password")).append("</p>");
+        for (TimetableBean exam : exams) {
+            row.put("date", DataUtility.getDateString(exam.getExamDate()));
+            row.put("time", exam.getExamTime());
+            row.put("subject", exam.getSubjectName());
+            row.put("semester", exam.getSemester());
+            EXAM_ROW.render(row, rows);
+        }
 
-        msg.append("<hr>");
-        msg.append("<p>If this change was not done by you, immediately contact ORS support.</p>");
+        return rows.toString();
+    }
 
-        msg.append("<br><p><b>ORS Team</b></p>");
-        msg.append("</body></html>");
+    /**
+     * Builds timetable announcement email HTML.
+     * 
+     * @param map contains firstName, lastName, course and exams, the rows
+     *            built by {@link #getExamRows(List)}
+     * @return formatted HTML email
+     */
+    public static String getTimetableMessage(HashMap<String, String> map) {
+        return TIMETABLE.render(map);
+    }
 
-        return msg.toString();
+    /**
+     * Builds result announcement email HTML.
+     * 
+     * @param map contains firstName, lastName, rollNo, physics, chemistry,
+     *            maths, total and result
+     * @return formatted HTML email
+     */
+    public static String getResultMessage(HashMap<String, String> map) {
+        return RESULT.render(map);
     }
 }
@@ -0,0 +1,366 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.exception.DatabaseException;
+
+/**
+ * EmailOutbox is the persistent queue of outgoing mail in
+ * <code>st_email_outbox</code>.
+ * <p>
+ * {@link #enqueue(EmailMessage)} only inserts a row. Inside a
+ * {@link UnitOfWork} the row is written in the same transaction as the
+ * change the mail is about, so a rolled back registration sends nothing and
+ * a committed one cannot lose its mail. The mail is sent later by
+ * {@link EmailWorker}, which is woken once the row is committed.
+ * <p>
+ * A row moves from <code>PENDING</code> to <code>SENDING</code> when a worker
+ * claims it, then to <code>SENT</code>, back to <code>PENDING</code> with a
+ * later <code>next_attempt</code> to be retried, or to <code>FAILED</code>.
+ * A claim holds the row for {@link #LEASE} milliseconds; a row left in
+ * <code>SENDING</code> by a stopped server is claimed again after that, so
+ * mail is sent at least once.
+ *
+ * Example:
+ * <pre>
+ *   UnitOfWork uow = UnitOfWork.begin();
+ *   try {
+ *       model.add(bean);
+ *       EmailOutbox.enqueue(msg);
+ *       uow.commit();
+ *   } finally {
+ *       uow.end();
+ *   }
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class EmailOutbox {
+
+	private static Logger log = Logger.getLogger(EmailOutbox.class);
+
+	public static final String PENDING = "PENDING";
+	public static final String SENDING = "SENDING";
+	public static final String SENT = "SENT";
+	public static final String FAILED = "FAILED";
+
+	/** Milliseconds a claimed row is held before it can be claimed again */
+	static final long LEASE = 5 * 60 * 1000;
+
+	private static volatile boolean ready = false;
+
+	private EmailOutbox() {
+	}
+
+	/**
+	 * Mail claimed by a worker.
+	 */
+	static final class Mail {
+
+		final long id;
+		final int attempts;
+		final EmailMessage message;
+
+		private Mail(long id, int attempts, EmailMessage message) {
+			this.id = id;
+			this.attempts = attempts;
+			this.message = message;
+		}
+	}
+
+	/**
+	 * Creates the table and its index if they are missing.
+	 */
+	private static void ensure() {
+
+		if (!ready) {
+			synchronized (EmailOutbox.class) {
+				if (!ready) {
+					SchemaUtility.createTable("st_email_outbox", "id bigint not null primary key, "
+							+ "recipient varchar(1000) not null, subject varchar(255), message text, "
+							+ "message_type int not null, status varchar(10) not null, attempts int not null, "
+							+ "next_attempt datetime not null, last_error varchar(255), "
+							+ "created_datetime datetime not null, sent_datetime datetime");
+					SchemaUtility.createIndex("st_email_outbox", "idx_outbox_due", "status, next_attempt");
+					ready = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Queues a mail. Inside a unit of work the mail is queued only if the
+	 * unit of work commits.
+	 *
+	 * @param msg mail to send
+	 * @return id of the outbox row
+	 * @throws ApplicationException if the mail could not be queued
+	 */
+	public static long enqueue(EmailMessage msg) throws ApplicationException {
+
+		if (msg == null) {
+			throw new ApplicationException("Email data is null");
+		}
+
+		ensure();
+
+		long id = 0;
+		try {
+			id = PkGenerator.nextPk("st_email_outbox");
+		} catch (DatabaseException e) {
+			throw new ApplicationException("Exception : Exception in queueing email", e);
+		}
+
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+
+		try {
+			conn = JDBCDataSource.getConnection();
+			conn.setAutoCommit(false);
+			pstmt = conn.prepareStatement("insert into st_email_outbox (id, recipient, subject, message, "
+					+ "message_type, status, attempts, next_attempt, created_datetime) values (?, ?, ?, ?, ?, ?, 0, ?, ?)");
+			pstmt.setLong(1, id);
+			pstmt.setString(2, msg.getTo());
+			pstmt.setString(3, msg.getSubject());
+			pstmt.setString(4, msg.getMessage());
+			pstmt.setInt(5, msg.getMessageType());
+			pstmt.setString(6, PENDING);
+			pstmt.setTimestamp(7, now);
+			pstmt.setTimestamp(8, now);
+			pstmt.executeUpdate();
+			conn.commit();
+		} catch (SQLException e) {
+			log.error("Exception in enqueue()", e);
+			try {
+				conn.rollback();
+			} catch (Exception ex) {
+				throw new ApplicationException("Exception : enqueue rollback exception " + ex.getMessage());
+			}
+			throw new ApplicationException("Exception : Exception in queueing email");
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt);
+		}
+
+		UnitOfWork uow = UnitOfWork.current();
+		if (uow != null) {
+			uow.afterCommit(EmailWorker::wake);
+		} else {
+			EmailWorker.wake();
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the status of a queued mail.
+	 *
+	 * @param id outbox row id
+	 * @return status, or null if there is no such row
+	 * @throws ApplicationException if the status could not be read
+	 */
+	public static String getStatus(long id) throws ApplicationException {
+
+		ensure();
+
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+
+		try {
+			conn = JDBCDataSource.getConnection();
+			pstmt = conn.prepareStatement("select status from st_email_outbox where id = ?");
+			pstmt.setLong(1, id);
+			rs = pstmt.executeQuery();
+			return rs.next() ? rs.getString(1) : null;
+		} catch (SQLException e) {
+			log.error("Exception in getStatus()", e);
+			throw new ApplicationException("Exception : Exception in reading email status");
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt, rs);
+		}
+	}
+
+	/**
+	 * Returns the number of mails with the given status.
+	 *
+	 * @param status one of {@link #PENDING}, {@link #SENDING}, {@link #SENT}
+	 *               or {@link #FAILED}
+	 * @return number of mails
+	 * @throws ApplicationException if the count could not be read
+	 */
+	public static int count(String status) throws ApplicationException {
+
+		ensure();
+
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+
+		try {
+			conn = JDBCDataSource.getConnection();
+			pstmt = conn.prepareStatement("select count(*) from st_email_outbox where status = ?");
+			pstmt.setString(1, status);
+			rs = pstmt.executeQuery();
+			rs.next();
+			return rs.getInt(1);
+		} catch (SQLException e) {
+			log.error("Exception in count()", e);
+			throw new ApplicationException("Exception : Exception in counting emails");
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt, rs);
+		}
+	}
+
+	/**
+	 * Claims up to <code>limit</code> mails that are due, oldest first. A row
+	 * is claimed by moving it to <code>SENDING</code> only if no other worker
+	 * changed it since it was read, so servers sharing the table never send
+	 * the same claimed mail.
+	 *
+	 * @param limit maximum number of mails
+	 * @return claimed mails with their attempt count including this one
+	 * @throws ApplicationException if the mails could not be claimed
+	 */
+	static List<Mail> claim(int limit) throws ApplicationException {
+
+		ensure();
+
+		long now = System.currentTimeMillis();
+		List<Mail> due = new ArrayList<>();
+		List<Timestamp> versions = new ArrayList<>();
+		List<Mail> claimed = new ArrayList<>();
+
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+
+		try {
+			conn = JDBCDataSource.getNewConnection();
+			pstmt = conn.prepareStatement("select id, recipient, subject, message, message_type, attempts, "
+					+ "next_attempt from st_email_outbox where status in (?, ?) and next_attempt <= ? "
+					+ "order by next_attempt, id limit ?");
+			pstmt.setString(1, PENDING);
+			pstmt.setString(2, SENDING);
+			pstmt.setTimestamp(3, new Timestamp(now));
+			pstmt.setInt(4, limit);
+			rs = pstmt.executeQuery();
+
+			while (rs.next()) {
+				EmailMessage msg = new EmailMessage(rs.getString(2), rs.getString(3), rs.getString(4));
+				msg.setMessageType(rs.getInt(5));
+				due.add(new Mail(rs.getLong(1), rs.getInt(6) + 1, msg));
+				versions.add(rs.getTimestamp(7));
+			}
+			rs.close();
+			pstmt.close();
+
+			pstmt = conn.prepareStatement("update st_email_outbox set status = ?, attempts = attempts + 1, "
+					+ "next_attempt = ? where id = ? and status in (?, ?) and next_attempt = ?");
+			for (int i = 0; i < due.size(); i++) {
+				pstmt.setString(1, SENDING);
+				pstmt.setTimestamp(2, new Timestamp(now + LEASE));
+				pstmt.setLong(3, due.get(i).id);
+				pstmt.setString(4, PENDING);
+				pstmt.setString(5, SENDING);
+				pstmt.setTimestamp(6, versions.get(i));
+				if (pstmt.executeUpdate() == 1) {
+					claimed.add(due.get(i));
+				}
+			}
+
+		} catch (SQLException e) {
+			log.error("Exception in claim()", e);
+			throw new ApplicationException("Exception : Exception in claiming emails");
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt, rs);
+		}
+		return claimed;
+	}
+
+	/**
+	 * Marks mails as sent.
+	 *
+	 * @param ids outbox row ids
+	 * @throws ApplicationException if the status could not be written
+	 */
+	static void sent(List<Long> ids) throws ApplicationException {
+
+		if (ids.isEmpty()) {
+			return;
+		}
+
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+
+		try {
+			conn = JDBCDataSource.getNewConnection();
+			conn.setAutoCommit(false);
+			pstmt = conn.prepareStatement(
+					"update st_email_outbox set status = ?, sent_datetime = ?, last_error = null where id = ?");
+			Timestamp now = new Timestamp(System.currentTimeMillis());
+			for (long id : ids) {
+				pstmt.setString(1, SENT);
+				pstmt.setTimestamp(2, now);
+				pstmt.setLong(3, id);
+				pstmt.addBatch();
+			}
+			pstmt.executeBatch();
+			conn.commit();
+		} catch (SQLException e) {
+			log.error("Exception in sent()", e);
+			try {
+				conn.rollback();
+			} catch (Exception ex) {
+				throw new ApplicationException("Exception : sent rollback exception " + ex.getMessage());
+			}
+			throw new ApplicationException("Exception : Exception in marking emails sent");
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt);
+		}
+	}
+
+	/**
+	 * Records a failed attempt. The mail is retried at
+	 * <code>nextAttempt</code>, or given up if that is null.
+	 *
+	 * @param id          outbox row id
+	 * @param error       reason of the failure
+	 * @param nextAttempt time of the next attempt, null to give up
+	 * @throws ApplicationException if the status could not be written
+	 */
+	static void failed(long id, String error, Timestamp nextAttempt) throws ApplicationException {
+
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+
+		if (error != null && error.length() > 255) {
+			error = error.substring(0, 255);
+		}
+
+		try {
+			conn = JDBCDataSource.getNewConnection();
+			pstmt = conn.prepareStatement(
+					"update st_email_outbox set status = ?, next_attempt = ?, last_error = ? where id = ?");
+			pstmt.setString(1, nextAttempt == null ? FAILED : PENDING);
+			pstmt.setTimestamp(2, nextAttempt == null ? new Timestamp(System.currentTimeMillis()) : nextAttempt);
+			pstmt.setString(3, error);
+			pstmt.setLong(4, id);
+			pstmt.executeUpdate();
+		} catch (SQLException e) {
+			log.error("Exception in failed()", e);
+			throw new ApplicationException("Exception : Exception in marking email failed");
+		} finally {
+			JDBCDataSource.closeConnection(conn, pstmt);
+		}
+	}
+}
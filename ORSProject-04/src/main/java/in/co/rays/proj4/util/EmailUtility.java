@@ -7,7 +7,6 @@ import javax.mail.Authenticator;
 import javax.mail.Message;
 import javax.mail.PasswordAuthentication;
 import javax.mail.Session;
-import javax.mail.Transport;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 
@@ -17,7 +16,19 @@ import in.co.rays.proj4.exception.ApplicationException;
  * EmailUtility is responsible for sending emails using JavaMail API.
  * <p>
  * Configuration (SMTP host, port, username, password) is loaded from: <br>
- * <b>in.co.rays.proj4.bundle.system</b> resource bundle.
+ * <b>in.co.rays.proj4.bundle.system</b> resource bundle. Each key can be
+ * overridden by a system property of the same name, e.g.
+ * <code>-Dsmtp.server=localhost -Dsmtp.port=2525 -Dsmtp.ssl=false</code> to
+ * send to a local SMTP server.
+ * <p>
+ * Messages are sent over connections kept open by a
+ * {@link MailTransportPool} of <code>smtp.pool.size</code> transports, so a
+ * batch of mail costs one TLS handshake and login per transport rather than
+ * per message. Protocol tracing is off unless <code>mail.debug</code> is
+ * true.
+ * <p>
+ * Application mail is not sent here directly but queued with
+ * {@link EmailOutbox#enqueue(EmailMessage)} and sent by {@link EmailWorker}.
  * <p>
  * It works together with {@link EmailMessage} and {@link EmailBuilder}.
  *
@@ -40,10 +51,11 @@ public class EmailUtility {
 	/** Resource bundle containing SMTP/email configuration. */
 	static ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.system");
 
-	private static final String SMTP_HOST_NAME = rb.getString("smtp.server");
-	private static final String SMTP_PORT = rb.getString("smtp.port");
-	private static final String EMAIL_FROM_ADDRESS = rb.getString("email.login");
-	private static final String EMAIL_PASSWORD = rb.getString("email.pwd");
+	private static final String SMTP_HOST_NAME = config("smtp.server");
+	private static final String SMTP_PORT = config("smtp.port");
+	private static final boolean SMTP_SSL = !"false".equalsIgnoreCase(config("smtp.ssl"));
+	private static final String EMAIL_FROM_ADDRESS = config("email.login");
+	private static final String EMAIL_PASSWORD = config("email.pwd");
 	private static final String SSL_FACTORY = "javax.net.ssl.SSLSocketFactory";
 
 	private static final Properties props = new Properties();
@@ -53,11 +65,46 @@ public class EmailUtility {
 		props.put("mail.smtp.auth", "true");
 		props.put("mail.smtp.starttls.enable", "true");
 		props.put("mail.smtp.ssl.protocols", "TLSv1.2");
-		props.put("mail.debug", "true");
+		props.put("mail.debug", String.valueOf("true".equalsIgnoreCase(config("mail.debug"))));
 		props.put("mail.smtp.port", SMTP_PORT);
-		props.put("mail.smtp.socketFactory.port", SMTP_PORT);
-		props.put("mail.smtp.socketFactory.class", SSL_FACTORY);
-		props.put("mail.smtp.socketFactory.fallback", "false");
+		if (SMTP_SSL) {
+			props.put("mail.smtp.socketFactory.port", SMTP_PORT);
+			props.put("mail.smtp.socketFactory.class", SSL_FACTORY);
+			props.put("mail.smtp.socketFactory.fallback", "false");
+		}
+	}
+
+	private static final Session session = Session.getInstance(props, new Authenticator() {
+		@Override
+		protected PasswordAuthentication getPasswordAuthentication() {
+			return new PasswordAuthentication(EMAIL_FROM_ADDRESS, EMAIL_PASSWORD);
+		}
+	});
+
+	private static final MailTransportPool pool = new MailTransportPool(session, SMTP_HOST_NAME,
+			Integer.parseInt(SMTP_PORT), EMAIL_FROM_ADDRESS, EMAIL_PASSWORD, intConfig("smtp.pool.size", 4),
+			intConfig("smtp.pool.maxMessages", 100), intConfig("smtp.pool.idle", 10000));
+
+	/**
+	 * Returns a configuration value, a system property of the same name
+	 * taking precedence over the resource bundle.
+	 */
+	private static String config(String key) {
+		return System.getProperty(key, rb.containsKey(key) ? rb.getString(key) : "").trim();
+	}
+
+	private static int intConfig(String key, int defaultValue) {
+		String value = config(key);
+		return value.isEmpty() ? defaultValue : Integer.parseInt(value);
+	}
+
+	/**
+	 * Returns the pool of SMTP transports, e.g. for its send statistics.
+	 *
+	 * @return transport pool
+	 */
+	public static MailTransportPool getTransportPool() {
+		return pool;
 	}
 
 	/**
@@ -72,14 +119,6 @@ public class EmailUtility {
 				throw new ApplicationException("Email data is null");
 			}
 
-			// Setup mail session with authentication
-			Session session = Session.getDefaultInstance(props, new Authenticator() {
-				@Override
-				protected PasswordAuthentication getPasswordAuthentication() {
-					return new PasswordAuthentication(EMAIL_FROM_ADDRESS, EMAIL_PASSWORD);
-				}
-			});
-
 			// Create and setup the email message
 			Message msg = new MimeMessage(session);
 			msg.setFrom(new InternetAddress(EMAIL_FROM_ADDRESS));
@@ -92,8 +131,9 @@ public class EmailUtility {
 
 			msg.setContent(emailMessageDTO.getMessage(), contentType);
 
-			// Send the message
-			Transport.send(msg);
+			// Send the message over a pooled connection
+			msg.saveChanges();
+			pool.send(msg);
 
 		} catch (Exception ex) {
 			throw new ApplicationException("Email Error: " + ex.getMessage(), ex);
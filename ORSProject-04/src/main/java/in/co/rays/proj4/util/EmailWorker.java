@@ -0,0 +1,240 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+
+/**
+ * EmailWorker sends the mail queued in {@link EmailOutbox}.
+ * <p>
+ * A dispatcher thread claims up to <code>email.outbox.batch</code> due mails
+ * at a time and splits them among a fixed pool of
+ * <code>email.outbox.threads</code> sender threads, each sending its share
+ * with {@link EmailUtility#sendMail(EmailMessage)} and marking the sent ones
+ * in one batch. The pool queue holds one share per thread; when it is full
+ * the dispatcher sends the share itself, so it claims no more mail than the
+ * pool can send.
+ * <p>
+ * The dispatcher polls every <code>email.outbox.poll</code> milliseconds
+ * and is woken at once when mail is queued on this server. A mail that
+ * fails, with any exception, does not stop the rest of its share and is
+ * retried after <code>email.outbox.backoff</code> milliseconds, doubled
+ * on each further attempt, and given up after
+ * <code>email.outbox.maxAttempts</code> attempts. Each key of
+ * <b>in.co.rays.proj4.bundle.system</b> can be overridden by a system
+ * property of the same name.
+ * <p>
+ * The worker is started and stopped with the web application by
+ * {@link in.co.rays.proj4.controller.EmailWorkerListener}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class EmailWorker {
+
+	private static Logger log = Logger.getLogger(EmailWorker.class);
+
+	private static ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.system");
+
+	/** Longest wait between two attempts of a mail */
+	private static final long MAX_BACKOFF = 60 * 60 * 1000;
+
+	private static final Object signal = new Object();
+
+	private static boolean signalled = false;
+
+	private static volatile boolean running = false;
+
+	private static Thread dispatcher;
+
+	private static ThreadPoolExecutor pool;
+
+	private static int threads;
+	private static int batch;
+	private static long poll;
+	private static int maxAttempts;
+	private static long backoff;
+
+	private EmailWorker() {
+	}
+
+	/**
+	 * Starts the dispatcher and the sender threads if they are not running.
+	 */
+	public static synchronized void start() {
+
+		if (running) {
+			return;
+		}
+
+		threads = Math.max(1, (int) config("email.outbox.threads", 2));
+		batch = Math.max(1, (int) config("email.outbox.batch", 20));
+		poll = Math.max(10, config("email.outbox.poll", 5000));
+		maxAttempts = Math.max(1, (int) config("email.outbox.maxAttempts", 5));
+		backoff = Math.max(0, config("email.outbox.backoff", 30000));
+
+		AtomicInteger count = new AtomicInteger();
+		pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(threads), task -> {
+					Thread thread = new Thread(task, "email-sender-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+
+		running = true;
+		dispatcher = new Thread(EmailWorker::dispatch, "email-dispatcher");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+
+		log.info("Email worker started with " + threads + " threads, batch " + batch);
+	}
+
+	/**
+	 * Stops the dispatcher and waits for mail being sent. Claimed mail not
+	 * sent by then is claimed again after the lease expires.
+	 */
+	public static synchronized void stop() {
+
+		if (!running) {
+			return;
+		}
+
+		running = false;
+		wake();
+
+		try {
+			dispatcher.join(poll + 30000);
+			pool.shutdown();
+			if (!pool.awaitTermination(30, TimeUnit.SECONDS)) {
+				pool.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			pool.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+
+		log.info("Email worker stopped");
+	}
+
+	/**
+	 * Returns true if the worker is running.
+	 *
+	 * @return true if started and not stopped
+	 */
+	public static boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Wakes the dispatcher, called when mail was queued.
+	 */
+	static void wake() {
+		synchronized (signal) {
+			signalled = true;
+			signal.notifyAll();
+		}
+	}
+
+	private static void dispatch() {
+
+		while (running) {
+
+			int claimed = 0;
+
+			try {
+				List<EmailOutbox.Mail> mails = EmailOutbox.claim(batch);
+				claimed = mails.size();
+
+				int share = (claimed + threads - 1) / threads;
+				for (int i = 0; i < claimed; i += share) {
+					List<EmailOutbox.Mail> part = mails.subList(i, Math.min(claimed, i + share));
+					pool.execute(() -> send(part));
+				}
+
+			} catch (ApplicationException | RuntimeException e) {
+				log.error("Exception in dispatching emails", e);
+			}
+
+			// a full batch means more mail may be due
+			if (claimed < batch) {
+				await();
+			}
+		}
+	}
+
+	private static void await() {
+		synchronized (signal) {
+			try {
+				if (!signalled && running) {
+					signal.wait(poll);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				running = false;
+			}
+			signalled = false;
+		}
+	}
+
+	private static void send(List<EmailOutbox.Mail> mails) {
+
+		List<Long> sent = new ArrayList<>();
+
+		for (EmailOutbox.Mail mail : mails) {
+			try {
+				EmailUtility.sendMail(mail.message);
+				sent.add(mail.id);
+			} catch (ApplicationException e) {
+				retry(mail, e.getMessage());
+			} catch (RuntimeException e) {
+				// fail only this mail, the ones already sent are still marked sent
+				log.error("Exception in sending email " + mail.id, e);
+				retry(mail, e.toString());
+			}
+		}
+
+		try {
+			EmailOutbox.sent(sent);
+		} catch (ApplicationException e) {
+			log.error("Exception in marking emails " + sent + " sent", e);
+		}
+	}
+
+	private static void retry(EmailOutbox.Mail mail, String error) {
+
+		Timestamp next = null;
+
+		if (mail.attempts < maxAttempts) {
+			long delay = Math.min(MAX_BACKOFF, backoff << Math.min(20, mail.attempts - 1));
+			next = new Timestamp(System.currentTimeMillis() + delay);
+			log.warn("Email " + mail.id + " attempt " + mail.attempts + " failed, retry at " + next + " : " + error);
+		} else {
+			log.error("Email " + mail.id + " failed after " + mail.attempts + " attempts : " + error);
+		}
+
+		try {
+			EmailOutbox.failed(mail.id, error, next);
+		} catch (ApplicationException e) {
+			log.error("Exception in recording failure of email " + mail.id, e);
+		}
+	}
+
+	private static long config(String key, long defaultValue) {
+		String value = System.getProperty(key, rb.containsKey(key) ? rb.getString(key) : "").trim();
+		try {
+			return value.isEmpty() ? defaultValue : Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			log.warn("Invalid " + key + " : " + value);
+			return defaultValue;
+		}
+	}
+}
@@ -0,0 +1,263 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+
+/**
+ * EntityCache is a bounded read-through cache of beans by primary key, put
+ * in front of the <code>findByPk</code> of rarely changing reference data
+ * (roles, colleges, courses and subjects).
+ * <p>
+ * Entries are evicted least recently used first once the cache holds
+ * <code>cache.size</code> beans. The owning model calls
+ * {@link #invalidate(long...)} from its update and delete methods. If the
+ * change runs in a {@link UnitOfWork}, the ids are dropped again when the
+ * unit of work ends, so a bean read inside an uncommitted or rolled back
+ * transaction does not stay cached. A bean read from the database while an
+ * invalidation happens is returned but not cached.
+ * <p>
+ * Cached beans are shared by all callers and must not be modified.
+ * <p>
+ * Configuration is loaded from <b>in.co.rays.proj4.bundle.system</b>:
+ * <ul>
+ *   <li>cache.enabled - false turns every cache off, overridden by the
+ *       <code>cache.enabled</code> system property</li>
+ *   <li>cache.size - maximum beans per cache</li>
+ * </ul>
+ * The caches can also be turned off and on at runtime with
+ * {@link #setEnabled(boolean)}.
+ *
+ * Example:
+ * <pre>
+ *   private static final EntityCache&lt;RoleBean&gt; cache = new EntityCache&lt;&gt;("role");
+ *
+ *   public RoleBean findByPk(long pk) throws ApplicationException {
+ *       return cache.get(pk, this::loadByPk);
+ *   }
+ * </pre>
+ *
+ * @param <V> bean type
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class EntityCache<V> {
+
+	private static Logger log = Logger.getLogger(EntityCache.class);
+
+	private static final ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.system");
+
+	private static final int SIZE = rb.containsKey("cache.size") && DataUtility.getInt(rb.getString("cache.size")) > 0
+			? DataUtility.getInt(rb.getString("cache.size"))
+			: 1000;
+
+	private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("cache.enabled",
+			rb.containsKey("cache.enabled") ? rb.getString("cache.enabled") : "true").trim());
+
+	private static final List<EntityCache<?>> caches = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Loads a bean from the database on a cache miss.
+	 *
+	 * @param <V> bean type
+	 */
+	public interface Loader<V> {
+
+		/**
+		 * Loads the bean with the given primary key.
+		 *
+		 * @param pk primary key
+		 * @return bean or null if not found
+		 * @throws ApplicationException if the bean could not be loaded
+		 */
+		V load(long pk) throws ApplicationException;
+	}
+
+	private final String name;
+
+	private final Map<Long, V> map = new LinkedHashMap<Long, V>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+			if (size() > SIZE) {
+				evictions.incrementAndGet();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/** Incremented by every invalidation, a load only caches if unchanged */
+	private long version = 0;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	/**
+	 * Creates a cache and registers it for {@link #getCaches()}.
+	 *
+	 * @param name cache name used in logs and metrics, e.g. role
+	 */
+	public EntityCache(String name) {
+		this.name = name;
+		caches.add(this);
+	}
+
+	/**
+	 * Returns the cached bean or loads and caches it. Beans that are not
+	 * found are not cached.
+	 *
+	 * @param pk     primary key
+	 * @param loader loads the bean on a miss
+	 * @return bean or null if not found
+	 * @throws ApplicationException if the bean could not be loaded
+	 */
+	public V get(long pk, Loader<V> loader) throws ApplicationException {
+
+		if (!enabled) {
+			return loader.load(pk);
+		}
+
+		long loadVersion;
+
+		synchronized (this) {
+			V bean = map.get(pk);
+			if (bean != null) {
+				hits.incrementAndGet();
+				return bean;
+			}
+			loadVersion = version;
+		}
+
+		misses.incrementAndGet();
+		V bean = loader.load(pk);
+
+		if (bean != null && enabled) {
+			synchronized (this) {
+				if (version == loadVersion) {
+					map.put(pk, bean);
+				}
+			}
+		}
+		return bean;
+	}
+
+	/**
+	 * Drops the beans with the given primary keys, now and again when the
+	 * current unit of work ends.
+	 *
+	 * @param pks primary keys of changed or deleted beans
+	 */
+	public void invalidate(long... pks) {
+
+		if (pks == null) {
+			return;
+		}
+
+		remove(pks);
+
+		UnitOfWork uow = UnitOfWork.current();
+		if (uow != null) {
+			uow.afterCompletion(() -> remove(pks));
+		}
+	}
+
+	/**
+	 * Drops every bean.
+	 */
+	public synchronized void clear() {
+		map.clear();
+		version++;
+	}
+
+	private synchronized void remove(long[] pks) {
+		for (long pk : pks) {
+			map.remove(pk);
+		}
+		version++;
+		invalidations.addAndGet(pks.length);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public synchronized int size() {
+		return map.size();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	public long getInvalidations() {
+		return invalidations.get();
+	}
+
+	/**
+	 * Returns the share of lookups answered from the cache.
+	 *
+	 * @return hit rate from 0 to 1
+	 */
+	public double getHitRate() {
+		long hit = hits.get();
+		long total = hit + misses.get();
+		return (total == 0) ? 0 : (double) hit / total;
+	}
+
+	@Override
+	public String toString() {
+		return name + " : size " + size() + ", hits " + getHits() + ", misses " + getMisses() + ", evictions "
+				+ getEvictions() + ", invalidations " + getInvalidations();
+	}
+
+	/**
+	 * Returns all caches created so far.
+	 *
+	 * @return caches in creation order
+	 */
+	public static List<EntityCache<?>> getCaches() {
+		return Collections.unmodifiableList(new ArrayList<>(caches));
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Turns all caches on or off. Turning them off also empties them, so
+	 * they start empty when turned on again.
+	 *
+	 * @param on true to use the caches
+	 */
+	public static void setEnabled(boolean on) {
+		enabled = on;
+		if (!on) {
+			for (EntityCache<?> cache : caches) {
+				cache.clear();
+			}
+		}
+		log.info("Entity caches " + (on ? "enabled" : "disabled"));
+	}
+}
@@ -0,0 +1,241 @@
+package in.co.rays.proj4.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * ExportWriter writes the rows of an export to a character stream as CSV or
+ * JSON, one row at a time, so an export of any size needs no more memory
+ * than one row.
+ * <p>
+ * CSV has a header line with the column names; values containing a comma,
+ * quote or line break are quoted, and text starting with <code>= + - @</code>
+ * is prefixed with a quote so spreadsheets do not run it as a formula. JSON
+ * is an array with one object per row keyed by column name.
+ *
+ * Example:
+ * <pre>
+ *   ExportWriter writer = ExportWriter.of("csv", out);
+ *   writer.begin(new String[] { "id", "name" });
+ *   writer.row(new Object[] { 1L, "Admin" });
+ *   writer.end();
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public abstract class ExportWriter {
+
+	public static final String CSV = "csv";
+	public static final String JSON = "json";
+
+	protected final Writer out;
+
+	protected String[] columns;
+
+	protected ExportWriter(Writer out) {
+		this.out = out;
+	}
+
+	/**
+	 * Returns a writer for the given format.
+	 *
+	 * @param format {@link #CSV} or {@link #JSON}
+	 * @param out    stream to write to
+	 * @return export writer
+	 * @throws IllegalArgumentException if the format is unknown
+	 */
+	public static ExportWriter of(String format, Writer out) {
+		if (CSV.equalsIgnoreCase(format)) {
+			return new Csv(out);
+		} else if (JSON.equalsIgnoreCase(format)) {
+			return new Json(out);
+		}
+		throw new IllegalArgumentException("Unknown export format : " + format);
+	}
+
+	/**
+	 * Returns the content type of the format.
+	 *
+	 * @return MIME type
+	 */
+	public abstract String getContentType();
+
+	/**
+	 * Returns the file extension of the format.
+	 *
+	 * @return extension without dot
+	 */
+	public abstract String getExtension();
+
+	/**
+	 * Starts the export.
+	 *
+	 * @param columns column names
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void begin(String[] columns) throws IOException {
+		this.columns = columns;
+	}
+
+	/**
+	 * Writes one row. Values are in column order and may be null.
+	 *
+	 * @param values row values
+	 * @throws IOException if the stream cannot be written
+	 */
+	public abstract void row(Object[] values) throws IOException;
+
+	/**
+	 * Ends the export and flushes the stream.
+	 *
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void end() throws IOException {
+		out.flush();
+	}
+
+	private static final class Csv extends ExportWriter {
+
+		private Csv(Writer out) {
+			super(out);
+		}
+
+		@Override
+		public String getContentType() {
+			return "text/csv";
+		}
+
+		@Override
+		public String getExtension() {
+			return CSV;
+		}
+
+		@Override
+		public void begin(String[] columns) throws IOException {
+			super.begin(columns);
+			row(columns);
+		}
+
+		@Override
+		public void row(Object[] values) throws IOException {
+			for (int i = 0; i < values.length; i++) {
+				if (i > 0) {
+					out.write(',');
+				}
+				if (values[i] != null) {
+					write(values[i]);
+				}
+			}
+			out.write("\r\n");
+		}
+
+		private void write(Object value) throws IOException {
+
+			String text = value.toString();
+
+			if (value instanceof String && text.length() > 0 && "=+-@".indexOf(text.charAt(0)) >= 0) {
+				text = "'" + text;
+			}
+
+			if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0
+					&& text.indexOf('\r') < 0) {
+				out.write(text);
+				return;
+			}
+
+			out.write('"');
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if (c == '"') {
+					out.write('"');
+				}
+				out.write(c);
+			}
+			out.write('"');
+		}
+	}
+
+	private static final class Json extends ExportWriter {
+
+		private boolean first = true;
+
+		private Json(Writer out) {
+			super(out);
+		}
+
+		@Override
+		public String getContentType() {
+			return "application/json";
+		}
+
+		@Override
+		public String getExtension() {
+			return JSON;
+		}
+
+		@Override
+		public void begin(String[] columns) throws IOException {
+			super.begin(columns);
+			out.write('[');
+		}
+
+		@Override
+		public void row(Object[] values) throws IOException {
+			out.write(first ? "\n{" : ",\n{");
+			first = false;
+			for (int i = 0; i < values.length; i++) {
+				if (i > 0) {
+					out.write(',');
+				}
+				write(columns[i]);
+				out.write(':');
+				if (values[i] == null) {
+					out.write("null");
+				} else if (values[i] instanceof Number || values[i] instanceof Boolean) {
+					out.write(values[i].toString());
+				} else {
+					write(values[i].toString());
+				}
+			}
+			out.write('}');
+		}
+
+		@Override
+		public void end() throws IOException {
+			out.write("\n]\n");
+			super.end();
+		}
+
+		private void write(String text) throws IOException {
+			out.write('"');
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				switch (c) {
+				case '"':
+					out.write("\\\"");
+					break;
+				case '\\':
+					out.write("\\\\");
+					break;
+				case '\n':
+					out.write("\\n");
+					break;
+				case '\r':
+					out.write("\\r");
+					break;
+				case '\t':
+					out.write("\\t");
+					break;
+				default:
+					if (c < 0x20 || c == '<' || c == 0x2028 || c == 0x2029) {
+						out.write(String.format("\\u%04x", (int) c));
+					} else {
+						out.write(c);
+					}
+				}
+			}
+			out.write('"');
+		}
+	}
+}
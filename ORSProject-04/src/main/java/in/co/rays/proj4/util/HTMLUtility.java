@@ -1,8 +1,11 @@
 package in.co.rays.proj4.util;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import in.co.rays.proj4.bean.DropdownListBean;
 import in.co.rays.proj4.model.RoleModel;
@@ -19,11 +22,31 @@ import in.co.rays.proj4.model.RoleModel;
  *
  * This avoids writing repetitive dropdown HTML in JSP pages.
  *
+ * <p>The options of a {@link Versioned} list, such as the shared lists of
+ * {@link in.co.rays.proj4.model.DropdownCache}, are rendered once per
+ * version and the finished dropdown is kept per selected value, so a form
+ * render returns it without building anything.
+ *
  * @author Deepak Verma
  * @version 1.0
  */
 public class HTMLUtility {
 
+    private static final Template SELECT = Template.compile(
+            "<select style=\"width: 169px;text-align-last: center;\" class='form-control' name='{{name}}'>"
+            + "\n<option selected value=''>-------------Select-------------</option>");
+
+    private static final String SELECT_END = "\n</select>";
+
+    /** Expected length of an option, to size the buffer */
+    private static final int OPTION_LENGTH = 48;
+
+    /** Most selected values kept per dropdown, for long lists such as students */
+    private static final int MAX_SELECTED = 256;
+
+    /** Rendered dropdowns of versioned lists by source and name */
+    private static final Map<String, Map<String, Rendered>> rendered = new ConcurrentHashMap<>();
+
     /**
      * Creates an HTML &lt;select&gt; dropdown from a {@link HashMap}.
      *
@@ -34,32 +57,22 @@ public class HTMLUtility {
      */
     public static String getList(String name, String selectedVal, HashMap<String, String> map) {
 
-        StringBuffer sb = new StringBuffer(
-                "<select style=\"width: 169px;text-align-last: center;\" class='form-control' name='"
-                        + name + "'>");
-
-        sb.append("\n<option selected value=''>-------------Select-------------</option>");
+        StringBuilder sb = select(name, map.size());
 
         Set<String> keys = map.keySet();
-        String val;
 
         for (String key : keys) {
-            val = map.get(key);
-            if (selectedVal != null && key.trim().equals(selectedVal)) {
-                sb.append("\n<option selected value='").append(key).append("'>")
-                        .append(val).append("</option>");
-            } else {
-                sb.append("\n<option value='").append(key).append("'>")
-                        .append(val).append("</option>");
-            }
+            appendOption(sb, key, map.get(key), selectedVal != null && key.trim().equals(selectedVal));
         }
-        sb.append("\n</select>");
-        return sb.toString();
+        return sb.append(SELECT_END).toString();
     }
 
     /**
      * Creates an HTML &lt;select&gt; dropdown from a {@link List}
      * of objects that implement {@link DropdownListBean}.
+     * <p>
+     * If the list is {@link Versioned} the dropdown is cached until its
+     * version changes.
      *
      * @param name        name attribute of the select tag
      * @param selectedVal value to be pre-selected (can be null)
@@ -71,29 +84,119 @@ public class HTMLUtility {
 
         List<DropdownListBean> dd = (List<DropdownListBean>) list;
 
-        StringBuffer sb = new StringBuffer(
-                "<select style=\"width: 169px;text-align-last: center;\" "
-                        + "class='form-control' name='" + name + "'>");
-
-        sb.append("\n<option selected value=''>-------------Select-------------</option>");
+        if (list instanceof Versioned) {
+            Versioned versioned = (Versioned) list;
+            long version = versioned.getVersion();
+            if (version >= 0) {
+                Map<String, Rendered> byName = rendered.computeIfAbsent(versioned.getSource(),
+                        source -> new ConcurrentHashMap<>());
+                Rendered cached = byName.get(name);
+                if (cached == null || cached.version != version) {
+                    cached = new Rendered(name, version, dd);
+                    byName.put(name, cached);
+                }
+                return cached.get(selectedVal);
+            }
+        }
 
-        String key;
-        String val;
+        StringBuilder sb = select(name, dd.size());
 
         for (DropdownListBean obj : dd) {
-            key = obj.getKey();
-            val = obj.getValue();
-
-            if (selectedVal != null && key.trim().equals(selectedVal)) {
-                sb.append("\n<option selected value='").append(key).append("'>")
-                        .append(val).append("</option>");
-            } else {
-                sb.append("\n<option value='").append(key).append("'>")
-                        .append(val).append("</option>");
+            String key = obj.getKey();
+            appendOption(sb, key, obj.getValue(), selectedVal != null && key.trim().equals(selectedVal));
+        }
+        return sb.append(SELECT_END).toString();
+    }
+
+    /**
+     * Starts a dropdown in a buffer sized for its options.
+     */
+    private static StringBuilder select(String name, int options) {
+        StringBuilder sb = new StringBuilder(160 + OPTION_LENGTH * options);
+        SELECT.render(Collections.singletonMap("name", name), sb);
+        return sb;
+    }
+
+    private static void appendOption(StringBuilder sb, String key, String val, boolean selected) {
+        sb.append(selected ? "\n<option selected value='" : "\n<option value='").append(key).append("'>")
+                .append(val).append("</option>");
+    }
+
+    /**
+     * Dropdown of one version of a list. The options are rendered once; the
+     * dropdown for a selected value is built from them on first use and
+     * kept.
+     */
+    private static final class Rendered {
+
+        private final String name;
+        private final long version;
+        private final String[] keys;
+        private final String[] values;
+        private final String[] options;
+        private final String none;
+        private final Map<String, String> selected = new ConcurrentHashMap<>();
+
+        private Rendered(String name, long version, List<DropdownListBean> list) {
+            this.name = name;
+            this.version = version;
+
+            int size = list.size();
+            keys = new String[size];
+            values = new String[size];
+            options = new String[size];
+
+            StringBuilder all = select(name, size);
+            for (int i = 0; i < size; i++) {
+                DropdownListBean obj = list.get(i);
+                keys[i] = obj.getKey();
+                values[i] = obj.getValue();
+                StringBuilder option = new StringBuilder(OPTION_LENGTH);
+                appendOption(option, keys[i], values[i], false);
+                options[i] = option.toString();
+                all.append(options[i]);
+            }
+            none = all.append(SELECT_END).toString();
+        }
+
+        private String get(String selectedVal) {
+
+            if (selectedVal == null) {
+                return none;
+            }
+
+            String html = selected.get(selectedVal);
+            if (html != null) {
+                return html;
+            }
+
+            StringBuilder all = null;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].trim().equals(selectedVal)) {
+                    if (all == null) {
+                        all = new StringBuilder(none.length() + 16);
+                        SELECT.render(Collections.singletonMap("name", name), all);
+                        for (int j = 0; j < i; j++) {
+                            all.append(options[j]);
+                        }
+                    }
+                    appendOption(all, keys[i], values[i], true);
+                } else if (all != null) {
+                    all.append(options[i]);
+                }
+            }
+
+            // a value that is not in the list selects nothing
+            if (all == null) {
+                return none;
+            }
+
+            html = all.append(SELECT_END).toString();
+            if (selected.size() < MAX_SELECTED) {
+                selected.put(selectedVal, html);
             }
+            return html;
         }
-        sb.append("\n</select>");
-        return sb.toString();
     }
 
     /**
@@ -25,7 +25,25 @@ import com.mchange.v2.c3p0.ComboPooledDataSource;
  *   <li>initialpoolsize</li>
  *   <li>acquireincrement</li>
  *   <li>maxpoolsize</li>
+ *   <li>minpoolsize</li>
+ *   <li>db.profile - tuning profile, overridden by the <code>db.profile</code>
+ *       system property</li>
  * </ul>
+ * <p>
+ * A tuning profile (<code>oltp</code>, <code>bulk</code>, <code>benchmark</code>)
+ * is a group of <code>db.&lt;profile&gt;.*</code> keys that configure the
+ * c3p0 statement cache and pool, and the MySQL driver options appended to
+ * the JDBC URL (server-side prepared statements, batch rewriting, metadata
+ * caching, ...). An empty or unknown profile leaves both at their defaults.
+ * A profile may also set <code>driver</code>, <code>url</code>,
+ * <code>username</code> and <code>password</code> to connect to another
+ * database. A system property of the same name overrides each
+ * <code>db.&lt;profile&gt;.*</code> key, so a profile can also be defined
+ * outside the bundle, e.g. the <code>h2</code> profile that
+ * ORSProject-04-bench sets for its embedded database.
+ * <p>
+ * Connections are shared across nested model calls while a
+ * {@link UnitOfWork} is open on the current thread.
  *
  * Example:
  * <pre>
@@ -49,6 +67,9 @@ public final class JDBCDataSource {
 
 	private static final ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.system");
 
+	private static final String profile = System.getProperty("db.profile",
+			rb.containsKey("db.profile") ? rb.getString("db.profile") : "").trim();
+
 	/**
 	 * Private constructor to initialize C3P0 connection pool.
 	 */
@@ -56,28 +77,85 @@ public final class JDBCDataSource {
 
         try {
             cpds = new ComboPooledDataSource();
-            cpds.setDriverClass(rb.getString("driver"));
+            cpds.setDriverClass(getConfig("driver"));
 
             String env = System.getProperty("env");
 
-            if ("docker".equals(env)) {
-                cpds.setJdbcUrl(rb.getString("url.docker"));
+            if (getProfileValue("url") != null) {
+                cpds.setJdbcUrl(getProfileValue("url"));
+            } else if ("docker".equals(env)) {
+                cpds.setJdbcUrl(withOptions(rb.getString("url.docker")));
             } else {
-                cpds.setJdbcUrl(rb.getString("url.local"));
+                cpds.setJdbcUrl(withOptions(rb.getString("url.local")));
             }
 
-           
-            
-            cpds.setUser(rb.getString("username"));
-            cpds.setPassword(rb.getString("password"));
+            cpds.setUser(getConfig("username"));
+            cpds.setPassword(getConfig("password"));
             cpds.setInitialPoolSize(Integer.parseInt(rb.getString("initialpoolsize")));
             cpds.setAcquireIncrement(Integer.parseInt(rb.getString("acquireincrement")));
             cpds.setMaxPoolSize(Integer.parseInt(rb.getString("maxpoolsize")));
+            cpds.setMinPoolSize(Integer.parseInt(rb.getString("minpoolsize")));
+
+            cpds.setMaxStatements(getProfileInt("maxStatements", cpds.getMaxStatements()));
+            cpds.setMaxStatementsPerConnection(
+                    getProfileInt("maxStatementsPerConnection", cpds.getMaxStatementsPerConnection()));
+            cpds.setNumHelperThreads(getProfileInt("numHelperThreads", cpds.getNumHelperThreads()));
+            cpds.setCheckoutTimeout(getProfileInt("checkoutTimeout", cpds.getCheckoutTimeout()));
+            cpds.setMaxIdleTime(getProfileInt("maxIdleTime", cpds.getMaxIdleTime()));
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+	/**
+	 * Returns the active tuning profile.
+	 *
+	 * @return profile name, empty if none is set
+	 */
+	public static String getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Returns a <code>db.&lt;profile&gt;.&lt;name&gt;</code> key of the active
+	 * profile, from the system properties or the bundle, or null if it is not
+	 * set.
+	 */
+	private static String getProfileValue(String name) {
+		if (profile.length() == 0) {
+			return null;
+		}
+		String key = "db." + profile + "." + name;
+		String value = System.getProperty(key, rb.containsKey(key) ? rb.getString(key) : null);
+		return (value != null) ? value.trim() : null;
+	}
+
+	/**
+	 * Returns a connection key of the active profile, or of the bundle if the
+	 * profile does not set it.
+	 */
+	private static String getConfig(String name) {
+		String value = getProfileValue(name);
+		return value != null ? value : rb.getString(name);
+	}
+
+	private static int getProfileInt(String name, int defaultValue) {
+		String value = getProfileValue(name);
+		return (value == null || value.length() == 0) ? defaultValue : Integer.parseInt(value);
+	}
+
+	/**
+	 * Appends the driver options of the active profile to a MySQL JDBC URL.
+	 * Other URLs are returned unchanged.
+	 */
+	private static String withOptions(String url) {
+		String options = getProfileValue("driver.options");
+		if (options == null || options.length() == 0 || !url.startsWith("jdbc:mysql:")) {
+			return url;
+		}
+		return url + (url.indexOf('?') < 0 ? "?" : "&") + options;
+	}
+
 	/**
 	 * Returns the singleton instance of JDBCDataSource.
 	 *
@@ -92,10 +170,28 @@ public final class JDBCDataSource {
 
 	/**
 	 * Returns a database connection from the C3P0 connection pool.
+	 * <p>
+	 * If the current thread has an open {@link UnitOfWork}, its shared
+	 * connection is returned instead.
 	 *
 	 * @return {@link Connection} or null if connection could not be obtained
 	 */
 	public static Connection getConnection() {
+		Connection conn = UnitOfWork.getConnection();
+		if (conn != null) {
+			return conn;
+		}
+		return getNewConnection();
+	}
+
+	/**
+	 * Returns a database connection from the C3P0 connection pool that is
+	 * never bound to the current {@link UnitOfWork}. Used for work that must
+	 * commit independently, such as primary key block reservation.
+	 *
+	 * @return {@link Connection} or null if connection could not be obtained
+	 */
+	public static Connection getNewConnection() {
 		try {
 			return getInstance().cpds.getConnection();
 		} catch (SQLException e) {
@@ -106,6 +202,9 @@ public final class JDBCDataSource {
 
 	/**
 	 * Closes ResultSet, Statement and Connection in safe order.
+	 * <p>
+	 * Closing a connection bound to an open {@link UnitOfWork} is deferred
+	 * until the unit of work ends.
 	 *
 	 * @param conn connection to close
 	 * @param stmt statement to close
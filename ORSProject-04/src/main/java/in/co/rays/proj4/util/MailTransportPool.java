@@ -0,0 +1,273 @@
+package in.co.rays.proj4.util;
+
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+
+import org.apache.log4j.Logger;
+
+/**
+ * MailTransportPool keeps connected, authenticated SMTP {@link Transport}s
+ * so that many messages are sent over one session instead of opening,
+ * authenticating and closing a TLS connection for each message.
+ * <p>
+ * At most <code>size</code> transports are open; a sender waits for a free
+ * one. A transport idle for longer than <code>idleMillis</code> is checked
+ * with a <code>NOOP</code> before it is used, and a transport is closed
+ * after <code>maxMessages</code> messages, as servers limit the messages
+ * per session. If sending fails on a reused transport for any reason but
+ * a rejected message or recipient, the transport is dropped and the message
+ * is sent once more over a new connection.
+ * <p>
+ * The pool counts messages sent and failed, connections opened and
+ * reconnects after a dropped connection, for {@link #getSendRate()} and
+ * {@link #toString()}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class MailTransportPool {
+
+	private static Logger log = Logger.getLogger(MailTransportPool.class);
+
+	/** Longest wait for a free transport */
+	private static final long CHECKOUT_TIMEOUT = 30000;
+
+	private final Session session;
+	private final String host;
+	private final int port;
+	private final String user;
+	private final String password;
+	private final int maxMessages;
+	private final long idleMillis;
+
+	private final Semaphore permits;
+
+	private final LinkedBlockingDeque<Pooled> idle = new LinkedBlockingDeque<>();
+
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong connects = new AtomicLong();
+	private final AtomicLong reconnects = new AtomicLong();
+	private final AtomicLong sendNanos = new AtomicLong();
+
+	private final long created = System.nanoTime();
+
+	private volatile boolean closed = false;
+
+	/**
+	 * A transport with the number of messages sent over it.
+	 */
+	private static final class Pooled {
+
+		private final Transport transport;
+		private int messages;
+		private long lastUsed = System.currentTimeMillis();
+
+		private Pooled(Transport transport) {
+			this.transport = transport;
+		}
+	}
+
+	/**
+	 * Creates a pool. No connection is opened until the first message.
+	 *
+	 * @param session     mail session with the SMTP properties
+	 * @param host        SMTP host
+	 * @param port        SMTP port
+	 * @param user        login, or null for no authentication
+	 * @param password    password
+	 * @param size        maximum number of open transports
+	 * @param maxMessages messages sent over a transport before it is closed
+	 * @param idleMillis  idle time after which a transport is checked
+	 */
+	public MailTransportPool(Session session, String host, int port, String user, String password, int size,
+			int maxMessages, long idleMillis) {
+		this.session = session;
+		this.host = host;
+		this.port = port;
+		this.user = user;
+		this.password = password;
+		this.maxMessages = Math.max(1, maxMessages);
+		this.idleMillis = idleMillis;
+		this.permits = new Semaphore(Math.max(1, size), true);
+	}
+
+	/**
+	 * Sends a message to its recipients over a pooled transport.
+	 *
+	 * @param msg message with recipients, already saved
+	 * @throws MessagingException if the message could not be sent
+	 */
+	public void send(Message msg) throws MessagingException {
+
+		if (closed) {
+			throw new MessagingException("Mail transport pool is closed");
+		}
+
+		try {
+			if (!permits.tryAcquire(CHECKOUT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				failed.incrementAndGet();
+				throw new MessagingException("No SMTP transport free within " + CHECKOUT_TIMEOUT + " ms");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted waiting for an SMTP transport", e);
+		}
+
+		long begin = System.nanoTime();
+
+		try {
+			Pooled pooled = borrow();
+			boolean reused = pooled.messages > 0;
+
+			try {
+				deliver(pooled, msg);
+			} catch (SendFailedException e) {
+				throw e;
+			} catch (MessagingException e) {
+				if (!reused) {
+					throw e;
+				}
+				log.debug("Reused SMTP transport failed, reconnecting : " + e.getMessage());
+				reconnects.incrementAndGet();
+				pooled = connect();
+				deliver(pooled, msg);
+			}
+
+			sent.incrementAndGet();
+			release(pooled);
+
+		} catch (MessagingException | RuntimeException e) {
+			failed.incrementAndGet();
+			throw e;
+		} finally {
+			sendNanos.addAndGet(System.nanoTime() - begin);
+			permits.release();
+		}
+	}
+
+	/**
+	 * Closes the idle transports and refuses further messages.
+	 */
+	public void close() {
+		closed = true;
+		Pooled pooled;
+		while ((pooled = idle.pollFirst()) != null) {
+			discard(pooled);
+		}
+	}
+
+	/**
+	 * Sends a message over a transport, closing the transport if it fails so
+	 * that only transports that sent their last message are pooled.
+	 */
+	private void deliver(Pooled pooled, Message msg) throws MessagingException {
+		try {
+			pooled.transport.sendMessage(msg, msg.getAllRecipients());
+		} catch (MessagingException | RuntimeException e) {
+			discard(pooled);
+			throw e;
+		}
+		pooled.messages++;
+	}
+
+	/**
+	 * Returns the most recently used idle transport that is still connected,
+	 * or a new one.
+	 */
+	private Pooled borrow() throws MessagingException {
+
+		Pooled pooled;
+
+		while ((pooled = idle.pollFirst()) != null) {
+			if (System.currentTimeMillis() - pooled.lastUsed < idleMillis || pooled.transport.isConnected()) {
+				return pooled;
+			}
+			log.debug("Idle SMTP transport was disconnected");
+			reconnects.incrementAndGet();
+			discard(pooled);
+		}
+
+		return connect();
+	}
+
+	private Pooled connect() throws MessagingException {
+		Transport transport = session.getTransport("smtp");
+		transport.connect(host, port, user, password);
+		connects.incrementAndGet();
+		return new Pooled(transport);
+	}
+
+	private void release(Pooled pooled) {
+		if (closed || pooled.messages >= maxMessages) {
+			discard(pooled);
+		} else {
+			pooled.lastUsed = System.currentTimeMillis();
+			idle.offerFirst(pooled);
+		}
+	}
+
+	private void discard(Pooled pooled) {
+		try {
+			pooled.transport.close();
+		} catch (MessagingException e) {
+			log.debug("Exception in closing SMTP transport : " + e.getMessage());
+		}
+	}
+
+	public long getSent() {
+		return sent.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+
+	public long getConnects() {
+		return connects.get();
+	}
+
+	public long getReconnects() {
+		return reconnects.get();
+	}
+
+	public int getIdle() {
+		return idle.size();
+	}
+
+	/**
+	 * Returns the messages sent per second since the pool was created.
+	 *
+	 * @return send rate
+	 */
+	public double getSendRate() {
+		double seconds = (System.nanoTime() - created) / 1e9;
+		return seconds > 0 ? sent.get() / seconds : 0;
+	}
+
+	/**
+	 * Returns the average time to send a message, including waiting for and
+	 * connecting a transport.
+	 *
+	 * @return average send time in milliseconds
+	 */
+	public double getAverageSendMillis() {
+		long count = sent.get() + failed.get();
+		return count > 0 ? sendNanos.get() / 1e6 / count : 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("smtp[sent=%d, failed=%d, connects=%d, reconnects=%d, idle=%d, rate=%.1f/s, avg=%.2f ms]",
+				getSent(), getFailed(), getConnects(), getReconnects(), getIdle(), getSendRate(),
+				getAverageSendMillis());
+	}
+}
@@ -0,0 +1,175 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import in.co.rays.proj4.bean.BaseBean;
+
+/**
+ * Page holds one page of a list view together with its navigation state.
+ * <p>
+ * Models fetch <code>pageSize + 1</code> rows in a single query and pass them
+ * to {@link #of(List, int, int)}; the extra row only tells whether a next
+ * page exists and is dropped from the page. This replaces the second
+ * <code>search(bean, pageNo + 1, pageSize)</code> query that list controllers
+ * used to run to compute <code>nextListSize</code>.
+ * <p>
+ * Keyset pages built with {@link #seek(List, int, int, Cursor, Function)}
+ * also carry the cursors of their first and last rows, which the list views
+ * post back to move to the previous or next page.
+ *
+ * @param <T> bean type
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public class Page<T> {
+
+	private final List<T> list;
+	private final int pageNo;
+	private final int pageSize;
+	private final boolean next;
+	private final boolean previous;
+	private final String firstCursor;
+	private final String lastCursor;
+
+	/**
+	 * Creates a page.
+	 *
+	 * @param list     rows of this page
+	 * @param pageNo   page number starting at 1
+	 * @param pageSize page size
+	 * @param next     true if a next page exists
+	 */
+	public Page(List<T> list, int pageNo, int pageSize, boolean next) {
+		this(list, pageNo, pageSize, next, pageNo > 1, null, null);
+	}
+
+	private Page(List<T> list, int pageNo, int pageSize, boolean next, boolean previous, String firstCursor,
+			String lastCursor) {
+		this.list = (list == null) ? Collections.<T>emptyList() : list;
+		this.pageNo = pageNo;
+		this.pageSize = pageSize;
+		this.next = next;
+		this.previous = previous;
+		this.firstCursor = firstCursor;
+		this.lastCursor = lastCursor;
+	}
+
+	/**
+	 * Builds a page from rows fetched with a limit of <code>pageSize + 1</code>.
+	 *
+	 * @param rows     fetched rows, at most pageSize + 1
+	 * @param pageNo   page number starting at 1
+	 * @param pageSize page size, 0 for an unpaged list
+	 * @return page of at most pageSize rows
+	 */
+	public static <T> Page<T> of(List<T> rows, int pageNo, int pageSize) {
+		if (pageSize > 0 && rows != null && rows.size() > pageSize) {
+			return new Page<T>(new ArrayList<T>(rows.subList(0, pageSize)), pageNo, pageSize, true);
+		}
+		return new Page<T>(rows, pageNo, pageSize, false);
+	}
+
+	/**
+	 * Builds a keyset page from rows fetched with a limit of
+	 * <code>pageSize + 1</code> in the direction of the cursor, i.e. in
+	 * descending order for a backward cursor.
+	 *
+	 * @param rows     fetched rows, at most pageSize + 1
+	 * @param pageNo   page number starting at 1, used for serial numbers only
+	 * @param pageSize page size
+	 * @param cursor   cursor the rows were fetched with
+	 * @param key      returns the sort key of a row
+	 * @return page of at most pageSize rows in ascending order
+	 */
+	public static <T extends BaseBean> Page<T> seek(List<T> rows, int pageNo, int pageSize, Cursor cursor,
+			Function<T, String> key) {
+
+		boolean more = rows.size() > pageSize;
+		List<T> list = new ArrayList<T>(more ? rows.subList(0, pageSize) : rows);
+
+		if (!cursor.isForward()) {
+			Collections.reverse(list);
+		}
+
+		boolean next = cursor.isForward() ? more : true;
+		boolean previous = cursor.isForward() ? cursor.hasKey() : more;
+
+		String first = null;
+		String last = null;
+
+		if (!list.isEmpty()) {
+			T head = list.get(0);
+			T tail = list.get(list.size() - 1);
+			first = Cursor.before(DataUtility.getStringData(key.apply(head)), head.getId()).encode();
+			last = Cursor.after(DataUtility.getStringData(key.apply(tail)), tail.getId()).encode();
+		}
+		return new Page<T>(list, pageNo, pageSize, next, previous, first, last);
+	}
+
+	/**
+	 * Returns the row offset of a page, i.e. the number of rows before it.
+	 *
+	 * @param pageNo   page number starting at 1
+	 * @param pageSize page size
+	 * @return row offset
+	 */
+	public static int offset(int pageNo, int pageSize) {
+		return (pageNo > 1 && pageSize > 0) ? (pageNo - 1) * pageSize : 0;
+	}
+
+	public List<T> getList() {
+		return list;
+	}
+
+	public int getPageNo() {
+		return pageNo;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	public boolean hasNext() {
+		return next;
+	}
+
+	public boolean hasPrevious() {
+		return previous;
+	}
+
+	public boolean isEmpty() {
+		return list.isEmpty();
+	}
+
+	/**
+	 * Returns the cursor token of the first row, posted back to fetch the
+	 * previous page of a keyset page.
+	 *
+	 * @return cursor token or null
+	 */
+	public String getFirstCursor() {
+		return firstCursor;
+	}
+
+	/**
+	 * Returns the cursor token of the last row, posted back to fetch the
+	 * next page of a keyset page.
+	 *
+	 * @return cursor token or null
+	 */
+	public String getLastCursor() {
+		return lastCursor;
+	}
+
+	/**
+	 * Returns the serial number of the first row of this page.
+	 *
+	 * @return serial number starting at 1
+	 */
+	public int getIndex() {
+		return offset(pageNo, pageSize) + 1;
+	}
+}
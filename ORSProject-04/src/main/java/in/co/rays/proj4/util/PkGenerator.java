@@ -0,0 +1,231 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.DatabaseException;
+
+/**
+ * PkGenerator is a hi/lo primary key allocator shared by all models.
+ * <p>
+ * Instead of running <code>select max(id)</code> before every insert, each
+ * table reserves a block of ids from the <code>st_sequence</code> table in a
+ * short transaction of its own, outside any open {@link UnitOfWork}, and then
+ * serves ids from memory. Serving an id from the current block is a single
+ * compare-and-set; only the thread that finds the block exhausted takes the
+ * table lock and reserves the next block.
+ * <p>
+ * The <code>st_sequence</code> row of a table is seeded from
+ * <code>max(id)</code> of that table only when the row is missing, the
+ * first time the table is used, so existing data is respected.
+ * <p>
+ * Configuration is loaded from <b>in.co.rays.proj4.bundle.system</b>:
+ * <ul>
+ *   <li>pk.block.size - number of ids reserved per round trip</li>
+ * </ul>
+ *
+ * Example:
+ * <pre>
+ *   long pk = PkGenerator.nextPk("st_marksheet");
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class PkGenerator {
+
+	private static Logger log = Logger.getLogger(PkGenerator.class);
+
+	private static final int BLOCK_SIZE = DataUtility.getInt(PropertyReader.getValue("pk.block.size")) > 0
+			? DataUtility.getInt(PropertyReader.getValue("pk.block.size"))
+			: 50;
+
+	private static final ConcurrentHashMap<String, PkGenerator> generators = new ConcurrentHashMap<>();
+
+	private static volatile boolean tableReady = false;
+
+	private final String table;
+
+	private volatile Block block = new Block(1, 0);
+
+	/**
+	 * A reserved range of ids [next, hi].
+	 */
+	private static final class Block {
+
+		private final AtomicLong next;
+		private final long hi;
+
+		private Block(long lo, long hi) {
+			this.next = new AtomicLong(lo);
+			this.hi = hi;
+		}
+
+		/**
+		 * @return next id of this block or -1 if the block is exhausted
+		 */
+		private long take() {
+			long id;
+			do {
+				id = next.get();
+				if (id > hi) {
+					return -1;
+				}
+			} while (!next.compareAndSet(id, id + 1));
+			return id;
+		}
+	}
+
+	private PkGenerator(String table) {
+		this.table = table;
+	}
+
+	/**
+	 * Returns the next primary key for the given table.
+	 *
+	 * @param table table name, e.g. <code>st_marksheet</code>
+	 * @return next unused primary key
+	 * @throws DatabaseException if a new block could not be reserved
+	 */
+	public static long nextPk(String table) throws DatabaseException {
+		PkGenerator generator = generators.get(table);
+		if (generator == null) {
+			generator = generators.computeIfAbsent(table, PkGenerator::new);
+		}
+		return generator.next();
+	}
+
+	/**
+	 * Forgets all in-memory blocks. Ids of unused blocks are not reused, the
+	 * next call reserves a fresh block from <code>st_sequence</code>.
+	 */
+	public static void reset() {
+		generators.clear();
+	}
+
+	private long next() throws DatabaseException {
+		long id = block.take();
+		if (id > 0) {
+			return id;
+		}
+		synchronized (this) {
+			id = block.take();
+			while (id <= 0) {
+				block = reserve();
+				id = block.take();
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Reserves the next block of ids for this table in a short transaction.
+	 */
+	private Block reserve() throws DatabaseException {
+
+		Connection conn = null;
+		long lo = 0;
+
+		log.debug("reserve() started for " + table);
+
+		try {
+			createTable();
+
+			conn = JDBCDataSource.getNewConnection();
+			conn.setAutoCommit(false);
+
+			lo = lockNextVal(conn);
+			if (lo == 0) {
+				seed(conn);
+				lo = lockNextVal(conn);
+			}
+
+			PreparedStatement pstmt = conn.prepareStatement("update st_sequence set next_val = ? where seq_name = ?");
+			pstmt.setLong(1, lo + BLOCK_SIZE);
+			pstmt.setString(2, table);
+			pstmt.executeUpdate();
+			pstmt.close();
+
+			conn.commit();
+
+			log.debug("Reserved PK block [" + lo + ", " + (lo + BLOCK_SIZE - 1) + "] for " + table);
+
+		} catch (Exception e) {
+			log.error("Exception in reserve()", e);
+			try {
+				if (conn != null) {
+					conn.rollback();
+				}
+			} catch (Exception ex) {
+				throw new DatabaseException("Exception : rollback exception " + ex.getMessage());
+			}
+			throw new DatabaseException("Exception : Exception in getting PK for " + table);
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return new Block(lo, lo + BLOCK_SIZE - 1);
+	}
+
+	/**
+	 * Reads and locks the <code>st_sequence</code> row of this table.
+	 *
+	 * @return next free id or 0 if the row is not seeded yet
+	 */
+	private long lockNextVal(Connection conn) throws Exception {
+
+		long nextVal = 0;
+		PreparedStatement pstmt = conn.prepareStatement("select next_val from st_sequence where seq_name = ? for update");
+		pstmt.setString(1, table);
+		ResultSet rs = pstmt.executeQuery();
+		if (rs.next()) {
+			nextVal = rs.getLong(1);
+		}
+		rs.close();
+		pstmt.close();
+		return nextVal;
+	}
+
+	/**
+	 * Inserts the <code>st_sequence</code> row of this table from
+	 * <code>max(id)</code>, unless another node has just inserted it.
+	 */
+	private void seed(Connection conn) throws Exception {
+
+		log.info("Seeding st_sequence for " + table);
+
+		PreparedStatement pstmt = conn.prepareStatement(
+				"insert ignore into st_sequence (seq_name, next_val) select ?, coalesce(max(id), 0) + 1 from " + table);
+		pstmt.setString(1, table);
+		pstmt.executeUpdate();
+		pstmt.close();
+	}
+
+	/**
+	 * Creates the <code>st_sequence</code> table once per JVM if it is missing.
+	 */
+	private static void createTable() throws Exception {
+
+		if (tableReady) {
+			return;
+		}
+
+		Connection conn = null;
+		Statement stmt = null;
+
+		try {
+			conn = JDBCDataSource.getNewConnection();
+			stmt = conn.createStatement();
+			stmt.executeUpdate("create table if not exists st_sequence ("
+					+ "seq_name varchar(64) not null primary key, next_val bigint not null)");
+			tableReady = true;
+		} finally {
+			JDBCDataSource.closeConnection(conn, stmt);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package in.co.rays.proj4.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimiter spaces out permits evenly to at most a given number per
+ * second, shared by all threads that acquire from it. A rate of 0 or less
+ * does not limit.
+ *
+ * Example:
+ * <pre>
+ *   RateLimiter limiter = new RateLimiter(20);
+ *   limiter.acquire(batch.size());
+ *   // send the batch
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class RateLimiter {
+
+	private final long interval;
+
+	private long next = System.nanoTime();
+
+	/**
+	 * Creates a limiter.
+	 *
+	 * @param permitsPerSecond permits per second, 0 for no limit
+	 */
+	public RateLimiter(double permitsPerSecond) {
+		this.interval = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+	}
+
+	/**
+	 * Waits until the given number of permits is available.
+	 *
+	 * @param permits number of permits
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void acquire(int permits) throws InterruptedException {
+		long wait = reserve(permits);
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+	/**
+	 * Reserves permits and returns the nanoseconds to wait before using
+	 * them. A batch waits for the permits taken before it, so the permits it
+	 * takes delay the next caller.
+	 */
+	private synchronized long reserve(int permits) {
+
+		if (interval == 0) {
+			return 0;
+		}
+
+		long now = System.nanoTime();
+		if (next < now) {
+			next = now;
+		}
+		long wait = next - now;
+		next += permits * interval;
+		return wait;
+	}
+}
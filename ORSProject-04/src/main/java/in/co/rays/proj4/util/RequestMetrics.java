@@ -0,0 +1,380 @@
+package in.co.rays.proj4.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import in.co.rays.proj4.model.DropdownCache;
+
+/**
+ * RequestMetrics counts the requests of every controller and operation:
+ * requests, errors, requests in flight and a latency histogram.
+ * <p>
+ * Recording takes no lock. Each counter is a {@link LongAdder} and the
+ * histogram has fixed buckets, each a {@link LongAdder} too, so threads
+ * recording the same operation do not contend. Buckets are cumulative
+ * only when written out.
+ * <p>
+ * {@link #write(Writer)} writes all metrics in the Prometheus text
+ * exposition format:
+ * <ul>
+ *   <li>ors_http_requests_in_flight - gauge per controller</li>
+ *   <li>ors_http_request_errors_total - counter per controller and
+ *       operation</li>
+ *   <li>ors_http_request_duration_seconds - histogram per controller and
+ *       operation, with its _bucket, _sum and _count series</li>
+ *   <li>ors_cache_size, ors_cache_hits_total, ors_cache_misses_total,
+ *       ors_cache_evictions_total and ors_cache_invalidations_total - per
+ *       {@link EntityCache}, with hits and misses of the
+ *       {@link DropdownCache} as cache "dropdown"</li>
+ *   <li>ors_mail_sent_total, ors_mail_failed_total,
+ *       ors_mail_connects_total, ors_mail_reconnects_total and
+ *       ors_mail_idle_transports - of the {@link MailTransportPool} of
+ *       {@link EmailUtility}</li>
+ * </ul>
+ *
+ * Example:
+ * <pre>
+ *   Timer timer = RequestMetrics.controller("MarksheetListCtl").timer("Search");
+ *   long start = timer.start();
+ *   try {
+ *       ...
+ *   } finally {
+ *       timer.stop(start, failed);
+ *   }
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class RequestMetrics {
+
+	/** Upper bounds of the latency buckets in seconds, +Inf is implied */
+	private static final double[] BUCKETS = { 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5,
+			10 };
+
+	private static final long[] BUCKET_NANOS = new long[BUCKETS.length];
+
+	static {
+		for (int i = 0; i < BUCKETS.length; i++) {
+			BUCKET_NANOS[i] = (long) (BUCKETS[i] * TimeUnit.SECONDS.toNanos(1));
+		}
+	}
+
+	private static final Map<String, Controller> controllers = new ConcurrentSkipListMap<>();
+
+	private RequestMetrics() {
+	}
+
+	/**
+	 * Returns the metrics of a controller, created on first use.
+	 *
+	 * @param name controller name
+	 * @return metrics of the controller
+	 */
+	public static Controller controller(String name) {
+		return controllers.computeIfAbsent(name, Controller::new);
+	}
+
+	/**
+	 * Returns the metrics of all controllers, by name.
+	 *
+	 * @return controllers in name order
+	 */
+	public static List<Controller> getControllers() {
+		return new ArrayList<>(controllers.values());
+	}
+
+	/**
+	 * Sets every counter back to zero.
+	 */
+	public static void reset() {
+		for (Controller controller : controllers.values()) {
+			for (Timer timer : controller.timers.values()) {
+				timer.reset();
+			}
+		}
+	}
+
+	/**
+	 * Requests of one controller.
+	 */
+	public static final class Controller {
+
+		private final String name;
+		private final LongAdder inFlight = new LongAdder();
+		private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+		private Controller(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Returns the timer of an operation, created on first use. The
+		 * caller keeps the number of operations small, e.g. to the
+		 * operations the controller knows.
+		 *
+		 * @param operation operation name
+		 * @return timer of the operation
+		 */
+		public Timer timer(String operation) {
+			Timer timer = timers.get(operation);
+			return (timer != null) ? timer : timers.computeIfAbsent(operation, op -> new Timer(this, op));
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getInFlight() {
+			return inFlight.sum();
+		}
+
+		/**
+		 * Returns the timers of the operations, by name.
+		 *
+		 * @return timers in operation order
+		 */
+		public List<Timer> getTimers() {
+			return new ArrayList<>(new ConcurrentSkipListMap<>(timers).values());
+		}
+	}
+
+	/**
+	 * Requests of one operation of a controller.
+	 */
+	public static final class Timer {
+
+		private final Controller controller;
+		private final String operation;
+		private final LongAdder count = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder[] buckets = new LongAdder[BUCKETS.length + 1];
+
+		private Timer(Controller controller, String operation) {
+			this.controller = controller;
+			this.operation = operation;
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = new LongAdder();
+			}
+		}
+
+		/**
+		 * Counts a request in flight.
+		 *
+		 * @return start time to pass to {@link #stop(long, boolean)}
+		 */
+		public long start() {
+			controller.inFlight.increment();
+			return System.nanoTime();
+		}
+
+		/**
+		 * Records a finished request.
+		 *
+		 * @param start  value returned by {@link #start()}
+		 * @param failed true if the request failed
+		 */
+		public void stop(long start, boolean failed) {
+			long elapsed = System.nanoTime() - start;
+			controller.inFlight.decrement();
+
+			int bucket = 0;
+			while (bucket < BUCKET_NANOS.length && elapsed > BUCKET_NANOS[bucket]) {
+				bucket++;
+			}
+			buckets[bucket].increment();
+			nanos.add(elapsed);
+			count.increment();
+			if (failed) {
+				errors.increment();
+			}
+		}
+
+		public String getOperation() {
+			return operation;
+		}
+
+		public long getCount() {
+			return count.sum();
+		}
+
+		public long getErrors() {
+			return errors.sum();
+		}
+
+		/**
+		 * Returns the total time of the recorded requests.
+		 *
+		 * @return nanoseconds
+		 */
+		public long getTotalNanos() {
+			return nanos.sum();
+		}
+
+		/**
+		 * Returns the requests per bucket, not cumulative, the last one for
+		 * requests slower than the last bound.
+		 *
+		 * @return count per bucket
+		 */
+		public long[] getBucketCounts() {
+			long[] counts = new long[buckets.length];
+			for (int i = 0; i < buckets.length; i++) {
+				counts[i] = buckets[i].sum();
+			}
+			return counts;
+		}
+
+		private void reset() {
+			count.reset();
+			errors.reset();
+			nanos.reset();
+			for (LongAdder bucket : buckets) {
+				bucket.reset();
+			}
+		}
+	}
+
+	/**
+	 * Writes the metrics of all controllers, caches and the mail transport
+	 * pool in the Prometheus text exposition format, version 0.0.4.
+	 *
+	 * @param out writer of the response
+	 * @throws IOException if the writer fails
+	 */
+	public static void write(Writer out) throws IOException {
+
+		List<Controller> list = getControllers();
+
+		out.write("# HELP ors_http_requests_in_flight Requests being handled by a controller.\n");
+		out.write("# TYPE ors_http_requests_in_flight gauge\n");
+		for (Controller controller : list) {
+			out.write("ors_http_requests_in_flight{controller=\"" + escape(controller.getName()) + "\"} "
+					+ controller.getInFlight() + "\n");
+		}
+
+		out.write("# HELP ors_http_request_errors_total Requests that ended with an exception or error page.\n");
+		out.write("# TYPE ors_http_request_errors_total counter\n");
+		for (Controller controller : list) {
+			for (Timer timer : controller.getTimers()) {
+				out.write("ors_http_request_errors_total" + labels(controller, timer) + "} " + timer.getErrors()
+						+ "\n");
+			}
+		}
+
+		out.write("# HELP ors_http_request_duration_seconds Time to handle a request, view included.\n");
+		out.write("# TYPE ors_http_request_duration_seconds histogram\n");
+		for (Controller controller : list) {
+			for (Timer timer : controller.getTimers()) {
+				String labels = labels(controller, timer);
+				long[] counts = timer.getBucketCounts();
+				long cumulative = 0;
+				for (int i = 0; i < counts.length; i++) {
+					cumulative += counts[i];
+					String le = (i < BUCKETS.length) ? String.valueOf(BUCKETS[i]) : "+Inf";
+					out.write("ors_http_request_duration_seconds_bucket" + labels + ",le=\"" + le + "\"} " + cumulative
+							+ "\n");
+				}
+				out.write("ors_http_request_duration_seconds_sum" + labels + "} "
+						+ String.format(Locale.ROOT, "%.6f", timer.getTotalNanos() / 1e9) + "\n");
+				out.write("ors_http_request_duration_seconds_count" + labels + "} " + cumulative + "\n");
+			}
+		}
+
+		writeCaches(out);
+		writeMail(out);
+		out.flush();
+	}
+
+	private static void writeCaches(Writer out) throws IOException {
+
+		List<EntityCache<?>> caches = EntityCache.getCaches();
+
+		out.write("# HELP ors_cache_size Entries held by a cache.\n");
+		out.write("# TYPE ors_cache_size gauge\n");
+		for (EntityCache<?> cache : caches) {
+			out.write("ors_cache_size" + labels(cache.getName()) + cache.size() + "\n");
+		}
+
+		out.write("# HELP ors_cache_hits_total Reads answered by a cache.\n");
+		out.write("# TYPE ors_cache_hits_total counter\n");
+		for (EntityCache<?> cache : caches) {
+			out.write("ors_cache_hits_total" + labels(cache.getName()) + cache.getHits() + "\n");
+		}
+		out.write("ors_cache_hits_total" + labels("dropdown") + DropdownCache.getHits() + "\n");
+
+		out.write("# HELP ors_cache_misses_total Reads a cache passed to the database.\n");
+		out.write("# TYPE ors_cache_misses_total counter\n");
+		for (EntityCache<?> cache : caches) {
+			out.write("ors_cache_misses_total" + labels(cache.getName()) + cache.getMisses() + "\n");
+		}
+		out.write("ors_cache_misses_total" + labels("dropdown") + DropdownCache.getMisses() + "\n");
+
+		out.write("# HELP ors_cache_evictions_total Entries dropped because a cache was full.\n");
+		out.write("# TYPE ors_cache_evictions_total counter\n");
+		for (EntityCache<?> cache : caches) {
+			out.write("ors_cache_evictions_total" + labels(cache.getName()) + cache.getEvictions() + "\n");
+		}
+
+		out.write("# HELP ors_cache_invalidations_total Entries dropped because their row was written.\n");
+		out.write("# TYPE ors_cache_invalidations_total counter\n");
+		for (EntityCache<?> cache : caches) {
+			out.write("ors_cache_invalidations_total" + labels(cache.getName()) + cache.getInvalidations() + "\n");
+		}
+	}
+
+	private static void writeMail(Writer out) throws IOException {
+
+		MailTransportPool pool = EmailUtility.getTransportPool();
+		String labels = "{pool=\"smtp\"} ";
+
+		out.write("# HELP ors_mail_sent_total Mails sent through the transport pool.\n");
+		out.write("# TYPE ors_mail_sent_total counter\n");
+		out.write("ors_mail_sent_total" + labels + pool.getSent() + "\n");
+
+		out.write("# HELP ors_mail_failed_total Mails the transport pool failed to send.\n");
+		out.write("# TYPE ors_mail_failed_total counter\n");
+		out.write("ors_mail_failed_total" + labels + pool.getFailed() + "\n");
+
+		out.write("# HELP ors_mail_connects_total SMTP connections opened.\n");
+		out.write("# TYPE ors_mail_connects_total counter\n");
+		out.write("ors_mail_connects_total" + labels + pool.getConnects() + "\n");
+
+		out.write("# HELP ors_mail_reconnects_total SMTP connections opened again after one dropped.\n");
+		out.write("# TYPE ors_mail_reconnects_total counter\n");
+		out.write("ors_mail_reconnects_total" + labels + pool.getReconnects() + "\n");
+
+		out.write("# HELP ors_mail_idle_transports Connected transports waiting in the pool.\n");
+		out.write("# TYPE ors_mail_idle_transports gauge\n");
+		out.write("ors_mail_idle_transports" + labels + pool.getIdle() + "\n");
+	}
+
+	/**
+	 * Returns the label of a cache with the closing brace and the space
+	 * before the value.
+	 */
+	private static String labels(String cache) {
+		return "{cache=\"" + escape(cache) + "\"} ";
+	}
+
+	/**
+	 * Returns the labels of a timer without the closing brace.
+	 */
+	private static String labels(Controller controller, Timer timer) {
+		return "{controller=\"" + escape(controller.getName()) + "\",operation=\"" + escape(timer.getOperation())
+				+ "\"";
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+}
@@ -0,0 +1,279 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * RuleSet declares the validation of a form once, as a list of fields with
+ * their rules, so a controller's <code>validate()</code> checks all fields
+ * in one pass over the request parameters.
+ * <p>
+ * The rules of a field are checked in order and the first that fails sets
+ * the field's error message as a request attribute, the same as the
+ * <code>if / else if</code> chains it replaces. A field that is
+ * {@link #required()} and empty gets <code>error.require</code> and its
+ * other rules are skipped; an empty field that is not required passes.
+ * Messages from <code>System.properties</code> are read only when a rule
+ * fails.
+ *
+ * Example:
+ * <pre>
+ *   private static final RuleSet RULES = new RuleSet()
+ *           .field("firstName", "First Name").required().name("Invalid First Name")
+ *           .field("email", "Email").required().email()
+ *           .field("mobileNo", "Mobile No").required().phone();
+ *
+ *   protected boolean validate(HttpServletRequest request) {
+ *       return RULES.validate(request);
+ *   }
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class RuleSet {
+
+	private final List<Field> fields = new ArrayList<Field>();
+
+	private Field current;
+
+	/**
+	 * Checks a parameter and the other parameters of its form.
+	 */
+	private interface Check {
+		boolean valid(String value, Function<String, String> params);
+	}
+
+	/**
+	 * A check with the message it sets when it fails, either a fixed text
+	 * or a message key with a label.
+	 */
+	private static final class Rule {
+
+		private final Check check;
+		private final String message;
+		private final String key;
+		private final String label;
+
+		private Rule(Check check, String message, String key, String label) {
+			this.check = check;
+			this.message = message;
+			this.key = key;
+			this.label = label;
+		}
+
+		private String message() {
+			return key != null ? PropertyReader.getValue(key, label) : message;
+		}
+	}
+
+	private static final class Field {
+
+		private final String name;
+		private final String label;
+		private boolean required;
+		private final List<Rule> rules = new ArrayList<Rule>();
+
+		private Field(String name, String label) {
+			this.name = name;
+			this.label = label;
+		}
+	}
+
+	/**
+	 * Starts the rules of a field. The rules that follow apply to it.
+	 *
+	 * @param name  request parameter, also the attribute of its message
+	 * @param label field name shown in messages
+	 * @return this rule set
+	 */
+	public RuleSet field(String name, String label) {
+		current = new Field(name, label);
+		fields.add(current);
+		return this;
+	}
+
+	/**
+	 * The field must not be empty.
+	 *
+	 * @return this rule set
+	 */
+	public RuleSet required() {
+		field().required = true;
+		return this;
+	}
+
+	/**
+	 * The field must pass a check.
+	 *
+	 * @param valid   check of the value
+	 * @param message message if it fails
+	 * @return this rule set
+	 */
+	public RuleSet rule(Predicate<String> valid, String message) {
+		field().rules.add(new Rule((value, params) -> valid.test(value), message, null, null));
+		return this;
+	}
+
+	/**
+	 * The field must pass a check, with a message from
+	 * <code>System.properties</code>.
+	 *
+	 * @param valid check of the value
+	 * @param key   message key
+	 * @param label parameter of the message
+	 * @return this rule set
+	 */
+	public RuleSet rule(Predicate<String> valid, String key, String label) {
+		field().rules.add(new Rule((value, params) -> valid.test(value), null, key, label));
+		return this;
+	}
+
+	/**
+	 * The field must be a name, see {@link DataValidator#isName(String)}.
+	 *
+	 * @param message message if it is not
+	 * @return this rule set
+	 */
+	public RuleSet name(String message) {
+		return rule(DataValidator::isName, message);
+	}
+
+	/**
+	 * The field must be an email address, with <code>error.email</code>.
+	 *
+	 * @return this rule set
+	 */
+	public RuleSet email() {
+		return rule(DataValidator::isEmail, "error.email", field().label);
+	}
+
+	/**
+	 * The field must be a date, with <code>error.date</code>.
+	 *
+	 * @return this rule set
+	 */
+	public RuleSet date() {
+		return rule(DataValidator::isDate, "error.date", field().label);
+	}
+
+	/**
+	 * The field must be an integer from min to max, with
+	 * <code>error.integer</code> if it is not a number.
+	 *
+	 * @param min     smallest value
+	 * @param max     largest value
+	 * @param message message if it is out of range
+	 * @return this rule set
+	 */
+	public RuleSet integer(int min, int max, String message) {
+		rule(DataValidator::isInteger, "error.integer", field().label);
+		return rule(value -> {
+			int n = Integer.parseInt(value);
+			return n >= min && n <= max;
+		}, message);
+	}
+
+	/**
+	 * The field must be a mobile number of 10 digits.
+	 *
+	 * @return this rule set
+	 */
+	public RuleSet phone() {
+		String label = field().label;
+		rule(DataValidator::isPhoneLength, label + " must have 10 digits");
+		return rule(DataValidator::isPhoneNo, "Invalid " + label);
+	}
+
+	/**
+	 * The field must be a strong password of 8 to 12 characters.
+	 *
+	 * @return this rule set
+	 */
+	public RuleSet password() {
+		rule(DataValidator::isPasswordLength, "Password should be 8 to 12 characters");
+		return rule(DataValidator::isPassword, "Must contain uppercase, lowercase, digit & special character");
+	}
+
+	/**
+	 * The field must equal another field.
+	 *
+	 * @param other   name of the other field
+	 * @param message message if they differ
+	 * @return this rule set
+	 */
+	public RuleSet same(String other, String message) {
+		field().rules.add(new Rule((value, params) -> value.equals(params.apply(other)), message, null, null));
+		return this;
+	}
+
+	/**
+	 * The field must not equal another field.
+	 *
+	 * @param other   name of the other field
+	 * @param message message if they are equal
+	 * @return this rule set
+	 */
+	public RuleSet differs(String other, String message) {
+		field().rules.add(new Rule((value, params) -> !value.equals(params.apply(other)), message, null, null));
+		return this;
+	}
+
+	/**
+	 * Validates the parameters of a request and sets the message of each
+	 * invalid field as a request attribute.
+	 *
+	 * @param request HTTP request
+	 * @return true if all fields are valid
+	 */
+	public boolean validate(HttpServletRequest request) {
+		return validate(request::getParameter, request::setAttribute);
+	}
+
+	/**
+	 * Validates form values.
+	 *
+	 * @param params value of a field by name
+	 * @param errors receives the field name and message of each invalid
+	 *               field
+	 * @return true if all fields are valid
+	 */
+	public boolean validate(Function<String, String> params, BiConsumer<String, String> errors) {
+
+		boolean pass = true;
+
+		for (Field field : fields) {
+
+			String value = params.apply(field.name);
+
+			if (DataValidator.isNull(value)) {
+				if (field.required) {
+					errors.accept(field.name, PropertyReader.getValue("error.require", field.label));
+					pass = false;
+				}
+				continue;
+			}
+
+			for (Rule rule : field.rules) {
+				if (!rule.check.valid(value, params)) {
+					errors.accept(field.name, rule.message());
+					pass = false;
+					break;
+				}
+			}
+		}
+		return pass;
+	}
+
+	private Field field() {
+		if (current == null) {
+			throw new IllegalStateException("Rule added before field()");
+		}
+		return current;
+	}
+}
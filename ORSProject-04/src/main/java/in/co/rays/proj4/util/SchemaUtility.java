@@ -0,0 +1,157 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+
+/**
+ * SchemaUtility creates the tables and indexes the models rely on when they
+ * are missing from an existing database.
+ * <p>
+ * Each table and index is checked through {@link DatabaseMetaData} once per
+ * JVM, on a connection of its own outside any open {@link UnitOfWork}.
+ * Checks are serialized, so concurrent first requests create an object
+ * only once. A
+ * failure is logged and does not fail the calling query; a missing index
+ * only makes it slower.
+ *
+ * Example:
+ * <pre>
+ *   SchemaUtility.createIndex("st_student", "idx_student_first_name", "first_name, id");
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class SchemaUtility {
+
+	private static Logger log = Logger.getLogger(SchemaUtility.class);
+
+	private static final Set<String> checked = ConcurrentHashMap.newKeySet();
+
+	private SchemaUtility() {
+	}
+
+	/**
+	 * Creates an index on the given table if no index of that name exists.
+	 *
+	 * @param table   table name
+	 * @param index   index name
+	 * @param columns comma separated column list
+	 */
+	public static void createIndex(String table, String index, String columns) {
+
+		if (checked.contains(index)) {
+			return;
+		}
+
+		synchronized (SchemaUtility.class) {
+			if (!checked.contains(index)) {
+				doCreateIndex(table, index, columns);
+			}
+		}
+	}
+
+	private static void doCreateIndex(String table, String index, String columns) {
+
+		Connection conn = null;
+		Statement stmt = null;
+
+		try {
+			conn = JDBCDataSource.getNewConnection();
+
+			if (!hasIndex(conn.getMetaData(), table, index)) {
+				stmt = conn.createStatement();
+				stmt.executeUpdate("create index " + index + " on " + table + " (" + columns + ")");
+				log.info("Created index " + index + " on " + table + " (" + columns + ")");
+			}
+			checked.add(index);
+
+		} catch (Exception e) {
+			log.error("Exception in createIndex() for " + index, e);
+		} finally {
+			JDBCDataSource.closeConnection(conn, stmt);
+		}
+	}
+
+	/**
+	 * Creates a table if no table of that name exists.
+	 *
+	 * @param table   table name
+	 * @param columns column and constraint definitions, as inside the
+	 *                parentheses of <code>create table</code>
+	 * @return true if the table was created by this call
+	 */
+	public static boolean createTable(String table, String columns) {
+
+		if (checked.contains(table)) {
+			return false;
+		}
+
+		synchronized (SchemaUtility.class) {
+			return !checked.contains(table) && doCreateTable(table, columns);
+		}
+	}
+
+	private static boolean doCreateTable(String table, String columns) {
+
+		Connection conn = null;
+		Statement stmt = null;
+		boolean created = false;
+
+		try {
+			conn = JDBCDataSource.getNewConnection();
+
+			if (!hasTable(conn.getMetaData(), table)) {
+				stmt = conn.createStatement();
+				stmt.executeUpdate("create table " + table + " (" + columns + ")");
+				log.info("Created table " + table);
+				created = true;
+			}
+			checked.add(table);
+
+		} catch (Exception e) {
+			log.error("Exception in createTable() for " + table, e);
+		} finally {
+			JDBCDataSource.closeConnection(conn, stmt);
+		}
+		return created;
+	}
+
+	private static boolean hasTable(DatabaseMetaData meta, String table) throws Exception {
+
+		String catalog = meta.getConnection().getCatalog();
+
+		for (String name : new String[] { table, table.toUpperCase() }) {
+			ResultSet rs = meta.getTables(catalog, null, name, null);
+			try {
+				if (rs.next()) {
+					return true;
+				}
+			} finally {
+				rs.close();
+			}
+		}
+		return false;
+	}
+
+	private static boolean hasIndex(DatabaseMetaData meta, String table, String index) throws Exception {
+
+		ResultSet rs = meta.getIndexInfo(meta.getConnection().getCatalog(), null, table, false, true);
+		try {
+			while (rs.next()) {
+				if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+					return true;
+				}
+			}
+		} finally {
+			rs.close();
+		}
+		return false;
+	}
+}
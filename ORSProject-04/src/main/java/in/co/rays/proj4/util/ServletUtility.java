@@ -216,6 +216,74 @@ public class ServletUtility {
 		return (val instanceof Integer) ? (Integer) val : 0;
 	}
 
+	/**
+	 * Stores a page of a list view in request scope under attribute
+	 * "listPage", together with its list, page number and page size.
+	 *
+	 * @param page    Page object
+	 * @param request HttpServletRequest
+	 */
+	public static void setPage(Page<?> page, HttpServletRequest request) {
+		request.setAttribute("listPage", page);
+		setList(page.getList(), request);
+		setPageNo(page.getPageNo(), request);
+		setPageSize(page.getPageSize(), request);
+	}
+
+	/**
+	 * Retrieves page from request scope.
+	 *
+	 * @param request HttpServletRequest
+	 * @return Page or null
+	 */
+	public static Page<?> getPage(HttpServletRequest request) {
+		return (Page<?>) request.getAttribute("listPage");
+	}
+
+	/**
+	 * Tells whether the page in request scope has a next page.
+	 *
+	 * @param request HttpServletRequest
+	 * @return true if a next page exists
+	 */
+	public static boolean hasNextPage(HttpServletRequest request) {
+		Page<?> page = getPage(request);
+		return page != null && page.hasNext();
+	}
+
+	/**
+	 * Tells whether the page in request scope has a previous page.
+	 *
+	 * @param request HttpServletRequest
+	 * @return true if a previous page exists
+	 */
+	public static boolean hasPreviousPage(HttpServletRequest request) {
+		Page<?> page = getPage(request);
+		return page != null && page.hasPrevious();
+	}
+
+	/**
+	 * Gets the cursor token of the first row of a keyset page.
+	 *
+	 * @param request HttpServletRequest
+	 * @return cursor token, defaults to empty string
+	 */
+	public static String getFirstCursor(HttpServletRequest request) {
+		Page<?> page = getPage(request);
+		return (page != null) ? DataUtility.getStringData(page.getFirstCursor()) : "";
+	}
+
+	/**
+	 * Gets the cursor token of the last row of a keyset page.
+	 *
+	 * @param request HttpServletRequest
+	 * @return cursor token, defaults to empty string
+	 */
+	public static String getLastCursor(HttpServletRequest request) {
+		Page<?> page = getPage(request);
+		return (page != null) ? DataUtility.getStringData(page.getLastCursor()) : "";
+	}
+
 	/**
 	 * Centralized exception handling.
 	 * <br>
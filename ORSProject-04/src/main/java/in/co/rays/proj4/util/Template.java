@@ -0,0 +1,225 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template is a text with <code>{{name}}</code> placeholders, compiled once
+ * into its fixed fragments and placeholder names. Rendering looks up each
+ * placeholder once and writes into a buffer of the exact length, so no
+ * intermediate strings are built.
+ * <p>
+ * A placeholder without a value renders as <code>null</code>, the same as
+ * appending a missing map entry.
+ * <p>
+ * A template compiled with {@link #compileHtml(String)} escapes the HTML
+ * special characters of its values, so a name or password shows as typed
+ * and cannot add markup. A <code>{{&amp;name}}</code> placeholder is written
+ * as it is, for values that are already HTML.
+ *
+ * Example:
+ * <pre>
+ *   private static final Template WELCOME = Template.compileHtml("&lt;p&gt;Dear {{login}},&lt;/p&gt;");
+ *
+ *   String html = WELCOME.render(map);
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class Template {
+
+	private static final String OPEN = "{{";
+	private static final String CLOSE = "}}";
+	private static final String RAW = "&";
+
+	/** Fixed text around the placeholders, one more than the names */
+	private final String[] fragments;
+
+	private final String[] names;
+
+	/** Per placeholder, true if its value is HTML-escaped */
+	private final boolean[] escaped;
+
+	private final int fixedLength;
+
+	private Template(String[] fragments, String[] names, boolean[] escaped) {
+		this.fragments = fragments;
+		this.names = names;
+		this.escaped = escaped;
+
+		int length = 0;
+		for (String fragment : fragments) {
+			length += fragment.length();
+		}
+		this.fixedLength = length;
+	}
+
+	/**
+	 * Compiles a template.
+	 *
+	 * @param text template text
+	 * @return compiled template
+	 * @throws IllegalArgumentException if a placeholder is not closed or has
+	 *                                  no name
+	 */
+	public static Template compile(String text) {
+		return compile(text, false);
+	}
+
+	/**
+	 * Compiles an HTML template, whose values are escaped except those of
+	 * <code>{{&amp;name}}</code> placeholders.
+	 *
+	 * @param text template text
+	 * @return compiled template
+	 * @throws IllegalArgumentException if a placeholder is not closed or has
+	 *                                  no name
+	 */
+	public static Template compileHtml(String text) {
+		return compile(text, true);
+	}
+
+	private static Template compile(String text, boolean html) {
+
+		List<String> fragments = new ArrayList<String>();
+		List<String> names = new ArrayList<String>();
+		List<Boolean> escaped = new ArrayList<Boolean>();
+
+		int from = 0;
+		int open;
+
+		while ((open = text.indexOf(OPEN, from)) >= 0) {
+			int close = text.indexOf(CLOSE, open + OPEN.length());
+			if (close < 0) {
+				throw new IllegalArgumentException("Placeholder not closed at " + open + " : " + text);
+			}
+			String name = text.substring(open + OPEN.length(), close).trim();
+			boolean raw = html && name.startsWith(RAW);
+			if (raw) {
+				name = name.substring(RAW.length()).trim();
+			}
+			if (name.isEmpty()) {
+				throw new IllegalArgumentException("Placeholder without a name at " + open + " : " + text);
+			}
+			fragments.add(text.substring(from, open));
+			names.add(name);
+			escaped.add(html && !raw);
+			from = close + CLOSE.length();
+		}
+		fragments.add(text.substring(from));
+
+		boolean[] flags = new boolean[escaped.size()];
+		for (int i = 0; i < flags.length; i++) {
+			flags[i] = escaped.get(i);
+		}
+		return new Template(fragments.toArray(new String[0]), names.toArray(new String[0]), flags);
+	}
+
+	/**
+	 * Renders the template.
+	 *
+	 * @param values placeholder values by name
+	 * @return rendered text
+	 */
+	public String render(Map<String, ?> values) {
+
+		String[] resolved = resolve(values);
+		StringBuilder out = new StringBuilder(length(resolved));
+		write(resolved, out);
+		return out.toString();
+	}
+
+	/**
+	 * Renders the template at the end of a buffer, used to render it many
+	 * times into one text.
+	 *
+	 * @param values placeholder values by name
+	 * @param out    buffer to append to
+	 */
+	public void render(Map<String, ?> values, StringBuilder out) {
+
+		String[] resolved = resolve(values);
+		out.ensureCapacity(out.length() + length(resolved));
+		write(resolved, out);
+	}
+
+	/**
+	 * Returns the placeholder names in the order they appear, a name used
+	 * twice is returned twice.
+	 *
+	 * @return placeholder names
+	 */
+	public String[] getNames() {
+		return names.clone();
+	}
+
+	/**
+	 * Escapes the HTML special characters of a text. A text without any is
+	 * returned as it is.
+	 *
+	 * @param text text to escape
+	 * @return text safe inside HTML elements and quoted attributes
+	 */
+	public static String escapeHtml(String text) {
+
+		StringBuilder out = null;
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			String entity;
+			switch (c) {
+			case '&':
+				entity = "&amp;";
+				break;
+			case '<':
+				entity = "&lt;";
+				break;
+			case '>':
+				entity = "&gt;";
+				break;
+			case '"':
+				entity = "&quot;";
+				break;
+			case '\'':
+				entity = "&#39;";
+				break;
+			default:
+				if (out != null) {
+					out.append(c);
+				}
+				continue;
+			}
+			if (out == null) {
+				out = new StringBuilder(text.length() + 16).append(text, 0, i);
+			}
+			out.append(entity);
+		}
+		return (out == null) ? text : out.toString();
+	}
+
+	private String[] resolve(Map<String, ?> values) {
+		String[] resolved = new String[names.length];
+		for (int i = 0; i < names.length; i++) {
+			String value = String.valueOf(values.get(names[i]));
+			resolved[i] = escaped[i] ? escapeHtml(value) : value;
+		}
+		return resolved;
+	}
+
+	private int length(String[] resolved) {
+		int length = fixedLength;
+		for (String value : resolved) {
+			length += value.length();
+		}
+		return length;
+	}
+
+	private void write(String[] resolved, StringBuilder out) {
+		for (int i = 0; i < resolved.length; i++) {
+			out.append(fragments[i]).append(resolved[i]);
+		}
+		out.append(fragments[resolved.length]);
+	}
+}
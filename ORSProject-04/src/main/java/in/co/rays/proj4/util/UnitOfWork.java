@@ -0,0 +1,271 @@
+package in.co.rays.proj4.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+
+/**
+ * UnitOfWork binds one JDBC connection and one transaction to the current
+ * thread (and so to the current request) so that nested model calls share
+ * them instead of each checking out its own pooled connection.
+ * <p>
+ * While a unit of work is open, {@link JDBCDataSource#getConnection()}
+ * returns the bound connection wrapped so that the model code keeps working
+ * unchanged:
+ * <ul>
+ *   <li><code>close()</code> is deferred until the outermost scope ends</li>
+ *   <li><code>setAutoCommit()</code> and <code>commit()</code> are ignored,
+ *       the outermost {@link #commit()} commits</li>
+ *   <li><code>rollback()</code> marks the unit of work rollback-only</li>
+ * </ul>
+ * Scopes nest; only the outermost scope commits or rolls back. A nested
+ * scope that ends without calling {@link #commit()} marks the whole unit of
+ * work rollback-only. Actions registered with {@link #afterCommit(Runnable)}
+ * run once the outermost scope has committed and are dropped on rollback;
+ * actions registered with {@link #afterCompletion(Runnable)} run when the
+ * outermost scope ends either way.
+ *
+ * Example:
+ * <pre>
+ *   UnitOfWork uow = UnitOfWork.begin();
+ *   try {
+ *       // model calls
+ *       uow.commit();
+ *   } finally {
+ *       uow.end();
+ *   }
+ * </pre>
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public final class UnitOfWork {
+
+	private static Logger log = Logger.getLogger(UnitOfWork.class);
+
+	private static final ThreadLocal<UnitOfWork> current = new ThreadLocal<>();
+
+	private final Connection conn;
+
+	private final Connection scoped;
+
+	private int depth = 0;
+
+	private int committedDepth = 0;
+
+	private boolean rollbackOnly = false;
+
+	private final List<Runnable> afterCommit = new ArrayList<>();
+
+	private final List<Runnable> afterCompletion = new ArrayList<>();
+
+	private UnitOfWork(Connection conn) {
+		this.conn = conn;
+		this.scoped = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new ScopedConnection());
+	}
+
+	/**
+	 * Opens a scope on the unit of work of the current thread, starting a new
+	 * one with a fresh pooled connection if none is open.
+	 *
+	 * @return the unit of work of the current thread
+	 * @throws ApplicationException if no connection could be obtained
+	 */
+	public static UnitOfWork begin() throws ApplicationException {
+
+		UnitOfWork uow = current.get();
+
+		if (uow == null) {
+			Connection conn = JDBCDataSource.getNewConnection();
+			if (conn == null) {
+				throw new ApplicationException("Exception : Unable to get connection for unit of work");
+			}
+			try {
+				conn.setAutoCommit(false);
+			} catch (SQLException e) {
+				JDBCDataSource.closeConnection(conn);
+				throw new ApplicationException("Exception : Unable to begin unit of work", e);
+			}
+			uow = new UnitOfWork(conn);
+			current.set(uow);
+			log.debug("Unit of work started");
+		}
+
+		uow.depth++;
+		return uow;
+	}
+
+	/**
+	 * Returns the connection bound to the current thread, or null if no unit
+	 * of work is open.
+	 *
+	 * @return bound connection or null
+	 */
+	static Connection getConnection() {
+		UnitOfWork uow = current.get();
+		return (uow == null) ? null : uow.scoped;
+	}
+
+	/**
+	 * Returns the unit of work of the current thread, or null if none is
+	 * open, e.g. to register an action without opening a scope.
+	 *
+	 * @return current unit of work or null
+	 */
+	public static UnitOfWork current() {
+		return current.get();
+	}
+
+	/**
+	 * Returns true if the current thread has an open unit of work.
+	 *
+	 * @return true if a unit of work is open
+	 */
+	public static boolean isActive() {
+		return current.get() != null;
+	}
+
+	/**
+	 * Marks the current scope as successful. The outermost scope commits the
+	 * transaction.
+	 *
+	 * @throws ApplicationException if the unit of work is rollback-only or
+	 *                              the commit fails
+	 */
+	public void commit() throws ApplicationException {
+
+		if (rollbackOnly) {
+			throw new ApplicationException("Exception : Unit of work is marked rollback only");
+		}
+
+		if (depth == 1) {
+			try {
+				conn.commit();
+				log.debug("Unit of work committed");
+			} catch (SQLException e) {
+				rollbackOnly = true;
+				throw new ApplicationException("Exception : Unit of work commit exception " + e.getMessage(), e);
+			}
+			run(afterCommit);
+		}
+		committedDepth = depth;
+	}
+
+	/**
+	 * Registers an action to run after the outermost scope commits, e.g. to
+	 * update an in-memory copy of the data written. The action is dropped if
+	 * the unit of work rolls back.
+	 *
+	 * @param action action to run after commit
+	 */
+	public void afterCommit(Runnable action) {
+		afterCommit.add(action);
+	}
+
+	/**
+	 * Registers an action to run when the outermost scope ends, after the
+	 * commit or rollback, e.g. to drop cached copies of the data written.
+	 *
+	 * @param action action to run on completion
+	 */
+	public void afterCompletion(Runnable action) {
+		afterCompletion.add(action);
+	}
+
+	/**
+	 * Runs and clears the given actions. A failing action is logged and does
+	 * not affect the others or the transaction.
+	 */
+	private static void run(List<Runnable> actions) {
+
+		for (Runnable action : actions) {
+			try {
+				action.run();
+			} catch (RuntimeException e) {
+				log.error("Exception in unit of work action", e);
+			}
+		}
+		actions.clear();
+	}
+
+	/**
+	 * Closes the current scope. The outermost scope rolls back if it was not
+	 * committed and returns the connection to the pool.
+	 */
+	public void end() {
+
+		if (committedDepth < depth) {
+			rollbackOnly = true;
+		}
+		committedDepth = 0;
+		depth--;
+
+		if (depth > 0) {
+			return;
+		}
+
+		current.remove();
+
+		try {
+			if (rollbackOnly) {
+				conn.rollback();
+				log.debug("Unit of work rolled back");
+			}
+			conn.setAutoCommit(true);
+		} catch (SQLException e) {
+			log.error("Exception in end()", e);
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+			run(afterCompletion);
+		}
+	}
+
+	/**
+	 * Connection handler that defers transaction control to the unit of work.
+	 */
+	private final class ScopedConnection implements InvocationHandler {
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			switch (method.getName()) {
+			case "close":
+			case "commit":
+			case "setAutoCommit":
+				return null;
+			case "rollback":
+				if (args == null) {
+					rollbackOnly = true;
+					return null;
+				}
+				break;
+			case "getAutoCommit":
+				return Boolean.FALSE;
+			case "isClosed":
+				return conn.isClosed();
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				break;
+			}
+
+			try {
+				return method.invoke(conn, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
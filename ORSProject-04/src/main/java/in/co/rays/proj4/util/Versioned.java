@@ -0,0 +1,29 @@
+package in.co.rays.proj4.util;
+
+/**
+ * Versioned is implemented by shared data whose content only changes
+ * together with its version, such as the dropdown options of
+ * {@link in.co.rays.proj4.model.DropdownCache}. Whatever is built from it
+ * can be kept until the version changes, see
+ * {@link HTMLUtility#getList(String, String, java.util.List)}.
+ *
+ * @author Deepak Verma
+ * @version 1.0
+ */
+public interface Versioned {
+
+	/**
+	 * Returns the name of the data, the same for all its versions.
+	 *
+	 * @return source name
+	 */
+	String getSource();
+
+	/**
+	 * Returns the version of the content, or a negative number if the
+	 * content must not be cached.
+	 *
+	 * @return content version
+	 */
+	long getVersion();
+}
@@ -45,8 +45,7 @@
 				int pageNo = ServletUtility.getPageNo(request);
 				int pageSize = ServletUtility.getPageSize(request);
 				int index = ((pageNo - 1) * pageSize) + 1;
-				int nextListSize =
-						DataUtility.getInt(request.getAttribute("nextListSize").toString());
+				boolean hasNext = ServletUtility.hasNextPage(request);
 
 				HashMap<String, String> map =
 						(HashMap<String, String>) request.getAttribute("map");
@@ -90,6 +89,10 @@
 						&nbsp;
 						<input type="submit" name="operation"
 							value="<%=AccountListCtl.OP_RESET%>">
+							&nbsp;
+							<input type="submit" name="operation" value="<%=AccountListCtl.OP_EXPORT_CSV%>">
+							&nbsp;
+							<input type="submit" name="operation" value="<%=AccountListCtl.OP_EXPORT_JSON%>">
 
 					</td>
 				</tr>
@@ -159,7 +162,7 @@
 					<td align="right" style="width: 25%">
 						<input type="submit" name="operation"
 							value="<%=AccountListCtl.OP_NEXT%>"
-							<%=nextListSize != 0 ? "" : "disabled"%>>
+							<%=hasNext ? "" : "disabled"%>>
 					</td>
 				</tr>
 			</table>
@@ -33,7 +33,7 @@
                 int pageNo = ServletUtility.getPageNo(request);
                 int pageSize = ServletUtility.getPageSize(request);
                 int index = ((pageNo - 1) * pageSize) + 1;
-                int nextPageSize = DataUtility.getInt(request.getAttribute("nextListSize").toString());
+                boolean hasNext = ServletUtility.hasNextPage(request);
 
                 List<CollegeBean> collegeList = (List<CollegeBean>) request.getAttribute("collegeList");
 
@@ -55,6 +55,10 @@
                         <input type="text" name="city" placeholder="Enter College City" value="<%=ServletUtility.getParameter("city", request)%>">&emsp;
                         <input type="submit" name="operation" value="<%=CollegeListCtl.OP_SEARCH%>">&nbsp;
                         <input type="submit" name="operation" value="<%=CollegeListCtl.OP_RESET%>">
+                        &nbsp;
+                        <input type="submit" name="operation" value="<%=CollegeListCtl.OP_EXPORT_CSV%>">
+                        &nbsp;
+                        <input type="submit" name="operation" value="<%=CollegeListCtl.OP_EXPORT_JSON%>">
                     </td>
                 </tr>
             </table>
@@ -105,7 +109,7 @@
                         <input type="submit" name="operation" value="<%=CollegeListCtl.OP_DELETE%>">
                     </td>
                     <td style="width: 25%" align="right">
-                        <input type="submit" name="operation" value="<%=CollegeListCtl.OP_NEXT%>" <%= (nextPageSize != 0) ? "" : "disabled" %>>
+                        <input type="submit" name="operation" value="<%=CollegeListCtl.OP_NEXT%>" <%= hasNext ? "" : "disabled" %>>
                     </td>
                 </tr>
             </table>
@@ -34,7 +34,7 @@
                 int pageNo = ServletUtility.getPageNo(request);
                 int pageSize = ServletUtility.getPageSize(request);
                 int index = ((pageNo - 1) * pageSize) + 1;
-                int nextPageSize = DataUtility.getInt(request.getAttribute("nextListSize").toString());
+                boolean hasNext = ServletUtility.hasNextPage(request);
 
                 @SuppressWarnings("unchecked")
                 List<CourseBean> courseList = (List<CourseBean>) request.getAttribute("courseList");
@@ -57,6 +57,10 @@
                         &emsp;&nbsp;
                         <input type="submit" name="operation" value="<%=CourseListCtl.OP_SEARCH%>">&nbsp;
                         <input type="submit" name="operation" value="<%=CourseListCtl.OP_RESET%>">
+                        &nbsp;
+                        <input type="submit" name="operation" value="<%=CourseListCtl.OP_EXPORT_CSV%>">
+                        &nbsp;
+                        <input type="submit" name="operation" value="<%=CourseListCtl.OP_EXPORT_JSON%>">
                     </td>
                 </tr>
             </table>
@@ -105,7 +109,7 @@
                         <input type="submit" name="operation" value="<%=CourseListCtl.OP_DELETE%>">
                     </td>
                     <td style="width: 25%" align="right">
-                        <input type="submit" name="operation" value="<%=CourseListCtl.OP_NEXT%>" <%=nextPageSize != 0 ? "" : "disabled"%>>
+                        <input type="submit" name="operation" value="<%=CourseListCtl.OP_NEXT%>" <%=hasNext ? "" : "disabled"%>>
                     </td>
                 </tr>
             </table>
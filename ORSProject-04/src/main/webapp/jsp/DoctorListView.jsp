@@ -42,8 +42,7 @@
 				int pageSize = ServletUtility.getPageSize(request);
 				int index = ((pageNo - 1) * pageSize) + 1;
 
-				Object n = request.getAttribute("nextListSize");
-				int nextListSize = (n != null) ? DataUtility.getInt(n.toString()) : 0;
+				boolean hasNext = ServletUtility.hasNextPage(request);
 
 				HashMap<String,String> expertiseMap = (HashMap<String,String>) request.getAttribute("expertiseMap");
 				List<DoctorBean> list = (List<DoctorBean>) ServletUtility.getList(request);
@@ -72,6 +71,10 @@
                         
 						<input type="submit" name="operation" value="<%=DoctorListCtl.OP_SEARCH%>"> &nbsp; 
 						<input type="submit" name="operation" value="<%=DoctorListCtl.OP_RESET%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=DoctorListCtl.OP_EXPORT_CSV%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=DoctorListCtl.OP_EXPORT_JSON%>">
 					</td>
 				</tr>
 			</table>
@@ -130,7 +133,7 @@
 
 					<td style="width: 25%" align="right">
 						<input type="submit" name="operation" value="<%=DoctorListCtl.OP_NEXT%>"
-						<%=nextListSize != 0 ? "" : "disabled"%>>
+						<%=hasNext ? "" : "disabled"%>>
 					</td>
 				</tr>
 			</table>
@@ -30,7 +30,7 @@
 				int pageNo = ServletUtility.getPageNo(request);
 				int pageSize = ServletUtility.getPageSize(request);
 				int index = ((pageNo - 1) * pageSize) + 1;
-				int nextPageSize = DataUtility.getInt(request.getAttribute("nextListSize").toString());
+				boolean hasNext = ServletUtility.hasNextPage(request);
 
 				List<FacultyBean> list = (List<FacultyBean>) ServletUtility.getList(request);
 				Iterator<FacultyBean> it = list.iterator();
@@ -52,6 +52,10 @@
 						<input type="text" name="email" placeholder="Enter Email Id" value="<%=ServletUtility.getParameter("email", request)%>">&emsp;
 						<input type="submit" name="operation" value="<%=FacultyListCtl.OP_SEARCH%>">&nbsp;
 						<input type="submit" name="operation" value="<%=FacultyListCtl.OP_RESET%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=FacultyListCtl.OP_EXPORT_CSV%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=FacultyListCtl.OP_EXPORT_JSON%>">
 					</td>
 				</tr>
 			</table>
@@ -105,7 +109,7 @@
 					<td style="width: 25%"><input type="submit" name="operation" value="<%=FacultyListCtl.OP_PREVIOUS%>" <%=pageNo > 1 ? "" : "disabled"%>></td>
 					<td align="center" style="width: 25%"><input type="submit" name="operation" value="<%=FacultyListCtl.OP_NEW%>"></td>
 					<td align="center" style="width: 25%"><input type="submit" name="operation" value="<%=FacultyListCtl.OP_DELETE%>"></td>
-					<td style="width: 25%" align="right"><input type="submit" name="operation" value="<%=FacultyListCtl.OP_NEXT%>" <%=nextPageSize != 0 ? "" : "disabled"%>></td>
+					<td style="width: 25%" align="right"><input type="submit" name="operation" value="<%=FacultyListCtl.OP_NEXT%>" <%=hasNext ? "" : "disabled"%>></td>
 				</tr>
 			</table>
 
@@ -52,6 +52,7 @@
                 int maths = DataUtility.getInt(DataUtility.getStringData(bean.getMaths()));
 
                 int total = physics + chemistry + maths;
+                int rank = DataUtility.getInt(DataUtility.getStringData(request.getAttribute("rank")));
                 float percentage = (float) total / 3;
                 percentage = Float.parseFloat(new DecimalFormat("##.##").format(percentage));
 
@@ -169,10 +170,11 @@
 
             <table border="1" style="border: groove; width: 35%">
                 <tr style="background-color: #e6e6e485;">
-                    <th align="center" style="width: 25%">Total Marks</th>
-                    <th align="center" style="width: 25%">Percentage (%)</th>
-                    <th align="center" style="width: 25%">Division</th>
-                    <th align="center" style="width: 25%">Result</th>
+                    <th align="center" style="width: 20%">Total Marks</th>
+                    <th align="center" style="width: 20%">Percentage (%)</th>
+                    <th align="center" style="width: 20%">Division</th>
+                    <th align="center" style="width: 20%">Result</th>
+                    <th align="center" style="width: 20%">Merit Rank</th>
                 </tr>
 
                 <tr>
@@ -202,6 +204,7 @@
                             }
                         %>
                     </th>
+                    <th align="center"><%=(rank > 0) ? String.valueOf(rank) : "-"%></th>
                 </tr>
             </table>
             <%
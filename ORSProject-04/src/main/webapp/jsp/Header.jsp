@@ -87,6 +87,7 @@
 
 	<a href="<%=ORSView.MARKSHEET_CTL%>"><b>Add Marksheet</b></a> |
 	<a href="<%=ORSView.MARKSHEET_LIST_CTL%>"><b>Marksheet List</b></a> |
+	<a href="<%=ORSView.MARKSHEET_IMPORT_CTL%>"><b>Import Marksheets</b></a> |
 
 	<a href="<%=ORSView.COURSE_CTL%>"><b>Add Course</b></a> |
 	<a href="<%=ORSView.COURSE_LIST_CTL%>"><b>Course List</b></a> |
@@ -0,0 +1,82 @@
+<%@page import="in.co.rays.proj4.controller.ORSView"%>
+<%@page import="in.co.rays.proj4.controller.MarksheetImportCtl"%>
+<%@page import="in.co.rays.proj4.model.ImportResult"%>
+<%@page import="in.co.rays.proj4.util.ServletUtility"%>
+<html>
+<head>
+    <title>Import Marksheets</title>
+    <link rel="icon" type="image/png" href="<%=ORSView.APP_CONTEXT%>/img/logo.png" sizes="16x16"/>
+</head>
+<body>
+     <%@ include file="Header.jsp"%>
+    <div align="center">
+        <form action="<%=ORSView.MARKSHEET_IMPORT_CTL%>" method="post" enctype="multipart/form-data">
+
+            <%
+                ImportResult result = (ImportResult) request.getAttribute("importResult");
+            %>
+
+            <h1 align="center" style="margin-bottom: -15; color: navy">Import Marksheets</h1>
+
+            <div style="height: 15px; margin-bottom: 12px">
+                <H3>
+                    <font color="red"><%=ServletUtility.getErrorMessage(request)%></font>
+                </H3>
+                <H3>
+                    <font color="green"><%=ServletUtility.getSuccessMessage(request)%></font>
+                </H3>
+            </div>
+
+            <table>
+                <tr>
+                    <th align="left">CSV File<span style="color: red">*</span></th>
+                    <td><input type="file" name="file" accept=".csv,text/csv"></td>
+                    <td style="position: fixed;">
+                        <font color="red"><%=ServletUtility.getErrorMessage("file", request)%></font>
+                    </td>
+                </tr>
+                <tr>
+                    <th></th>
+                    <td colspan="2"><i>One marksheet per line: rollNo,studentId,physics,chemistry,maths</i></td>
+                </tr>
+                <tr>
+                    <th></th>
+                    <td align="left" colspan="2">
+                        <input type="submit" name="operation" value="<%=MarksheetImportCtl.OP_UPLOAD%>">
+                        <input type="submit" name="operation" value="<%=MarksheetImportCtl.OP_CANCEL%>">
+                    </td>
+                </tr>
+            </table>
+
+            <%
+                if (result != null && result.getRejected() > 0) {
+            %>
+            <table border="1" style="margin-top: 15px">
+                <tr style="background-color: #e1e6f1e3;">
+                    <th>Rejected Rows</th>
+                </tr>
+                <%
+                    for (String error : result.getErrors()) {
+                %>
+                <tr>
+                    <td><%=error%></td>
+                </tr>
+                <%
+                    }
+                    if (result.getRejected() > result.getErrors().size()) {
+                %>
+                <tr>
+                    <td>... and <%=result.getRejected() - result.getErrors().size()%> more</td>
+                </tr>
+                <%
+                    }
+                %>
+            </table>
+            <%
+                }
+            %>
+        </form>
+    </div>
+    <%@ include file="Footer.jsp"%>
+</body>
+</html>
@@ -31,7 +31,7 @@
                 int pageNo = ServletUtility.getPageNo(request);
                 int pageSize = ServletUtility.getPageSize(request);
                 int index = ((pageNo - 1) * pageSize) + 1;
-                int nextListSize = DataUtility.getInt(request.getAttribute("nextListSize").toString());
+                boolean hasNext = ServletUtility.hasNextPage(request);
 
                 List<MarksheetBean> list = (List<MarksheetBean>) ServletUtility.getList(request);
                 Iterator<MarksheetBean> it = list.iterator();
@@ -41,6 +41,8 @@
 
             <input type="hidden" name="pageNo" value="<%=pageNo%>">
             <input type="hidden" name="pageSize" value="<%=pageSize%>">
+            <input type="hidden" name="firstCursor" value="<%=ServletUtility.getFirstCursor(request)%>">
+            <input type="hidden" name="lastCursor" value="<%=ServletUtility.getLastCursor(request)%>">
 
             <table style="width: 100%">
                 <tr>
@@ -54,6 +56,10 @@
                         <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_SEARCH%>">
                         &nbsp;
                         <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_RESET%>">
+                        &nbsp;
+                        <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_EXPORT_CSV%>">
+                        &nbsp;
+                        <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_EXPORT_JSON%>">
                     </td>
                 </tr>
             </table>
@@ -107,7 +113,7 @@
             <table style="width: 100%">
                 <tr>
                     <td style="width: 25%">
-                        <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_PREVIOUS%>" <%=pageNo > 1 ? "" : "disabled"%>>
+                        <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_PREVIOUS%>" <%=ServletUtility.hasPreviousPage(request) ? "" : "disabled"%>>
                     </td>
                     <td align="center" style="width: 25%">
                         <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_NEW%>">
@@ -116,7 +122,7 @@
                         <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_DELETE%>">
                     </td>
                     <td style="width: 25%" align="right">
-                        <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_NEXT%>" <%=nextListSize != 0 ? "" : "disabled"%>>
+                        <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_NEXT%>" <%=hasNext ? "" : "disabled"%>>
                     </td>
                 </tr>
             </table>
@@ -78,11 +78,17 @@
             <%
                 }
             %>
-            <table>
+            <table style="width: 100%">
                 <tr>
-                    <td align="right">
+                    <td style="width: 33%">
+                        <input type="submit" name="operation" value="<%=MarksheetMeritListCtl.OP_PREVIOUS%>" <%=pageNo > 1 ? "" : "disabled"%>>
+                    </td>
+                    <td align="center" style="width: 34%">
                         <input type="submit" name="operation" value="<%=MarksheetMeritListCtl.OP_BACK%>">
                     </td>
+                    <td align="right" style="width: 33%">
+                        <input type="submit" name="operation" value="<%=MarksheetMeritListCtl.OP_NEXT%>" <%=ServletUtility.hasNextPage(request) ? "" : "disabled"%>>
+                    </td>
                 </tr>
             </table>
             <input type="hidden" name="pageNo" value="<%=pageNo%>">
@@ -45,7 +45,7 @@
 				int pageNo = ServletUtility.getPageNo(request);
 				int pageSize = ServletUtility.getPageSize(request);
 				int index = ((pageNo - 1) * pageSize) + 1;
-				int nextListSize = DataUtility.getInt(request.getAttribute("nextListSize").toString());
+				boolean hasNext = ServletUtility.hasNextPage(request);
 
 				HashMap<String,String> diseaseMap = (HashMap<String,String>) request.getAttribute("diseaseMap");
 				List<PatientBean> list = (List<PatientBean>) ServletUtility.getList(request);
@@ -71,7 +71,11 @@
 
                         
 						<input type="submit" name="operation" value="<%=PatientListCtl.OP_SEARCH%>"> &nbsp; 
-						<input type="submit" name="operation" value="<%=PatientListCtl.OP_RESET%>"></td>
+						<input type="submit" name="operation" value="<%=PatientListCtl.OP_RESET%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=PatientListCtl.OP_EXPORT_CSV%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=PatientListCtl.OP_EXPORT_JSON%>"></td>
 				</tr>
 			</table>
 			<br>
@@ -123,7 +127,7 @@
 					
 					<td align="center" style="width: 25%"><input type="submit" name="operation" value="<%=PatientListCtl.OP_DELETE%>"></td>
 					<td style="width: 25%" align="right"><input type="submit" name="operation" value="<%=PatientListCtl.OP_NEXT%>"
-						<%=nextListSize != 0 ? "" : "disabled"%>>
+						<%=hasNext ? "" : "disabled"%>>
 					</td>
 				</tr>
 			</table>
@@ -39,7 +39,7 @@
 				int pageNo = ServletUtility.getPageNo(request);
 				int pageSize = ServletUtility.getPageSize(request);
 				int index = ((pageNo - 1) * pageSize) + 1;
-				int nextListSize = DataUtility.getInt(request.getAttribute("nextListSize").toString());
+				boolean hasNext = ServletUtility.hasNextPage(request);
 
 				List<RoleBean> roleList = (List<RoleBean>) request.getAttribute("roleList");
 
@@ -57,6 +57,10 @@
 						&nbsp; <input type="submit" name="operation"
 						value="<%=RoleListCtl.OP_SEARCH%>">&nbsp; <input
 						type="submit" name="operation" value="<%=RoleListCtl.OP_RESET%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=RoleListCtl.OP_EXPORT_CSV%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=RoleListCtl.OP_EXPORT_JSON%>">
 					</td>
 				</tr>
 			</table>
@@ -100,7 +104,7 @@
 						name="operation" value="<%=RoleListCtl.OP_DELETE%>"></td>
 					<td style="width: 25%" align="right"><input type="submit"
 						name="operation" value="<%=RoleListCtl.OP_NEXT%>"
-						<%=nextListSize != 0 ? "" : "disabled"%>></td>
+						<%=hasNext ? "" : "disabled"%>></td>
 				</tr>
 			</table>
 
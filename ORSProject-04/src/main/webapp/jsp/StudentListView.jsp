@@ -30,7 +30,7 @@
                 int pageNo = ServletUtility.getPageNo(request);
                 int pageSize = ServletUtility.getPageSize(request);
                 int index = ((pageNo - 1) * pageSize) + 1;
-                int nextPageSize = DataUtility.getInt(request.getAttribute("nextListSize").toString());
+                boolean hasNext = ServletUtility.hasNextPage(request);
 
                 @SuppressWarnings("unchecked")
                 List<StudentBean> list = (List<StudentBean>) ServletUtility.getList(request);
@@ -41,6 +41,8 @@
 
             <input type="hidden" name="pageNo" value="<%=pageNo%>">
             <input type="hidden" name="pageSize" value="<%=pageSize%>">
+            <input type="hidden" name="firstCursor" value="<%=ServletUtility.getFirstCursor(request)%>">
+            <input type="hidden" name="lastCursor" value="<%=ServletUtility.getLastCursor(request)%>">
 
             <table style="width: 100%">
                 <tr>
@@ -56,6 +58,10 @@
                                value="<%=ServletUtility.getParameter("email", request)%>">&emsp;
                         <input type="submit" name="operation" value="<%=StudentListCtl.OP_SEARCH%>">&nbsp;
                         <input type="submit" name="operation" value="<%=StudentListCtl.OP_RESET%>">
+                        &nbsp;
+                        <input type="submit" name="operation" value="<%=StudentListCtl.OP_EXPORT_CSV%>">
+                        &nbsp;
+                        <input type="submit" name="operation" value="<%=StudentListCtl.OP_EXPORT_JSON%>">
                     </td>
                 </tr>
             </table>
@@ -103,7 +109,7 @@
             <table style="width: 100%">
                 <tr>
                     <td style="width: 25%">
-                        <input type="submit" name="operation" value="<%=StudentListCtl.OP_PREVIOUS%>" <%=pageNo > 1 ? "" : "disabled"%>>
+                        <input type="submit" name="operation" value="<%=StudentListCtl.OP_PREVIOUS%>" <%=ServletUtility.hasPreviousPage(request) ? "" : "disabled"%>>
                     </td>
                     <td align="center" style="width: 25%">
                         <input type="submit" name="operation" value="<%=StudentListCtl.OP_NEW%>">
@@ -112,7 +118,7 @@
                         <input type="submit" name="operation" value="<%=StudentListCtl.OP_DELETE%>">
                     </td>
                     <td style="width: 25%" align="right">
-                        <input type="submit" name="operation" value="<%=StudentListCtl.OP_NEXT%>" <%= (nextPageSize != 0) ? "" : "disabled"%>>
+                        <input type="submit" name="operation" value="<%=StudentListCtl.OP_NEXT%>" <%= hasNext ? "" : "disabled"%>>
                     </td>
                 </tr>
             </table>
@@ -34,7 +34,7 @@
                 int pageNo = ServletUtility.getPageNo(request);
                 int pageSize = ServletUtility.getPageSize(request);
                 int index = ((pageNo - 1) * pageSize) + 1;
-                int nextPageSize = DataUtility.getInt(request.getAttribute("nextListSize").toString());
+                boolean hasNext = ServletUtility.hasNextPage(request);
 
                 List<SubjectBean> courseList = (List<SubjectBean>) request.getAttribute("courseList");
                 List<SubjectBean> subjectList = (List<SubjectBean>) request.getAttribute("subjectList");
@@ -57,6 +57,10 @@
                         <%=HTMLUtility.getList("courseId", String.valueOf(bean.getCourseId()), courseList)%>&emsp;
                         <input type="submit" name="operation" value="<%=SubjectListCtl.OP_SEARCH%>">&nbsp;
                         <input type="submit" name="operation" value="<%=SubjectListCtl.OP_RESET%>">
+                        &nbsp;
+                        <input type="submit" name="operation" value="<%=SubjectListCtl.OP_EXPORT_CSV%>">
+                        &nbsp;
+                        <input type="submit" name="operation" value="<%=SubjectListCtl.OP_EXPORT_JSON%>">
                     </td>
                 </tr>
             </table>
@@ -105,7 +109,7 @@
                         <input type="submit" name="operation" value="<%=SubjectListCtl.OP_DELETE%>">
                     </td>
                     <td style="width: 25%" align="right">
-                        <input type="submit" name="operation" value="<%=SubjectListCtl.OP_NEXT%>" <%=nextPageSize != 0 ? "" : "disabled"%>>
+                        <input type="submit" name="operation" value="<%=SubjectListCtl.OP_NEXT%>" <%=hasNext ? "" : "disabled"%>>
                     </td>
                 </tr>
             </table>
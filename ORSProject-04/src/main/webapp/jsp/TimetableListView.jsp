@@ -37,7 +37,7 @@
 				int pageNo = ServletUtility.getPageNo(request);
 				int pageSize = ServletUtility.getPageSize(request);
 				int index = ((pageNo - 1) * pageSize) + 1;
-				int nextPageSize = DataUtility.getInt(request.getAttribute("nextListSize").toString());
+				boolean hasNext = ServletUtility.hasNextPage(request);
 
 				List<TimetableBean> courseList = (List<TimetableBean>) request.getAttribute("courseList");
 				List<TimetableBean> subjectList = (List<TimetableBean>) request.getAttribute("subjectList");
@@ -60,7 +60,11 @@
 				</label>&emsp; <input type="submit" name="operation"
 					value="<%=TimetableListCtl.OP_SEARCH%>">&nbsp; <input
 						type="submit" name="operation"
-						value="<%=TimetableListCtl.OP_RESET%>"></td>
+						value="<%=TimetableListCtl.OP_RESET%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=TimetableListCtl.OP_EXPORT_CSV%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=TimetableListCtl.OP_EXPORT_JSON%>"></td>
 				</tr>
 			</table>
 			<br>
@@ -115,7 +119,7 @@
 						name="operation" value="<%=TimetableListCtl.OP_DELETE%>"></td>
 					<td style="width: 25%" align="right"><input type="submit"
 						name="operation" value="<%=TimetableListCtl.OP_NEXT%>"
-						<%=(nextPageSize != 0) ? "" : "disabled"%>></td>
+						<%=hasNext ? "" : "disabled"%>></td>
 
 				</tr>
 
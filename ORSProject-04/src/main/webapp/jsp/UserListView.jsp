@@ -42,7 +42,7 @@
 				int pageNo = ServletUtility.getPageNo(request);
 				int pageSize = ServletUtility.getPageSize(request);
 				int index = ((pageNo - 1) * pageSize) + 1;
-				int nextListSize = DataUtility.getInt(request.getAttribute("nextListSize").toString());
+				boolean hasNext = ServletUtility.hasNextPage(request);
 
 				List<RoleBean> roleList = (List<RoleBean>) request.getAttribute("roleList");
 				List<UserBean> list = (List<UserBean>) ServletUtility.getList(request);
@@ -53,6 +53,8 @@
 
 			<input type="hidden" name="pageNo" value="<%=pageNo%>"> <input
 				type="hidden" name="pageSize" value="<%=pageSize%>">
+			<input type="hidden" name="firstCursor" value="<%=ServletUtility.getFirstCursor(request)%>">
+			<input type="hidden" name="lastCursor" value="<%=ServletUtility.getLastCursor(request)%>">
 
 			<table style="width: 100%">
 				<tr>
@@ -71,6 +73,10 @@
 						<input type="submit" name="operation"
 						value="<%=UserListCtl.OP_SEARCH%>"> &nbsp; <input
 						type="submit" name="operation" value="<%=UserListCtl.OP_RESET%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=UserListCtl.OP_EXPORT_CSV%>">
+						&nbsp;
+						<input type="submit" name="operation" value="<%=UserListCtl.OP_EXPORT_JSON%>">
 					</td>
 				</tr>
 			</table>
@@ -131,14 +137,14 @@
 				<tr>
 					<td style="width: 25%"><input type="submit" name="operation"
 						value="<%=UserListCtl.OP_PREVIOUS%>"
-						<%=pageNo > 1 ? "" : "disabled"%>></td>
+						<%=ServletUtility.hasPreviousPage(request) ? "" : "disabled"%>></td>
 					<td align="center" style="width: 25%"><input type="submit"
 						name="operation" value="<%=UserListCtl.OP_NEW%>"></td>
 					<td align="center" style="width: 25%"><input type="submit"
 						name="operation" value="<%=UserListCtl.OP_DELETE%>"></td>
 					<td style="width: 25%" align="right"><input type="submit"
 						name="operation" value="<%=UserListCtl.OP_NEXT%>"
-						<%=nextListSize != 0 ? "" : "disabled"%>></td>
+						<%=hasNext ? "" : "disabled"%>></td>
 				</tr>
 			</table>
 